@@ -1,8 +1,17 @@
 package uk.ac.ebi.eva.contigalias.conf;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
+import uk.ac.ebi.eva.contigalias.dus.ENABrowser;
+import uk.ac.ebi.eva.contigalias.dus.ENABrowserFactory;
+import uk.ac.ebi.eva.contigalias.dus.FtpConnectionLimiter;
+import uk.ac.ebi.eva.contigalias.dus.FtpSessionPool;
+import uk.ac.ebi.eva.contigalias.dus.NCBIBrowser;
+import uk.ac.ebi.eva.contigalias.dus.NCBIBrowserFactory;
+
+import java.time.Duration;
 
 @Configuration
 public class ContigAliasConfiguration {
@@ -11,4 +20,26 @@ public class ContigAliasConfiguration {
     public RestTemplate getRestTemplate() {
         return new RestTemplate();
     }
+
+    @Bean
+    public FtpSessionPool<NCBIBrowser> ncbiSessionPool(NCBIBrowserFactory factory,
+                                                       FtpConnectionLimiter connectionLimiter,
+                                                       @Value("${config.ftp.pool.max-idle:300000}") long maxIdle) {
+        return new FtpSessionPool<>(NCBIBrowser.NCBI_FTP_SERVER, () -> {
+            NCBIBrowser ncbiBrowser = factory.build();
+            ncbiBrowser.connect();
+            return ncbiBrowser;
+        }, connectionLimiter, Duration.ofMillis(maxIdle));
+    }
+
+    @Bean
+    public FtpSessionPool<ENABrowser> enaSessionPool(ENABrowserFactory factory,
+                                                     FtpConnectionLimiter connectionLimiter,
+                                                     @Value("${config.ftp.pool.max-idle:300000}") long maxIdle) {
+        return new FtpSessionPool<>(ENABrowser.EBI_FTP_SERVER, () -> {
+            ENABrowser enaBrowser = factory.build();
+            enaBrowser.connect();
+            return enaBrowser;
+        }, connectionLimiter, Duration.ofMillis(maxIdle));
+    }
 }
@@ -40,6 +40,21 @@ public class BaseController {
             + " the data. Page size should be greater than 0 and if not specified then default page size is 10 " +
             "results per page.";
 
+    public static final String PAGE_PARAM = "page";
+
+    public static final String CURSOR_PARAM = "cursor";
+
+    public static final String CURSOR_DESCRIPTION = "You can provide a cursor instead of a page number to page " +
+            "through the results by key rather than by offset, which stays fast however deep the page is. Pass an " +
+            "empty cursor to get the first page, then follow the \"next\" link of each response (absent on the last " +
+            "page). Pages requested with a cursor have no page metadata.";
+
+    public static final String COUNT_PARAM = "count";
+
+    public static final String COUNT_DESCRIPTION = "Set to false to skip counting the results, which saves a " +
+            "database query per request. The page then has no page metadata (total number of results and of pages), " +
+            "only \"prev\" and \"next\" links, the latter being absent on the last page.";
+
     public static final PageRequest DEFAULT_PAGE_REQUEST = PageRequest.of(DEFAULT_PAGE_NUMBER, DEFAULT_PAGE_SIZE);
 
     public static final String REL_CHROMOSOMES = "chromosomes";
@@ -65,6 +80,21 @@ public class BaseController {
         }
     }
 
+    /**
+     * @param size Page size, which must have been checked with {@link #paramsValidForPagedQuery(Integer, Integer)}.
+     * @return The number of results per page of a listing paged with a cursor, see {@link #CURSOR_DESCRIPTION}.
+     */
+    public static int getCursorPageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * @return Whether the results of a listing should be counted, see {@link #COUNT_DESCRIPTION}.
+     */
+    public static boolean shouldCount(Boolean count) {
+        return count == null || count;
+    }
+
     public static <T> ResponseEntity<List<T>> createAppropriateResponseEntity(List<T> entities) {
         if (entities != null && !entities.isEmpty()) {
             return new ResponseEntity<>(entities, HttpStatus.OK);
@@ -87,4 +117,8 @@ public class BaseController {
         return (page == null || page == 0) && (size == null || size > 1);
     }
 
+    public static boolean paramsValidForPagedQuery(Integer page, Integer size) {
+        return (page == null || page >= 0) && (size == null || size > 0);
+    }
+
 }
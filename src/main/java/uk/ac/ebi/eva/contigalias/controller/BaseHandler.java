@@ -18,13 +18,18 @@ package uk.ac.ebi.eva.contigalias.controller;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class BaseHandler {
 
@@ -56,5 +61,54 @@ public class BaseHandler {
         return assembler.toModel(page);
     }
 
+    /**
+     * Wraps one slice of a keyset paginated listing. Such a listing has no page metadata, instead the "next" link
+     * repeats the current request with the cursor of the following slice and is left out on the last slice.
+     *
+     * @param nextCursor Cursor of the following slice, or null if this is the last one.
+     */
+    public static <T> PagedModel<EntityModel<T>> generatePagedModelFromSlice(List<T> content, String nextCursor) {
+        PagedModel<EntityModel<T>> pagedModel = createPagedModelWithoutMetadata(content);
+        if (nextCursor != null) {
+            pagedModel.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                                                              .replaceQueryParam(BaseController.CURSOR_PARAM, nextCursor)
+                                                              .replaceQueryParam(BaseController.PAGE_PARAM)
+                                                              .toUriString(),
+                                   IanaLinkRelations.NEXT));
+        }
+        return pagedModel;
+    }
+
+    /**
+     * Wraps one page of an offset paginated listing whose results were not counted. Such a page has no page metadata,
+     * instead the "prev" and "next" links repeat the current request with the adjacent page numbers, and "next" is
+     * left out on the last page.
+     */
+    public static <T> PagedModel<EntityModel<T>> generatePagedModelFromSlice(Slice<T> slice) {
+        PagedModel<EntityModel<T>> pagedModel = createPagedModelWithoutMetadata(slice.getContent());
+        if (slice.hasPrevious()) {
+            pagedModel.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                                                              .replaceQueryParam(BaseController.PAGE_PARAM,
+                                                                                 slice.getNumber() - 1)
+                                                              .toUriString(),
+                                   IanaLinkRelations.PREV));
+        }
+        if (slice.hasNext()) {
+            pagedModel.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                                                              .replaceQueryParam(BaseController.PAGE_PARAM,
+                                                                                 slice.getNumber() + 1)
+                                                              .toUriString(),
+                                   IanaLinkRelations.NEXT));
+        }
+        return pagedModel;
+    }
+
+    private static <T> PagedModel<EntityModel<T>> createPagedModelWithoutMetadata(List<T> content) {
+        PagedModel<EntityModel<T>> pagedModel = PagedModel.of(
+                content.stream().map(EntityModel::of).collect(Collectors.toList()), (PagedModel.PageMetadata) null);
+        pagedModel.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString(), IanaLinkRelations.SELF));
+        return pagedModel;
+    }
+
 
 }
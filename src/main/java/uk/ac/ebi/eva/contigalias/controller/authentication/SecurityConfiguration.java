@@ -63,7 +63,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
             .antMatchers("/v1/assemblies/**", "/v1/chromosomes/**", "/v1/search/**").permitAll()
             .antMatchers("/info", "/health").permitAll()
             .antMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
-            .antMatchers("/v1/admin/**").hasRole(ROLE_ADMIN)
+            .antMatchers("/v1/admin/**", "/metrics/**", "/prometheus").hasRole(ROLE_ADMIN)
             .anyRequest().denyAll()
             .and().httpBasic().realmName(REALM)
             .authenticationEntryPoint(customBasicAuthenticationEntryPoint)
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.controller.contigalias;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import uk.ac.ebi.eva.contigalias.service.AssemblyChangedEvent;
+import uk.ac.ebi.eva.contigalias.service.AssemblyVersionTracker.AssemblyVersion;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the gzip-compressed bodies of the chromosome lists of assemblies (the
+ * {@link ContigAliasController#getSequencesByAssemblyAccession} endpoints), which are the most requested resources,
+ * and sends them as they are to clients accepting gzip instead of querying the chromosomes and serializing them again.
+ * <p>
+ * Bodies are cached lazily, under the full URL of the request since the links they contain depend on it, and the cache
+ * is bounded by the number of bytes held. Each body is stored with the ETag of the version of its assembly (see
+ * {@link uk.ac.ebi.eva.contigalias.service.AssemblyVersionTracker}) and is only sent while the assembly still has this
+ * version. The bodies of an assembly are also dropped as soon as it changes, whichever of its accessions they were
+ * requested with, so that they don't take up space. The version read here is handed to the controller in the
+ * {@link #ASSEMBLY_VERSION_ATTRIBUTE} request attribute, so that it is only queried once per request.
+ */
+@Component
+public class ChromosomeListResponseCache extends OncePerRequestFilter {
+
+    public static final String CACHE_NAME = "chromosomeListResponses";
+
+    /**
+     * Request attribute holding the {@code Optional<AssemblyVersion>} of the requested assembly once it has been read.
+     */
+    public static final String ASSEMBLY_VERSION_ATTRIBUTE = ChromosomeListResponseCache.class.getName() +
+            ".assemblyVersion";
+
+    private static final Pattern CHROMOSOME_LIST_PATH = Pattern.compile(
+            "/v1/assemblies/(?:(?:genbank|refseq)/)?([^/]+)/chromosomes");
+
+    private static final String GZIP = "gzip";
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    private final ContigAliasHandler handler;
+
+    private final Cache<String, CachedResponse> cache;
+
+    private final boolean enabled;
+
+    public ChromosomeListResponseCache(ContigAliasHandler handler,
+                                       @Value("${config.response-cache.max-bytes:67108864}") long maxBytes,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        this.handler = handler;
+        this.enabled = maxBytes > 0;
+        this.cache = Caffeine.newBuilder()
+                             .maximumWeight(Math.max(maxBytes, 0))
+                             .weigher((String key, CachedResponse value) -> key.length() * 2 + value.body.length)
+                             .recordStats()
+                             .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+    }
+
+    private static class CachedResponse {
+
+        private final AssemblyVersion version;
+
+        private final String contentType;
+
+        private final byte[] body;
+
+        private CachedResponse(AssemblyVersion version, String contentType, byte[] body) {
+            this.version = version;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssemblyChanged(AssemblyChangedEvent event) {
+        cache.asMap().values().removeIf(it -> it.version.isAccessionOfAssembly(event.getAccession()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !HttpMethod.GET.matches(request.getMethod()) ||
+                !CHROMOSOME_LIST_PATH.matcher(urlPathHelper.getPathWithinApplication(request)).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        Matcher matcher = CHROMOSOME_LIST_PATH.matcher(urlPathHelper.getPathWithinApplication(request));
+        if (!matcher.matches() || !acceptsGzip(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Optional<AssemblyVersion> version = handler.getAssemblyVersion(matcher.group(1));
+        request.setAttribute(ASSEMBLY_VERSION_ATTRIBUTE, version);
+        if (!version.isPresent()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String eTag = version.get().getETag();
+
+        String key = request.getQueryString() == null ? request.getRequestURL().toString() :
+                request.getRequestURL() + "?" + request.getQueryString();
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null && cached.version.getETag().equals(eTag)) {
+            if (!new ServletWebRequest(request, response).checkNotModified(eTag,
+                                                                           version.get().getLastModified())) {
+                writeResponse(response, cached);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+        if (responseWrapper.getStatus() != HttpStatus.OK.value() || responseWrapper.getContentType() == null ||
+                request.isAsyncStarted()) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+        cached = new CachedResponse(version.get(), responseWrapper.getContentType(),
+                                    gzip(responseWrapper.getContentAsByteArray()));
+        cache.put(key, cached);
+        responseWrapper.resetBuffer();
+        writeResponse(response, cached);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parameters = coding.split(";");
+                if (parameters[0].trim().equalsIgnoreCase(GZIP)) {
+                    return parameters.length == 1 || !parameters[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+            gzipOutput.write(body);
+        }
+        return output.toByteArray();
+    }
+
+    private static void writeResponse(HttpServletResponse response, CachedResponse cached) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(cached.contentType);
+        response.setHeader(HttpHeaders.ETAG, cached.version.getETag());
+        if (cached.version.getLastModified() >= 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, cached.version.getLastModified());
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        response.setContentLength(cached.body.length);
+        response.getOutputStream().write(cached.body);
+    }
+}
@@ -22,20 +22,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import uk.ac.ebi.eva.contigalias.dto.SequenceDto;
 import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
-import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
+import uk.ac.ebi.eva.contigalias.service.AssemblyVersionTracker.AssemblyVersion;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeAliasIndex.Key;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeService;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.util.Optional;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import static uk.ac.ebi.eva.contigalias.controller.BaseController.COUNT_DESCRIPTION;
+import static uk.ac.ebi.eva.contigalias.controller.BaseController.COUNT_PARAM;
+import static uk.ac.ebi.eva.contigalias.controller.BaseController.CURSOR_DESCRIPTION;
+import static uk.ac.ebi.eva.contigalias.controller.BaseController.CURSOR_PARAM;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.DEFAULT_PAGE_NUMBER;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.DEFAULT_PAGE_SIZE;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.PAGE_NUMBER_DESCRIPTION;
@@ -44,6 +60,9 @@ import static uk.ac.ebi.eva.contigalias.controller.BaseController.REL_ASSEMBLY;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.REL_CHROMOSOMES;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.createAppropriateResponseEntity;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.createPageRequest;
+import static uk.ac.ebi.eva.contigalias.controller.BaseController.getCursorPageSize;
+import static uk.ac.ebi.eva.contigalias.controller.BaseController.shouldCount;
+import static uk.ac.ebi.eva.contigalias.controller.BaseController.paramsValidForPagedQuery;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.paramsValidForSingleResponseQuery;
 
 @RequestMapping("/v1")
@@ -62,11 +81,22 @@ public class ContigAliasController {
 
     public static final String NAME_UCSC_TYPE = "ucsc";
 
+    public static final String EXPORT_FORMAT_NDJSON = "ndjson";
+
+    public static final String EXPORT_FORMAT_TSV = "tsv";
+
+    public static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
+    public static final String MEDIA_TYPE_TSV = "text/tab-separated-values";
+
     private final ContigAliasHandler handler;
 
+    private final RequestCoalescer requestCoalescer;
+
     @Autowired
-    public ContigAliasController(ContigAliasHandler handler) {
+    public ContigAliasController(ContigAliasHandler handler, RequestCoalescer requestCoalescer) {
         this.handler = handler;
+        this.requestCoalescer = requestCoalescer;
     }
 
     public static void linkPagedModelGetSequencesByAssemblyAccession(
@@ -80,7 +110,7 @@ public class ContigAliasController {
         }
         pagedModel.add(linkTo(methodOn(ContigAliasController.class)
                                       .getSequencesByAssemblyAccession(
-                                              accession, authority, pageNumber, pageSize))
+                                              accession, authority, pageNumber, pageSize, null, null, null))
                                .withRel(REL_CHROMOSOMES));
     }
 
@@ -163,8 +193,9 @@ public class ContigAliasController {
             (@PathVariable @Parameter(description ="GenBank accession of the chromosomes.") String genbank,
              @RequestParam(required = false, name = "page") @Parameter(description =PAGE_NUMBER_DESCRIPTION) Integer pageNumber,
              @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize) {
-        if (paramsValidForSingleResponseQuery(pageNumber, pageSize)) {
-            PagedModel<EntityModel<AssemblyEntity>> pagedModel = handler.getAssembliesBySequenceInsdcAccession(genbank);
+        if (paramsValidForPagedQuery(pageNumber, pageSize)) {
+            PagedModel<EntityModel<AssemblyEntity>> pagedModel = handler.getAssembliesBySequenceInsdcAccession(
+                    genbank, createPageRequest(pageNumber, pageSize));
             return createAppropriateResponseEntity(pagedModel);
         } else return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
     }
@@ -181,8 +212,9 @@ public class ContigAliasController {
             @PathVariable @Parameter(description ="RefSeq accession of the chromosomes.") String refseq,
             @RequestParam(required = false, name = "page") @Parameter(description =PAGE_NUMBER_DESCRIPTION) Integer pageNumber,
             @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize) {
-        if (paramsValidForSingleResponseQuery(pageNumber, pageSize)) {
-            PagedModel<EntityModel<AssemblyEntity>> pagedModel = handler.getAssembliesBySequenceRefseq(refseq);
+        if (paramsValidForPagedQuery(pageNumber, pageSize)) {
+            PagedModel<EntityModel<AssemblyEntity>> pagedModel = handler.getAssembliesBySequenceRefseq(
+                    refseq, createPageRequest(pageNumber, pageSize));
             return createAppropriateResponseEntity(pagedModel);
         } else return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
     }
@@ -191,12 +223,22 @@ public class ContigAliasController {
             description ="Given a chromosome's GenBank accession, this endpoint will return a list of all chromosomes that" +
                     " match that accession. This endpoint will either return a list of chromosomes.")
     @GetMapping(value = "chromosomes/genbank/{genbank}", produces = "application/json")
-    public ResponseEntity<PagedModel<EntityModel<SequenceEntity>>> getSequencesByGenbank(
+    public ResponseEntity<PagedModel<EntityModel<SequenceDto>>> getSequencesByGenbank(
             @PathVariable @Parameter(description ="Genbank chromosome accession. Eg: CM000663.2") String genbank,
             @RequestParam(required = false, name = "page") @Parameter(description =PAGE_NUMBER_DESCRIPTION) Integer pageNumber,
-            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize) {
-        PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
-        PagedModel<EntityModel<SequenceEntity>> pagedModel = handler.getSequencesByInsdcAccession(genbank, pageRequest);
+            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize,
+            @RequestParam(required = false, name = CURSOR_PARAM) @Parameter(description =CURSOR_DESCRIPTION) String cursor,
+            @RequestParam(required = false, name = COUNT_PARAM) @Parameter(description =COUNT_DESCRIPTION) Boolean count) {
+        if (!paramsValidForPagedQuery(pageNumber, pageSize)) {
+            return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        PagedModel<EntityModel<SequenceDto>> pagedModel;
+        if (cursor != null) {
+            pagedModel = handler.getSequencesByInsdcAccession(genbank, cursor, getCursorPageSize(pageSize));
+        } else {
+            PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
+            pagedModel = handler.getSequencesByInsdcAccession(genbank, pageRequest, shouldCount(count));
+        }
         return createAppropriateResponseEntity(pagedModel);
     }
 
@@ -204,12 +246,22 @@ public class ContigAliasController {
             description ="Given a chromosome's RefSeq accession, this endpoint will return a list of all chromosomes that " +
                     "match that accession. This endpoint will either return a list of chromosomes.")
     @GetMapping(value = "chromosomes/refseq/{refseq}", produces = "application/json")
-    public ResponseEntity<PagedModel<EntityModel<SequenceEntity>>> getSequencesByRefseq(
+    public ResponseEntity<PagedModel<EntityModel<SequenceDto>>> getSequencesByRefseq(
             @PathVariable @Parameter(description ="Refseq chromosome accession. Eg: NC_000001.11") String refseq,
             @RequestParam(required = false, name = "page") @Parameter(description =PAGE_NUMBER_DESCRIPTION) Integer pageNumber,
-            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize) {
-        PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
-        PagedModel<EntityModel<SequenceEntity>> pagedModel = handler.getSequencesByRefseq(refseq, pageRequest);
+            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize,
+            @RequestParam(required = false, name = CURSOR_PARAM) @Parameter(description =CURSOR_DESCRIPTION) String cursor,
+            @RequestParam(required = false, name = COUNT_PARAM) @Parameter(description =COUNT_DESCRIPTION) Boolean count) {
+        if (!paramsValidForPagedQuery(pageNumber, pageSize)) {
+            return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        PagedModel<EntityModel<SequenceDto>> pagedModel;
+        if (cursor != null) {
+            pagedModel = handler.getSequencesByRefseq(refseq, cursor, getCursorPageSize(pageSize));
+        } else {
+            PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
+            pagedModel = handler.getSequencesByRefseq(refseq, pageRequest, shouldCount(count));
+        }
         return createAppropriateResponseEntity(pagedModel);
     }
 
@@ -217,7 +269,7 @@ public class ContigAliasController {
             description ="Given an assembly's INSDC or RefSeq accession, this endpoint will return a list of all the " +
                     "chromosomes that are associated with the assembly uniquely identified by the given accession. ")
     @GetMapping(value = "assemblies/{accession}/chromosomes", produces = "application/json")
-    public ResponseEntity<PagedModel<EntityModel<SequenceEntity>>> getSequencesByAssemblyAccession(
+    public ResponseEntity<PagedModel<EntityModel<SequenceDto>>> getSequencesByAssemblyAccession(
             @PathVariable(name = "accession") String asmAccession,
             @RequestParam(required = false, name = "authority") @Parameter(description = "Specify if the provided accession is a " +
                     "INSDC or a RefSeq accession. The acceptable param values are " + AUTHORITY_INSDC + " " +
@@ -225,24 +277,47 @@ public class ContigAliasController {
                     "the given accession as either their INSDC or RefSeq accession are returned. This includes " +
                     "cases where the INSDC and RefSeq accessions are the same.") String asmAuthority,
             @RequestParam(required = false, name = "page") @Parameter(description =PAGE_NUMBER_DESCRIPTION) Integer pageNumber,
-            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize) {
+            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize,
+            @RequestParam(required = false, name = CURSOR_PARAM) @Parameter(description =CURSOR_DESCRIPTION) String cursor,
+            @RequestParam(required = false, name = COUNT_PARAM) @Parameter(description =COUNT_DESCRIPTION) Boolean count,
+            WebRequest webRequest) {
+        if (!paramsValidForPagedQuery(pageNumber, pageSize)) {
+            return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
         if (asmAccession == null || asmAccession.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
+        if (isAssemblyNotModified(asmAccession, webRequest)) {
+            return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+        }
+        return requestCoalescer.execute(webRequest, () -> getSequencesByAssemblyAccession(
+                asmAccession, asmAuthority, pageNumber, pageSize, cursor, count));
+    }
+
+    private ResponseEntity<PagedModel<EntityModel<SequenceDto>>> getSequencesByAssemblyAccession(
+            String asmAccession, String asmAuthority, Integer pageNumber, Integer pageSize, String cursor,
+            Boolean count) {
         PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
-        PagedModel<EntityModel<SequenceEntity>> pagedModel;
+        PagedModel<EntityModel<SequenceDto>> pagedModel;
+        int cursorPageSize = getCursorPageSize(pageSize);
         if (asmAuthority != null && !asmAuthority.isEmpty()) {
             if (asmAuthority.toLowerCase().equals(AUTHORITY_INSDC)) {
-                pagedModel = handler.getSequencesByAssemblyInsdcAccession(asmAccession, pageRequest);
+                pagedModel = cursor != null ?
+                        handler.getSequencesByAssemblyInsdcAccession(asmAccession, cursor, cursorPageSize) :
+                        handler.getSequencesByAssemblyInsdcAccession(asmAccession, pageRequest, shouldCount(count));
                 linkPagedModelGetAssemblyByAuthority(asmAccession, AUTHORITY_INSDC, pagedModel);
             } else if (asmAuthority.toLowerCase().equals(AUTHORITY_REFSEQ)) {
-                pagedModel = handler.getSequencesByAssemblyRefseq(asmAccession, pageRequest);
+                pagedModel = cursor != null ?
+                        handler.getSequencesByAssemblyRefseq(asmAccession, cursor, cursorPageSize) :
+                        handler.getSequencesByAssemblyRefseq(asmAccession, pageRequest, shouldCount(count));
                 linkPagedModelGetAssemblyByAuthority(asmAccession, AUTHORITY_REFSEQ, pagedModel);
             } else {
                 return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
             }
         } else {
-            pagedModel = handler.getSequencesByAssemblyAccession(asmAccession, pageRequest);
+            pagedModel = cursor != null ?
+                    handler.getSequencesByAssemblyAccession(asmAccession, cursor, cursorPageSize) :
+                    handler.getSequencesByAssemblyAccession(asmAccession, pageRequest, shouldCount(count));
             linkPagedModelGetAssemblyByAuthority(asmAccession, AUTHORITY_NONE, pagedModel);
         }
         return createAppropriateResponseEntity(pagedModel);
@@ -252,13 +327,32 @@ public class ContigAliasController {
             description ="Given an assembly's INSDC accession, this endpoint will return a list of all the " +
                     "chromosomes that are associated with the assembly uniquely identified by the given accession. ")
     @GetMapping(value = "assemblies/genbank/{genbank}/chromosomes", produces = "application/json")
-    public ResponseEntity<PagedModel<EntityModel<SequenceEntity>>> getSequencesByAssemblyGenbank(
+    public ResponseEntity<PagedModel<EntityModel<SequenceDto>>> getSequencesByAssemblyGenbank(
             @PathVariable String genbank,
             @RequestParam(required = false, name = "page") @Parameter(description =PAGE_NUMBER_DESCRIPTION) Integer pageNumber,
-            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize) {
-        PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
-        PagedModel<EntityModel<SequenceEntity>> pagedModel
-                = handler.getSequencesByAssemblyInsdcAccession(genbank, pageRequest);
+            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize,
+            @RequestParam(required = false, name = CURSOR_PARAM) @Parameter(description =CURSOR_DESCRIPTION) String cursor,
+            @RequestParam(required = false, name = COUNT_PARAM) @Parameter(description =COUNT_DESCRIPTION) Boolean count,
+            WebRequest webRequest) {
+        if (!paramsValidForPagedQuery(pageNumber, pageSize)) {
+            return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        if (isAssemblyNotModified(genbank, webRequest)) {
+            return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+        }
+        return requestCoalescer.execute(webRequest, () -> getSequencesByAssemblyGenbank(genbank, pageNumber, pageSize,
+                                                                                      cursor, count));
+    }
+
+    private ResponseEntity<PagedModel<EntityModel<SequenceDto>>> getSequencesByAssemblyGenbank(
+            String genbank, Integer pageNumber, Integer pageSize, String cursor, Boolean count) {
+        PagedModel<EntityModel<SequenceDto>> pagedModel;
+        if (cursor != null) {
+            pagedModel = handler.getSequencesByAssemblyInsdcAccession(genbank, cursor, getCursorPageSize(pageSize));
+        } else {
+            PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
+            pagedModel = handler.getSequencesByAssemblyInsdcAccession(genbank, pageRequest, shouldCount(count));
+        }
         linkPagedModelGetAssemblyByAuthority(genbank, AUTHORITY_INSDC, pagedModel);
         return createAppropriateResponseEntity(pagedModel);
     }
@@ -267,13 +361,32 @@ public class ContigAliasController {
             description ="Given an assembly's RefSeq accession, this endpoint will return a list of all the " +
                     "chromosomes that are associated with the assembly uniquely identified by the given accession. ")
     @GetMapping(value = "assemblies/refseq/{refseq}/chromosomes", produces = "application/json")
-    public ResponseEntity<PagedModel<EntityModel<SequenceEntity>>> getSequencesByAssemblyRefseq(
+    public ResponseEntity<PagedModel<EntityModel<SequenceDto>>> getSequencesByAssemblyRefseq(
             @PathVariable String refseq,
             @RequestParam(required = false, name = "page") @Parameter(description =PAGE_NUMBER_DESCRIPTION) Integer pageNumber,
-            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize) {
-        PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
-        PagedModel<EntityModel<SequenceEntity>> pagedModel
-                = handler.getSequencesByAssemblyRefseq(refseq, pageRequest);
+            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize,
+            @RequestParam(required = false, name = CURSOR_PARAM) @Parameter(description =CURSOR_DESCRIPTION) String cursor,
+            @RequestParam(required = false, name = COUNT_PARAM) @Parameter(description =COUNT_DESCRIPTION) Boolean count,
+            WebRequest webRequest) {
+        if (!paramsValidForPagedQuery(pageNumber, pageSize)) {
+            return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        if (isAssemblyNotModified(refseq, webRequest)) {
+            return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+        }
+        return requestCoalescer.execute(webRequest, () -> getSequencesByAssemblyRefseq(refseq, pageNumber, pageSize,
+                                                                                      cursor, count));
+    }
+
+    private ResponseEntity<PagedModel<EntityModel<SequenceDto>>> getSequencesByAssemblyRefseq(
+            String refseq, Integer pageNumber, Integer pageSize, String cursor, Boolean count) {
+        PagedModel<EntityModel<SequenceDto>> pagedModel;
+        if (cursor != null) {
+            pagedModel = handler.getSequencesByAssemblyRefseq(refseq, cursor, getCursorPageSize(pageSize));
+        } else {
+            PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
+            pagedModel = handler.getSequencesByAssemblyRefseq(refseq, pageRequest, shouldCount(count));
+        }
         linkPagedModelGetAssemblyByAuthority(refseq, AUTHORITY_REFSEQ, pagedModel);
         return createAppropriateResponseEntity(pagedModel);
     }
@@ -287,7 +400,7 @@ public class ContigAliasController {
                     "nested inside it. The endpoint will either return a list of chromosomes or it will return an " +
                     "HTTP error code 400 if invalid parameters are found.")
     @GetMapping(value = "chromosomes/name/{name}")
-    public ResponseEntity<PagedModel<EntityModel<SequenceEntity>>> getSequencesBySequenceNameAndAssemblyTaxidOrAccession(
+    public ResponseEntity<PagedModel<EntityModel<SequenceDto>>> getSequencesBySequenceNameAndAssemblyTaxidOrAccession(
             @PathVariable @Parameter(description ="Sequence name or UCSC style name of chromosome. Eg: HSCHR1_RANDOM_CTG5") String name,
             @RequestParam(required = false) @Parameter(description ="Taxonomic ID of a group of accessions. Eg: 9606") Optional<Long> taxid,
             @RequestParam(required = false, name = "accession") @Parameter(description ="Genbank or Refseq assembly " +
@@ -298,24 +411,48 @@ public class ContigAliasController {
                     NAME_UCSC_TYPE + " respectively. If this parameter is omitted then the name is assumed " +
                     "to be a " + NAME_GENBANK_TYPE + " name by default.") Optional<String> nameTypeOpt,
             @RequestParam(required = false, name = "page") @Parameter(description =PAGE_NUMBER_DESCRIPTION) Integer pageNumber,
-            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize) {
+            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize,
+            @RequestParam(required = false, name = CURSOR_PARAM) @Parameter(description =CURSOR_DESCRIPTION) String cursor,
+            @RequestParam(required = false, name = COUNT_PARAM) @Parameter(description =COUNT_DESCRIPTION) Boolean count,
+            WebRequest webRequest) {
+        if (!paramsValidForPagedQuery(pageNumber, pageSize)) {
+            return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
         boolean isNameValid = name != null && !name.isEmpty();
         boolean isTaxidValid = taxid.isPresent();
         boolean isAccessionValid = asmAccession.isPresent() && !asmAccession.get().isEmpty();
         if (!isNameValid || (isTaxidValid && isAccessionValid)) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
+        return requestCoalescer.execute(webRequest, () -> getSequencesBySequenceNameAndAssemblyTaxidOrAccession(
+                name, taxid, asmAccession, nameTypeOpt, pageNumber, pageSize, cursor, count));
+    }
+
+    private ResponseEntity<PagedModel<EntityModel<SequenceDto>>> getSequencesBySequenceNameAndAssemblyTaxidOrAccession(
+            String name, Optional<Long> taxid, Optional<String> asmAccession, Optional<String> nameTypeOpt,
+            Integer pageNumber, Integer pageSize, String cursor, Boolean count) {
+        boolean isTaxidValid = taxid.isPresent();
+        boolean isAccessionValid = asmAccession.isPresent() && !asmAccession.get().isEmpty();
         PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
-        PagedModel<EntityModel<SequenceEntity>> pagedModel;
+        int cursorPageSize = getCursorPageSize(pageSize);
+        PagedModel<EntityModel<SequenceDto>> pagedModel;
         String nameType = nameTypeOpt.orElse(NAME_GENBANK_TYPE);
         if (!isTaxidValid && !isAccessionValid) {
-            pagedModel = handler.getSequencesByName(name, nameType, pageRequest);
+            pagedModel = cursor != null ?
+                    handler.getSequencesByName(name, nameType, cursor, cursorPageSize) :
+                    handler.getSequencesByName(name, nameType, pageRequest, shouldCount(count));
         } else if (isTaxidValid) {
-            pagedModel = handler.getSequencesBySequenceNameAndAssemblyTaxid(
-                    name, taxid.get(), nameType, pageRequest);
+            pagedModel = cursor != null ?
+                    handler.getSequencesBySequenceNameAndAssemblyTaxid(
+                            name, taxid.get(), nameType, cursor, cursorPageSize) :
+                    handler.getSequencesBySequenceNameAndAssemblyTaxid(name, taxid.get(), nameType, pageRequest,
+                                                                       shouldCount(count));
         } else {
-            pagedModel = handler.getSequencesBySequenceNameAndAssemblyAccession(
-                    name, asmAccession.get(), nameType, pageRequest);
+            pagedModel = cursor != null ?
+                    handler.getSequencesBySequenceNameAndAssemblyAccession(
+                            name, asmAccession.get(), nameType, cursor, cursorPageSize) :
+                    handler.getSequencesBySequenceNameAndAssemblyAccession(
+                            name, asmAccession.get(), nameType, pageRequest, shouldCount(count));
         }
         return createAppropriateResponseEntity(pagedModel);
 
@@ -327,15 +464,121 @@ public class ContigAliasController {
                     "It also accepts two additional parameters (page and size) to control pagination of results. " +
                     "If the page number and/or page size are invalid then an HTTP status code of 416 is returned by this endpoint.")
     @GetMapping(value = "chromosomes/md5checksum/{md5Checksum}", produces = "application/json")
-    public ResponseEntity<PagedModel<EntityModel<SequenceEntity>>> getSequencesByMD5Checksum(
+    public ResponseEntity<PagedModel<EntityModel<SequenceDto>>> getSequencesByMD5Checksum(
             @PathVariable @Parameter(description ="MD5 Checksum of chromosome Eg: 7b6e06758e53927330346e9e7cc00cce") String md5Checksum,
             @RequestParam(required = false, name = "page") @Parameter(description =PAGE_NUMBER_DESCRIPTION) Integer pageNumber,
-            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize) {
-        PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
-        PagedModel<EntityModel<SequenceEntity>> pagedModel = handler.getSequencesByMD5Checksum(md5Checksum, pageRequest);
+            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize,
+            @RequestParam(required = false, name = CURSOR_PARAM) @Parameter(description =CURSOR_DESCRIPTION) String cursor,
+            @RequestParam(required = false, name = COUNT_PARAM) @Parameter(description =COUNT_DESCRIPTION) Boolean count) {
+        if (!paramsValidForPagedQuery(pageNumber, pageSize)) {
+            return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        PagedModel<EntityModel<SequenceDto>> pagedModel;
+        if (cursor != null) {
+            pagedModel = handler.getSequencesByMD5Checksum(md5Checksum, cursor, getCursorPageSize(pageSize));
+        } else {
+            PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
+            pagedModel = handler.getSequencesByMD5Checksum(md5Checksum, pageRequest, shouldCount(count));
+        }
         return createAppropriateResponseEntity(pagedModel);
     }
 
+    @Operation(summary ="Translate the names of many sequences of an assembly at once.",
+            description ="Given an assembly's INSDC or RefSeq accession and a list of sequence names in one naming " +
+                    "convention, this endpoint returns the name of each sequence in another naming convention, in " +
+                    "the order of the request. The names are sent either as a JSON array or as plain text with one " +
+                    "name per line. A JSON request gets a JSON array of objects with \"name\" and \"translation\" " +
+                    "fields, and a plain text request gets one tab-separated line per name. Names that are not " +
+                    "found in the assembly, or have no name in the target convention, get a null or empty " +
+                    "translation. The response is streamed, so any number of names can be sent. The endpoint " +
+                    "returns an HTTP status code of 404 if the assembly does not exist and 400 if a naming " +
+                    "convention is invalid or a JSON request body is not an array.")
+    @PostMapping(value = "assemblies/{accession}/chromosomes/translate",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<StreamingResponseBody> translateSequenceNames(
+            @PathVariable(name = "accession") @Parameter(description ="INSDC or Refseq assembly accession. Eg: " +
+                    "GCA_000001405.10") String asmAccession,
+            @RequestParam(name = "from") @Parameter(description ="Naming convention of the given names. The " +
+                    "acceptable param values are " + AUTHORITY_INSDC + ", " + AUTHORITY_REFSEQ + ", " +
+                    NAME_GENBANK_TYPE + ", " + NAME_ENA_TYPE + " and " + NAME_UCSC_TYPE + ".") String fromNamingConvention,
+            @RequestParam(name = "to") @Parameter(description ="Naming convention to translate to, with the same " +
+                    "acceptable values as the from parameter.") String toNamingConvention,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request) throws IOException {
+        Key from = ChromosomeService.getKeyForNamingConvention(fromNamingConvention);
+        Key to = ChromosomeService.getKeyForNamingConvention(toNamingConvention);
+        if (from == null || to == null) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Optional<String> asmInsdcAccession = handler.getAssemblyInsdcAccession(asmAccession);
+        if (!asmInsdcAccession.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        boolean json = MediaType.APPLICATION_JSON.isCompatibleWith(contentType);
+        StreamingResponseBody body;
+        try {
+            body = handler.translateSequenceNames(asmInsdcAccession.get(), from, to, request.getInputStream(), json);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok()
+                             .contentType(json ? MediaType.APPLICATION_JSON : MediaType.TEXT_PLAIN)
+                             .body(body);
+    }
+
+    @Operation(summary ="Export all the sequences of an assembly in a single response.",
+            description ="Given an assembly's INSDC or RefSeq accession, this endpoint streams every sequence of the " +
+                    "assembly without paging, either as newline-delimited JSON (one object per sequence, with the " +
+                    "same fields as the other chromosome endpoints) or as tab-separated values with a header line. " +
+                    "In tab-separated values, a missing value is empty and backslashes, tabs and line breaks are " +
+                    "escaped as \\\\, \\t, \\n and \\r. The endpoint returns an HTTP status code of 404 if the " +
+                    "assembly does not exist and 400 if the format is invalid.")
+    @GetMapping(value = "assemblies/{accession}/chromosomes/export")
+    public ResponseEntity<StreamingResponseBody> exportSequencesByAssemblyAccession(
+            @PathVariable(name = "accession") @Parameter(description ="INSDC or Refseq assembly accession. Eg: " +
+                    "GCA_000001405.10") String asmAccession,
+            @RequestParam(required = false, name = "format") @Parameter(description ="Format of the export. The " +
+                    "acceptable param values are " + EXPORT_FORMAT_NDJSON + " and " + EXPORT_FORMAT_TSV + ". If this " +
+                    "parameter is omitted then " + EXPORT_FORMAT_NDJSON + " is used.") Optional<String> formatOpt,
+            WebRequest webRequest) {
+        String format = formatOpt.orElse(EXPORT_FORMAT_NDJSON).toLowerCase();
+        if (!format.equals(EXPORT_FORMAT_NDJSON) && !format.equals(EXPORT_FORMAT_TSV)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        if (isAssemblyNotModified(asmAccession, webRequest)) {
+            return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+        }
+        Optional<String> asmInsdcAccession = handler.getAssemblyInsdcAccession(asmAccession);
+        if (!asmInsdcAccession.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        StreamingResponseBody body = output -> handler.exportSequencesByAssembly(asmInsdcAccession.get(), format,
+                                                                                 output);
+        return ResponseEntity.ok()
+                             .contentType(MediaType.parseMediaType(
+                                     format.equals(EXPORT_FORMAT_TSV) ? MEDIA_TYPE_TSV : MEDIA_TYPE_NDJSON))
+                             .body(body);
+    }
+
+    /**
+     * Sets the ETag and Last-Modified of the current version of the assembly on the response and checks them against
+     * the If-None-Match and If-Modified-Since headers of the request, so that clients which already have this version
+     * of the assembly are not sent it again. The version already read by {@link ChromosomeListResponseCache} for this
+     * request is used if there is one.
+     *
+     * @return True if the response should be an HTTP status code of 304 without a body.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean isAssemblyNotModified(String asmAccession, WebRequest webRequest) {
+        Optional<AssemblyVersion> version = (Optional<AssemblyVersion>) webRequest.getAttribute(
+                ChromosomeListResponseCache.ASSEMBLY_VERSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (version == null) {
+            version = handler.getAssemblyVersion(asmAccession);
+        }
+        return version.isPresent() &&
+                webRequest.checkNotModified(version.get().getETag(), version.get().getLastModified());
+    }
+
     private void linkPagedModelGetAssemblyByAuthority(
             String accession, String authority, PagedModel pagedModel) {
         ResponseEntity<PagedModel<EntityModel<AssemblyEntity>>> method;
@@ -356,17 +599,36 @@ public class ContigAliasController {
             "If provided, filtering will be done based on naming convention and assembly")
     @GetMapping(value = "search/chromosome/{name}",
             produces = "application/json")
-    public ResponseEntity<PagedModel<EntityModel<SequenceEntity>>> searchChromosomeByName(
+    public ResponseEntity<PagedModel<EntityModel<SequenceDto>>> searchChromosomeByName(
             @PathVariable @Parameter(description ="Chromosome name. Eg: CM000663.2") String name,
             @RequestParam(required = false, name = "namingConvention")
             @Parameter(description ="Chromosome naming convention. Eg: refseq") String namingConvention,
             @RequestParam(required = false, name = "assemblyAccession")
             @Parameter(description ="Assembly accession. Eg: GCA_000001405.10") String assemblyAccession,
             @RequestParam(required = false, name = "page") @Parameter(description =PAGE_NUMBER_DESCRIPTION) Integer pageNumber,
-            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize) {
-        PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
-        PagedModel<EntityModel<SequenceEntity>> pagedModel = handler.searchChromosomeByName(name, namingConvention,
-                assemblyAccession, pageRequest);
+            @RequestParam(required = false, name = "size") @Parameter(description =PAGE_SIZE_DESCRIPTION) Integer pageSize,
+            @RequestParam(required = false, name = CURSOR_PARAM) @Parameter(description =CURSOR_DESCRIPTION) String cursor,
+            @RequestParam(required = false, name = COUNT_PARAM) @Parameter(description =COUNT_DESCRIPTION) Boolean count,
+            WebRequest webRequest) {
+        if (!paramsValidForPagedQuery(pageNumber, pageSize)) {
+            return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        return requestCoalescer.execute(webRequest, () -> searchChromosomeByName(
+                name, namingConvention, assemblyAccession, pageNumber, pageSize, cursor, count));
+    }
+
+    private ResponseEntity<PagedModel<EntityModel<SequenceDto>>> searchChromosomeByName(
+            String name, String namingConvention, String assemblyAccession, Integer pageNumber, Integer pageSize,
+            String cursor, Boolean count) {
+        PagedModel<EntityModel<SequenceDto>> pagedModel;
+        if (cursor != null) {
+            pagedModel = handler.searchChromosomeByName(name, namingConvention, assemblyAccession, cursor,
+                                                        getCursorPageSize(pageSize));
+        } else {
+            PageRequest pageRequest = createPageRequest(pageNumber, pageSize);
+            pagedModel = handler.searchChromosomeByName(name, namingConvention, assemblyAccession, pageRequest,
+                                                        shouldCount(count));
+        }
         return createAppropriateResponseEntity(pagedModel);
     }
 
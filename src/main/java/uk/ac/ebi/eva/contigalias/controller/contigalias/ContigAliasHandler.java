@@ -16,169 +16,823 @@
 
 package uk.ac.ebi.eva.contigalias.controller.contigalias;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import uk.ac.ebi.eva.contigalias.dto.SequenceDto;
 import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
 import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
 import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
+import uk.ac.ebi.eva.contigalias.repo.ChromosomeSpecifications;
 import uk.ac.ebi.eva.contigalias.service.AssemblyService;
+import uk.ac.ebi.eva.contigalias.service.AssemblyVersionTracker;
+import uk.ac.ebi.eva.contigalias.service.AssemblyVersionTracker.AssemblyVersion;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeCursor;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeAliasIndex.Key;
 import uk.ac.ebi.eva.contigalias.service.ChromosomeService;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 import static uk.ac.ebi.eva.contigalias.controller.BaseHandler.convertToPage;
 import static uk.ac.ebi.eva.contigalias.controller.BaseHandler.generatePagedModelFromPage;
+import static uk.ac.ebi.eva.contigalias.controller.BaseHandler.generatePagedModelFromSlice;
 
+/**
+ * Every method only reads, in a read-only transaction: Hibernate neither keeps a snapshot of the loaded entities for
+ * dirty checking nor flushes them, and all the lookups of a request share one connection and one persistence context.
+ * The streaming methods are the exception, as they run outside of any transaction of their own.
+ * <p>
+ * Sequences are returned as immutable {@link SequenceDto}s. The pages of the listings by assembly and by name, which
+ * are the largest ones, are read straight into them through JDBC without loading any entity. The other listings, and
+ * the slices after a cursor, copy the entities they load.
+ */
 @Service
+@Transactional(readOnly = true)
 public class ContigAliasHandler {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Fields of the exported sequences, named as in the JSON of {@link SequenceEntity} and in the order of
+     * {@link #getExportValues(SequenceEntity)}.
+     */
+    private static final String[] EXPORT_FIELDS = {"insdcAccession", "refseq", "genbankSequenceName",
+            "enaSequenceName", "ucscName", "md5checksum", "trunc512checksum", "seqLength", "contigType"};
+
+    private static final int SEQ_LENGTH_FIELD = 7;
+
+    /**
+     * Query of the listings of the sequences of an assembly that does not exist.
+     */
+    private static final ChromosomeQuery NO_CHROMOSOMES = new ChromosomeQuery() {
+        @Override
+        public Page<SequenceDto> getPage(Pageable request) {
+            return new PageImpl<>(new ArrayList<>());
+        }
+
+        @Override
+        public Slice<SequenceDto> getSlice(Pageable request) {
+            return new SliceImpl<>(new ArrayList<>(), request, false);
+        }
+
+        @Override
+        public Slice<SequenceDto> getSliceAfter(ChromosomeCursor cursor, int size) {
+            return new SliceImpl<>(new ArrayList<>());
+        }
+    };
+
     private final AssemblyService assemblyService;
 
     private final ChromosomeService chromosomeService;
 
+    private final AssemblyVersionTracker assemblyVersionTracker;
+
     private final PagedResourcesAssembler<AssemblyEntity> assemblyAssembler;
 
-    private final PagedResourcesAssembler<SequenceEntity> sequenceAssembler;
+    private final PagedResourcesAssembler<SequenceDto> sequenceAssembler;
 
     @Autowired
     public ContigAliasHandler(AssemblyService assemblyService,
                               ChromosomeService chromosomeService,
+                              AssemblyVersionTracker assemblyVersionTracker,
                               PagedResourcesAssembler<AssemblyEntity> assemblyAssembler,
-                              PagedResourcesAssembler<SequenceEntity> sequenceAssembler) {
+                              PagedResourcesAssembler<SequenceDto> sequenceAssembler) {
         this.assemblyService = assemblyService;
         this.chromosomeService = chromosomeService;
+        this.assemblyVersionTracker = assemblyVersionTracker;
         this.assemblyAssembler = assemblyAssembler;
         this.sequenceAssembler = sequenceAssembler;
     }
 
     public PagedModel<EntityModel<AssemblyEntity>> getAssemblyByAccession(String accession) {
         Optional<AssemblyEntity> entity = assemblyService.getAssemblyByAccession(accession);
-        entity.ifPresent(it -> it.setChromosomes(null));
         return generatePagedModelFromPage(convertToPage(entity), assemblyAssembler);
     }
 
     public PagedModel<EntityModel<AssemblyEntity>> getAssemblyByInsdcAccession(String insdcAccession) {
         Optional<AssemblyEntity> entity = assemblyService.getAssemblyByInsdcAccession(insdcAccession);
-        entity.ifPresent(it -> it.setChromosomes(null));
         return generatePagedModelFromPage(convertToPage(entity), assemblyAssembler);
     }
 
     public PagedModel<EntityModel<AssemblyEntity>> getAssemblyByRefseq(String refseq) {
         Optional<AssemblyEntity> entity = assemblyService.getAssemblyByRefseq(refseq);
-        entity.ifPresent(it -> it.setChromosomes(null));
         return generatePagedModelFromPage(convertToPage(entity), assemblyAssembler);
 
     }
 
     public PagedModel<EntityModel<AssemblyEntity>> getAssembliesByTaxid(long taxid, Pageable request) {
         Page<AssemblyEntity> page = assemblyService.getAssembliesByTaxid(taxid, request);
-        page.forEach(it->it.setChromosomes(null));
         return generatePagedModelFromPage(page, assemblyAssembler);
     }
 
-    public PagedModel<EntityModel<AssemblyEntity>> getAssembliesBySequenceInsdcAccession(String insdcAccession) {
-        List<AssemblyEntity> assemblies = chromosomeService.getAssembliesByChromosomeInsdcAccession(insdcAccession);
-        return generatePagedModelFromPage(new PageImpl<>(assemblies), assemblyAssembler);
+    public PagedModel<EntityModel<AssemblyEntity>> getAssembliesBySequenceInsdcAccession(String insdcAccession,
+                                                                                         Pageable request) {
+        Page<AssemblyEntity> page = chromosomeService.getAssembliesByChromosomeInsdcAccession(insdcAccession, request);
+        return generatePagedModelFromPage(page, assemblyAssembler);
     }
 
-    public PagedModel<EntityModel<AssemblyEntity>> getAssembliesBySequenceRefseq(String refseq) {
-        List<AssemblyEntity> assemblies = chromosomeService.getAssembliesByChromosomeRefseq(refseq);
-        return generatePagedModelFromPage(new PageImpl<>(assemblies), assemblyAssembler);
+    public PagedModel<EntityModel<AssemblyEntity>> getAssembliesBySequenceRefseq(String refseq, Pageable request) {
+        Page<AssemblyEntity> page = chromosomeService.getAssembliesByChromosomeRefseq(refseq, request);
+        return generatePagedModelFromPage(page, assemblyAssembler);
     }
 
-    public PagedModel<EntityModel<SequenceEntity>> getSequencesByInsdcAccession(String insdcAccession, Pageable request) {
-        Page<ChromosomeEntity> chrPage = chromosomeService.getChromosomesByInsdcAccession(insdcAccession, request);
-        return generatePagedModelFromPage(createSequencePage(chrPage), sequenceAssembler);
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByInsdcAccession(String insdcAccession, Pageable request) {
+        return getSequencesByInsdcAccession(insdcAccession, request, true);
     }
 
-    public PagedModel<EntityModel<SequenceEntity>> getSequencesByRefseq(String refseq, Pageable request) {
-        Page<ChromosomeEntity> chrPage = chromosomeService.getChromosomesByRefseq(refseq, request);
-        return generatePagedModelFromPage(createSequencePage(chrPage), sequenceAssembler);
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByRefseq(String refseq, Pageable request) {
+        return getSequencesByRefseq(refseq, request, true);
     }
 
-    public PagedModel<EntityModel<SequenceEntity>> getSequencesByAssemblyInsdcAccession(String insdcAccession, Pageable request) {
-        Page<ChromosomeEntity> chrPage = chromosomeService.getChromosomesByAssemblyInsdcAccession(insdcAccession, request);
-        return generatePagedModelFromPage(createSequencePage(chrPage), sequenceAssembler);
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByAssemblyInsdcAccession(String insdcAccession, Pageable request) {
+        return getSequencesByAssemblyInsdcAccession(insdcAccession, request, true);
     }
 
-    public PagedModel<EntityModel<SequenceEntity>> getSequencesByAssemblyRefseq(String refseq, Pageable request) {
-        Page<ChromosomeEntity> chrPage = chromosomeService.getChromosomesByAssemblyRefseq(refseq, request);
-        return generatePagedModelFromPage(createSequencePage(chrPage), sequenceAssembler);
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByAssemblyRefseq(String refseq, Pageable request) {
+        return getSequencesByAssemblyRefseq(refseq, request, true);
     }
 
-    public PagedModel<EntityModel<SequenceEntity>> getSequencesByAssemblyAccession(String accession,
-                                                                                   Pageable request) {
-        Page<ChromosomeEntity> chrPage = chromosomeService.getChromosomesByAssemblyAccession(accession, request);
-        return generatePagedModelFromPage(createSequencePage(chrPage), sequenceAssembler);
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByAssemblyAccession(String accession,
+                                                                                Pageable request) {
+        return getSequencesByAssemblyAccession(accession, request, true);
     }
 
-    public PagedModel<EntityModel<SequenceEntity>> getSequencesBySequenceNameAndAssemblyTaxid(
+    public PagedModel<EntityModel<SequenceDto>> getSequencesBySequenceNameAndAssemblyTaxid(
             String name, long taxid, String nameType, Pageable request) {
-        Page<ChromosomeEntity> chrPage;
-        if (nameType.equals(ContigAliasController.NAME_UCSC_TYPE)) {
-            chrPage = chromosomeService.getChromosomesByUcscNameAndAssemblyTaxid(name, taxid, request);
-        } else if (nameType.equals(ContigAliasController.NAME_ENA_TYPE)) {
-            chrPage = chromosomeService.getChromosomesByEnaNameAndAssemblyTaxid(name, taxid, request);
-        } else {
-            chrPage = chromosomeService.getChromosomesByNameAndAssemblyTaxid(name, taxid, request);
-        }
-        return generatePagedModelFromPage(createSequencePage(chrPage), sequenceAssembler);
+        return getSequencesBySequenceNameAndAssemblyTaxid(name, taxid, nameType, request, true);
     }
 
-    public PagedModel<EntityModel<SequenceEntity>> getSequencesBySequenceNameAndAssemblyAccession(
+    public PagedModel<EntityModel<SequenceDto>> getSequencesBySequenceNameAndAssemblyAccession(
             String name, String accession, String nameType, Pageable request) {
-        Page<ChromosomeEntity> chrPage = new PageImpl<>(new ArrayList<>());
+        return getSequencesBySequenceNameAndAssemblyAccession(name, accession, nameType, request, true);
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByName(
+            String name, String nameType, Pageable request) {
+        return getSequencesByName(name, nameType, request, true);
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> searchChromosomeByName(String chromosomeName,
+                                                                       String namingConvention,
+                                                                       String assemblyAccession, Pageable request) {
+        return searchChromosomeByName(chromosomeName, namingConvention, assemblyAccession, request, true);
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByMD5Checksum(String md5Checksum, Pageable request) {
+        return getSequencesByMD5Checksum(md5Checksum, request, true);
+    }
+
+    /**
+     * Same as {@link #getSequencesByInsdcAccession(String, Pageable)}, but if count is false the matches are not
+     * counted and the page has no page metadata, see
+     * {@link uk.ac.ebi.eva.contigalias.controller.BaseHandler#generatePagedModelFromSlice(Slice)}. The
+     * other listings have the same overload.
+     */
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByInsdcAccession(String insdcAccession,
+                                                                             Pageable request, boolean count) {
+        return getSequences(Paging.offset(request, count), byInsdcAccession(insdcAccession));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByRefseq(String refseq, Pageable request,
+                                                                     boolean count) {
+        return getSequences(Paging.offset(request, count), byRefseq(refseq));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByAssemblyInsdcAccession(String insdcAccession,
+                                                                                     Pageable request,
+                                                                                     boolean count) {
+        return getSequences(Paging.offset(request, count), byAssemblyInsdcAccession(insdcAccession));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByAssemblyRefseq(String refseq, Pageable request,
+                                                                             boolean count) {
+        return getSequences(Paging.offset(request, count), byAssemblyRefseq(refseq));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByAssemblyAccession(String accession,
+                                                                                Pageable request, boolean count) {
+        return getSequences(Paging.offset(request, count), byAssemblyAccession(accession));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesBySequenceNameAndAssemblyTaxid(
+            String name, long taxid, String nameType, Pageable request, boolean count) {
+        return getSequences(Paging.offset(request, count), byNameAndAssemblyTaxid(name, taxid, nameType));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesBySequenceNameAndAssemblyAccession(
+            String name, String accession, String nameType, Pageable request, boolean count) {
+        return getSequences(Paging.offset(request, count), byNameAndAssemblyAccession(name, accession, nameType));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByName(String name, String nameType, Pageable request,
+                                                                   boolean count) {
+        return getSequences(Paging.offset(request, count), byName(name, nameType));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> searchChromosomeByName(String chromosomeName,
+                                                                       String namingConvention,
+                                                                       String assemblyAccession, Pageable request,
+                                                                       boolean count) {
+        return getSequences(Paging.offset(request, count),
+                            bySearchedName(chromosomeName, namingConvention, assemblyAccession));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByMD5Checksum(String md5Checksum, Pageable request,
+                                                                          boolean count) {
+        return getSequences(Paging.offset(request, count), byMD5Checksum(md5Checksum));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByInsdcAccession(String insdcAccession, String cursor,
+                                                                             int size) {
+        return getSequences(Paging.after(cursor, size), byInsdcAccession(insdcAccession));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByRefseq(String refseq, String cursor, int size) {
+        return getSequences(Paging.after(cursor, size), byRefseq(refseq));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByAssemblyInsdcAccession(String insdcAccession,
+                                                                                     String cursor, int size) {
+        return getSequences(Paging.after(cursor, size), byAssemblyInsdcAccession(insdcAccession));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByAssemblyRefseq(String refseq, String cursor,
+                                                                             int size) {
+        return getSequences(Paging.after(cursor, size), byAssemblyRefseq(refseq));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByAssemblyAccession(String accession, String cursor,
+                                                                                int size) {
+        return getSequences(Paging.after(cursor, size), byAssemblyAccession(accession));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesBySequenceNameAndAssemblyTaxid(
+            String name, long taxid, String nameType, String cursor, int size) {
+        return getSequences(Paging.after(cursor, size), byNameAndAssemblyTaxid(name, taxid, nameType));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesBySequenceNameAndAssemblyAccession(
+            String name, String accession, String nameType, String cursor, int size) {
+        return getSequences(Paging.after(cursor, size), byNameAndAssemblyAccession(name, accession, nameType));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByName(String name, String nameType, String cursor,
+                                                                   int size) {
+        return getSequences(Paging.after(cursor, size), byName(name, nameType));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> searchChromosomeByName(String chromosomeName,
+                                                                       String namingConvention,
+                                                                       String assemblyAccession, String cursor,
+                                                                       int size) {
+        return getSequences(Paging.after(cursor, size),
+                            bySearchedName(chromosomeName, namingConvention, assemblyAccession));
+    }
+
+    public PagedModel<EntityModel<SequenceDto>> getSequencesByMD5Checksum(String md5Checksum, String cursor,
+                                                                          int size) {
+        return getSequences(Paging.after(cursor, size), byMD5Checksum(md5Checksum));
+    }
+
+    /**
+     * Fetches one page of a listing with the query and wraps it in the model of its pagination: a counted page with
+     * its page metadata, a page that is not counted with the links to the adjacent pages, or a slice after a cursor
+     * with the link to the next slice.
+     */
+    private PagedModel<EntityModel<SequenceDto>> getSequences(Paging paging, ChromosomeQuery query) {
+        if (paging.request == null) {
+            Slice<SequenceDto> slice = query.getSliceAfter(paging.cursor, paging.size);
+            List<SequenceDto> sequences = slice.getContent();
+            String nextCursor = null;
+            if (slice.hasNext()) {
+                SequenceDto last = sequences.get(sequences.size() - 1);
+                nextCursor = new ChromosomeCursor(last.getInsdcAccession(), last.getAssemblyInsdcAccession()).encode();
+            }
+            return generatePagedModelFromSlice(sequences, nextCursor);
+        }
+        if (paging.count) {
+            return generatePagedModelFromPage(query.getPage(paging.request), sequenceAssembler);
+        }
+        return generatePagedModelFromSlice(query.getSlice(paging.request));
+    }
+
+    private ChromosomeQuery byInsdcAccession(String insdcAccession) {
+        return bySpecification(ChromosomeSpecifications.hasInsdcAccession(insdcAccession),
+                               request -> chromosomeService.getChromosomesByInsdcAccession(insdcAccession, request));
+    }
+
+    private ChromosomeQuery byRefseq(String refseq) {
+        return bySpecification(ChromosomeSpecifications.hasRefseq(refseq),
+                               request -> chromosomeService.getChromosomesByRefseq(refseq, request));
+    }
+
+    private ChromosomeQuery byAssemblyInsdcAccession(String insdcAccession) {
+        return byAssembly(assemblyService.getAssemblyByInsdcAccession(insdcAccession));
+    }
+
+    private ChromosomeQuery byAssemblyRefseq(String refseq) {
+        return byAssembly(assemblyService.getAssemblyByRefseq(refseq));
+    }
+
+    private ChromosomeQuery byAssemblyAccession(String accession) {
+        return byAssembly(assemblyService.getAssemblyByAccession(accession));
+    }
+
+    /**
+     * Lists the sequences of an assembly without repeating the assembly in each of them. The pages are read straight
+     * into {@link SequenceDto}s, only the slices after a cursor load entities.
+     */
+    private ChromosomeQuery byAssembly(Optional<AssemblyEntity> assembly) {
+        if (!assembly.isPresent()) {
+            return NO_CHROMOSOMES;
+        }
+        String insdcAccession = assembly.get().getInsdcAccession();
+        return new ChromosomeQuery() {
+            @Override
+            public Page<SequenceDto> getPage(Pageable request) {
+                return chromosomeService.getSequencesByAssemblyInsdcAccession(insdcAccession, request);
+            }
+
+            @Override
+            public Slice<SequenceDto> getSlice(Pageable request) {
+                return chromosomeService.getSequencesSliceByAssemblyInsdcAccession(insdcAccession, request);
+            }
+
+            @Override
+            public Slice<SequenceDto> getSliceAfter(ChromosomeCursor cursor, int size) {
+                return chromosomeService.getChromosomesAfter(
+                        ChromosomeSpecifications.hasAssemblyInsdcAccession(insdcAccession), cursor, size)
+                                        .map(chromosome -> SequenceDto.of(chromosome, false));
+            }
+        };
+    }
+
+    private ChromosomeQuery byNameAndAssemblyTaxid(String name, long taxid, String nameType) {
+        return byName(name, nameType, hasName(name, nameType).and(ChromosomeSpecifications.hasAssemblyTaxid(taxid)),
+                      null, taxid);
+    }
+
+    private ChromosomeQuery byNameAndAssemblyAccession(String name, String accession, String nameType) {
         Optional<AssemblyEntity> assembly = assemblyService.getAssemblyByAccession(accession);
-        if (assembly.isPresent()) {
-            AssemblyEntity assemblyEntity = assembly.get();
-            if (nameType.equals(ContigAliasController.NAME_UCSC_TYPE)) {
-                chrPage = chromosomeService.getChromosomesByUcscNameAndAssembly(name, assemblyEntity, request);
-            } else if (nameType.equals(ContigAliasController.NAME_ENA_TYPE)) {
-                chrPage = chromosomeService.getChromosomesByEnaNameAndAssembly(name, assemblyEntity, request);
-            } else {
-                chrPage = chromosomeService.getChromosomesByNameAndAssembly(name, assemblyEntity, request);
+        if (!assembly.isPresent()) {
+            return NO_CHROMOSOMES;
+        }
+        String insdcAccession = assembly.get().getInsdcAccession();
+        return byName(name, nameType,
+                      hasName(name, nameType).and(ChromosomeSpecifications.hasAssemblyInsdcAccession(insdcAccession)),
+                      insdcAccession, null);
+    }
+
+    private ChromosomeQuery byName(String name, String nameType) {
+        return byName(name, nameType, hasName(name, nameType), null, null);
+    }
+
+    /**
+     * Lists the sequences having a name, each with its assembly. The pages are read straight into
+     * {@link SequenceDto}s, only the slices after a cursor load entities.
+     *
+     * @param spec                   Same sequences, for the slices after a cursor.
+     * @param assemblyInsdcAccession INSDC accession of the assembly of the sequences, or null for any assembly.
+     * @param taxid                  Taxonomic ID of the assembly of the sequences, or null for any taxonomy.
+     */
+    private ChromosomeQuery byName(String name, String nameType, Specification<ChromosomeEntity> spec,
+                                   String assemblyInsdcAccession, Long taxid) {
+        Key key = getNameKey(nameType);
+        return new ChromosomeQuery() {
+            @Override
+            public Page<SequenceDto> getPage(Pageable request) {
+                return chromosomeService.getSequencesByName(key, name, assemblyInsdcAccession, taxid, request);
+            }
+
+            @Override
+            public Slice<SequenceDto> getSlice(Pageable request) {
+                return chromosomeService.getSequencesSliceByName(key, name, assemblyInsdcAccession, taxid, request);
+            }
+
+            @Override
+            public Slice<SequenceDto> getSliceAfter(ChromosomeCursor cursor, int size) {
+                return chromosomeService.getChromosomesAfter(spec, cursor, size)
+                                        .map(chromosome -> SequenceDto.of(chromosome, true));
+            }
+        };
+    }
+
+    private ChromosomeQuery bySearchedName(String chromosomeName, String namingConvention, String assemblyAccession) {
+        return new ChromosomeQuery() {
+            @Override
+            public Page<SequenceDto> getPage(Pageable request) {
+                return chromosomeService.searchChromosomeByName(chromosomeName, namingConvention, assemblyAccession,
+                                                                request)
+                                        .map(chromosome -> SequenceDto.of(chromosome, true));
+            }
+
+            @Override
+            public Slice<SequenceDto> getSlice(Pageable request) {
+                return chromosomeService.searchChromosomeByNameSlice(chromosomeName, namingConvention,
+                                                                     assemblyAccession, request)
+                                        .map(chromosome -> SequenceDto.of(chromosome, true));
+            }
+
+            @Override
+            public Slice<SequenceDto> getSliceAfter(ChromosomeCursor cursor, int size) {
+                return chromosomeService.searchChromosomeByNameAfter(chromosomeName, namingConvention,
+                                                                     assemblyAccession, cursor, size)
+                                        .map(chromosome -> SequenceDto.of(chromosome, true));
             }
+        };
+    }
+
+    private ChromosomeQuery byMD5Checksum(String md5Checksum) {
+        return bySpecification(ChromosomeSpecifications.hasMd5checksum(md5Checksum),
+                               request -> chromosomeService.getChromosomesByMD5Checksum(md5Checksum, request));
+    }
+
+    private static Specification<ChromosomeEntity> hasName(String name, String nameType) {
+        switch (getNameKey(nameType)) {
+            case UCSC_NAME:
+                return ChromosomeSpecifications.hasUcscName(name);
+            case ENA_SEQUENCE_NAME:
+                return ChromosomeSpecifications.hasEnaSequenceName(name);
+            default:
+                return ChromosomeSpecifications.hasGenbankSequenceName(name);
         }
-        return generatePagedModelFromPage(createSequencePage(chrPage), sequenceAssembler);
     }
 
-    public PagedModel<EntityModel<SequenceEntity>> getSequencesByName(
-            String name, String nameType, Pageable request) {
-        Page<ChromosomeEntity> chrPage;
+    /**
+     * @return The naming convention of a name, which is GenBank's unless UCSC's or ENA's is given.
+     */
+    private static Key getNameKey(String nameType) {
         if (nameType.equals(ContigAliasController.NAME_UCSC_TYPE)) {
-            chrPage = chromosomeService.getChromosomesByUcscName(name, request);
+            return Key.UCSC_NAME;
         } else if (nameType.equals(ContigAliasController.NAME_ENA_TYPE)) {
-            chrPage = chromosomeService.getChromosomesByEnaName(name, request);
+            return Key.ENA_SEQUENCE_NAME;
         } else {
-            chrPage = chromosomeService.getChromosomesByName(name, request);
+            return Key.GENBANK_SEQUENCE_NAME;
+        }
+    }
+
+    /**
+     * Lists sequences that can belong to different assemblies, each with its assembly, from entities.
+     *
+     * @param spec    Chromosomes listed by the pages that are not counted and by the slices after a cursor.
+     * @param getPage Fetches a counted page of the same chromosomes.
+     */
+    private ChromosomeQuery bySpecification(Specification<ChromosomeEntity> spec,
+                                            Function<Pageable, Page<ChromosomeEntity>> getPage) {
+        return new ChromosomeQuery() {
+            @Override
+            public Page<SequenceDto> getPage(Pageable request) {
+                return getPage.apply(request).map(chromosome -> SequenceDto.of(chromosome, true));
+            }
+
+            @Override
+            public Slice<SequenceDto> getSlice(Pageable request) {
+                return chromosomeService.getChromosomesSlice(spec, request)
+                                        .map(chromosome -> SequenceDto.of(chromosome, true));
+            }
+
+            @Override
+            public Slice<SequenceDto> getSliceAfter(ChromosomeCursor cursor, int size) {
+                return chromosomeService.getChromosomesAfter(spec, cursor, size)
+                                        .map(chromosome -> SequenceDto.of(chromosome, true));
+            }
+        };
+    }
+
+    /**
+     * @return The INSDC accession of the assembly having the given INSDC or RefSeq accession, if it exists.
+     */
+    public Optional<String> getAssemblyInsdcAccession(String accession) {
+        return assemblyService.getAssemblyByAccession(accession).map(AssemblyEntity::getInsdcAccession);
+    }
+
+    /**
+     * @return The current version of the assembly having the given INSDC or RefSeq accession, if it exists. Only the
+     * assembly is looked up, never its sequences.
+     */
+    public Optional<AssemblyVersion> getAssemblyVersion(String accession) {
+        return assemblyVersionTracker.getVersion(accession);
+    }
+
+    /**
+     * Translates the sequence names read from the input and writes each name with its translation to the output, in
+     * the order they were read. Names are translated {@link ChromosomeService#MAX_NAMES_PER_TRANSLATION} at a time so
+     * that neither the request nor the response is ever held in memory as a whole.
+     * <p>
+     * With JSON the input is an array of names and the output an array of objects with "name" and "translation"
+     * fields. Otherwise the input has one name per line (blank lines are skipped) and the output one tab-separated
+     * line per name, with an empty translation when there is none (see {@link #writeTsvValue(Writer, String)}).
+     * <p>
+     * The start of a JSON input is read before returning, so that an input which is not an array is rejected before
+     * any response is written. The rest of the input is read as the returned body is written, outside of any
+     * transaction, so that each batch of names is queried on its own instead of holding a connection for the whole
+     * request.
+     *
+     * @param assemblyInsdcAccession INSDC accession of the assembly the sequences belong to.
+     * @param from                   Naming convention of the names read from the input.
+     * @param to                     Naming convention to translate to.
+     * @param json                   Whether the input and output are JSON rather than plain text.
+     * @return Body that writes the translations to the output.
+     * @throws IllegalArgumentException If the input is JSON but not an array.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StreamingResponseBody translateSequenceNames(String assemblyInsdcAccession, Key from, Key to,
+                                                        InputStream input, boolean json) throws IOException {
+        NameReader reader = json ? new JsonNameReader(input) : new TextNameReader(input);
+        return output -> {
+            TranslationWriter writer = json ? new JsonTranslationWriter(output) : new TextTranslationWriter(output);
+            List<String> names = new ArrayList<>(ChromosomeService.MAX_NAMES_PER_TRANSLATION);
+            String name;
+            do {
+                name = reader.next();
+                if (name != null) {
+                    names.add(name);
+                }
+                if (names.size() == ChromosomeService.MAX_NAMES_PER_TRANSLATION ||
+                        (name == null && !names.isEmpty())) {
+                    Map<String, String> translations = chromosomeService.translateChromosomeNames(
+                            assemblyInsdcAccession, from, to, names);
+                    for (String translated : names) {
+                        writer.write(translated, translations.get(translated));
+                    }
+                    names.clear();
+                }
+            } while (name != null);
+            // Not reached if anything fails, so that a JSON response is left incomplete rather than silently truncated
+            writer.finish();
+        };
+    }
+
+    /**
+     * Writes every sequence of the assembly to the output, either as newline-delimited JSON with one object per
+     * sequence or as tab-separated values with a header line, escaped with {@link #writeTsvValue(Writer, String)}.
+     * Rows are written as they are read from the database, in the transaction of the export query itself rather than
+     * in a read-only one held for the whole response.
+     *
+     * @param assemblyInsdcAccession INSDC accession of the assembly the sequences belong to.
+     * @param format                 {@link ContigAliasController#EXPORT_FORMAT_NDJSON} or
+     *                               {@link ContigAliasController#EXPORT_FORMAT_TSV}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportSequencesByAssembly(String assemblyInsdcAccession, String format, OutputStream output)
+            throws IOException {
+        if (ContigAliasController.EXPORT_FORMAT_TSV.equals(format)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write(String.join("\t", EXPORT_FIELDS));
+            writer.write('\n');
+            chromosomeService.exportChromosomesByAssemblyInsdcAccession(assemblyInsdcAccession, chromosome -> {
+                String[] values = getExportValues(chromosome);
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        writer.write('\t');
+                    }
+                    writeTsvValue(writer, values[i]);
+                }
+                writer.write('\n');
+            });
+            writer.flush();
+        } else {
+            JsonGenerator generator = JSON_FACTORY.createGenerator(output);
+            generator.setRootValueSeparator(null);
+            chromosomeService.exportChromosomesByAssemblyInsdcAccession(assemblyInsdcAccession, chromosome -> {
+                String[] values = getExportValues(chromosome);
+                generator.writeStartObject();
+                for (int i = 0; i < values.length; i++) {
+                    if (i == SEQ_LENGTH_FIELD && chromosome.getSeqLength() != null) {
+                        generator.writeNumberField(EXPORT_FIELDS[i], chromosome.getSeqLength());
+                    } else {
+                        generator.writeStringField(EXPORT_FIELDS[i], values[i]);
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            });
+            generator.flush();
+        }
+    }
+
+    private static String[] getExportValues(SequenceEntity sequence) {
+        return new String[]{sequence.getInsdcAccession(), sequence.getRefseq(), sequence.getGenbankSequenceName(),
+                sequence.getEnaSequenceName(), sequence.getUcscName(), sequence.getMd5checksum(),
+                sequence.getTrunc512checksum(),
+                sequence.getSeqLength() == null ? null : sequence.getSeqLength().toString(),
+                sequence.getContigType() == null ? null : sequence.getContigType().name()};
+    }
+
+    /**
+     * Writes a value of a tab-separated line, with its backslashes, tabs and line breaks escaped as "\\", "\t", "\n"
+     * and "\r" so that they can't be taken for separators. A null value is written as an empty one.
+     */
+    private static void writeTsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                default:
+                    writer.write(c);
+            }
+        }
+    }
+
+    private interface NameReader {
+        /**
+         * @return The next name, or null at the end of the input.
+         */
+        String next() throws IOException;
+    }
+
+    private static class TextNameReader implements NameReader {
+
+        private final BufferedReader reader;
+
+        TextNameReader(InputStream input) {
+            reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    return line;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class JsonNameReader implements NameReader {
+
+        private final JsonParser parser;
+
+        JsonNameReader(InputStream input) throws IOException {
+            parser = JSON_FACTORY.createParser(input);
+            JsonToken token;
+            try {
+                token = parser.nextToken();
+            } catch (JsonParseException e) {
+                throw new IllegalArgumentException("Expected a JSON array of sequence names", e);
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of sequence names");
+            }
+        }
+
+        @Override
+        public String next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                return null;
+            }
+            if (token != JsonToken.VALUE_STRING) {
+                throw new IllegalArgumentException("Expected a sequence name but found " + token);
+            }
+            return parser.getText();
         }
-        return generatePagedModelFromPage(createSequencePage(chrPage), sequenceAssembler);
     }
 
-    public PagedModel<EntityModel<SequenceEntity>> searchChromosomeByName(String chromosomeName,
-                                                                          String namingConvention,
-                                                                          String assemblyAccession, Pageable request) {
-        Page<ChromosomeEntity> chrPage = chromosomeService.searchChromosomeByName(chromosomeName, namingConvention,
-                assemblyAccession, request);
-        return generatePagedModelFromPage(createSequencePage(chrPage), sequenceAssembler);
+    private interface TranslationWriter {
+        void write(String name, String translation) throws IOException;
+
+        /**
+         * Completes and flushes the output once every name has been written.
+         */
+        void finish() throws IOException;
     }
 
-    public PagedModel<EntityModel<SequenceEntity>> getSequencesByMD5Checksum(String md5Checksum, Pageable request) {
-        Page<ChromosomeEntity> chrPage = chromosomeService.getChromosomesByMD5Checksum(md5Checksum, request);
-        return generatePagedModelFromPage(createSequencePage(chrPage), sequenceAssembler);
+    private static class TextTranslationWriter implements TranslationWriter {
+
+        private final Writer writer;
+
+        TextTranslationWriter(OutputStream output) {
+            writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void write(String name, String translation) throws IOException {
+            writeTsvValue(writer, name);
+            writer.write('\t');
+            writeTsvValue(writer, translation);
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
     }
 
-    private Page<SequenceEntity> createSequencePage(Page<? extends SequenceEntity> page) {
-        return new PageImpl<>(page.getContent().stream().map(e -> (SequenceEntity)e)
-                .collect(Collectors.toList()), page.getPageable(), page.getTotalElements());
+    private static class JsonTranslationWriter implements TranslationWriter {
+
+        private final JsonGenerator generator;
+
+        JsonTranslationWriter(OutputStream output) throws IOException {
+            generator = JSON_FACTORY.createGenerator(output);
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(String name, String translation) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("name", name);
+            generator.writeStringField("translation", translation);
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.writeEndArray();
+            generator.flush();
+        }
+    }
+
+    /**
+     * Pagination of a listing of sequences: either a page of an offset paginated listing, counted or not, or a slice of
+     * a keyset paginated listing after a cursor, which has no page request.
+     */
+    private static class Paging {
+
+        private final Pageable request;
+
+        private final boolean count;
+
+        private final ChromosomeCursor cursor;
+
+        private final int size;
+
+        private Paging(Pageable request, boolean count, ChromosomeCursor cursor, int size) {
+            this.request = request;
+            this.count = count;
+            this.cursor = cursor;
+            this.size = size;
+        }
+
+        static Paging offset(Pageable request, boolean count) {
+            return new Paging(request, count, null, 0);
+        }
+
+        /**
+         * @throws uk.ac.ebi.eva.contigalias.exception.InvalidCursorException If the cursor was not returned by a
+         *                                                                    previous slice.
+         */
+        static Paging after(String cursor, int size) {
+            return new Paging(null, false, ChromosomeCursor.decode(cursor), size);
+        }
+    }
+
+    /**
+     * Fetches the chromosomes of a listing in each of the ways it can be paginated.
+     */
+    private interface ChromosomeQuery {
+
+        Page<SequenceDto> getPage(Pageable request);
+
+        Slice<SequenceDto> getSlice(Pageable request);
+
+        Slice<SequenceDto> getSliceAfter(ChromosomeCursor cursor, int size);
     }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.controller.contigalias;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical requests share a single lookup: the first request runs it and the requests which arrive
+ * while it is running wait for its result instead of sending the same queries to the database. Batch jobs whose
+ * workers all start by asking for the same chromosome list or the same sequence name then cost one lookup instead of
+ * one per worker.
+ * <p>
+ * Requests are identical when they have the same method and full URL, query string included. A request only joins a
+ * lookup that is still running, so it never gets a result older than the one it would have got by running the lookup
+ * itself a moment earlier. If the lookup fails, the same exception is thrown to every request that shared it.
+ * <p>
+ * The lookups are coalesced in the controller, before the transaction of the handler begins, so that the waiting
+ * requests don't each hold a database connection. The number of lookups run and joined is counted in
+ * {@link #METRIC_NAME}.
+ */
+@Component
+public class RequestCoalescer {
+
+    public static final String METRIC_NAME = "request.coalescing";
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+
+    private Counter executedCounter;
+
+    private Counter joinedCounter;
+
+    public RequestCoalescer(@Value("${config.request-coalescing.enabled:true}") boolean enabled,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        meterRegistry.ifAvailable(registry -> {
+            executedCounter = registry.counter(METRIC_NAME, "result", "executed");
+            joinedCounter = registry.counter(METRIC_NAME, "result", "joined");
+        });
+    }
+
+    /**
+     * Returns the result of the lookup for the given request, either by running it or by waiting for the same lookup
+     * already running for an identical request.
+     */
+    public <T> T execute(WebRequest webRequest, Supplier<T> lookup) {
+        HttpServletRequest request = webRequest instanceof NativeWebRequest ?
+                ((NativeWebRequest) webRequest).getNativeRequest(HttpServletRequest.class) : null;
+        if (!enabled || request == null) {
+            return lookup.get();
+        }
+        String key = request.getQueryString() == null ?
+                request.getMethod() + " " + request.getRequestURL() :
+                request.getMethod() + " " + request.getRequestURL() + "?" + request.getQueryString();
+        return execute(key, lookup);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T execute(String key, Supplier<T> lookup) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            increment(joinedCounter);
+            return (T) await(running);
+        }
+        increment(executedCounter);
+        T result;
+        try {
+            result = lookup.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, flight);
+        flight.complete(result);
+        return result;
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -26,7 +26,8 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Repository;
 import uk.ac.ebi.eva.contigalias.dus.ENAAssemblyReportReader;
 import uk.ac.ebi.eva.contigalias.dus.ENABrowser;
-import uk.ac.ebi.eva.contigalias.dus.ENABrowserFactory;
+import uk.ac.ebi.eva.contigalias.dus.AssemblyReportCache;
+import uk.ac.ebi.eva.contigalias.dus.FtpSessionPool;
 import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
 import uk.ac.ebi.eva.contigalias.exception.DownloadFailedException;
 
@@ -41,30 +42,27 @@ public class ENAAssemblyDataSource {
 
     private final Logger logger = LoggerFactory.getLogger(ENAAssemblyDataSource.class);
 
-    private final ENABrowserFactory factory;
+    private final FtpSessionPool<ENABrowser> sessionPool;
+
+    private final AssemblyReportCache reportCache;
 
     @Value("${asm.file.download.dir}")
     private String asmFileDownloadDir;
 
     @Autowired
-    public ENAAssemblyDataSource(ENABrowserFactory factory) {
-        this.factory = factory;
+    public ENAAssemblyDataSource(FtpSessionPool<ENABrowser> sessionPool, AssemblyReportCache reportCache) {
+        this.sessionPool = sessionPool;
+        this.reportCache = reportCache;
     }
 
     public Optional<Path> downloadAssemblyReport(String accession) throws IOException {
-        ENABrowser enaBrowser = factory.build();
-        enaBrowser.connect();
-        try {
-            enaBrowser.connect();
-            return downloadAssemblyReport(enaBrowser, accession);
-        } catch (Exception e) {
-            logger.warn("Could not fetch Assembly Report from ENA for accession " + accession + "Exception: " + e);
-            return Optional.empty();
-        } finally {
+        try (FtpSessionPool.Session<ENABrowser> session = sessionPool.borrow()) {
             try {
-                enaBrowser.disconnect();
-            } catch (IOException e) {
-                logger.warn("Error while trying to disconnect - enaBrowser (assembly: " + accession + ") : " + e);
+                return downloadAssemblyReport(session.getClient(), accession);
+            } catch (Exception e) {
+                session.invalidate();
+                logger.warn("Could not fetch Assembly Report from ENA for accession " + accession + "Exception: " + e);
+                return Optional.empty();
             }
         }
     }
@@ -75,9 +73,14 @@ public class ENAAssemblyDataSource {
         FTPFile ftpFile = enaBrowser.getAssemblyReportFile(dirPath, accession);
         String ftpFilePath = dirPath + ftpFile.getName();
         Path downloadFilePath = Paths.get(asmFileDownloadDir, ftpFile.getName());
+        if (reportCache.restore(ftpFile, downloadFilePath)) {
+            logger.info("ENA assembly report restored from cache for accession " + accession);
+            return Optional.of(downloadFilePath);
+        }
         try {
             boolean success = enaBrowser.downloadFTPFile(ftpFilePath, downloadFilePath, ftpFile.getSize());
             if (success) {
+                reportCache.store(ftpFile, downloadFilePath);
                 logger.info("ENA assembly report downloaded successfully for accession " + accession);
                 return Optional.of(downloadFilePath);
             } else {
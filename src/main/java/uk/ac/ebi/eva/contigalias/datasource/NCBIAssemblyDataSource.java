@@ -24,11 +24,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Repository;
+import uk.ac.ebi.eva.contigalias.dus.AssemblyReportCache;
+import uk.ac.ebi.eva.contigalias.dus.FtpSessionPool;
 import uk.ac.ebi.eva.contigalias.dus.NCBIAssemblyReportReader;
 import uk.ac.ebi.eva.contigalias.dus.NCBIBrowser;
-import uk.ac.ebi.eva.contigalias.dus.NCBIBrowserFactory;
 import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
 import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.exception.DownloadFailedException;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -43,14 +45,17 @@ public class NCBIAssemblyDataSource {
 
     private final Logger logger = LoggerFactory.getLogger(NCBIAssemblyDataSource.class);
 
-    private final NCBIBrowserFactory factory;
+    private final FtpSessionPool<NCBIBrowser> sessionPool;
+
+    private final AssemblyReportCache reportCache;
 
     @Value("${asm.file.download.dir}")
     private String asmFileDownloadDir;
 
     @Autowired
-    public NCBIAssemblyDataSource(NCBIBrowserFactory factory) {
-        this.factory = factory;
+    public NCBIAssemblyDataSource(FtpSessionPool<NCBIBrowser> sessionPool, AssemblyReportCache reportCache) {
+        this.sessionPool = sessionPool;
+        this.reportCache = reportCache;
     }
 
     public AssemblyEntity getAssemblyEntity(Path downloadFilePath) throws IOException {
@@ -79,20 +84,14 @@ public class NCBIAssemblyDataSource {
     }
 
     public Optional<Path> downloadAssemblyReport(String accession) throws IOException {
-        NCBIBrowser ncbiBrowser = factory.build();
-        Optional<Path> downloadPath;
-        try {
-            ncbiBrowser.connect();
-            downloadPath = downloadAssemblyReport(accession, ncbiBrowser);
-        } finally {
+        try (FtpSessionPool.Session<NCBIBrowser> session = sessionPool.borrow()) {
             try {
-                ncbiBrowser.disconnect();
-            } catch (IOException e) {
-                logger.warn("Error while trying to disconnect - ncbiBrowser (assembly: " + accession + ") : " + e);
+                return downloadAssemblyReport(accession, session.getClient());
+            } catch (IOException | RuntimeException e) {
+                session.invalidate();
+                throw e;
             }
         }
-
-        return downloadPath;
     }
 
     @Retryable(value = Exception.class, maxAttempts = 5, backoff = @Backoff(delay = 2000, multiplier = 2))
@@ -106,8 +105,20 @@ public class NCBIAssemblyDataSource {
         FTPFile ftpFile = ncbiBrowser.getNCBIAssemblyReportFile(directory.get());
         String ftpFilePath = directory.get() + ftpFile.getName();
         Path downloadFilePath = Paths.get(asmFileDownloadDir, ftpFile.getName());
-        boolean success = ncbiBrowser.downloadFTPFile(ftpFilePath, downloadFilePath, ftpFile.getSize());
+        if (reportCache.restore(ftpFile, downloadFilePath)) {
+            logger.info("NCBI assembly report restored from cache (" + ftpFile.getName() + ")");
+            return Optional.of(downloadFilePath);
+        }
+        boolean success;
+        try {
+            success = ncbiBrowser.downloadFTPFile(ftpFilePath, downloadFilePath, ftpFile.getSize());
+        } catch (DownloadFailedException e) {
+            // The report may have changed since its directory was listed
+            ncbiBrowser.evictListing(directory.get());
+            throw e;
+        }
         if (success) {
+            reportCache.store(ftpFile, downloadFilePath);
             logger.info("NCBI assembly report downloaded successfully (" + ftpFile.getName() + ")");
             return Optional.of(downloadFilePath);
         } else {
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.hateoas.server.core.Relation;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
+import uk.ac.ebi.eva.contigalias.entities.SequenceEntity.ContigType;
+
+/**
+ * Immutable copy of a sequence as returned by the listings of sequences. The fields are declared in the same order
+ * and serialized under the same names and relation as those of {@link SequenceEntity}, so that the JSON of a listing
+ * is the same whether it was read into entities or straight into these objects.
+ */
+@Relation(collectionRelation = "chromosomeEntities", itemRelation = "chromosomeEntity")
+public final class SequenceDto {
+
+    @Schema(description ="GenBank's name of the sequence.")
+    private final String genbankSequenceName;
+
+    @Schema(description ="ENA's name of the sequence")
+    private final String enaSequenceName;
+
+    @Schema(description ="Sequence's INSDC accession.")
+    private final String insdcAccession;
+
+    @Schema(description ="Sequence's RefSeq accession.")
+    private final String refseq;
+
+    @Schema(description ="Sequence's length")
+    private final Long seqLength;
+
+    @Schema(description ="Sequence's UCSC style name")
+    private final String ucscName;
+
+    @Schema(description ="Sequence's MD5 checksum value.")
+    private final String md5checksum;
+
+    @Schema(description ="Sequence's TRUNC512 checksum value.")
+    private final String trunc512checksum;
+
+    @Schema(description ="Type of contig: chromosome (or) scaffold")
+    private final ContigType contigType;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description ="Assembly that this sequence belongs to.")
+    private final AssemblyEntity assembly;
+
+    /**
+     * Kept even without the assembly, as the cursor of a keyset paginated listing needs it.
+     */
+    @JsonIgnore
+    private final String assemblyInsdcAccession;
+
+    public SequenceDto(String genbankSequenceName, String enaSequenceName, String insdcAccession, String refseq,
+                       Long seqLength, String ucscName, String md5checksum, String trunc512checksum,
+                       ContigType contigType, AssemblyEntity assembly, String assemblyInsdcAccession) {
+        this.genbankSequenceName = genbankSequenceName;
+        this.enaSequenceName = enaSequenceName;
+        this.insdcAccession = insdcAccession;
+        this.refseq = refseq;
+        this.seqLength = seqLength;
+        this.ucscName = ucscName;
+        this.md5checksum = md5checksum;
+        this.trunc512checksum = trunc512checksum;
+        this.contigType = contigType;
+        this.assembly = assembly;
+        this.assemblyInsdcAccession = assemblyInsdcAccession;
+    }
+
+    /**
+     * @param sequence     Sequence with its assembly, whose chromosomes must have been removed if it is kept.
+     * @param withAssembly Whether the copy keeps the assembly of the sequence.
+     */
+    public static SequenceDto of(SequenceEntity sequence, boolean withAssembly) {
+        AssemblyEntity assembly = sequence.getAssembly();
+        return new SequenceDto(sequence.getGenbankSequenceName(), sequence.getEnaSequenceName(),
+                               sequence.getInsdcAccession(), sequence.getRefseq(), sequence.getSeqLength(),
+                               sequence.getUcscName(), sequence.getMd5checksum(), sequence.getTrunc512checksum(),
+                               sequence.getContigType(), withAssembly ? assembly : null,
+                               assembly == null ? null : assembly.getInsdcAccession());
+    }
+
+    public String getGenbankSequenceName() {
+        return genbankSequenceName;
+    }
+
+    public String getEnaSequenceName() {
+        return enaSequenceName;
+    }
+
+    public String getInsdcAccession() {
+        return insdcAccession;
+    }
+
+    public String getRefseq() {
+        return refseq;
+    }
+
+    public Long getSeqLength() {
+        return seqLength;
+    }
+
+    public String getUcscName() {
+        return ucscName;
+    }
+
+    public String getMd5checksum() {
+        return md5checksum;
+    }
+
+    public String getTrunc512checksum() {
+        return trunc512checksum;
+    }
+
+    public ContigType getContigType() {
+        return contigType;
+    }
+
+    public AssemblyEntity getAssembly() {
+        return assembly;
+    }
+
+    public String getAssemblyInsdcAccession() {
+        return assemblyInsdcAccession;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.net.ftp.FTPFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local mirror of the assembly reports downloaded from NCBI and ENA, so that re-ingesting an assembly, for example
+ * after a rollback, doesn't transfer its report again. A report is cached under its remote file name, which starts
+ * with the accession, suffixed with the size and modification time that the FTP server lists for it. A cached copy
+ * is therefore only used while the remote file has not changed, and older copies of the same report are deleted when
+ * a newer one is stored.
+ * <p>
+ * Reports are written to a temporary file that is then moved into place, so that a copy interrupted halfway is never
+ * used, nor one still being written by another worker. The least recently used reports are evicted once the cache
+ * holds more than {@code config.report-cache.max-size} bytes. Lookups are counted in the {@value #METRIC_NAME}
+ * metric, tagged with the result "hit" or "miss".
+ */
+@Component
+public class AssemblyReportCache {
+
+    public static final String METRIC_NAME = "assembly.report.cache";
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Logger logger = LoggerFactory.getLogger(AssemblyReportCache.class);
+
+    private final boolean enabled;
+
+    private final Path directory;
+
+    private final long maxSize;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    /**
+     * Size of each cached report, from least to most recently used. It is loaded from the directory on first use.
+     */
+    private final LinkedHashMap<Path, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalSize = 0;
+
+    private volatile boolean loaded = false;
+
+    public AssemblyReportCache(@Value("${config.report-cache.enabled:true}") boolean enabled,
+                               @Value("${config.report-cache.dir:${asm.file.download.dir}/report-cache}") String directory,
+                               @Value("${config.report-cache.max-size:1073741824}") long maxSize,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.maxSize = maxSize;
+        this.hitCounter = meterRegistry.counter(METRIC_NAME, "result", "hit");
+        this.missCounter = meterRegistry.counter(METRIC_NAME, "result", "miss");
+    }
+
+    /**
+     * Copies the cached report to the given path if the cache holds the current version of the remote file.
+     *
+     * @param ftpFile          Remote report as listed by the FTP server.
+     * @param downloadFilePath Path the report would have been downloaded to.
+     * @return Whether the report was restored from the cache, otherwise it has to be downloaded.
+     */
+    public synchronized boolean restore(FTPFile ftpFile, Path downloadFilePath) {
+        if (!enabled) {
+            return false;
+        }
+        Path cachedFilePath = getCachedFilePath(ftpFile);
+        try {
+            load();
+            if (entries.get(cachedFilePath) == null || !Files.exists(cachedFilePath)) {
+                forget(cachedFilePath);
+                missCounter.increment();
+                return false;
+            }
+            Files.deleteIfExists(downloadFilePath);
+            link(cachedFilePath, downloadFilePath);
+            // Keeps the order of use across restarts
+            Files.setLastModifiedTime(cachedFilePath, FileTime.fromMillis(System.currentTimeMillis()));
+            hitCounter.increment();
+            return true;
+        } catch (IOException e) {
+            logger.warn("Could not restore " + ftpFile.getName() + " from the assembly report cache: " + e);
+            missCounter.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Stores a copy of a report that has just been downloaded, replacing any older version of it. The report is copied
+     * without holding the lock of the cache, so that other workers can restore and store reports meanwhile, and only
+     * moving the copy into place and updating the index are done under the lock.
+     *
+     * @param ftpFile          Remote report as listed by the FTP server.
+     * @param downloadFilePath Path the report was downloaded to.
+     */
+    public void store(FTPFile ftpFile, Path downloadFilePath) {
+        if (!enabled) {
+            return;
+        }
+        Path cachedFilePath = getCachedFilePath(ftpFile);
+        Path temporaryFilePath = null;
+        try {
+            if (!loaded) {
+                synchronized (this) {
+                    load();
+                }
+            }
+            // Unique to this copy, as two workers can store the same report at once
+            temporaryFilePath = Files.createTempFile(directory, cachedFilePath.getFileName() + ".", TEMPORARY_SUFFIX);
+            Files.copy(downloadFilePath, temporaryFilePath, StandardCopyOption.REPLACE_EXISTING);
+            synchronized (this) {
+                Files.move(temporaryFilePath, cachedFilePath, StandardCopyOption.ATOMIC_MOVE,
+                           StandardCopyOption.REPLACE_EXISTING);
+                forget(cachedFilePath);
+                long size = Files.size(cachedFilePath);
+                entries.put(cachedFilePath, size);
+                totalSize += size;
+                evictOlderVersions(ftpFile.getName(), cachedFilePath);
+                evictLeastRecentlyUsed();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not store " + ftpFile.getName() + " in the assembly report cache: " + e);
+            if (temporaryFilePath != null) {
+                deleteFile(temporaryFilePath);
+            }
+        }
+    }
+
+    public synchronized long getSize() {
+        return totalSize;
+    }
+
+    Path getCachedFilePath(FTPFile ftpFile) {
+        long modificationTime = ftpFile.getTimestamp() == null ? 0 : ftpFile.getTimestamp().getTimeInMillis();
+        return directory.resolve(ftpFile.getName() + "." + ftpFile.getSize() + "." + modificationTime);
+    }
+
+    /**
+     * Hard links the cached report so that the caller can delete its copy once it has been read, and falls back to
+     * copying it when the download directory is on another file system.
+     */
+    private void link(Path cachedFilePath, Path downloadFilePath) throws IOException {
+        try {
+            Files.createLink(downloadFilePath, cachedFilePath);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(cachedFilePath, downloadFilePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Path> cachedFilePaths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                if (path.getFileName().toString().endsWith(TEMPORARY_SUFFIX)) {
+                    // Left behind by a copy that was interrupted
+                    Files.deleteIfExists(path);
+                } else if (Files.isRegularFile(path)) {
+                    cachedFilePaths.add(path);
+                }
+            }
+        }
+        cachedFilePaths.sort(Comparator.comparing(this::getLastModifiedTime));
+        for (Path path : cachedFilePaths) {
+            long size = Files.size(path);
+            entries.put(path, size);
+            totalSize += size;
+        }
+        loaded = true;
+        logger.info("Assembly report cache in {} holds {} reports ({} bytes)", directory, entries.size(), totalSize);
+        evictLeastRecentlyUsed();
+    }
+
+    private FileTime getLastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private void evictOlderVersions(String fileName, Path cachedFilePath) {
+        String prefix = fileName + ".";
+        List<Path> olderVersions = new ArrayList<>();
+        for (Path path : entries.keySet()) {
+            String name = path.getFileName().toString();
+            // The suffix of a version is made of the size and modification time, e.g. "1024.1600000000000"
+            if (!path.equals(cachedFilePath) && name.startsWith(prefix) &&
+                    name.substring(prefix.length()).matches("\\d+\\.\\d+")) {
+                olderVersions.add(path);
+            }
+        }
+        olderVersions.forEach(this::delete);
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<Map.Entry<Path, Long>> iterator = entries.entrySet().iterator();
+        // The most recently used report is kept even if it is larger than the cache
+        while (totalSize > maxSize && entries.size() > 1 && iterator.hasNext()) {
+            Map.Entry<Path, Long> entry = iterator.next();
+            iterator.remove();
+            totalSize -= entry.getValue();
+            deleteFile(entry.getKey());
+        }
+    }
+
+    private void delete(Path cachedFilePath) {
+        forget(cachedFilePath);
+        deleteFile(cachedFilePath);
+    }
+
+    private void forget(Path cachedFilePath) {
+        Long size = entries.remove(cachedFilePath);
+        if (size != null) {
+            totalSize -= size;
+        }
+    }
+
+    private void deleteFile(Path cachedFilePath) {
+        try {
+            Files.deleteIfExists(cachedFilePath);
+        } catch (IOException e) {
+            logger.warn("Error while trying to delete " + cachedFilePath + " : " + e);
+        }
+    }
+}
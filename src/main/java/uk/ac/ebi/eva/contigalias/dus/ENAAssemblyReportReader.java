@@ -24,10 +24,13 @@ import java.util.List;
 
 public class ENAAssemblyReportReader {
 
+    private static final ThreadLocal<ReportLineTokenizer> TOKENIZER = ThreadLocal.withInitial(ReportLineTokenizer::new);
+
     public static List<ChromosomeEntity> getChromosomeEntity(List<String> lines) {
         List<ChromosomeEntity> chromosomeEntityList = new ArrayList<>();
+        ReportLineTokenizer tokenizer = new ReportLineTokenizer();
         for (String line : lines) {
-            ChromosomeEntity chromosomeEntity = getChromosomeEntity(line);
+            ChromosomeEntity chromosomeEntity = getChromosomeEntity(line, tokenizer);
             if (chromosomeEntity != null) {
                 chromosomeEntityList.add(chromosomeEntity);
             }
@@ -37,10 +40,15 @@ public class ENAAssemblyReportReader {
     }
 
     public static ChromosomeEntity getChromosomeEntity(String line) {
+        return getChromosomeEntity(line, TOKENIZER.get());
+    }
+
+    private static ChromosomeEntity getChromosomeEntity(String line, ReportLineTokenizer tokenizer) {
         if (!line.startsWith("accession")) {
-            String[] columns = line.split("\t", -1);
-            if (columns.length >= 6) {
-                if (columns[5].equals("Chromosome") && columns[3].equals("assembled-molecule")) {
+            ReportLineTokenizer columns = tokenizer.reset(line);
+            if (columns.getFieldCount() >= 6) {
+                if (columns.fieldEquals(5, "Chromosome") &&
+                        columns.fieldEquals(3, ReportLineTokenizer.ASSEMBLED_MOLECULE)) {
                     return getChromosome(columns);
                 } else {
                     return getScaffold(columns);
@@ -51,19 +59,19 @@ public class ENAAssemblyReportReader {
         return null;
     }
 
-    public static ChromosomeEntity getChromosome(String[] columns) {
+    public static ChromosomeEntity getChromosome(ReportLineTokenizer columns) {
         ChromosomeEntity chromosomeEntity = new ChromosomeEntity();
-        chromosomeEntity.setInsdcAccession(columns[0]);
-        chromosomeEntity.setEnaSequenceName(columns[1]);
+        chromosomeEntity.setInsdcAccession(columns.getField(0));
+        chromosomeEntity.setEnaSequenceName(columns.getField(1));
         chromosomeEntity.setContigType(SequenceEntity.ContigType.CHROMOSOME);
 
         return chromosomeEntity;
     }
 
-    public static ChromosomeEntity getScaffold(String[] columns) {
+    public static ChromosomeEntity getScaffold(ReportLineTokenizer columns) {
         ChromosomeEntity scaffoldEntity = new ChromosomeEntity();
-        scaffoldEntity.setInsdcAccession(columns[0]);
-        scaffoldEntity.setEnaSequenceName(columns[1]);
+        scaffoldEntity.setInsdcAccession(columns.getField(0));
+        scaffoldEntity.setEnaSequenceName(columns.getField(1));
         scaffoldEntity.setContigType(SequenceEntity.ContigType.SCAFFOLD);
 
         return scaffoldEntity;
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of FTP sessions opened at the same time with each of the FTP servers of NCBI and ENA, so that
+ * assemblies ingested in parallel don't open more connections than the servers accept from a single client. Sessions
+ * with any other host are not limited. The caps also size the {@link FtpSessionPool} of each server.
+ */
+@Component
+public class FtpConnectionLimiter {
+
+    private final Map<String, Semaphore> permitsByHost = new HashMap<>();
+
+    public FtpConnectionLimiter(@Value("${config.ftp.max-connections.ncbi:2}") int ncbiMaxConnections,
+                                @Value("${config.ftp.max-connections.ena:2}") int enaMaxConnections) {
+        permitsByHost.put(NCBIBrowser.NCBI_FTP_SERVER, new Semaphore(Math.max(ncbiMaxConnections, 1), true));
+        permitsByHost.put(ENABrowser.EBI_FTP_SERVER, new Semaphore(Math.max(enaMaxConnections, 1), true));
+    }
+
+    /**
+     * Waits until a session can be opened with the host.
+     *
+     * @return Permit to close once the session is closed.
+     * @throws InterruptedIOException If the thread is interrupted while waiting.
+     */
+    public Permit acquire(String host) throws InterruptedIOException {
+        Semaphore permits = permitsByHost.get(host);
+        if (permits == null) {
+            return () -> {
+            };
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection to " + host);
+        }
+        return permits::release;
+    }
+
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.commons.net.ftp.FTPFile;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Keeps the listings of the directories of the NCBI FTP server for {@code config.ftp.listing-cache.ttl} milliseconds,
+ * so that ingesting several versions of an assembly, or ingesting it again, doesn't list the same directories once per
+ * accession. The listings include the targets of symbolic links, so the directories they resolve to are cached too.
+ * <p>
+ * Empty listings are not cached, so that an assembly published in the meantime is found on the next attempt. A TTL of
+ * 0 disables the cache.
+ */
+@Component
+public class FtpListingCache {
+
+    public static final String CACHE_NAME = "ftpListings";
+
+    private final Cache<String, FTPFile[]> cache;
+
+    private final boolean enabled;
+
+    public FtpListingCache(@Value("${config.ftp.listing-cache.ttl:600000}") long ttl,
+                           @Value("${config.ftp.listing-cache.max-size:10000}") long maxSize,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = ttl > 0 && maxSize > 0;
+        this.cache = Caffeine.newBuilder()
+                             .expireAfterWrite(Duration.ofMillis(Math.max(ttl, 0)))
+                             .maximumSize(Math.max(maxSize, 0))
+                             .recordStats()
+                             .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+    }
+
+    /**
+     * @param path   Path of the directory relative to the root of the FTP server.
+     * @param lister Lists the directory when its listing is not cached.
+     * @return The cached listing of the directory, or the one just listed.
+     * @throws IOException Passes exception thrown by the lister.
+     */
+    public FTPFile[] listFiles(String path, Lister lister) throws IOException {
+        if (!enabled) {
+            return lister.listFiles(path);
+        }
+        FTPFile[] ftpFiles = cache.getIfPresent(path);
+        if (ftpFiles == null) {
+            ftpFiles = lister.listFiles(path);
+            if (ftpFiles.length > 0) {
+                cache.put(path, ftpFiles);
+            }
+        }
+        return ftpFiles;
+    }
+
+    /**
+     * Drops the listing of a directory whose content turned out to have changed.
+     */
+    public void evict(String path) {
+        cache.invalidate(path);
+    }
+
+    @FunctionalInterface
+    public interface Lister {
+
+        FTPFile[] listFiles(String path) throws IOException;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Keeps the FTP sessions logged in with a server open between downloads, so that ingesting a list of assemblies
+ * doesn't connect and log in once per accession. A borrowed session is checked with a NOOP before it is handed out,
+ * and is replaced if the server doesn't answer. Idle sessions are kept alive with NOOPs by {@link #keepAlive()} and
+ * are closed once they have not been borrowed for the maximum idle time.
+ * <p>
+ * The number of sessions borrowed at the same time is capped by the {@link FtpConnectionLimiter}, which also bounds
+ * the number of sessions kept open, since a session is only opened when none is idle.
+ */
+public class FtpSessionPool<T extends PassiveAnonymousFTPClient> implements AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(FtpSessionPool.class);
+
+    private final String host;
+
+    private final SessionFactory<T> sessionFactory;
+
+    private final FtpConnectionLimiter connectionLimiter;
+
+    private final long maxIdleNanos;
+
+    /**
+     * Most recently returned sessions first, so that the least used ones are the first to go stale.
+     */
+    private final Deque<IdleSession<T>> idleSessions = new ConcurrentLinkedDeque<>();
+
+    private volatile boolean closed = false;
+
+    public FtpSessionPool(String host, SessionFactory<T> sessionFactory, FtpConnectionLimiter connectionLimiter,
+                          Duration maxIdle) {
+        this.host = host;
+        this.sessionFactory = sessionFactory;
+        this.connectionLimiter = connectionLimiter;
+        this.maxIdleNanos = maxIdle.toNanos();
+    }
+
+    /**
+     * Waits until a session can be used with the host, then hands out an idle session that still answers or opens a
+     * new one.
+     *
+     * @return Session to close once the caller is done with it, which returns it to the pool.
+     * @throws IOException If a new session could not be opened.
+     */
+    public Session<T> borrow() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("FTP session pool for " + host + " is closed");
+        }
+        FtpConnectionLimiter.Permit permit = connectionLimiter.acquire(host);
+        try {
+            IdleSession<T> idleSession;
+            while ((idleSession = idleSessions.pollFirst()) != null) {
+                if (!idleSession.isStale(maxIdleNanos) && isAlive(idleSession.client)) {
+                    return new Session<>(this, idleSession.client, permit);
+                }
+                disconnect(idleSession.client);
+            }
+            return new Session<>(this, sessionFactory.open(), permit);
+        } catch (IOException | RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a NOOP over every idle session so that the server doesn't drop it, and closes the sessions which have
+     * been idle for longer than the maximum idle time or which don't answer anymore.
+     */
+    @Scheduled(fixedDelayString = "${config.ftp.pool.keep-alive-interval:30000}")
+    public void keepAlive() {
+        for (IdleSession<T> idleSession : idleSessions) {
+            // A session borrowed in the meantime is checked by its borrower instead
+            if (!idleSessions.remove(idleSession)) {
+                continue;
+            }
+            if (!idleSession.isStale(maxIdleNanos) && isAlive(idleSession.client)) {
+                idleSessions.offerLast(idleSession);
+            } else {
+                disconnect(idleSession.client);
+            }
+        }
+    }
+
+    public int getIdleCount() {
+        return idleSessions.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        IdleSession<T> idleSession;
+        while ((idleSession = idleSessions.pollFirst()) != null) {
+            disconnect(idleSession.client);
+        }
+    }
+
+    private void release(T client, boolean reusable) {
+        if (reusable && !closed && client.isConnected()) {
+            idleSessions.offerFirst(new IdleSession<>(client));
+        } else {
+            disconnect(client);
+        }
+    }
+
+    private boolean isAlive(T client) {
+        try {
+            return client.isConnected() && client.sendNoOp();
+        } catch (IOException e) {
+            logger.debug("FTP session with {} did not answer: {}", host, e.toString());
+            return false;
+        }
+    }
+
+    private void disconnect(T client) {
+        try {
+            client.disconnect();
+        } catch (IOException e) {
+            logger.warn("Error while trying to disconnect from " + host + " : " + e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface SessionFactory<T extends PassiveAnonymousFTPClient> {
+
+        /**
+         * @return Client connected and logged in with the host.
+         */
+        T open() throws IOException;
+    }
+
+    /**
+     * Session borrowed from the pool. Callers which leave the session in an unknown state, for example after a
+     * failed transfer, should {@link #invalidate()} it so that it is closed instead of returned to the pool.
+     */
+    public static class Session<T extends PassiveAnonymousFTPClient> implements AutoCloseable {
+
+        private final FtpSessionPool<T> pool;
+
+        private final T client;
+
+        private final FtpConnectionLimiter.Permit permit;
+
+        private boolean reusable = true;
+
+        private boolean released = false;
+
+        private Session(FtpSessionPool<T> pool, T client, FtpConnectionLimiter.Permit permit) {
+            this.pool = pool;
+            this.client = client;
+            this.permit = permit;
+        }
+
+        public T getClient() {
+            return client;
+        }
+
+        public void invalidate() {
+            reusable = false;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            try {
+                pool.release(client, reusable);
+            } finally {
+                permit.close();
+            }
+        }
+    }
+
+    private static class IdleSession<T> {
+
+        private final T client;
+
+        private final long idleSince = System.nanoTime();
+
+        private IdleSession(T client) {
+            this.client = client;
+        }
+
+        private boolean isStale(long maxIdleNanos) {
+            return System.nanoTime() - idleSince > maxIdleNanos;
+        }
+    }
+}
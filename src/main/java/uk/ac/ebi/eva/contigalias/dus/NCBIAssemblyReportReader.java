@@ -27,6 +27,8 @@ import java.util.stream.Collectors;
 
 public class NCBIAssemblyReportReader {
 
+    private static final ThreadLocal<ReportLineTokenizer> TOKENIZER = ThreadLocal.withInitial(ReportLineTokenizer::new);
+
     public static AssemblyEntity getAssemblyEntity(List<String> lines) {
         Map<String, String> tagAndValuesMap = lines.stream()
                 .filter(line -> line.startsWith("#"))
@@ -70,8 +72,9 @@ public class NCBIAssemblyReportReader {
 
     public static List<ChromosomeEntity> getChromosomeEntity(List<String> lines) {
         List<ChromosomeEntity> chromosomeEntityList = new ArrayList<>();
+        ReportLineTokenizer tokenizer = new ReportLineTokenizer();
         for (String line : lines) {
-            ChromosomeEntity chromosomeEntity = getChromosomeEntity(line);
+            ChromosomeEntity chromosomeEntity = getChromosomeEntity(tokenizer.reset(line));
             if (chromosomeEntity != null) {
                 chromosomeEntityList.add(chromosomeEntity);
             }
@@ -80,10 +83,16 @@ public class NCBIAssemblyReportReader {
     }
 
     public static ChromosomeEntity getChromosomeEntity(String line) {
-        String[] columns = line.split("\t", -1);
-        if (columns.length >= 6 && (columns[5].equals("=") || columns[5].equals("<>")) &&
-                (columns[4] != null && !columns[4].isEmpty() && !columns[4].equals("na"))) {
-            if (columns[3].equals("Chromosome") && columns[1].equals("assembled-molecule")) {
+        return getChromosomeEntity(TOKENIZER.get().reset(line));
+    }
+
+    public static ChromosomeEntity getChromosomeEntity(ReportLineTokenizer columns) {
+        if (columns.getFieldCount() >= 6 &&
+                (columns.fieldEquals(5, ReportLineTokenizer.IDENTICAL) ||
+                        columns.fieldEquals(5, ReportLineTokenizer.NOT_IDENTICAL)) &&
+                !columns.isFieldNotAvailable(4)) {
+            if (columns.fieldEquals(3, "Chromosome") &&
+                    columns.fieldEquals(1, ReportLineTokenizer.ASSEMBLED_MOLECULE)) {
                 return getChromosome(columns);
             } else {
                 return getScaffold(columns);
@@ -93,59 +102,32 @@ public class NCBIAssemblyReportReader {
         return null;
     }
 
-    public static ChromosomeEntity getChromosome(String[] columns) {
+    public static ChromosomeEntity getChromosome(ReportLineTokenizer columns) {
         ChromosomeEntity chromosomeEntity = new ChromosomeEntity();
-
-        chromosomeEntity.setGenbankSequenceName(columns[0]);
-        chromosomeEntity.setInsdcAccession(columns[4]);
-        if (columns[6] == null || columns[6].isEmpty() || columns[6].equals("na")) {
-            chromosomeEntity.setRefseq(null);
-        } else {
-            chromosomeEntity.setRefseq(columns[6]);
-        }
-        if (columns.length > 8) {
-            try {
-                Long seqLength = Long.parseLong(columns[8]);
-                chromosomeEntity.setSeqLength(seqLength);
-            } catch (NumberFormatException nfe) {
-
-            }
-        }
-        if (columns.length > 9 && !columns[9].equals("na")) {
-            chromosomeEntity.setUcscName(columns[9]);
-        }
+        setSequenceFields(chromosomeEntity, columns);
         chromosomeEntity.setContigType(SequenceEntity.ContigType.CHROMOSOME);
 
         return chromosomeEntity;
     }
 
-    public static ChromosomeEntity getScaffold(String[] columns) {
+    public static ChromosomeEntity getScaffold(ReportLineTokenizer columns) {
         ChromosomeEntity scaffoldEntity = new ChromosomeEntity();
+        setSequenceFields(scaffoldEntity, columns);
+        scaffoldEntity.setContigType(SequenceEntity.ContigType.SCAFFOLD);
 
-        scaffoldEntity.setGenbankSequenceName(columns[0]);
-        scaffoldEntity.setInsdcAccession(columns[4]);
-        if (columns[6] == null || columns[6].isEmpty() || columns[6].equals("na")) {
-            scaffoldEntity.setRefseq(null);
-        } else {
-            scaffoldEntity.setRefseq(columns[6]);
-        }
-        if (columns.length > 8) {
-            try {
-                Long seqLength = Long.parseLong(columns[8]);
-                scaffoldEntity.setSeqLength(seqLength);
-            } catch (NumberFormatException nfe) {
+        return scaffoldEntity;
+    }
 
-            }
+    private static void setSequenceFields(ChromosomeEntity entity, ReportLineTokenizer columns) {
+        entity.setGenbankSequenceName(columns.getField(0));
+        entity.setInsdcAccession(columns.getField(4));
+        if (!columns.isFieldNotAvailable(6)) {
+            entity.setRefseq(columns.getField(6));
         }
-        if (columns.length >= 10) {
-            String ucscName = columns[9];
-            if (!ucscName.equals("na")) {
-                scaffoldEntity.setUcscName(ucscName);
-            }
+        entity.setSeqLength(columns.getFieldAsLong(8));
+        if (columns.getFieldCount() > 9 && !columns.fieldEquals(9, ReportLineTokenizer.NOT_AVAILABLE)) {
+            entity.setUcscName(columns.getField(9));
         }
-        scaffoldEntity.setContigType(SequenceEntity.ContigType.SCAFFOLD);
-
-        return scaffoldEntity;
     }
 
 }
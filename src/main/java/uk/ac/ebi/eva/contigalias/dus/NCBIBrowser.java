@@ -42,11 +42,21 @@ public class NCBIBrowser extends PassiveAnonymousFTPClient {
 
     private Integer ftpProxyPort;
 
+    private FtpListingCache listingCache;
+
     public NCBIBrowser(String ftpProxyHost, Integer ftpProxyPort) {
         this.ftpProxyHost = ftpProxyHost;
         this.ftpProxyPort = ftpProxyPort;
     }
 
+    /**
+     * @param listingCache Listings of directories shared by the browsers, or null to list directories every time.
+     */
+    public NCBIBrowser(String ftpProxyHost, Integer ftpProxyPort, FtpListingCache listingCache) {
+        this(ftpProxyHost, ftpProxyPort);
+        this.listingCache = listingCache;
+    }
+
     @Retryable(value = Exception.class, maxAttempts = 5, backoff = @Backoff(delay = 2000, multiplier=2))
     public void connect() throws IOException {
         if (ftpProxyHost != null && !ftpProxyHost.equals("null") &&
@@ -94,7 +104,7 @@ public class NCBIBrowser extends PassiveAnonymousFTPClient {
         path += accession.substring(0, 3) + "/";
 
         String currPath = PATH_GENOMES_ALL + path;
-        FTPFile[] ftpFiles = super.listFiles(currPath, FTPFileFilters.ALL);
+        FTPFile[] ftpFiles = listFilesCached(currPath, dirPath -> super.listFiles(dirPath, FTPFileFilters.ALL));
 
         if (ftpFiles.length > 0) {
             // We're assuming that the directory will always have a suffix stating with an underscore GCA_004051055.1_
@@ -141,11 +151,27 @@ public class NCBIBrowser extends PassiveAnonymousFTPClient {
     }
 
     public FTPFile getNCBIAssemblyReportFile(String directoryPath) throws IOException {
-        Stream<FTPFile> ftpFileStream = Arrays.stream(super.listFiles(directoryPath));
+        Stream<FTPFile> ftpFileStream = Arrays.stream(listFilesCached(directoryPath, super::listFiles));
         Stream<FTPFile> assemblyReportFilteredStream = ftpFileStream.filter(f -> f.getName().contains("assembly_report.txt"));
         Optional<FTPFile> assemblyReport = assemblyReportFilteredStream.findFirst();
 
         return assemblyReport.orElseThrow(() -> new AssemblyNotFoundException("Assembly Report File not present in given directory: " + directoryPath));
     }
 
+    /**
+     * Drops the cached listing of a directory, e.g. after the size of a file in it no longer matched the listing.
+     */
+    public void evictListing(String directoryPath) {
+        if (listingCache != null) {
+            listingCache.evict(directoryPath);
+        }
+    }
+
+    private FTPFile[] listFilesCached(String directoryPath, FtpListingCache.Lister lister) throws IOException {
+        if (listingCache == null) {
+            return lister.listFiles(directoryPath);
+        }
+        return listingCache.listFiles(directoryPath, lister);
+    }
+
 }
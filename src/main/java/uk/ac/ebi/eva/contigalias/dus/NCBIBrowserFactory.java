@@ -16,6 +16,7 @@
 
 package uk.ac.ebi.eva.contigalias.dus;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -28,8 +29,11 @@ public class NCBIBrowserFactory {
     @Value("${ftp.proxy.port}")
     private Integer ftpProxyPort;
 
+    @Autowired
+    private FtpListingCache listingCache;
+
     public NCBIBrowser build(){
-        return new NCBIBrowser(ftpProxyHost, ftpProxyPort);
+        return new NCBIBrowser(ftpProxyHost, ftpProxyPort, listingCache);
     }
 
 }
@@ -88,8 +88,12 @@ public class PassiveAnonymousFTPClient extends FTPClient {
     @Override
     public void disconnect() throws IOException {
         if (super.isConnected()) {
-            super.logout();
-            super.disconnect();
+            try {
+                super.logout();
+            } finally {
+                // Close the socket even if the server has already dropped the session
+                super.disconnect();
+            }
         }
     }
 
@@ -98,7 +102,10 @@ public class PassiveAnonymousFTPClient extends FTPClient {
         super.setFileTransferMode(FTP.BINARY_FILE_TYPE);
         Files.deleteIfExists(downloadFilePath);
 
-        boolean success = super.retrieveFile(ftpFilePath, new FileOutputStream(downloadFilePath.toFile()));
+        boolean success;
+        try (FileOutputStream outputStream = new FileOutputStream(downloadFilePath.toFile())) {
+            success = super.retrieveFile(ftpFilePath, outputStream);
+        }
 
         if (success && Files.exists(downloadFilePath) && Files.isReadable(downloadFilePath)) {
             long downloadFileSize = Files.size(downloadFilePath);
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import java.util.Arrays;
+
+/**
+ * Splits a tab-separated line of an assembly report in place. Only the offsets of the fields are recorded, so fields
+ * can be compared without creating any objects and only those that are actually stored have to be materialized as
+ * {@link String}s. Tokens that repeat on almost every line of a report are returned as shared constants.
+ * <p>
+ * Instances are reusable through {@link #reset(CharSequence)} but are not thread-safe.
+ */
+public final class ReportLineTokenizer {
+
+    public static final String NOT_AVAILABLE = "na";
+
+    public static final String IDENTICAL = "=";
+
+    public static final String NOT_IDENTICAL = "<>";
+
+    public static final String ASSEMBLED_MOLECULE = "assembled-molecule";
+
+    private static final String[] INTERNED_TOKENS = {NOT_AVAILABLE, IDENTICAL, NOT_IDENTICAL, ASSEMBLED_MOLECULE};
+
+    private static final char SEPARATOR = '\t';
+
+    private static final int INITIAL_FIELD_CAPACITY = 16;
+
+    private CharSequence line;
+
+    private int fieldCount;
+
+    /**
+     * Start offset of every field, followed by the length of the line plus one so that the end of field i is always
+     * fieldStarts[i + 1] - 1.
+     */
+    private int[] fieldStarts = new int[INITIAL_FIELD_CAPACITY + 1];
+
+    /**
+     * Tokenizes the given line, discarding the state left by the previous one. Like {@code line.split("\t", -1)},
+     * trailing empty fields are kept.
+     *
+     * @param line A line of an assembly report without its line terminator.
+     * @return This tokenizer.
+     */
+    public ReportLineTokenizer reset(CharSequence line) {
+        this.line = line;
+        int length = line.length();
+        fieldCount = 0;
+        fieldStarts[0] = 0;
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(i) == SEPARATOR) {
+                addFieldStart(i + 1);
+            }
+        }
+        addFieldStart(length + 1);
+        return this;
+    }
+
+    private void addFieldStart(int start) {
+        fieldCount++;
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldStarts.length * 2);
+        }
+        fieldStarts[fieldCount] = start;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return Whether the field at the given index exists and contains exactly the given value.
+     */
+    public boolean fieldEquals(int index, String value) {
+        if (index >= fieldCount) {
+            return false;
+        }
+        int start = fieldStarts[index];
+        int length = fieldStarts[index + 1] - 1 - start;
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether the field at the given index is missing or has no characters.
+     */
+    public boolean isFieldEmpty(int index) {
+        return index >= fieldCount || fieldStarts[index + 1] - 1 == fieldStarts[index];
+    }
+
+    /**
+     * @return Whether the field at the given index is missing, has no characters or is "na".
+     */
+    public boolean isFieldNotAvailable(int index) {
+        return isFieldEmpty(index) || fieldEquals(index, NOT_AVAILABLE);
+    }
+
+    /**
+     * Materializes the field at the given index. Frequently repeated tokens are returned as shared instances instead of
+     * new copies.
+     *
+     * @return The content of the field or null if the line does not have that many fields.
+     */
+    public String getField(int index) {
+        if (index >= fieldCount) {
+            return null;
+        }
+        for (String token : INTERNED_TOKENS) {
+            if (fieldEquals(index, token)) {
+                return token;
+            }
+        }
+        return line.subSequence(fieldStarts[index], fieldStarts[index + 1] - 1).toString();
+    }
+
+    /**
+     * Parses the field at the given index as a decimal long without materializing it.
+     *
+     * @return The parsed value or null if the field is missing or is not a valid long, in the same cases where
+     * {@link Long#parseLong(String)} would throw a {@link NumberFormatException}.
+     */
+    public Long getFieldAsLong(int index) {
+        if (index >= fieldCount) {
+            return null;
+        }
+        int position = fieldStarts[index];
+        int end = fieldStarts[index + 1] - 1;
+        boolean negative = false;
+        if (position < end) {
+            char first = line.charAt(position);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                position++;
+            }
+        }
+        if (position == end) {
+            return null;
+        }
+        // Accumulate negatively as Long.parseLong does, so that Long.MIN_VALUE can be represented
+        long result = 0;
+        for (; position < end; position++) {
+            int digit = Character.digit(line.charAt(position), 10);
+            if (digit < 0 || result < (Long.MIN_VALUE + digit) / 10) {
+                return null;
+            }
+            result = result * 10 - digit;
+        }
+        if (!negative && result == Long.MIN_VALUE) {
+            return null;
+        }
+        return negative ? result : -result;
+    }
+
+}
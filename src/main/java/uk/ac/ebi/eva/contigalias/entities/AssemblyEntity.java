@@ -27,13 +27,17 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import java.util.List;
 
 @Relation(collectionRelation = "assemblyEntities", itemRelation = "assemblyEntity")
 @Entity
-@Table(name = "assembly")
+@Table(name = "assembly", indexes = {
+        @Index(name = "assembly_refseq_idx", columnList = "refseq"),
+        @Index(name = "assembly_taxid_idx", columnList = "taxid")
+})
 public class AssemblyEntity {
 
     @Id
@@ -154,6 +158,21 @@ public class AssemblyEntity {
         return this;
     }
 
+    /**
+     * @return A copy of this assembly without its chromosomes, which is not attached to any persistence context.
+     */
+    public AssemblyEntity copyWithoutChromosomes() {
+        return new AssemblyEntity()
+                .setInsdcAccession(insdcAccession)
+                .setName(name)
+                .setOrganism(organism)
+                .setTaxid(taxid)
+                .setRefseq(refseq)
+                .setGenbankRefseqIdentical(isGenbankRefseqIdentical)
+                .setMd5checksum(md5checksum)
+                .setTrunc512checksum(trunc512checksum);
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.entities;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Progress of the resumable ingestion of an assembly report: the sequences of the report up to its last committed line
+ * are in the database, so that an ingestion which failed midway is resumed after that line instead of starting over.
+ * The report is identified by its file name and size, and an ingestion of a different report starts over. Rows are
+ * written by {@link uk.ac.ebi.eva.contigalias.service.AssemblyService} and are never exposed by the API.
+ */
+@Entity
+@Table(name = "assembly_ingestion_checkpoint")
+public class AssemblyIngestionCheckpointEntity {
+
+    /**
+     * Accession with which the ingestion of the assembly was requested, either its INSDC or its RefSeq accession.
+     */
+    @Id
+    @Column(nullable = false)
+    private String accession;
+
+    @Column(nullable = false)
+    private String reportName;
+
+    @Column(nullable = false)
+    private long reportSize;
+
+    /**
+     * Number of the last line of the report, counted from 1, whose sequence has been committed.
+     */
+    @Column(nullable = false)
+    private long lastCommittedLine;
+
+    public AssemblyIngestionCheckpointEntity() {
+    }
+
+    public AssemblyIngestionCheckpointEntity(String accession, String reportName, long reportSize) {
+        this.accession = accession;
+        this.reportName = reportName;
+        this.reportSize = reportSize;
+    }
+
+    public String getAccession() {
+        return accession;
+    }
+
+    public String getReportName() {
+        return reportName;
+    }
+
+    public long getReportSize() {
+        return reportSize;
+    }
+
+    public long getLastCommittedLine() {
+        return lastCommittedLine;
+    }
+
+    public AssemblyIngestionCheckpointEntity setLastCommittedLine(long lastCommittedLine) {
+        this.lastCommittedLine = lastCommittedLine;
+        return this;
+    }
+
+}
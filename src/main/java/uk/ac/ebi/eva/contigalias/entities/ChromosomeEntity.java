@@ -20,13 +20,24 @@ import org.springframework.hateoas.server.core.Relation;
 
 import javax.persistence.Entity;
 import javax.persistence.IdClass;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import java.io.Serializable;
 
 
 @Relation(collectionRelation = "chromosomeEntities", itemRelation = "chromosomeEntity")
 @Entity
-@Table(name = "chromosome")
+@Table(name = "chromosome", indexes = {
+        // Lookups by assembly use the primary key (assembly_insdc_accession, insdc_accession). Lookups by name alone
+        // use the first column of the (name, assembly) indexes.
+        @Index(name = "chromosome_insdc_accession_idx", columnList = "insdcAccession"),
+        @Index(name = "chromosome_refseq_idx", columnList = "refseq"),
+        @Index(name = "chromosome_md5checksum_idx", columnList = "md5checksum"),
+        @Index(name = "chromosome_genbank_sequence_name_idx",
+                columnList = "genbankSequenceName, assembly_insdc_accession"),
+        @Index(name = "chromosome_ena_sequence_name_idx", columnList = "enaSequenceName, assembly_insdc_accession"),
+        @Index(name = "chromosome_ucsc_name_idx", columnList = "ucscName, assembly_insdc_accession")
+})
 @IdClass(ChromosomeId.class)
 public class ChromosomeEntity extends SequenceEntity implements Serializable {
     public ChromosomeEntity() {
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.entities;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * One name of a sequence under one naming convention, derived from the chromosome table so that a search by name in
+ * any naming convention is a single probe of the primary key, whose first column is the alias. Rows are written by
+ * {@link uk.ac.ebi.eva.contigalias.service.SequenceAliasUpdater} along with the sequences they belong to and are never
+ * exposed by the API.
+ */
+@Entity
+@Table(name = "sequence_alias", indexes = {
+        @Index(name = "sequence_alias_assembly_idx", columnList = "assemblyInsdcAccession, insdcAccession")
+})
+@IdClass(SequenceAliasId.class)
+public class SequenceAliasEntity {
+
+    @Id
+    @Column(nullable = false)
+    private String alias;
+
+    @Id
+    @Column(nullable = false)
+    private String assemblyInsdcAccession;
+
+    @Id
+    @Column(nullable = false)
+    private String insdcAccession;
+
+    /**
+     * One of the naming conventions accepted by the search endpoint, e.g. "genbank" or "refseq".
+     */
+    @Id
+    @Column(nullable = false)
+    private String convention;
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getAssemblyInsdcAccession() {
+        return assemblyInsdcAccession;
+    }
+
+    public String getInsdcAccession() {
+        return insdcAccession;
+    }
+
+    public String getConvention() {
+        return convention;
+    }
+
+}
@@ -0,0 +1,8 @@
+package uk.ac.ebi.eva.contigalias.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyIngestionCheckpointEntity;
+
+import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface AssemblyIngestionCheckpointRepository extends JpaRepository<AssemblyIngestionCheckpointEntity, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AssemblyIngestionCheckpointEntity c WHERE c.accession=:accession")
+    void deleteCheckpointByAccession(@Param("accession") String accession);
+
+    /**
+     * @param accessions Accessions of an assembly, as the checkpoint is under the one its ingestion was requested with.
+     */
+    Optional<AssemblyIngestionCheckpointEntity> findFirstByAccessionIn(Collection<String> accessions);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AssemblyIngestionCheckpointEntity c WHERE c.accession IN :accessions")
+    void deleteCheckpointsByAccessionIn(@Param("accessions") Collection<String> accessions);
+
+}
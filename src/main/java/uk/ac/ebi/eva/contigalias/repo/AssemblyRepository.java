@@ -28,12 +28,20 @@ import org.springframework.stereotype.Repository;
 import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
 
 import javax.transaction.Transactional;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AssemblyRepository extends JpaRepository<AssemblyEntity, Long>,
         JpaSpecificationExecutor<AssemblyEntity> {
 
+    /**
+     * Condition on an assembly "a" that it is complete, i.e. that there is no checkpoint of an interrupted ingestion
+     * of it under either of its accessions.
+     */
+    String IS_COMPLETE = "NOT EXISTS (SELECT c FROM AssemblyIngestionCheckpointEntity c " +
+            "WHERE c.accession = a.insdcAccession OR c.accession = a.refseq)";
+
     default Optional<AssemblyEntity> findAssemblyEntityByAccession(String accession) {
         return this.findAssemblyEntityByInsdcAccessionOrRefseq(accession, accession);
     }
@@ -48,6 +56,29 @@ public interface AssemblyRepository extends JpaRepository<AssemblyEntity, Long>,
 
     Page<AssemblyEntity> findAssemblyEntitiesByTaxid(long taxid, Pageable pageable);
 
+    /*
+     * The lookups below are the ones of the read paths, which leave out the assemblies whose ingestion was interrupted
+     * and is yet to be resumed. The lookups of sequences by their own names do not check their assembly.
+     */
+
+    @Query("SELECT a FROM AssemblyEntity a WHERE (a.insdcAccession = :accession OR a.refseq = :accession) AND " +
+            IS_COMPLETE)
+    Optional<AssemblyEntity> findCompleteAssemblyEntityByAccession(@Param("accession") String accession);
+
+    @Query("SELECT a FROM AssemblyEntity a WHERE a.insdcAccession = :insdcAccession AND " + IS_COMPLETE)
+    Optional<AssemblyEntity> findCompleteAssemblyEntityByInsdcAccession(
+            @Param("insdcAccession") String insdcAccession);
+
+    @Query("SELECT a FROM AssemblyEntity a WHERE a.refseq = :refseq AND " + IS_COMPLETE)
+    Optional<AssemblyEntity> findCompleteAssemblyEntityByRefseq(@Param("refseq") String refseq);
+
+    @Query("SELECT a FROM AssemblyEntity a WHERE " + IS_COMPLETE)
+    List<AssemblyEntity> findCompleteAssemblyEntities();
+
+    @Query(value = "SELECT a FROM AssemblyEntity a WHERE a.taxid = :taxid AND " + IS_COMPLETE,
+            countQuery = "SELECT COUNT(a) FROM AssemblyEntity a WHERE a.taxid = :taxid AND " + IS_COMPLETE)
+    Page<AssemblyEntity> findCompleteAssemblyEntitiesByTaxid(@Param("taxid") long taxid, Pageable pageable);
+
     @Transactional
     @Modifying
     @Query("DELETE FROM AssemblyEntity a WHERE a.insdcAccession=:asmInsdcAccession")
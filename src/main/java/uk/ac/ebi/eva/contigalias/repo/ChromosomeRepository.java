@@ -18,6 +18,8 @@ package uk.ac.ebi.eva.contigalias.repo;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -32,19 +34,46 @@ import javax.transaction.Transactional;
 import java.util.List;
 
 @Repository
-public interface ChromosomeRepository extends JpaRepository<ChromosomeEntity, Long>, JpaSpecificationExecutor<ChromosomeEntity> {
+public interface ChromosomeRepository extends JpaRepository<ChromosomeEntity, Long>, JpaSpecificationExecutor<ChromosomeEntity>,
+        ChromosomeRepositoryCustom {
 
+    /*
+     * The assembly of a sequence is eager, so without a fetch join Hibernate loads the assembly of every row of a
+     * page with one more query per distinct assembly. Every finder returning sequences fetches it in the same query.
+     */
+
+    @Override
+    @EntityGraph(attributePaths = "assembly")
+    Page<ChromosomeEntity> findAll(Specification<ChromosomeEntity> spec, Pageable pageable);
+
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByInsdcAccessionOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(String insdcAccession, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByRefseqOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(String refseq, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByInsdcAccessionOrRefseqOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(String insdcAccession, String refseq, Pageable request);
 
-    Page<ChromosomeEntity> findChromosomeEntitiesByAssembly_InsdcAccessionOrderByInsdcAccessionDesc(String asmInsdcAccession, Pageable request);
+    // The derived query would filter on an outer join to the assembly, which keeps the primary key from being used
+    @Query("SELECT c FROM ChromosomeEntity c WHERE c.assembly.insdcAccession = :asmInsdcAccession ORDER BY c.insdcAccession DESC")
+    @EntityGraph(attributePaths = "assembly")
+    Page<ChromosomeEntity> findChromosomeEntitiesByAssembly_InsdcAccessionOrderByInsdcAccessionDesc(@Param("asmInsdcAccession") String asmInsdcAccession, Pageable request);
 
     @Query("SELECT c FROM ChromosomeEntity c WHERE c.assembly.insdcAccession = :asmInsdcAccession AND (c.md5checksum IS NULL OR c.md5checksum = '') ORDER BY c.insdcAccession DESC")
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByAssembly_InsdcAccessionAndMd5checksumIsNullOrEmpty(@Param("asmInsdcAccession") String asmInsdcAccession, Pageable pageable);
 
+    // Each assembly is selected once and paged by the database, however many of its sequences match. As with the
+    // lookups of assemblies, those of interrupted ingestions are left out.
+    @Query(value = "SELECT a FROM AssemblyEntity a WHERE a.insdcAccession IN (SELECT c.assembly.insdcAccession FROM ChromosomeEntity c WHERE c.insdcAccession = :insdcAccession) AND " + AssemblyRepository.IS_COMPLETE + " ORDER BY a.insdcAccession DESC",
+            countQuery = "SELECT COUNT(a) FROM AssemblyEntity a WHERE a.insdcAccession IN (SELECT c.assembly.insdcAccession FROM ChromosomeEntity c WHERE c.insdcAccession = :insdcAccession) AND " + AssemblyRepository.IS_COMPLETE)
+    Page<AssemblyEntity> findAssemblyEntitiesByChromosomeInsdcAccession(@Param("insdcAccession") String insdcAccession, Pageable request);
+
+    @Query(value = "SELECT a FROM AssemblyEntity a WHERE a.insdcAccession IN (SELECT c.assembly.insdcAccession FROM ChromosomeEntity c WHERE c.refseq = :refseq) AND " + AssemblyRepository.IS_COMPLETE + " ORDER BY a.insdcAccession DESC",
+            countQuery = "SELECT COUNT(a) FROM AssemblyEntity a WHERE a.insdcAccession IN (SELECT c.assembly.insdcAccession FROM ChromosomeEntity c WHERE c.refseq = :refseq) AND " + AssemblyRepository.IS_COMPLETE)
+    Page<AssemblyEntity> findAssemblyEntitiesByChromosomeRefseq(@Param("refseq") String refseq, Pageable request);
+
     @Query("SELECT distinct c.assembly.insdcAccession FROM ChromosomeEntity c WHERE c.md5checksum IS NULL OR c.md5checksum = ''")
     List<String> findAssembliesWhereChromosomeMd5checksumIsNullOrEmpty();
 
@@ -61,39 +90,53 @@ public interface ChromosomeRepository extends JpaRepository<ChromosomeEntity, Lo
     @Query("DELETE FROM ChromosomeEntity c WHERE c.assembly.insdcAccession=:asmInsdcAccession")
     void deleteChromosomeEntitiesByAssembly_InsdcAccession(@Param("asmInsdcAccession") String asmInsdcAccession);
 
+    // Same reason as above, the derived query would search the whole chromosome table for the assembly
+    @Query("SELECT c FROM ChromosomeEntity c JOIN c.assembly a WHERE a.refseq = :asmRefseq ORDER BY c.insdcAccession DESC, a.insdcAccession DESC")
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByAssembly_RefseqOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
-            String asmRefseq, Pageable request);
+            @Param("asmRefseq") String asmRefseq, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByGenbankSequenceNameAndAssembly_TaxidOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
             String genbankName, long asmTaxid, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByUcscNameAndAssembly_TaxidOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
             String ucscName, long asmTaxid, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByEnaSequenceNameAndAssembly_TaxidOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
             String enaName, long asmTaxid, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByGenbankSequenceNameAndAssemblyOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
             String genbankName, AssemblyEntity assembly, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByUcscNameAndAssemblyOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
             String ucscName, AssemblyEntity assembly, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByEnaSequenceNameAndAssemblyOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
             String enaName, AssemblyEntity assembly, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByGenbankSequenceNameOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
             String genbankName, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByEnaSequenceNameOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
             String enaSequenceName, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByAssemblyInsdcAccessionOrAssemblyRefseqOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
             String insdcAccession, String refseq, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByUcscNameOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
             String ucscName, Pageable request);
 
+    @EntityGraph(attributePaths = "assembly")
     Page<ChromosomeEntity> findChromosomeEntitiesByMd5checksumOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
             String md5Checksum, Pageable request);
 
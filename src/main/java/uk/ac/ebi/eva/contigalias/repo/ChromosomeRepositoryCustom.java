@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.repo;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+
+import java.util.List;
+
+public interface ChromosomeRepositoryCustom {
+
+    /**
+     * Keyset (seek) pagination over the chromosomes matching a specification, in the order used by the other finders:
+     * INSDC accession descending, then assembly INSDC accession descending. The page starts right after the given key
+     * instead of at an offset, so its cost does not depend on how deep it is, rows inserted or updated on earlier
+     * pages do not shift it, and no count query is run.
+     *
+     * @param spec                        Filter on the chromosomes, may be null.
+     * @param afterInsdcAccession         INSDC accession of the last chromosome of the previous page, or null for the
+     *                                    first page.
+     * @param afterAssemblyInsdcAccession INSDC accession of the assembly of the last chromosome of the previous page.
+     * @param limit                       Maximum number of chromosomes to return.
+     */
+    List<ChromosomeEntity> findAllAfter(Specification<ChromosomeEntity> spec, String afterInsdcAccession,
+                                        String afterAssemblyInsdcAccession, int limit);
+
+    /**
+     * Offset pagination over the chromosomes matching a specification, in the same order as
+     * {@link #findAllAfter(Specification, String, String, int)}. Unlike a {@link org.springframework.data.domain.Page}
+     * no count query is run: one more row than the page size is fetched to tell whether there is a next page.
+     *
+     * @param spec     Filter on the chromosomes, may be null.
+     * @param pageable Page to return, its sort is ignored.
+     */
+    Slice<ChromosomeEntity> findSlice(Specification<ChromosomeEntity> spec, Pageable pageable);
+
+}
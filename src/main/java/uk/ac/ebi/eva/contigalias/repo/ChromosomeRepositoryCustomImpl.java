@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.repo;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChromosomeRepositoryCustomImpl implements ChromosomeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ChromosomeEntity> findAllAfter(Specification<ChromosomeEntity> spec, String afterInsdcAccession,
+                                               String afterAssemblyInsdcAccession, int limit) {
+        return createQuery(spec, afterInsdcAccession, afterAssemblyInsdcAccession).setMaxResults(limit)
+                                                                                  .getResultList();
+    }
+
+    @Override
+    public Slice<ChromosomeEntity> findSlice(Specification<ChromosomeEntity> spec, Pageable pageable) {
+        TypedQuery<ChromosomeEntity> query = createQuery(spec, null, null);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+        List<ChromosomeEntity> chromosomes = query.setFirstResult((int) pageable.getOffset())
+                                                  .setMaxResults(pageable.getPageSize() + 1)
+                                                  .getResultList();
+        boolean hasNext = chromosomes.size() > pageable.getPageSize();
+        if (hasNext) {
+            chromosomes = new ArrayList<>(chromosomes.subList(0, pageable.getPageSize()));
+        }
+        return new SliceImpl<>(chromosomes, pageable, hasNext);
+    }
+
+    private TypedQuery<ChromosomeEntity> createQuery(Specification<ChromosomeEntity> spec, String afterInsdcAccession,
+                                                     String afterAssemblyInsdcAccession) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ChromosomeEntity> query = cb.createQuery(ChromosomeEntity.class);
+        Root<ChromosomeEntity> root = query.from(ChromosomeEntity.class);
+        // Loads the assembly in the same query instead of one query per distinct assembly of the results
+        root.fetch("assembly");
+        Path<String> insdcAccession = root.get("insdcAccession");
+        Path<String> assemblyInsdcAccession = root.get("assembly").get("insdcAccession");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (afterInsdcAccession != null) {
+            predicates.add(cb.or(cb.lessThan(insdcAccession, afterInsdcAccession),
+                                 cb.and(cb.equal(insdcAccession, afterInsdcAccession),
+                                        cb.lessThan(assemblyInsdcAccession, afterAssemblyInsdcAccession))));
+        }
+        query.select(root)
+             .where(predicates.toArray(new Predicate[0]))
+             .orderBy(cb.desc(insdcAccession), cb.desc(assemblyInsdcAccession));
+        return entityManager.createQuery(query);
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.repo;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entities.SequenceAliasEntity;
+
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+/**
+ * Filters on chromosomes matching the derived finders of {@link ChromosomeRepository}, for use with
+ * {@link ChromosomeRepositoryCustom#findAllAfter}.
+ */
+public final class ChromosomeSpecifications {
+
+    private ChromosomeSpecifications() {
+    }
+
+    public static Specification<ChromosomeEntity> hasInsdcAccession(String insdcAccession) {
+        return (root, query, cb) -> cb.equal(root.get("insdcAccession"), insdcAccession);
+    }
+
+    public static Specification<ChromosomeEntity> hasRefseq(String refseq) {
+        return (root, query, cb) -> cb.equal(root.get("refseq"), refseq);
+    }
+
+    public static Specification<ChromosomeEntity> hasGenbankSequenceName(String genbankSequenceName) {
+        return (root, query, cb) -> cb.equal(root.get("genbankSequenceName"), genbankSequenceName);
+    }
+
+    public static Specification<ChromosomeEntity> hasEnaSequenceName(String enaSequenceName) {
+        return (root, query, cb) -> cb.equal(root.get("enaSequenceName"), enaSequenceName);
+    }
+
+    public static Specification<ChromosomeEntity> hasUcscName(String ucscName) {
+        return (root, query, cb) -> cb.equal(root.get("ucscName"), ucscName);
+    }
+
+    public static Specification<ChromosomeEntity> hasMd5checksum(String md5checksum) {
+        return (root, query, cb) -> cb.equal(root.get("md5checksum"), md5checksum);
+    }
+
+    /**
+     * @return Chromosomes having the given name in any naming convention, looked up in the sequence_alias table
+     * instead of comparing every name column of the chromosome table.
+     */
+    public static Specification<ChromosomeEntity> hasAlias(String alias) {
+        return (root, query, cb) -> {
+            // The uncorrelated IN lets the database start from the alias instead of scanning the chromosomes, the
+            // correlated EXISTS keeps only the assemblies in which the sequence has that alias
+            Subquery<String> accessions = query.subquery(String.class);
+            Root<SequenceAliasEntity> accessionRoot = accessions.from(SequenceAliasEntity.class);
+            accessions.select(accessionRoot.get("insdcAccession"))
+                      .where(cb.equal(accessionRoot.get("alias"), alias));
+
+            Subquery<String> aliases = query.subquery(String.class);
+            Root<SequenceAliasEntity> aliasRoot = aliases.from(SequenceAliasEntity.class);
+            aliases.select(aliasRoot.get("insdcAccession"))
+                   .where(cb.equal(aliasRoot.get("alias"), alias),
+                          cb.equal(aliasRoot.get("assemblyInsdcAccession"),
+                                   root.get("assembly").get("insdcAccession")),
+                          cb.equal(aliasRoot.get("insdcAccession"), root.get("insdcAccession")));
+            return cb.and(root.get("insdcAccession").in(accessions), cb.exists(aliases));
+        };
+    }
+
+    public static Specification<ChromosomeEntity> hasAssemblyInsdcAccession(String asmInsdcAccession) {
+        return (root, query, cb) -> cb.equal(root.get("assembly").get("insdcAccession"), asmInsdcAccession);
+    }
+
+    public static Specification<ChromosomeEntity> hasAssemblyRefseq(String asmRefseq) {
+        return (root, query, cb) -> cb.equal(root.get("assembly").get("refseq"), asmRefseq);
+    }
+
+    /**
+     * @return Chromosomes of the assembly having the given accession as its INSDC or RefSeq accession.
+     */
+    public static Specification<ChromosomeEntity> hasAssemblyAccession(String asmAccession) {
+        return hasAssemblyInsdcAccession(asmAccession).or(hasAssemblyRefseq(asmAccession));
+    }
+
+    public static Specification<ChromosomeEntity> hasAssemblyTaxid(long asmTaxid) {
+        return (root, query, cb) -> cb.equal(root.get("assembly").get("taxid"), asmTaxid);
+    }
+
+}
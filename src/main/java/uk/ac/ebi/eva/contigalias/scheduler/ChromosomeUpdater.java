@@ -19,6 +19,15 @@ import java.util.stream.Collectors;
 
 @Service
 public class ChromosomeUpdater {
+
+    /**
+     * Time taken by each batch of sequences updated by a job and number of sequences processed, tagged with the
+     * {@link JobType} of the job. Their ratio is the throughput of the updaters.
+     */
+    public static final String BATCH_METRIC = "chromosome.updater.batch";
+
+    public static final String SEQUENCES_METRIC = "chromosome.updater.sequences";
+
     private final Logger logger = LoggerFactory.getLogger(ChromosomeUpdater.class);
     private final BlockingQueue<Job> jobQueue = new LinkedBlockingQueue<>();
     private final ENASequenceNameUpdater enaSequenceNameUpdater;
@@ -1,10 +1,15 @@
 package uk.ac.ebi.eva.contigalias.scheduler;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import uk.ac.ebi.eva.contigalias.datasource.ENAAssemblyDataSource;
 import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.scheduler.job.JobType;
+import uk.ac.ebi.eva.contigalias.service.AssemblyChangedEvent;
 import uk.ac.ebi.eva.contigalias.service.ChromosomeService;
 
 import java.io.BufferedReader;
@@ -24,9 +29,18 @@ public class ENASequenceNameUpdater {
 
     private final ChromosomeService chromosomeService;
 
-    public ENASequenceNameUpdater(ENAAssemblyDataSource enaDataSource, ChromosomeService chromosomeService) {
+    private final Timer batchTimer;
+
+    private final Counter sequencesCounter;
+
+    public ENASequenceNameUpdater(ENAAssemblyDataSource enaDataSource, ChromosomeService chromosomeService,
+                                  MeterRegistry meterRegistry) {
         this.enaDataSource = enaDataSource;
         this.chromosomeService = chromosomeService;
+        this.batchTimer = meterRegistry.timer(ChromosomeUpdater.BATCH_METRIC, "job",
+                                              JobType.ENA_SEQUENCE_NAME_UPDATE.toString());
+        this.sequencesCounter = meterRegistry.counter(ChromosomeUpdater.SEQUENCES_METRIC, "job",
+                                                      JobType.ENA_SEQUENCE_NAME_UPDATE.toString());
     }
 
     public void updateENASequenceNameForAssembly(String assembly) {
@@ -49,6 +63,10 @@ public class ENASequenceNameUpdater {
         } catch (Exception e) {
             logger.error("Error while updating ENA Sequence Name for assembly : " + assembly + "\n" + e);
         } finally {
+            if (downloadedENAFilePath != null) {
+                // The batches committed before a failure changed the assembly too
+                AssemblyChangedEvent.publish(this, assembly, AssemblyChangedEvent.ChangeType.UPDATED);
+            }
             try {
                 if (downloadedENAFilePath != null) {
                     Files.deleteIfExists(downloadedENAFilePath);
@@ -71,8 +89,7 @@ public class ENASequenceNameUpdater {
                 }
                 chrLines.add(line);
                 if (chrLines.size() == DEFAULT_BATCH_SIZE) {
-                    List<ChromosomeEntity> chromosomeEntityList = enaDataSource.getChromosomeEntityList(chrLines);
-                    chromosomeService.updateENASequenceNameForAllChromosomeInAssembly(assembly, chromosomeEntityList);
+                    updateENASequenceNames(assembly, chrLines);
                     chromosomesProcessedTillNow += chrLines.size();
                     logger.info("Number of chromosomes updated till now  : " + chromosomesProcessedTillNow);
 
@@ -80,8 +97,7 @@ public class ENASequenceNameUpdater {
                 }
             }
             if (!chrLines.isEmpty()) {
-                List<ChromosomeEntity> chromosomeEntityList = enaDataSource.getChromosomeEntityList(chrLines);
-                chromosomeService.updateENASequenceNameForAllChromosomeInAssembly(assembly, chromosomeEntityList);
+                updateENASequenceNames(assembly, chrLines);
                 chromosomesProcessedTillNow += chrLines.size();
                 logger.info("Number of chromosomes updated till now  : " + chromosomesProcessedTillNow);
             }
@@ -89,4 +105,12 @@ public class ENASequenceNameUpdater {
 
         logger.info("Finished updating ENA Sequence Name for assembly: " + assembly);
     }
+
+    private void updateENASequenceNames(String assembly, List<String> chrLines) {
+        batchTimer.record(() -> {
+            List<ChromosomeEntity> chromosomeEntityList = enaDataSource.getChromosomeEntityList(chrLines);
+            chromosomeService.updateENASequenceNameForAllChromosomeInAssembly(assembly, chromosomeEntityList);
+        });
+        sequencesCounter.increment(chrLines.size());
+    }
 }
@@ -1,15 +1,20 @@
 package uk.ac.ebi.eva.contigalias.scheduler;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.repo.ChromosomeSpecifications;
+import uk.ac.ebi.eva.contigalias.scheduler.job.JobType;
+import uk.ac.ebi.eva.contigalias.service.AssemblyChangedEvent;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeCursor;
 import uk.ac.ebi.eva.contigalias.service.ChromosomeService;
 
 import java.util.List;
@@ -23,23 +28,32 @@ public class MD5ChecksumUpdater {
     private String INSDC_CHECKSUM_URL = "https://www.ebi.ac.uk/ena/cram/sequence/insdc:" + INSDC_ACCESSION_PLACE_HOLDER + "/metadata";
     private final ChromosomeService chromosomeService;
     private RestTemplate restTemplate;
+    private final Timer batchTimer;
+    private final Counter sequencesCounter;
 
     @Autowired
-    public MD5ChecksumUpdater(ChromosomeService chromosomeService, RestTemplate restTemplate) {
+    public MD5ChecksumUpdater(ChromosomeService chromosomeService, RestTemplate restTemplate,
+                              MeterRegistry meterRegistry) {
         this.chromosomeService = chromosomeService;
         this.restTemplate = restTemplate;
+        this.batchTimer = meterRegistry.timer(ChromosomeUpdater.BATCH_METRIC, "job",
+                                              JobType.MD5_CHECKSUM_UPDATE.toString());
+        this.sequencesCounter = meterRegistry.counter(ChromosomeUpdater.SEQUENCES_METRIC, "job",
+                                                      JobType.MD5_CHECKSUM_UPDATE.toString());
     }
 
     public void updateMD5ChecksumForAssembly(String accession) {
         logger.info("Start Update MD5 Checksum for assembly : " + accession);
         try {
-            int pageNumber = 0;
-            Page<ChromosomeEntity> chrPage;
+            ChromosomeCursor cursor = null;
+            Slice<ChromosomeEntity> chrPage;
             long chromosomeProcessed = 0;
             long chromosomeUpdated = 0;
             do {
-                Pageable pageable = PageRequest.of(pageNumber, DEFAULT_BATCH_SIZE);
-                chrPage = chromosomeService.getChromosomesByAssemblyAccession(accession, pageable);
+                Timer.Sample batch = Timer.start();
+                // Seek past the previous batch instead of using an offset, which gets slower with every batch
+                chrPage = chromosomeService.getChromosomesAfter(ChromosomeSpecifications.hasAssemblyAccession(accession),
+                                                                cursor, DEFAULT_BATCH_SIZE);
 
                 List<ChromosomeEntity> chromosomeEntityList = chrPage.getContent();
                 List<ChromosomeEntity> chromosomeEntitiesWithoutMD5 = chromosomeEntityList.stream()
@@ -50,17 +64,23 @@ public class MD5ChecksumUpdater {
                     updateMd5ChecksumForChromosome(accession, chromosomeEntityList);
                 }
 
+                batch.stop(batchTimer);
+                sequencesCounter.increment(chromosomeEntityList.size());
                 chromosomeProcessed += chromosomeEntityList.size();
                 chromosomeUpdated += chromosomeEntitiesWithoutMD5.size();
                 logger.info("Chromosomes Processed till now: {}, selected for update till now: {}", chromosomeProcessed, chromosomeUpdated);
 
-                pageNumber++;
+                if (!chromosomeEntityList.isEmpty()) {
+                    cursor = ChromosomeCursor.after(chromosomeEntityList.get(chromosomeEntityList.size() - 1));
+                }
             } while (chrPage.hasNext());
 
             logger.info("Finished updating MD5 Checksum for assembly: " + accession);
-
         } catch (Exception e) {
             logger.error("Error while updating MD5 Checksum for assembly : " + accession + "\n" + e);
+        } finally {
+            // The batches committed before a failure changed the assembly too
+            AssemblyChangedEvent.publish(this, accession, AssemblyChangedEvent.ChangeType.UPDATED);
         }
     }
 
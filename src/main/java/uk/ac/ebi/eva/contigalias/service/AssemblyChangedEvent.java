@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+
+import uk.ac.ebi.eva.contigalias.conf.ApplicationContextHolder;
+
+/**
+ * Published whenever the assembly or the sequences of an assembly are inserted, updated or deleted, so that anything
+ * holding derived data (e.g. {@link ChromosomeAliasIndex}) can refresh it. Listeners using
+ * {@link org.springframework.transaction.event.TransactionalEventListener} receive it once the change is committed.
+ * <p>
+ * A listener handling the event after the commit of the transaction that published it still runs while that
+ * transaction is bound to the thread, but the transaction must not be joined as it can no longer commit anything.
+ * Such a listener reads in a transaction of its own, started with
+ * {@link org.springframework.transaction.TransactionDefinition#PROPAGATION_REQUIRES_NEW}.
+ */
+public class AssemblyChangedEvent extends ApplicationEvent {
+
+    public enum ChangeType {
+        INSERTED,
+        UPDATED,
+        DELETED
+    }
+
+    private final String accession;
+
+    private final ChangeType changeType;
+
+    /**
+     * @param accession  INSDC or RefSeq accession of the assembly that changed.
+     * @param changeType What happened to the assembly.
+     */
+    public AssemblyChangedEvent(Object source, String accession, ChangeType changeType) {
+        super(source);
+        this.accession = accession;
+        this.changeType = changeType;
+    }
+
+    public static void publish(Object source, String accession, ChangeType changeType) {
+        ApplicationContext applicationContext = ApplicationContextHolder.getApplicationContext();
+        if (applicationContext != null) {
+            applicationContext.publishEvent(new AssemblyChangedEvent(source, accession, changeType));
+        }
+    }
+
+    public String getAccession() {
+        return accession;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    @Override
+    public String toString() {
+        return "AssemblyChangedEvent{" +
+                "accession='" + accession + '\'' +
+                ", changeType=" + changeType +
+                '}';
+    }
+}
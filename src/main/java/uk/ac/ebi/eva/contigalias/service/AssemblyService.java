@@ -16,21 +16,32 @@
 
 package uk.ac.ebi.eva.contigalias.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import uk.ac.ebi.eva.contigalias.datasource.ENAAssemblyDataSource;
 import uk.ac.ebi.eva.contigalias.datasource.NCBIAssemblyDataSource;
 import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.AssemblyIngestionCheckpointEntity;
 import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
 import uk.ac.ebi.eva.contigalias.exception.AssemblyIngestionException;
 import uk.ac.ebi.eva.contigalias.exception.AssemblyNotFoundException;
 import uk.ac.ebi.eva.contigalias.exception.DuplicateAssemblyException;
+import uk.ac.ebi.eva.contigalias.repo.AssemblyIngestionCheckpointRepository;
 import uk.ac.ebi.eva.contigalias.repo.AssemblyRepository;
 import uk.ac.ebi.eva.contigalias.repo.ChromosomeRepository;
 import uk.ac.ebi.eva.contigalias.scheduler.ChromosomeUpdater;
@@ -46,13 +57,49 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 @Service
 public class AssemblyService {
+
+    /*
+     * Caches of the assembly lookups, configured with spring.cache.caffeine.spec. Assemblies only change on ingestion,
+     * deletion or checksum updates, all of which publish an AssemblyChangedEvent that empties them. The lookups leave out
+     * the assemblies whose ingestion was interrupted, until the ingestion is resumed and completed.
+     *
+     * The caches hold copies of the assemblies without their chromosomes rather than the entities, and every caller
+     * gets the same copies, so the assemblies returned by the lookups must not be modified.
+     */
+
+    public static final String ASSEMBLIES_BY_ACCESSION_CACHE = "assembliesByAccession";
+
+    public static final String ASSEMBLIES_BY_INSDC_ACCESSION_CACHE = "assembliesByInsdcAccession";
+
+    public static final String ASSEMBLIES_BY_REFSEQ_CACHE = "assembliesByRefseq";
+
+    public static final String ASSEMBLIES_BY_TAXID_CACHE = "assembliesByTaxid";
+
+    /*
+     * Metrics of the ingestion of assembly reports. The parse and insert rates are the number of sequences of each
+     * phase divided by the time spent on its batches.
+     */
+
+    public static final String INGESTION_DOWNLOAD_METRIC = "assembly.ingestion.download";
+
+    public static final String INGESTION_BATCH_METRIC = "assembly.ingestion.batch";
+
+    public static final String INGESTION_SEQUENCES_METRIC = "assembly.ingestion.sequences";
+
     private final int BATCH_SIZE = 100000;
 
     private final ChromosomeService chromosomeService;
@@ -61,39 +108,86 @@ public class AssemblyService {
 
     private final ChromosomeRepository chromosomeRepository;
 
+    private final AssemblyIngestionCheckpointRepository checkpointRepository;
+
     private final NCBIAssemblyDataSource ncbiDataSource;
 
     private final ENAAssemblyDataSource enaDataSource;
 
     private final ChromosomeUpdater chromosomeUpdater;
 
+    private final SequenceAliasUpdater sequenceAliasUpdater;
+
+    private final Timer downloadTimer;
+
+    private final Timer parseTimer;
+
+    private final Timer insertTimer;
+
+    private final Counter parsedCounter;
+
+    private final Counter insertedCounter;
+
+    /**
+     * Number of assemblies ingested at the same time by {@link #fetchAndInsertAssembly(List)}. The downloads are also
+     * capped per FTP server by {@link uk.ac.ebi.eva.contigalias.dus.FtpConnectionLimiter}, so that the workers which
+     * can't download meanwhile parse and insert their assemblies.
+     */
+    @Value("${config.ingestion.workers:4}")
+    private int ingestionWorkers = 4;
+
+    /**
+     * Whether the sequences are upserted and the last committed line of each report recorded, so that an ingestion
+     * that failed midway keeps what it inserted and is resumed from that line by the next ingestion of the assembly,
+     * instead of being rolled back. Plain inserts, which are faster, are used otherwise.
+     */
+    @Value("${config.ingestion.resumable:false}")
+    private boolean resumableIngestion = false;
+
+    /**
+     * Accessions of the assemblies being ingested, as requested and as the INSDC accession of their report, with the
+     * thread ingesting each of them, so that two workers never insert the same assembly.
+     */
+    private final Map<String, Thread> accessionsBeingIngested = new ConcurrentHashMap<>();
+
     private final Logger logger = LoggerFactory.getLogger(AssemblyService.class);
 
     @Autowired
     public AssemblyService(ChromosomeService chromosomeService, AssemblyRepository repository, ChromosomeRepository chromosomeRepository,
+                           AssemblyIngestionCheckpointRepository checkpointRepository, SequenceAliasUpdater sequenceAliasUpdater,
                            NCBIAssemblyDataSource ncbiDataSource, ENAAssemblyDataSource enaDataSource,
-                           ChromosomeUpdater chromosomeUpdater) {
+                           ChromosomeUpdater chromosomeUpdater, MeterRegistry meterRegistry) {
         this.chromosomeService = chromosomeService;
         this.assemblyRepository = repository;
         this.chromosomeRepository = chromosomeRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.sequenceAliasUpdater = sequenceAliasUpdater;
         this.ncbiDataSource = ncbiDataSource;
         this.enaDataSource = enaDataSource;
         this.chromosomeUpdater = chromosomeUpdater;
+        this.downloadTimer = meterRegistry.timer(INGESTION_DOWNLOAD_METRIC, "source", "ncbi");
+        this.parseTimer = meterRegistry.timer(INGESTION_BATCH_METRIC, "phase", "parse");
+        this.insertTimer = meterRegistry.timer(INGESTION_BATCH_METRIC, "phase", "insert");
+        this.parsedCounter = meterRegistry.counter(INGESTION_SEQUENCES_METRIC, "phase", "parse");
+        this.insertedCounter = meterRegistry.counter(INGESTION_SEQUENCES_METRIC, "phase", "insert");
     }
 
+    @Cacheable(ASSEMBLIES_BY_INSDC_ACCESSION_CACHE)
     public Optional<AssemblyEntity> getAssemblyByInsdcAccession(String insdcAccession) {
-        Optional<AssemblyEntity> entity = assemblyRepository.findAssemblyEntityByInsdcAccession(insdcAccession);
-        return entity;
+        return assemblyRepository.findCompleteAssemblyEntityByInsdcAccession(insdcAccession)
+                                 .map(AssemblyEntity::copyWithoutChromosomes);
     }
 
+    @Cacheable(ASSEMBLIES_BY_REFSEQ_CACHE)
     public Optional<AssemblyEntity> getAssemblyByRefseq(String refseq) {
-        Optional<AssemblyEntity> entity = assemblyRepository.findAssemblyEntityByRefseq(refseq);
-        return entity;
+        return assemblyRepository.findCompleteAssemblyEntityByRefseq(refseq)
+                                 .map(AssemblyEntity::copyWithoutChromosomes);
     }
 
+    @Cacheable(ASSEMBLIES_BY_TAXID_CACHE)
     public Page<AssemblyEntity> getAssembliesByTaxid(long taxid, Pageable request) {
-        Page<AssemblyEntity> page = assemblyRepository.findAssemblyEntitiesByTaxid(taxid, request);
-        return page;
+        return assemblyRepository.findCompleteAssemblyEntitiesByTaxid(taxid, request)
+                                 .map(AssemblyEntity::copyWithoutChromosomes);
     }
 
     public void putAssemblyChecksumsByAccession(String accession, String md5, String trunc512) {
@@ -105,72 +199,271 @@ public class AssemblyService {
         AssemblyEntity assemblyEntity = entity.get();
         assemblyEntity.setMd5checksum(md5).setTrunc512checksum(trunc512);
         assemblyRepository.save(assemblyEntity);
+        AssemblyChangedEvent.publish(this, assemblyEntity.getInsdcAccession(), AssemblyChangedEvent.ChangeType.UPDATED);
     }
 
     public void fetchAndInsertAssembly(String accession) {
-        // check if assembly already exists in db
-        Optional<AssemblyEntity> entity = assemblyRepository.findAssemblyEntityByAccession(accession);
-        if (entity.isPresent()) {
-            throw duplicateAssemblyInsertionException(accession, entity.get());
+        try {
+            claimAccession(accession);
+            // check if assembly already exists in db, unless a previous ingestion of it was interrupted
+            Optional<AssemblyEntity> entity = assemblyRepository.findAssemblyEntityByAccession(accession);
+            if (entity.isPresent() && !findIngestionCheckpoint(accession).isPresent()) {
+                throw duplicateAssemblyInsertionException(accession, entity.get());
+            }
+
+            try {
+                // download file and save assembly and chromosome data
+                logger.info("Start inserting assembly for accession " + accession);
+                parseFileAndInsertAssembly(accession);
+                logger.info("Successfully inserted assembly for accession " + accession);
+                AssemblyChangedEvent.publish(this, accession, AssemblyChangedEvent.ChangeType.INSERTED);
+            } catch (DuplicateAssemblyException | AssemblyIngestionException e) {
+                throw e;
+            } catch (Exception e) {
+                // failed before owning the assembly, so nothing of it was inserted by this worker
+                logger.error("Exception while inserting assembly " + accession + "\n" + e);
+                throw new AssemblyIngestionException(accession);
+            }
+        } finally {
+            accessionsBeingIngested.values().removeIf(thread -> thread == Thread.currentThread());
         }
+    }
 
-        try {
-            // download file and save assembly and chromosome data
-            logger.info("Start inserting assembly for accession " + accession);
-            parseFileAndInsertAssembly(accession);
-            logger.info("Successfully inserted assembly for accession " + accession);
-        } catch (Exception e) {
-            // roll back inserted entries in case of any exception or error
-            logger.error("Exception while inserting assembly " + accession + " Rolling back changes. \n" + e);
-            deleteEntriesForAssembly(accession);
-            throw new AssemblyIngestionException(accession);
+    /**
+     * Records that the current thread is ingesting the assembly with the given accession.
+     *
+     * @throws DuplicateAssemblyException If another thread is already ingesting it.
+     */
+    private void claimAccession(String accession) {
+        if (accession == null) {
+            return;
+        }
+        Thread owner = accessionsBeingIngested.putIfAbsent(accession, Thread.currentThread());
+        if (owner != null && owner != Thread.currentThread()) {
+            throw duplicateAssemblyInsertionException(accession, null);
         }
     }
 
+    /**
+     * Downloads the report of the assembly and inserts it once the current thread owns the INSDC accession of the
+     * report. The assembly may have been requested with its other accession by another worker, so its entries and its
+     * checkpoint are only looked up, deleted or created by the owner. The report is deleted afterwards, whether the
+     * assembly was inserted or not.
+     *
+     * @throws DuplicateAssemblyException If another worker is ingesting the assembly or has inserted it.
+     * @throws AssemblyIngestionException If the insertion failed. Its entries are then deleted, unless the ingestion
+     *                                    is resumable.
+     */
     public void parseFileAndInsertAssembly(String accession) throws IOException {
+        Timer.Sample download = Timer.start();
         Optional<Path> downloadNCBIFilePathOpt = ncbiDataSource.downloadAssemblyReport(accession);
+        download.stop(downloadTimer);
         Path downloadedNCBIFilePath = downloadNCBIFilePathOpt.orElseThrow(() -> new AssemblyNotFoundException(accession));
+        try {
+            String insdcAccession = claimAssemblyOfReport(downloadedNCBIFilePath);
+            insertAssemblyFromReport(insdcAccession, downloadedNCBIFilePath);
+        } finally {
+            // delete the files after assembly insertion
+            Files.deleteIfExists(downloadedNCBIFilePath);
+        }
+    }
 
-        long numberOfChromosomesInFile = Files.lines(downloadedNCBIFilePath).filter(line -> !line.startsWith("#")).count();
-        logger.info("Number of chromosomes in assembly (" + accession + "): " + numberOfChromosomesInFile);
+    /**
+     * Claims the INSDC accession of the assembly of the report, its primary key, which the worker that asked for it
+     * already owns, so that exactly one of the workers given either accession of the assembly inserts it.
+     *
+     * @return The INSDC accession of the assembly.
+     * @throws DuplicateAssemblyException If another worker owns the accession, or has inserted the assembly before
+     *                                    this one claimed it.
+     */
+    private String claimAssemblyOfReport(Path reportPath) throws IOException {
+        List<String> asmDataLines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(reportPath.toFile()))) {
+            String line;
+            while ((line = reader.readLine()) != null && line.startsWith("#")) {
+                asmDataLines.add(line);
+            }
+        }
+        String insdcAccession = ncbiDataSource.getAssemblyEntity(asmDataLines).getInsdcAccession();
+        claimAccession(insdcAccession);
+        Optional<AssemblyEntity> present = assemblyRepository.findAssemblyEntityByAccession(insdcAccession);
+        if (present.isPresent() && !findIngestionCheckpoint(insdcAccession).isPresent()) {
+            throw duplicateAssemblyInsertionException(insdcAccession, present.get());
+        }
+        return insdcAccession;
+    }
 
-        AssemblyEntity assemblyEntity = ncbiDataSource.getAssemblyEntity(downloadedNCBIFilePath);
-        assemblyRepository.save(assemblyEntity);
+    /**
+     * Inserts the assembly of the report, owned by the current thread, resuming or deleting the entries of an
+     * interrupted ingestion of it.
+     */
+    private void insertAssemblyFromReport(String insdcAccession, Path reportPath) throws IOException {
+        AssemblyIngestionCheckpointEntity checkpoint = null;
+        if (resumableIngestion) {
+            checkpoint = getIngestionCheckpoint(insdcAccession, reportPath);
+        } else if (findIngestionCheckpoint(insdcAccession).isPresent()) {
+            logger.info("Deleting the entries of the interrupted ingestion of assembly " + insdcAccession);
+            deleteEntriesForAssembly(insdcAccession);
+        }
+        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(reportPath.toFile()))) {
+            long numberOfChromosomesInFile = parseReportAndInsertAssembly(bufferedReader, checkpoint);
+            logger.info("Number of chromosomes in assembly (" + insdcAccession + "): " + numberOfChromosomesInFile);
+        } catch (Exception e) {
+            if (resumableIngestion) {
+                // keep the inserted entries for the next ingestion of the assembly to resume from
+                logger.error("Exception while inserting assembly " + insdcAccession + " The next ingestion resumes " +
+                                     "from its last committed line. \n" + e);
+                throw new AssemblyIngestionException(insdcAccession);
+            }
+            // roll back inserted entries in case of any exception or error
+            logger.error("Exception while inserting assembly " + insdcAccession + " Rolling back changes. \n" + e);
+            deleteEntriesForAssembly(insdcAccession);
+            throw new AssemblyIngestionException(insdcAccession);
+        }
+        if (checkpoint != null) {
+            checkpointRepository.deleteCheckpointByAccession(checkpoint.getAccession());
+        }
+    }
 
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(downloadedNCBIFilePath.toFile()))) {
-            long chromosomesSavedTillNow = 0l;
-            List<String> chrLines = new ArrayList<>();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                if (line.startsWith("#")) {
-                    continue;
-                }
-                chrLines.add(line);
-                if (chrLines.size() == BATCH_SIZE) {
-                    List<ChromosomeEntity> chromosomeEntityList = ncbiDataSource.getChromosomeEntityList(assemblyEntity, chrLines);
-                    chromosomeService.insertAllChromosomes(chromosomeEntityList);
-                    chromosomesSavedTillNow += chrLines.size();
-                    logger.info("Number of chromosomes saved till now  : " + chromosomesSavedTillNow);
-
-                    chrLines = new ArrayList<>();
+    /**
+     * Reads an NCBI assembly report in a single pass. The "#" header lines that precede the first sequence line are
+     * parsed into the {@link AssemblyEntity}, which is saved before any of its chromosomes, and the sequence lines are
+     * then inserted in batches of {@link #BATCH_SIZE} as they are read.
+     *
+     * @param reader Reader positioned at the start of the assembly report, e.g. over a downloaded file or over
+     *               {@link uk.ac.ebi.eva.contigalias.dus.NCBIBrowser#getAssemblyReportInputStream(String)}.
+     * @return Number of chromosomes inserted into the database.
+     * @throws IOException Passes IOException thrown by {@link BufferedReader#readLine()}
+     */
+    public long parseReportAndInsertAssembly(BufferedReader reader) throws IOException {
+        return parseReportAndInsertAssembly(reader, null);
+    }
+
+    /**
+     * Returns the checkpoint of the ingestion of the given report, which is created before any entry of the assembly
+     * is inserted so that an assembly in the database without a checkpoint is always complete. The entries inserted
+     * from another report by an interrupted ingestion are deleted, as the ingestion has to start over.
+     */
+    private AssemblyIngestionCheckpointEntity getIngestionCheckpoint(String accession, Path reportPath)
+            throws IOException {
+        String reportName = reportPath.getFileName().toString();
+        long reportSize = Files.size(reportPath);
+        Optional<AssemblyIngestionCheckpointEntity> checkpoint = findIngestionCheckpoint(accession);
+        if (checkpoint.isPresent()) {
+            if (checkpoint.get().getReportName().equals(reportName) && checkpoint.get().getReportSize() == reportSize) {
+                logger.info("Resume inserting assembly for accession " + accession + " after line " +
+                                    checkpoint.get().getLastCommittedLine());
+                return checkpoint.get();
+            }
+            logger.info("Assembly report of " + accession + " changed since its ingestion was interrupted, " +
+                                "starting over");
+            deleteEntriesForAssembly(accession);
+        }
+        return checkpointRepository.save(new AssemblyIngestionCheckpointEntity(accession, reportName, reportSize));
+    }
+
+    /**
+     * @return The checkpoint of the interrupted ingestion of the assembly with the given accession, which may have been
+     * requested with its other accession.
+     */
+    private Optional<AssemblyIngestionCheckpointEntity> findIngestionCheckpoint(String accession) {
+        return checkpointRepository.findFirstByAccessionIn(getAccessionsOfAssembly(accession));
+    }
+
+    /**
+     * @return The given accession, along with the INSDC and RefSeq accessions of the assembly having it if there is one.
+     */
+    private Set<String> getAccessionsOfAssembly(String accession) {
+        Set<String> accessions = new HashSet<>();
+        accessions.add(accession);
+        assemblyRepository.findAssemblyEntityByAccession(accession).ifPresent(assembly -> {
+            if (assembly.getInsdcAccession() != null) {
+                accessions.add(assembly.getInsdcAccession());
+            }
+            if (assembly.getRefseq() != null) {
+                accessions.add(assembly.getRefseq());
+            }
+        });
+        return accessions;
+    }
+
+    /**
+     * @param checkpoint Checkpoint of a resumable ingestion, or null to insert all the sequences of the report. The
+     *                   sequences up to its last committed line are skipped, the others are upserted and the line of
+     *                   each batch is recorded once the batch is committed.
+     */
+    private long parseReportAndInsertAssembly(BufferedReader reader, AssemblyIngestionCheckpointEntity checkpoint)
+            throws IOException {
+        List<String> asmDataLines = new ArrayList<>();
+        AssemblyEntity assemblyEntity = null;
+        long chromosomesSavedTillNow = 0L;
+        List<String> chrLines = new ArrayList<>();
+        long lastCommittedLine = checkpoint == null ? 0L : checkpoint.getLastCommittedLine();
+        long lineNumber = 0L;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.startsWith("#")) {
+                if (assemblyEntity == null) {
+                    asmDataLines.add(line);
                 }
+                continue;
             }
-            if (!chrLines.isEmpty()) {
-                List<ChromosomeEntity> chromosomeEntityList = ncbiDataSource.getChromosomeEntityList(assemblyEntity, chrLines);
-                chromosomeService.insertAllChromosomes(chromosomeEntityList);
-                chromosomesSavedTillNow += chrLines.size();
+            if (assemblyEntity == null) {
+                assemblyEntity = saveAssemblyFromReportHeader(asmDataLines);
+            }
+            if (lineNumber <= lastCommittedLine) {
+                // inserted by the ingestion being resumed
+                chromosomesSavedTillNow++;
+                continue;
+            }
+            chrLines.add(line);
+            if (chrLines.size() == BATCH_SIZE) {
+                chromosomesSavedTillNow += insertChromosomeBatch(assemblyEntity, chrLines, checkpoint, lineNumber);
                 logger.info("Number of chromosomes saved till now  : " + chromosomesSavedTillNow);
+                chrLines = new ArrayList<>();
             }
         }
+        if (assemblyEntity == null) {
+            // report without any sequence lines
+            saveAssemblyFromReportHeader(asmDataLines);
+        } else if (!chrLines.isEmpty()) {
+            chromosomesSavedTillNow += insertChromosomeBatch(assemblyEntity, chrLines, checkpoint, lineNumber);
+            logger.info("Number of chromosomes saved till now  : " + chromosomesSavedTillNow);
+        }
+        return chromosomesSavedTillNow;
+    }
 
-        // delete the files after assembly insertion
-        Files.deleteIfExists(downloadedNCBIFilePath);
+    private AssemblyEntity saveAssemblyFromReportHeader(List<String> asmDataLines) {
+        AssemblyEntity assemblyEntity = ncbiDataSource.getAssemblyEntity(asmDataLines);
+        assemblyRepository.save(assemblyEntity);
+        return assemblyEntity;
+    }
+
+    private int insertChromosomeBatch(AssemblyEntity assemblyEntity, List<String> chrLines,
+                                      AssemblyIngestionCheckpointEntity checkpoint, long lineNumber) {
+        List<ChromosomeEntity> chromosomeEntityList = parseTimer.record(
+                () -> ncbiDataSource.getChromosomeEntityList(assemblyEntity, chrLines));
+        parsedCounter.increment(chromosomeEntityList.size());
+        if (checkpoint == null) {
+            insertTimer.record(() -> chromosomeService.insertAllChromosomes(chromosomeEntityList));
+        } else {
+            // a batch inserted again, after a failure between its insertion and the checkpoint, replaces its rows
+            insertTimer.record(() -> chromosomeService.upsertAllChromosomes(chromosomeEntityList));
+            checkpointRepository.save(checkpoint.setLastCommittedLine(lineNumber));
+        }
+        insertedCounter.increment(chromosomeEntityList.size());
+        return chromosomeEntityList.size();
     }
 
     @Retryable(value = Exception.class, maxAttempts = 5, backoff = @Backoff(delay = 2000, multiplier=2))
     public void deleteEntriesForAssembly(String accession) {
+        Set<String> accessions = getAccessionsOfAssembly(accession);
         chromosomeRepository.deleteChromosomeEntitiesByAssembly_InsdcAccession(accession);
+        sequenceAliasUpdater.deleteAliases(accession);
         assemblyRepository.deleteAssemblyEntityByInsdcAccessionOrRefseq(accession);
+        checkpointRepository.deleteCheckpointsByAccessionIn(accessions);
+        AssemblyChangedEvent.publish(this, accession, AssemblyChangedEvent.ChangeType.DELETED);
     }
 
     public void retrieveAndInsertMd5ChecksumForAssembly(String assembly) {
@@ -203,9 +496,21 @@ public class AssemblyService {
         return chromosomeUpdater.getScheduledJobStatus();
     }
 
+    @Cacheable(ASSEMBLIES_BY_ACCESSION_CACHE)
     public Optional<AssemblyEntity> getAssemblyByAccession(String accession) {
-        Optional<AssemblyEntity> assemblyEntity = assemblyRepository.findAssemblyEntityByAccession(accession);
-        return assemblyEntity;
+        return assemblyRepository.findCompleteAssemblyEntityByAccession(accession)
+                                 .map(AssemblyEntity::copyWithoutChromosomes);
+    }
+
+    /**
+     * Empties the assembly caches once the transaction that changed an assembly is over, whether it was committed or
+     * rolled back, so that they never keep what was read in between.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    @CacheEvict(cacheNames = {ASSEMBLIES_BY_ACCESSION_CACHE, ASSEMBLIES_BY_INSDC_ACCESSION_CACHE,
+            ASSEMBLIES_BY_REFSEQ_CACHE, ASSEMBLIES_BY_TAXID_CACHE}, allEntries = true)
+    public void onAssemblyChanged(AssemblyChangedEvent event) {
+        logger.debug("Assembly caches emptied after " + event);
     }
 
     @Transactional
@@ -214,6 +519,8 @@ public class AssemblyService {
             throw duplicateAssemblyInsertionException(null, entity);
         } else {
             assemblyRepository.save(entity);
+            sequenceAliasUpdater.updateAliases(entity.getInsdcAccession());
+            AssemblyChangedEvent.publish(this, entity.getInsdcAccession(), AssemblyChangedEvent.ChangeType.INSERTED);
         }
     }
 
@@ -231,19 +538,37 @@ public class AssemblyService {
         return existingAssembly.isPresent();
     }
 
+    /**
+     * Ingests the assemblies with {@link #ingestionWorkers} workers, each of them downloading, parsing and inserting
+     * one assembly at a time, so that the stages of different assemblies overlap. Every assembly is inserted (or rolled
+     * back) on its own, as with {@link #fetchAndInsertAssembly(String)}.
+     *
+     * @return The accessions inserted under "SUCCESS" and the others under "FAILURE", in the order given.
+     */
     public Map<String, List<String>> fetchAndInsertAssembly(List<String> accessions) {
         Map<String, List<String>> accessionResult = new HashMap<>();
         accessionResult.put("SUCCESS", new ArrayList<>());
         accessionResult.put("FAILURE", new ArrayList<>());
 
-        for (String accession : accessions) {
+        int workers = Math.min(ingestionWorkers, accessions.size());
+        if (workers <= 1) {
+            for (String accession : accessions) {
+                String result = fetchAndInsertAssemblyForResult(accession);
+                accessionResult.get(result).add(accession);
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    workers, new CustomizableThreadFactory("assembly-ingestion-"));
             try {
-                logger.info("Started processing assembly accession : " + accession);
-                this.fetchAndInsertAssembly(accession);
-                accessionResult.get("SUCCESS").add(accession);
-            } catch (Exception e) {
-                logger.error("Exception while loading assembly for accession " + accession + e);
-                accessionResult.get("FAILURE").add(accession);
+                List<Future<String>> results = new ArrayList<>();
+                for (String accession : accessions) {
+                    results.add(executor.submit(() -> fetchAndInsertAssemblyForResult(accession)));
+                }
+                for (int i = 0; i < accessions.size(); i++) {
+                    accessionResult.get(getResult(accessions.get(i), results.get(i))).add(accessions.get(i));
+                }
+            } finally {
+                executor.shutdownNow();
             }
         }
         logger.info("Success: " + accessionResult.getOrDefault("SUCCESS", Collections.emptyList()));
@@ -252,6 +577,30 @@ public class AssemblyService {
         return accessionResult;
     }
 
+    private String fetchAndInsertAssemblyForResult(String accession) {
+        try {
+            logger.info("Started processing assembly accession : " + accession);
+            this.fetchAndInsertAssembly(accession);
+            return "SUCCESS";
+        } catch (Exception e) {
+            logger.error("Exception while loading assembly for accession " + accession + e);
+            return "FAILURE";
+        }
+    }
+
+    private String getResult(String accession, Future<String> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            logger.error("Exception while loading assembly for accession " + accession + e.getCause());
+            return "FAILURE";
+        } catch (InterruptedException e) {
+            // the ingestions left are interrupted when the executor is shut down
+            Thread.currentThread().interrupt();
+            return "FAILURE";
+        }
+    }
+
     private DuplicateAssemblyException duplicateAssemblyInsertionException(String accession, AssemblyEntity present) {
         StringBuilder exception = new StringBuilder("A similar assembly already exists!");
         if (accession != null) {
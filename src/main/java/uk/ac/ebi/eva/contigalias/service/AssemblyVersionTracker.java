@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps a version for every assembly, which changes whenever an {@link AssemblyChangedEvent} is published for it, so
+ * that clients can revalidate what they read about an assembly with an ETag or Last-Modified instead of downloading it
+ * again.
+ * <p>
+ * Versions are stored in the version and last_modified columns of the assembly table, which are updated in the
+ * transaction that changes the assembly. Every instance of the web service therefore hands out the same ETag for the
+ * same data, and the new one as soon as the change is visible. The time of the change is part of the ETag, so that an
+ * assembly deleted and inserted again doesn't get back an ETag it had before. So is
+ * {@link AssemblyVersion#REPRESENTATION_VERSION}, so that a change to the responses themselves also changes the ETags.
+ */
+@Component
+public class AssemblyVersionTracker {
+
+    private static final String UPDATE_VERSION = "UPDATE assembly SET version = version + 1, " +
+            "last_modified = CURRENT_TIMESTAMP WHERE insdc_accession = ? OR refseq = ?";
+
+    private static final String SELECT_VERSION = "SELECT version, last_modified, insdc_accession, refseq " +
+            "FROM assembly a WHERE (insdc_accession = ? OR refseq = ?) AND NOT EXISTS " +
+            "(SELECT 1 FROM assembly_ingestion_checkpoint c WHERE c.accession = a.insdc_accession OR " +
+            "c.accession = a.refseq)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public AssemblyVersionTracker(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Bumped before the change is committed, in the same transaction, so that the new data is never visible with the
+     * old version. The row of a deleted assembly is gone along with its version.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAssemblyChanged(AssemblyChangedEvent event) {
+        if (event.getChangeType() == AssemblyChangedEvent.ChangeType.DELETED) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive() && entityManager.isJoinedToTransaction()) {
+            // An assembly saved through JPA only reaches the database at commit otherwise
+            entityManager.flush();
+        }
+        jdbcTemplate.update(UPDATE_VERSION, event.getAccession(), event.getAccession());
+    }
+
+    /**
+     * @return The current version of the assembly having the given INSDC or RefSeq accession, if it exists and its
+     * ingestion is complete. Only the
+     * assembly table is queried, never the (per instance) assembly cache.
+     */
+    public Optional<AssemblyVersion> getVersion(String accession) {
+        List<AssemblyVersion> versions = jdbcTemplate.query(
+                SELECT_VERSION,
+                (resultSet, rowNum) -> new AssemblyVersion(resultSet.getLong(1), resultSet.getTimestamp(2),
+                                                           resultSet.getString(3), resultSet.getString(4)),
+                accession, accession);
+        return versions.stream().findFirst();
+    }
+
+    public static class AssemblyVersion {
+
+        /**
+         * Version of the representation of the assemblies and their sequences in the responses, to be incremented
+         * whenever it changes, so that clients don't revalidate what they cached in the previous one.
+         */
+        public static final int REPRESENTATION_VERSION = 2;
+
+        private final long version;
+
+        /**
+         * Milliseconds since the epoch, or -1 if the time of the last change is unknown.
+         */
+        private final long lastModified;
+
+        private final String insdcAccession;
+
+        private final String refseq;
+
+        public AssemblyVersion(long version, Timestamp lastModified, String insdcAccession, String refseq) {
+            this.version = version;
+            this.lastModified = lastModified == null ? -1 : lastModified.getTime();
+            this.insdcAccession = insdcAccession;
+            this.refseq = refseq;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getInsdcAccession() {
+            return insdcAccession;
+        }
+
+        public String getRefseq() {
+            return refseq;
+        }
+
+        /**
+         * @return True if the given accession is the INSDC or the RefSeq accession of the assembly.
+         */
+        public boolean isAccessionOfAssembly(String accession) {
+            return accession.equals(insdcAccession) || accession.equals(refseq);
+        }
+
+        /**
+         * @return A weak ETag identifying this version of the assembly and its sequences.
+         */
+        public String getETag() {
+            return "W/\"" + REPRESENTATION_VERSION + "-" +
+                    Long.toString(Math.max(lastModified, 0), Character.MAX_RADIX) + "-" + version + "\"";
+        }
+    }
+}
@@ -0,0 +1,829 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
+import uk.ac.ebi.eva.contigalias.repo.AssemblyRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-memory copy of the chromosome table that answers lookups by any of the naming conventions of a sequence
+ * without querying the database. It is enabled with {@code config.chromosome.alias-index.enabled=true}, built once
+ * the application is ready and refreshed assembly by assembly on {@link AssemblyChangedEvent}s.
+ * <p>
+ * Sequences are stored column-wise in arrays and addressed by their row number. Each naming convention has an open
+ * addressing hash table from the name to the first row holding it, and rows sharing the same name are chained through
+ * an int array in the order used by the repository queries (INSDC accession descending, then assembly accession
+ * descending), so that pages can be cut directly from a chain. Names are not stored a second time as keys, and rows
+ * sharing a name share the same String instance. The number of sequences is bounded by
+ * {@code config.chromosome.alias-index.max-sequences}, beyond which the index disables itself and every lookup goes to
+ * the database.
+ * <p>
+ * Lookups return null whenever the index cannot answer (disabled, still building, name not present or a sorted
+ * {@link Pageable}), in which case the caller is expected to query the database.
+ */
+@Component
+public class ChromosomeAliasIndex {
+
+    /**
+     * The values a sequence can be looked up by. The order matches the first columns of {@link #SELECT_CHROMOSOMES}.
+     */
+    public enum Key {
+        INSDC_ACCESSION("insdc_accession"),
+        REFSEQ("refseq"),
+        GENBANK_SEQUENCE_NAME("genbank_sequence_name"),
+        ENA_SEQUENCE_NAME("ena_sequence_name"),
+        UCSC_NAME("ucsc_name"),
+        MD5_CHECKSUM("md5checksum");
+
+        private final String column;
+
+        Key(String column) {
+            this.column = column;
+        }
+
+        /**
+         * @return Name of the column of the chromosome table holding this value.
+         */
+        public String getColumn() {
+            return column;
+        }
+    }
+
+    /**
+     * The naming conventions matched by a search without a naming convention.
+     */
+    static final Key[] NAME_KEYS = {Key.GENBANK_SEQUENCE_NAME, Key.ENA_SEQUENCE_NAME, Key.INSDC_ACCESSION,
+            Key.REFSEQ, Key.UCSC_NAME};
+
+    private static final String SELECT_CHROMOSOMES = "SELECT insdc_accession, refseq, genbank_sequence_name, " +
+            "ena_sequence_name, ucsc_name, md5checksum, trunc512checksum, seq_length, contig_type, " +
+            "assembly_insdc_accession FROM chromosome";
+
+    private static final int FETCH_SIZE = 10000;
+
+    private final Logger logger = LoggerFactory.getLogger(ChromosomeAliasIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AssemblyRepository assemblyRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${config.chromosome.alias-index.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${config.chromosome.alias-index.max-sequences:10000000}")
+    private int maxSequences = 10000000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Null while the index is disabled or has not been built yet. Guarded by {@link #lock}.
+     */
+    private Store store;
+
+    /**
+     * Accessions of the assemblies that changed while the index was being built, replayed once it is in place.
+     * Guarded by this.
+     */
+    private final Set<String> changedWhileBuilding = new LinkedHashSet<>();
+
+    private boolean building = false;
+
+    @Autowired
+    public ChromosomeAliasIndex(JdbcTemplate jdbcTemplate, AssemblyRepository assemblyRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.assemblyRepository = assemblyRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // See AssemblyChangedEvent for why the transaction is a new one
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return store != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return store == null ? 0 : store.size - store.deleted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssemblyChanged(AssemblyChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (building) {
+                changedWhileBuilding.add(event.getAccession());
+                return;
+            }
+        }
+        if (event.getChangeType() == AssemblyChangedEvent.ChangeType.DELETED) {
+            removeAssembly(event.getAccession());
+        } else {
+            reloadAssembly(event.getAccession());
+        }
+    }
+
+    /**
+     * Reads the whole chromosome table into a new index and replaces the current one with it.
+     */
+    public void rebuild() {
+        synchronized (this) {
+            if (building) {
+                return;
+            }
+            building = true;
+        }
+        Store newStore = null;
+        try {
+            logger.info("Building chromosome alias index");
+            long start = System.currentTimeMillis();
+            newStore = readOnlyTransaction.execute(status -> loadStore());
+            logger.info("Chromosome alias index built with " + newStore.size + " sequences in " +
+                                (System.currentTimeMillis() - start) + " ms");
+        } catch (IndexFullException e) {
+            logger.warn("Chromosome alias index disabled: " + e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Could not build chromosome alias index", e);
+        }
+
+        List<String> toReplay;
+        synchronized (this) {
+            setStore(newStore);
+            building = false;
+            toReplay = new ArrayList<>(changedWhileBuilding);
+            changedWhileBuilding.clear();
+        }
+        if (newStore != null) {
+            toReplay.forEach(this::reloadAssembly);
+        }
+    }
+
+    private Store loadStore() {
+        Store newStore = new Store(maxSequences);
+        // The sequences of the assemblies left out here are skipped by Store#addRow
+        for (AssemblyEntity assembly : assemblyRepository.findCompleteAssemblyEntities()) {
+            newStore.putAssembly(assembly);
+        }
+        // Ascending order makes every row the new head of its chains, see Store#link
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    SELECT_CHROMOSOMES + " ORDER BY insdc_accession, assembly_insdc_accession");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> newStore.addRow(resultSet));
+        return newStore;
+    }
+
+    /**
+     * Replaces the sequences of the given assembly with the ones currently in the database.
+     */
+    public void reloadAssembly(String accession) {
+        List<Object[]> rows = new ArrayList<>();
+        Optional<AssemblyEntity> assembly = readOnlyTransaction.execute(status -> {
+            Optional<AssemblyEntity> entity = assemblyRepository.findCompleteAssemblyEntityByAccession(accession);
+            entity.ifPresent(it -> jdbcTemplate.query(
+                    SELECT_CHROMOSOMES + " WHERE assembly_insdc_accession = ? ORDER BY insdc_accession",
+                    (RowCallbackHandler) resultSet -> rows.add(Store.readRow(resultSet)), it.getInsdcAccession()));
+            return entity;
+        });
+        if (!assembly.isPresent()) {
+            removeAssembly(accession);
+            return;
+        }
+        String insdcAccession = assembly.get().getInsdcAccession();
+
+        boolean compact = false;
+        lock.writeLock().lock();
+        try {
+            if (store == null) {
+                return;
+            }
+            // The freed rows are reused by the new ones, so reloading an assembly does not grow the index
+            store.removeRows(insdcAccession);
+            store.putAssembly(assembly.get());
+            for (Object[] row : rows) {
+                store.addRow(row);
+            }
+            compact = store.needsCompaction();
+        } catch (IndexFullException e) {
+            logger.warn("Chromosome alias index disabled: " + e.getMessage());
+            store = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Removes the given assembly and its sequences. The freed rows are reused by later sequences, or reclaimed by a
+     * rebuild once they make up more than half of the index.
+     */
+    public void removeAssembly(String accession) {
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            if (store == null) {
+                return;
+            }
+            store.removeAssembly(accession);
+            compact = store.needsCompaction();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            rebuild();
+        }
+    }
+
+    private void setStore(Store newStore) {
+        lock.writeLock().lock();
+        try {
+            store = newStore;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param key                    Naming convention to look the value up in.
+     * @param value                  Name or accession of the sequence.
+     * @param assemblyInsdcAccession If not null, only sequences of the assembly with this INSDC accession are returned.
+     * @return The requested page of sequences with their assembly, or null if the index cannot answer.
+     */
+    public Page<ChromosomeEntity> find(Key key, String value, String assemblyInsdcAccession, Pageable pageable) {
+        return find(new Key[]{key}, value, assemblyInsdcAccession, pageable);
+    }
+
+    /**
+     * Same as {@link #find(Key, String, String, Pageable)} but matching the value against the GenBank, ENA and UCSC
+     * names and the INSDC and RefSeq accessions of the sequences at once.
+     */
+    public Page<ChromosomeEntity> findByAnyName(String value, String assemblyInsdcAccession, Pageable pageable) {
+        return find(NAME_KEYS, value, assemblyInsdcAccession, pageable);
+    }
+
+    /**
+     * Translates names from one naming convention to another within an assembly. When several sequences of the assembly
+     * share a name, the first one in repository order is used.
+     *
+     * @param from                   Naming convention of the given names.
+     * @param to                     Naming convention to translate to.
+     * @param values                 Names to translate.
+     * @param assemblyInsdcAccession INSDC accession of the assembly the sequences belong to.
+     * @return The translation of each name found in the assembly, which may be null if the sequence has no name in the
+     * target convention, or null if the index cannot answer.
+     */
+    public Map<String, String> translate(Key from, Key to, Collection<String> values, String assemblyInsdcAccession) {
+        if (!enabled) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (store == null) {
+                return null;
+            }
+            return store.translate(from, to, values, assemblyInsdcAccession);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Page<ChromosomeEntity> find(Key[] keys, String value, String assemblyInsdcAccession, Pageable pageable) {
+        if (!enabled || value == null || pageable.getSort().isSorted()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (store == null) {
+                return null;
+            }
+            int[] rows = store.findRows(keys, value, assemblyInsdcAccession);
+            if (rows == null) {
+                return null;
+            }
+            int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), rows.length) : 0;
+            int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), rows.length) : rows.length;
+            List<ChromosomeEntity> content = new ArrayList<>(to - from);
+            Map<Integer, AssemblyEntity> assemblies = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                content.add(store.toEntity(rows[i], assemblies));
+            }
+            return new PageImpl<>(content, pageable, rows.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static class IndexFullException extends RuntimeException {
+        IndexFullException(int maxSequences) {
+            super("more than " + maxSequences + " sequences (config.chromosome.alias-index.max-sequences)");
+        }
+    }
+
+    /**
+     * The data of the index. Not thread-safe, access is guarded by {@link #lock}.
+     */
+    private static final class Store {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private static final int EMPTY = 0;
+
+        /**
+         * Slot of a hash table whose name no longer has any row. Keeps probe sequences intact until the next rehash.
+         */
+        private static final int REMOVED = -1;
+
+        private static final int END_OF_CHAIN = -1;
+
+        private static final long NO_LENGTH = Long.MIN_VALUE;
+
+        private static final SequenceEntity.ContigType[] CONTIG_TYPES = SequenceEntity.ContigType.values();
+
+        private final int maxSequences;
+
+        private final List<AssemblyEntity> assemblies = new ArrayList<>();
+
+        private final Map<String, Integer> assemblyIds = new HashMap<>();
+
+        /**
+         * Column of every {@link Key}, indexed by row.
+         */
+        private final String[][] keys = new String[Key.values().length][];
+
+        private String[] trunc512checksums;
+
+        private long[] seqLengths;
+
+        /**
+         * Ordinal of the contig type plus one, 0 when unknown.
+         */
+        private byte[] contigTypes;
+
+        /**
+         * Index in {@link #assemblies}, -1 for free rows.
+         */
+        private int[] assemblyOfRow;
+
+        /**
+         * First row of every assembly in {@link #assemblies}, or {@link #END_OF_CHAIN}.
+         */
+        private final List<Integer> firstRowOfAssembly = new ArrayList<>();
+
+        /**
+         * The next row of the same assembly, or the next free row for rows of deleted assemblies.
+         */
+        private int[] nextRowOfAssembly;
+
+        /**
+         * First row freed by {@link #removeRows}, reused by {@link #addRow} before the columns are extended.
+         */
+        private int firstFreeRow = END_OF_CHAIN;
+
+        /**
+         * For every {@link Key}, the next row with the same value or {@link #END_OF_CHAIN}.
+         */
+        private final int[][] nextRow = new int[Key.values().length][];
+
+        /**
+         * For every {@link Key}, hash table holding the first row (plus one) of the chain of each value.
+         */
+        private final int[][] heads = new int[Key.values().length][];
+
+        /**
+         * For every {@link Key}, number of non-empty slots in {@link #heads}, including {@link #REMOVED} ones.
+         */
+        private final int[] usedSlots = new int[Key.values().length];
+
+        /**
+         * Number of rows in use or freed, i.e. the length of the filled part of the columns.
+         */
+        private int size = 0;
+
+        /**
+         * Number of freed rows waiting to be reused.
+         */
+        private int deleted = 0;
+
+        Store(int maxSequences) {
+            this.maxSequences = maxSequences;
+            for (Key key : Key.values()) {
+                keys[key.ordinal()] = new String[INITIAL_CAPACITY];
+                nextRow[key.ordinal()] = new int[INITIAL_CAPACITY];
+                heads[key.ordinal()] = new int[INITIAL_CAPACITY * 2];
+            }
+            trunc512checksums = new String[INITIAL_CAPACITY];
+            seqLengths = new long[INITIAL_CAPACITY];
+            contigTypes = new byte[INITIAL_CAPACITY];
+            assemblyOfRow = new int[INITIAL_CAPACITY];
+            nextRowOfAssembly = new int[INITIAL_CAPACITY];
+        }
+
+        static Object[] readRow(ResultSet resultSet) throws SQLException {
+            Object[] row = new Object[10];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = i == 7 ? (Object) resultSet.getObject(i + 1) : resultSet.getString(i + 1);
+            }
+            return row;
+        }
+
+        void addRow(ResultSet resultSet) throws SQLException {
+            addRow(readRow(resultSet));
+        }
+
+        /**
+         * @param row Columns in the order of {@link #SELECT_CHROMOSOMES}.
+         */
+        void addRow(Object[] row) {
+            Integer assemblyId = assemblyIds.get((String) row[9]);
+            if (assemblyId == null) {
+                return;
+            }
+            int rowId;
+            if (firstFreeRow != END_OF_CHAIN) {
+                rowId = firstFreeRow;
+                firstFreeRow = nextRowOfAssembly[rowId];
+                deleted--;
+            } else {
+                if (size == maxSequences) {
+                    throw new IndexFullException(maxSequences);
+                }
+                if (size == assemblyOfRow.length) {
+                    grow();
+                }
+                rowId = size++;
+            }
+            for (Key key : Key.values()) {
+                keys[key.ordinal()][rowId] = (String) row[key.ordinal()];
+            }
+            trunc512checksums[rowId] = (String) row[6];
+            seqLengths[rowId] = row[7] == null ? NO_LENGTH : ((Number) row[7]).longValue();
+            contigTypes[rowId] = row[8] == null ? 0 : (byte) (SequenceEntity.ContigType.valueOf((String) row[8])
+                                                                                      .ordinal() + 1);
+            assemblyOfRow[rowId] = assemblyId;
+            nextRowOfAssembly[rowId] = firstRowOfAssembly.get(assemblyId);
+            firstRowOfAssembly.set(assemblyId, rowId);
+            for (Key key : Key.values()) {
+                link(key.ordinal(), rowId);
+            }
+        }
+
+        boolean needsCompaction() {
+            return deleted > size / 2;
+        }
+
+        private void grow() {
+            int capacity = assemblyOfRow.length * 2;
+            for (Key key : Key.values()) {
+                keys[key.ordinal()] = Arrays.copyOf(keys[key.ordinal()], capacity);
+                nextRow[key.ordinal()] = Arrays.copyOf(nextRow[key.ordinal()], capacity);
+            }
+            trunc512checksums = Arrays.copyOf(trunc512checksums, capacity);
+            seqLengths = Arrays.copyOf(seqLengths, capacity);
+            contigTypes = Arrays.copyOf(contigTypes, capacity);
+            assemblyOfRow = Arrays.copyOf(assemblyOfRow, capacity);
+            nextRowOfAssembly = Arrays.copyOf(nextRowOfAssembly, capacity);
+        }
+
+        void putAssembly(AssemblyEntity assembly) {
+            Integer assemblyId = assemblyIds.get(assembly.getInsdcAccession());
+            AssemblyEntity snapshot = assembly.copyWithoutChromosomes();
+            if (assemblyId == null) {
+                assemblyIds.put(assembly.getInsdcAccession(), assemblies.size());
+                assemblies.add(snapshot);
+                firstRowOfAssembly.add(END_OF_CHAIN);
+            } else {
+                assemblies.set(assemblyId, snapshot);
+            }
+        }
+
+        /**
+         * Removes the assembly with the given INSDC or RefSeq accession and all of its rows.
+         */
+        void removeAssembly(String accession) {
+            Integer assemblyId = assemblyIds.get(accession);
+            if (assemblyId == null) {
+                for (int i = 0; i < assemblies.size(); i++) {
+                    AssemblyEntity assembly = assemblies.get(i);
+                    if (assembly != null && accession.equals(assembly.getRefseq())) {
+                        assemblyId = i;
+                        break;
+                    }
+                }
+            }
+            if (assemblyId == null) {
+                return;
+            }
+            removeRows(assemblyId);
+            assemblyIds.remove(assemblies.get(assemblyId).getInsdcAccession());
+            assemblies.set(assemblyId, null);
+        }
+
+        /**
+         * Frees the rows of the assembly with the given INSDC accession, keeping the assembly itself.
+         */
+        void removeRows(String insdcAccession) {
+            Integer assemblyId = assemblyIds.get(insdcAccession);
+            if (assemblyId != null) {
+                removeRows(assemblyId);
+            }
+        }
+
+        private void removeRows(int assemblyId) {
+            int rowId = firstRowOfAssembly.get(assemblyId);
+            while (rowId != END_OF_CHAIN) {
+                int next = nextRowOfAssembly[rowId];
+                for (Key key : Key.values()) {
+                    unlink(key.ordinal(), rowId);
+                    keys[key.ordinal()][rowId] = null;
+                }
+                trunc512checksums[rowId] = null;
+                assemblyOfRow[rowId] = -1;
+                nextRowOfAssembly[rowId] = firstFreeRow;
+                firstFreeRow = rowId;
+                deleted++;
+                rowId = next;
+            }
+            firstRowOfAssembly.set(assemblyId, END_OF_CHAIN);
+        }
+
+        int[] findRows(Key[] searchKeys, String value, String assemblyInsdcAccession) {
+            Integer assemblyId = null;
+            if (assemblyInsdcAccession != null && !assemblyInsdcAccession.isEmpty()) {
+                assemblyId = assemblyIds.get(assemblyInsdcAccession);
+                if (assemblyId == null) {
+                    return null;
+                }
+            }
+            Set<Integer> seen = searchKeys.length > 1 ? new HashSet<>() : null;
+            int[] rows = new int[16];
+            int count = 0;
+            boolean found = false;
+            for (Key searchKey : searchKeys) {
+                int k = searchKey.ordinal();
+                int slot = findSlot(k, value);
+                if (slot < 0) {
+                    continue;
+                }
+                found = true;
+                for (int rowId = heads[k][slot] - 1; rowId != END_OF_CHAIN; rowId = nextRow[k][rowId]) {
+                    if ((assemblyId == null || assemblyOfRow[rowId] == assemblyId) &&
+                            (seen == null || seen.add(rowId))) {
+                        if (count == rows.length) {
+                            rows = Arrays.copyOf(rows, count * 2);
+                        }
+                        rows[count++] = rowId;
+                    }
+                }
+            }
+            if (!found) {
+                return null;
+            }
+            rows = Arrays.copyOf(rows, count);
+            if (searchKeys.length > 1) {
+                // Rows matched by different keys come from different chains
+                rows = Arrays.stream(rows).boxed()
+                             .sorted((a, b) -> a.equals(b) ? 0 : comesBefore(a, b) ? -1 : 1)
+                             .mapToInt(Integer::intValue)
+                             .toArray();
+            }
+            return rows;
+        }
+
+        Map<String, String> translate(Key from, Key to, Collection<String> values, String assemblyInsdcAccession) {
+            Integer assemblyId = assemblyIds.get(assemblyInsdcAccession);
+            if (assemblyId == null) {
+                return null;
+            }
+            int k = from.ordinal();
+            Map<String, String> translations = new HashMap<>();
+            for (String value : values) {
+                int slot = value == null ? -1 : findSlot(k, value);
+                if (slot < 0) {
+                    continue;
+                }
+                for (int rowId = heads[k][slot] - 1; rowId != END_OF_CHAIN; rowId = nextRow[k][rowId]) {
+                    if (assemblyOfRow[rowId] == assemblyId) {
+                        translations.put(value, keys[to.ordinal()][rowId]);
+                        break;
+                    }
+                }
+            }
+            return translations;
+        }
+
+        ChromosomeEntity toEntity(int rowId, Map<Integer, AssemblyEntity> assemblyCopies) {
+            ChromosomeEntity entity = new ChromosomeEntity();
+            entity.setInsdcAccession(keys[Key.INSDC_ACCESSION.ordinal()][rowId])
+                  .setRefseq(keys[Key.REFSEQ.ordinal()][rowId])
+                  .setGenbankSequenceName(keys[Key.GENBANK_SEQUENCE_NAME.ordinal()][rowId])
+                  .setEnaSequenceName(keys[Key.ENA_SEQUENCE_NAME.ordinal()][rowId])
+                  .setUcscName(keys[Key.UCSC_NAME.ordinal()][rowId])
+                  .setMd5checksum(keys[Key.MD5_CHECKSUM.ordinal()][rowId])
+                  .setTrunc512checksum(trunc512checksums[rowId])
+                  .setSeqLength(seqLengths[rowId] == NO_LENGTH ? null : seqLengths[rowId])
+                  .setAssembly(assemblyCopies.computeIfAbsent(assemblyOfRow[rowId],
+                                                              id -> assemblies.get(id).copyWithoutChromosomes()));
+            entity.setContigType(contigTypes[rowId] == 0 ? null : CONTIG_TYPES[contigTypes[rowId] - 1]);
+            return entity;
+        }
+
+        /**
+         * Whether row a is listed before row b, i.e. has a greater INSDC accession or the same one in an assembly with
+         * a greater INSDC accession.
+         */
+        private boolean comesBefore(int a, int b) {
+            String[] insdcAccessions = keys[Key.INSDC_ACCESSION.ordinal()];
+            int comparison = insdcAccessions[a].compareTo(insdcAccessions[b]);
+            if (comparison == 0) {
+                comparison = assemblies.get(assemblyOfRow[a]).getInsdcAccession()
+                                       .compareTo(assemblies.get(assemblyOfRow[b]).getInsdcAccession());
+            }
+            return comparison > 0;
+        }
+
+        /**
+         * Adds the row to the chain of its value for key k, keeping the chain ordered by {@link #comesBefore}.
+         */
+        private void link(int k, int rowId) {
+            String value = keys[k][rowId];
+            if (value == null) {
+                return;
+            }
+            int slot = findSlot(k, value);
+            if (slot < 0) {
+                int freeSlot = -slot - 1;
+                if (heads[k][freeSlot] == EMPTY) {
+                    usedSlots[k]++;
+                }
+                heads[k][freeSlot] = rowId + 1;
+                nextRow[k][rowId] = END_OF_CHAIN;
+                if (usedSlots[k] * 2 > heads[k].length) {
+                    rehash(k);
+                }
+                return;
+            }
+            int head = heads[k][slot] - 1;
+            keys[k][rowId] = keys[k][head];
+            if (comesBefore(rowId, head)) {
+                nextRow[k][rowId] = head;
+                heads[k][slot] = rowId + 1;
+            } else {
+                int previous = head;
+                while (nextRow[k][previous] != END_OF_CHAIN && !comesBefore(rowId, nextRow[k][previous])) {
+                    previous = nextRow[k][previous];
+                }
+                nextRow[k][rowId] = nextRow[k][previous];
+                nextRow[k][previous] = rowId;
+            }
+        }
+
+        private void unlink(int k, int rowId) {
+            String value = keys[k][rowId];
+            if (value == null) {
+                return;
+            }
+            int slot = findSlot(k, value);
+            int head = heads[k][slot] - 1;
+            if (head == rowId) {
+                heads[k][slot] = nextRow[k][rowId] == END_OF_CHAIN ? REMOVED : nextRow[k][rowId] + 1;
+            } else {
+                int previous = head;
+                while (nextRow[k][previous] != rowId) {
+                    previous = nextRow[k][previous];
+                }
+                nextRow[k][previous] = nextRow[k][rowId];
+            }
+        }
+
+        /**
+         * @return The slot of the chain for the value, or (-insertionSlot - 1) if there is none.
+         */
+        private int findSlot(int k, String value) {
+            int[] table = heads[k];
+            int mask = table.length - 1;
+            int slot = hash(value) & mask;
+            int firstRemoved = -1;
+            while (true) {
+                int head = table[slot];
+                if (head == EMPTY) {
+                    return -(firstRemoved >= 0 ? firstRemoved : slot) - 1;
+                }
+                if (head == REMOVED) {
+                    if (firstRemoved < 0) {
+                        firstRemoved = slot;
+                    }
+                } else if (value.equals(keys[k][head - 1])) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private void rehash(int k) {
+            int[] oldTable = heads[k];
+            int liveHeads = 0;
+            for (int head : oldTable) {
+                if (head > 0) {
+                    liveHeads++;
+                }
+            }
+            int capacity = Integer.highestOneBit(Math.max(liveHeads * 4, INITIAL_CAPACITY) - 1) << 1;
+            int[] table = new int[capacity];
+            int mask = capacity - 1;
+            for (int head : oldTable) {
+                if (head > 0) {
+                    int slot = hash(keys[k][head - 1]) & mask;
+                    while (table[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = head;
+                }
+            }
+            heads[k] = table;
+            usedSlots[k] = liveHeads;
+        }
+
+        private static int hash(String value) {
+            int h = value.hashCode();
+            return h ^ (h >>> 16);
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a keyset paginated listing of chromosomes: the key of the last chromosome of the previous page. It is
+ * handed to clients as an opaque URL-safe token, see {@link #encode()} and {@link #decode(String)}.
+ */
+public final class ChromosomeCursor {
+
+    private static final char SEPARATOR = '\t';
+
+    private final String insdcAccession;
+
+    private final String assemblyInsdcAccession;
+
+    public ChromosomeCursor(String insdcAccession, String assemblyInsdcAccession) {
+        this.insdcAccession = insdcAccession;
+        this.assemblyInsdcAccession = assemblyInsdcAccession;
+    }
+
+    /**
+     * @return The cursor of the page that follows the given chromosome, which must still have its assembly.
+     */
+    public static ChromosomeCursor after(ChromosomeEntity chromosome) {
+        return new ChromosomeCursor(chromosome.getInsdcAccession(), chromosome.getAssembly().getInsdcAccession());
+    }
+
+    /**
+     * @param token Token returned by {@link #encode()}, or an empty string for the first page.
+     * @return The decoded cursor, or null for the first page.
+     * @throws InvalidCursorException If the token was not produced by {@link #encode()}.
+     */
+    public static ChromosomeCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+        int separator = decoded.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == decoded.length() - 1) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+        return new ChromosomeCursor(decoded.substring(0, separator), decoded.substring(separator + 1));
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (insdcAccession + SEPARATOR + assemblyInsdcAccession).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getInsdcAccession() {
+        return insdcAccession;
+    }
+
+    public String getAssemblyInsdcAccession() {
+        return assemblyInsdcAccession;
+    }
+
+    @Override
+    public String toString() {
+        return "ChromosomeCursor{" +
+                "insdcAccession='" + insdcAccession + '\'' +
+                ", assemblyInsdcAccession='" + assemblyInsdcAccession + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,453 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeAliasIndex.Key;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Optional Bloom filter of the names of the sequences in each naming convention, which tells for certain that no
+ * sequence has a given name so that {@link ChromosomeService} can answer the lookup with an empty page without
+ * querying the database. It is enabled with {@code config.chromosome.name-filter.enabled=true}, built once the
+ * application is ready and its rate of false positives is set with
+ * {@code config.chromosome.name-filter.false-positive-rate}.
+ * <p>
+ * The names of an assembly are added on {@link AssemblyChangedEvent}s before the transaction that changed it commits,
+ * so that a lookup never misses a sequence that is already visible in the database. Sequences inserted or changed in
+ * batches that commit before that event, such as by the ingestion of an assembly report and by the MD5 checksum and
+ * ENA sequence name updaters, have their names added with {@link #addSequences} or {@link #addNames} as each batch is
+ * saved. Deleted or renamed sequences are not removed, they only add to the false positives. Each filter is sized for
+ * the number of names in the table plus some headroom and is rebuilt once more names than that have been added.
+ * <p>
+ * Lookups are counted in the {@value #METRIC_NAME} metric, tagged with the result "avoided" when the filter answered
+ * and "queried" when the database had to be queried.
+ */
+@Component
+public class ChromosomeNameFilter {
+
+    public static final String METRIC_NAME = "chromosome.name.filter";
+
+    private static final String NAME_COLUMNS = Arrays.stream(Key.values()).map(Key::getColumn)
+                                                     .collect(Collectors.joining(", "));
+
+    private static final String SELECT_NAMES = "SELECT " + NAME_COLUMNS + " FROM chromosome";
+
+    private static final String SELECT_ASSEMBLY_NAMES = SELECT_NAMES + " WHERE assembly_insdc_accession IN " +
+            "(SELECT insdc_accession FROM assembly WHERE insdc_accession = ? OR refseq = ?)";
+
+    private static final String COUNT_NAMES = "SELECT " + Arrays.stream(Key.values())
+                                                                .map(it -> "COUNT(" + it.getColumn() + ")")
+                                                                .collect(Collectors.joining(", ")) +
+            " FROM chromosome";
+
+    private static final int FETCH_SIZE = 10000;
+
+    /**
+     * Minimum number of names that can be added to a filter before it is rebuilt.
+     */
+    private static final long MIN_HEADROOM = 100000;
+
+    private final Logger logger = LoggerFactory.getLogger(ChromosomeNameFilter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Counter avoidedCounter;
+
+    private final Counter queriedCounter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${config.chromosome.name-filter.enabled:false}")
+    private volatile boolean enabled = false;
+
+    @Value("${config.chromosome.name-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Null while the filter is disabled or has not been built yet.
+     */
+    private volatile Filters filters;
+
+    /**
+     * Names added while the filter was being built, added to the new filter once it is in place. Guarded by this.
+     */
+    private final List<String[]> addedWhileBuilding = new ArrayList<>();
+
+    private boolean building = false;
+
+    private volatile boolean rebuildNeeded = false;
+
+    @Autowired
+    public ChromosomeNameFilter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // See AssemblyChangedEvent for why the transaction is a new one
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.avoidedCounter = registry == null ? null : createCounter(registry, "avoided");
+        this.queriedCounter = registry == null ? null : createCounter(registry, "queried");
+    }
+
+    private static Counter createCounter(MeterRegistry registry, String result) {
+        return Counter.builder(METRIC_NAME)
+                      .description("Sequence lookups by name checked against the name filter")
+                      .tag("result", result)
+                      .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return filters != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAssemblyChanged(AssemblyChangedEvent event) {
+        if (!enabled || event.getChangeType() == AssemblyChangedEvent.ChangeType.DELETED) {
+            return;
+        }
+        try {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                // Sequences saved through JPA only reach the database at commit otherwise
+                entityManager.flush();
+            }
+            List<String[]> names = new ArrayList<>();
+            jdbcTemplate.query(SELECT_ASSEMBLY_NAMES, (RowCallbackHandler) resultSet -> names.add(readNames(resultSet)),
+                               event.getAccession(), event.getAccession());
+            add(names);
+        } catch (RuntimeException e) {
+            // Throwing would roll the change back, and the filter can't be trusted without these names
+            logger.error("Chromosome name filter disabled, could not add the sequences of assembly " +
+                                 event.getAccession(), e);
+            disable();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onAssemblyChangeCompleted(AssemblyChangedEvent event) {
+        if (enabled && rebuildNeeded) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reads the names of all the sequences into new filters and replaces the current ones with them.
+     */
+    public void rebuild() {
+        synchronized (this) {
+            if (building || !enabled) {
+                return;
+            }
+            building = true;
+            rebuildNeeded = false;
+        }
+        Filters newFilters = null;
+        try {
+            logger.info("Building chromosome name filter");
+            long start = System.currentTimeMillis();
+            newFilters = readOnlyTransaction.execute(status -> loadFilters());
+            logger.info("Chromosome name filter built in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (RuntimeException e) {
+            logger.error("Could not build chromosome name filter", e);
+        }
+
+        synchronized (this) {
+            building = false;
+            if (newFilters != null) {
+                addedWhileBuilding.forEach(newFilters::add);
+                filters = newFilters;
+            } else if (filters == null) {
+                // Names are only kept for a filter that will never be built otherwise
+                enabled = false;
+            }
+            addedWhileBuilding.clear();
+        }
+    }
+
+    private Filters loadFilters() {
+        long[] counts = jdbcTemplate.queryForObject(COUNT_NAMES, (resultSet, rowNum) -> {
+            long[] values = new long[Key.values().length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = resultSet.getLong(i + 1);
+            }
+            return values;
+        });
+        Filters newFilters = new Filters(counts, falsePositiveRate);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_NAMES);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> newFilters.add(readNames(resultSet)));
+        return newFilters;
+    }
+
+    private static String[] readNames(ResultSet resultSet) throws SQLException {
+        String[] names = new String[Key.values().length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = resultSet.getString(i + 1);
+        }
+        return names;
+    }
+
+    /**
+     * Adds names of sequences in a single naming convention, for changes made outside of an
+     * {@link AssemblyChangedEvent}. Must be called before the transaction that made the change commits.
+     */
+    public void addNames(Key key, Collection<String> values) {
+        if (!enabled) {
+            return;
+        }
+        List<String[]> names = new ArrayList<>(values.size());
+        for (String value : values) {
+            String[] row = new String[Key.values().length];
+            row[key.ordinal()] = value;
+            names.add(row);
+        }
+        add(names);
+    }
+
+    /**
+     * Adds the names of sequences in every naming convention, for sequences saved outside of an
+     * {@link AssemblyChangedEvent}. Must be called before the transaction that saved them commits.
+     */
+    public void addSequences(Collection<? extends SequenceEntity> sequences) {
+        if (!enabled) {
+            return;
+        }
+        List<String[]> names = new ArrayList<>(sequences.size());
+        for (SequenceEntity sequence : sequences) {
+            String[] row = new String[Key.values().length];
+            row[Key.INSDC_ACCESSION.ordinal()] = sequence.getInsdcAccession();
+            row[Key.REFSEQ.ordinal()] = sequence.getRefseq();
+            row[Key.GENBANK_SEQUENCE_NAME.ordinal()] = sequence.getGenbankSequenceName();
+            row[Key.ENA_SEQUENCE_NAME.ordinal()] = sequence.getEnaSequenceName();
+            row[Key.UCSC_NAME.ordinal()] = sequence.getUcscName();
+            row[Key.MD5_CHECKSUM.ordinal()] = sequence.getMd5checksum();
+            names.add(row);
+        }
+        add(names);
+    }
+
+    private synchronized void add(List<String[]> names) {
+        if (building) {
+            addedWhileBuilding.addAll(names);
+        }
+        Filters current = filters;
+        if (current != null) {
+            for (String[] row : names) {
+                if (current.add(row)) {
+                    rebuildNeeded = true;
+                }
+            }
+        } else if (!building && enabled) {
+            // Not built yet, the names must still be in the filter once it is
+            addedWhileBuilding.addAll(names);
+        }
+    }
+
+    private synchronized void disable() {
+        enabled = false;
+        filters = null;
+        addedWhileBuilding.clear();
+    }
+
+    /**
+     * @return True only if no sequence has the value as its name in the given naming convention.
+     */
+    public boolean isAbsent(Key key, String value) {
+        return isAbsent(new Key[]{key}, value);
+    }
+
+    /**
+     * @return True only if no sequence has the value as its name in any of the naming conventions matched by a search
+     * without a naming convention.
+     */
+    public boolean isAbsentFromAnyName(String value) {
+        return isAbsent(ChromosomeAliasIndex.NAME_KEYS, value);
+    }
+
+    private boolean isAbsent(Key[] keys, String value) {
+        Filters current = filters;
+        if (current == null || value == null) {
+            return false;
+        }
+        long hash = hash(value);
+        for (Key key : keys) {
+            if (current.mightContain(key, hash)) {
+                increment(queriedCounter);
+                return false;
+            }
+        }
+        increment(avoidedCounter);
+        return true;
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the characters of the value, mixed with the finalizer of SplitMix64.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * One Bloom filter per naming convention, indexed by {@link Key#ordinal()}.
+     */
+    private static final class Filters {
+
+        private final BloomFilter[] filters = new BloomFilter[Key.values().length];
+
+        private Filters(long[] counts, double falsePositiveRate) {
+            for (int i = 0; i < filters.length; i++) {
+                filters[i] = new BloomFilter(counts[i] + Math.max(counts[i] / 4, MIN_HEADROOM), falsePositiveRate);
+            }
+        }
+
+        /**
+         * @param names Name of a sequence in each naming convention, indexed by {@link Key#ordinal()}.
+         * @return Whether one of the filters now holds more names than it was sized for.
+         */
+        private boolean add(String[] names) {
+            boolean full = false;
+            for (int i = 0; i < filters.length; i++) {
+                if (names[i] != null && !names[i].isEmpty()) {
+                    full |= filters[i].put(hash(names[i]));
+                }
+            }
+            return full;
+        }
+
+        private boolean mightContain(Key key, long hash) {
+            return filters[key.ordinal()].mightContain(hash);
+        }
+    }
+
+    /**
+     * Bloom filter over hashes of names, using double hashing to derive the bits of a name. Bits are set atomically so
+     * that names can be added while other threads look names up.
+     */
+    private static final class BloomFilter {
+
+        private final long expectedNames;
+
+        private final long numBits;
+
+        private final int numHashes;
+
+        private final AtomicLongArray bits;
+
+        private long numNames = 0;
+
+        private BloomFilter(long expectedNames, double falsePositiveRate) {
+            this.expectedNames = Math.max(expectedNames, 1);
+            this.numBits = Math.max(Long.SIZE, (long) Math.ceil(
+                    -this.expectedNames * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / this.expectedNames * Math.log(2)));
+            this.bits = new AtomicLongArray(Math.toIntExact((numBits + Long.SIZE - 1) / Long.SIZE));
+        }
+
+        /**
+         * @return Whether the filter now holds more names than it was sized for.
+         */
+        private boolean put(long hash) {
+            long hash2 = mix(hash) | 1;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(hash + i * hash2, numBits);
+                long mask = 1L << bit;
+                int index = (int) (bit >>> 6);
+                if ((bits.get(index) & mask) == 0) {
+                    bits.getAndAccumulate(index, mask, (current, added) -> current | added);
+                }
+            }
+            // Only called with the lock of the enclosing ChromosomeNameFilter held, or while it is being built
+            return ++numNames > expectedNames;
+        }
+
+        private boolean mightContain(long hash) {
+            long hash2 = mix(hash) | 1;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(hash + i * hash2, numBits);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -16,22 +16,52 @@
 
 package uk.ac.ebi.eva.contigalias.service;
 
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController;
+import uk.ac.ebi.eva.contigalias.dto.SequenceDto;
 import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
 import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
 import uk.ac.ebi.eva.contigalias.repo.ChromosomeRepository;
+import uk.ac.ebi.eva.contigalias.repo.ChromosomeSpecifications;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeAliasIndex.Key;
 
 import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
 
 import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController.AUTHORITY_INSDC;
 import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController.AUTHORITY_REFSEQ;
@@ -42,22 +72,83 @@ import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasContro
 @Service
 public class ChromosomeService {
 
+    private static final String CHROMOSOME_COLUMNS = "assembly_insdc_accession,contig_type,ena_sequence_name," +
+            "genbank_sequence_name,insdc_accession,md5checksum,refseq,seq_length,trunc512checksum,ucsc_name";
+
+    private static final String CHROMOSOME_PRIMARY_KEY = "assembly_insdc_accession,insdc_accession";
+
+    private static final String CHROMOSOME_VALUES = "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SEQUENCES = "SELECT c.insdc_accession, c.refseq, c.genbank_sequence_name, " +
+            "c.ena_sequence_name, c.ucsc_name, c.md5checksum, c.trunc512checksum, c.seq_length, c.contig_type, " +
+            "c.assembly_insdc_accession FROM chromosome c";
+
+    private static final String SELECT_SEQUENCES_WITH_ASSEMBLY = "SELECT c.insdc_accession, c.refseq, " +
+            "c.genbank_sequence_name, c.ena_sequence_name, c.ucsc_name, c.md5checksum, c.trunc512checksum, " +
+            "c.seq_length, c.contig_type, c.assembly_insdc_accession, a.name AS assembly_name, " +
+            "a.organism AS assembly_organism, a.taxid AS assembly_taxid, a.refseq AS assembly_refseq, " +
+            "a.is_genbank_refseq_identical AS assembly_is_genbank_refseq_identical, " +
+            "a.md5checksum AS assembly_md5checksum, a.trunc512checksum AS assembly_trunc512checksum " +
+            "FROM chromosome c JOIN assembly a ON a.insdc_accession = c.assembly_insdc_accession";
+
+    private static final String WHERE_ASSEMBLY = "c.assembly_insdc_accession = :assembly";
+
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * Largest number of names given to {@link #translateChromosomeNames}, which keeps the IN list of its query well
+     * below the bind parameter limits of the databases.
+     */
+    public static final int MAX_NAMES_PER_TRANSLATION = 1000;
+
     private final ChromosomeRepository repository;
     private final JdbcTemplate jdbcTemplate;
 
+    private final ChromosomeAliasIndex aliasIndex;
+
+    private final ChromosomeNameFilter nameFilter;
+
+    private final SequenceAliasUpdater sequenceAliasUpdater;
+
+    @Value("${config.chromosome.copy-insert.enabled:true}")
+    private boolean copyInsertEnabled = true;
+
+    private volatile Boolean postgreSQL;
+
     @Autowired
-    public ChromosomeService(ChromosomeRepository repository, JdbcTemplate jdbcTemplate) {
+    public ChromosomeService(ChromosomeRepository repository, JdbcTemplate jdbcTemplate,
+                             ChromosomeAliasIndex aliasIndex, ChromosomeNameFilter nameFilter,
+                             SequenceAliasUpdater sequenceAliasUpdater) {
         this.repository = repository;
         this.jdbcTemplate = jdbcTemplate;
+        this.aliasIndex = aliasIndex;
+        this.nameFilter = nameFilter;
+        this.sequenceAliasUpdater = sequenceAliasUpdater;
     }
 
 
     public Page<ChromosomeEntity> getChromosomesByInsdcAccession(String insdcAccession, Pageable request) {
+        if (nameFilter.isAbsent(Key.INSDC_ACCESSION, insdcAccession)) {
+            return Page.empty(request);
+        }
+        Page<ChromosomeEntity> indexed = aliasIndex.find(Key.INSDC_ACCESSION, insdcAccession, null, request);
+        if (indexed != null) {
+            return indexed;
+        }
         Page<ChromosomeEntity> chromosomes = repository.findChromosomeEntitiesByInsdcAccessionOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(insdcAccession, request);
         return stripChromosomesAndScaffoldsFromAssembly(chromosomes);
     }
 
     public Page<ChromosomeEntity> getChromosomesByRefseq(String refseq, Pageable request) {
+        if (nameFilter.isAbsent(Key.REFSEQ, refseq)) {
+            return Page.empty(request);
+        }
+        Page<ChromosomeEntity> indexed = aliasIndex.find(Key.REFSEQ, refseq, null, request);
+        if (indexed != null) {
+            return indexed;
+        }
         Page<ChromosomeEntity> chromosomes = repository.findChromosomeEntitiesByRefseqOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(refseq, request);
         return stripChromosomesAndScaffoldsFromAssembly(chromosomes);
     }
@@ -67,6 +158,55 @@ public class ChromosomeService {
         return stripAssembliesFromChromosomes(chromosomes);
     }
 
+    /**
+     * Passes every chromosome of the assembly to the callback, in the same order as
+     * {@link #getChromosomesByAssemblyInsdcAccession(String, Pageable)} and without their assembly. The rows are read
+     * through a cursor {@link #EXPORT_FETCH_SIZE} at a time (the transaction is what lets the PostgreSQL driver honour
+     * the fetch size), so only the current row is held in memory whatever the size of the assembly.
+     */
+    @Transactional
+    public void exportChromosomesByAssemblyInsdcAccession(String asmInsdcAccession, ChromosomeCallback callback)
+            throws IOException {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT " + CHROMOSOME_COLUMNS + " FROM chromosome WHERE assembly_insdc_accession = ? " +
+                                "ORDER BY insdc_accession DESC");
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                statement.setString(1, asmInsdcAccession);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                try {
+                    callback.accept(readChromosome(resultSet));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static ChromosomeEntity readChromosome(ResultSet resultSet) throws SQLException {
+        ChromosomeEntity chromosome = new ChromosomeEntity();
+        chromosome.setInsdcAccession(resultSet.getString("insdc_accession"))
+                  .setRefseq(resultSet.getString("refseq"))
+                  .setGenbankSequenceName(resultSet.getString("genbank_sequence_name"))
+                  .setEnaSequenceName(resultSet.getString("ena_sequence_name"))
+                  .setUcscName(resultSet.getString("ucsc_name"))
+                  .setMd5checksum(resultSet.getString("md5checksum"))
+                  .setTrunc512checksum(resultSet.getString("trunc512checksum"))
+                  .setSeqLength(resultSet.getObject("seq_length", Long.class));
+        String contigType = resultSet.getString("contig_type");
+        chromosome.setContigType(contigType == null ? null : SequenceEntity.ContigType.valueOf(contigType));
+        return chromosome;
+    }
+
+    @FunctionalInterface
+    public interface ChromosomeCallback {
+        void accept(ChromosomeEntity chromosome) throws IOException;
+    }
+
     public List<String> getAssembliesWhereChromosomeMd5ChecksumIsNull() {
         return repository.findAssembliesWhereChromosomeMd5checksumIsNullOrEmpty();
     }
@@ -81,6 +221,10 @@ public class ChromosomeService {
         for (ChromosomeEntity chromosome : chromosomeEntityList) {
             repository.updateMd5ChecksumByInsdcAccession(assembly, chromosome.getInsdcAccession(), chromosome.getMd5checksum());
         }
+        // Updaters work in batches and only publish an event once done, the names must be known as each batch commits
+        nameFilter.addNames(Key.MD5_CHECKSUM,
+                            chromosomeEntityList.stream().map(ChromosomeEntity::getMd5checksum)
+                                                .collect(Collectors.toList()));
     }
 
     @Transactional
@@ -88,6 +232,10 @@ public class ChromosomeService {
         for (ChromosomeEntity chromosome : chromosomeEntityList) {
             repository.updateENASequenceNameByInsdcAccession(assembly, chromosome.getInsdcAccession(), chromosome.getEnaSequenceName());
         }
+        sequenceAliasUpdater.replaceAliases(assembly, chromosomeEntityList, NAME_ENA_TYPE);
+        nameFilter.addNames(Key.ENA_SEQUENCE_NAME,
+                            chromosomeEntityList.stream().map(ChromosomeEntity::getEnaSequenceName)
+                                                .collect(Collectors.toList()));
     }
 
     public Page<ChromosomeEntity> getChromosomesByAssemblyRefseq(String asmRefseq, Pageable request) {
@@ -95,43 +243,43 @@ public class ChromosomeService {
         return stripAssembliesFromChromosomes(chromosomes);
     }
 
-    public List<AssemblyEntity> getAssembliesByChromosomeInsdcAccession(String chrInsdcAccession) {
-        Page<ChromosomeEntity> page = repository.findChromosomeEntitiesByInsdcAccessionOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(chrInsdcAccession, Pageable.unpaged());
-        return extractAssembliesFromChromosomes(page);
-    }
-
-    public List<AssemblyEntity> getAssembliesByChromosomeRefseq(String chrRefseq) {
-        Page<ChromosomeEntity> page = repository.findChromosomeEntitiesByRefseqOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(chrRefseq, Pageable.unpaged());
-        return extractAssembliesFromChromosomes(page);
+    public Page<AssemblyEntity> getAssembliesByChromosomeInsdcAccession(String chrInsdcAccession, Pageable request) {
+        return repository.findAssemblyEntitiesByChromosomeInsdcAccession(chrInsdcAccession, request)
+                         .map(AssemblyEntity::copyWithoutChromosomes);
     }
 
-    public List<AssemblyEntity> extractAssembliesFromChromosomes(Page<ChromosomeEntity> page) {
-        List<AssemblyEntity> list = new LinkedList<>();
-        if (page != null && page.getTotalElements() > 0) {
-            for (ChromosomeEntity chromosomeEntity : page) {
-                AssemblyEntity assembly = chromosomeEntity.getAssembly();
-                assembly.setChromosomes(null);
-                list.add(assembly);
-            }
-        }
-        return list;
+    public Page<AssemblyEntity> getAssembliesByChromosomeRefseq(String chrRefseq, Pageable request) {
+        return repository.findAssemblyEntitiesByChromosomeRefseq(chrRefseq, request)
+                         .map(AssemblyEntity::copyWithoutChromosomes);
     }
 
     public Page<ChromosomeEntity> getChromosomesByName(String name, Pageable request) {
+        if (nameFilter.isAbsent(Key.GENBANK_SEQUENCE_NAME, name)) {
+            return Page.empty(request);
+        }
+        Page<ChromosomeEntity> indexed = aliasIndex.find(Key.GENBANK_SEQUENCE_NAME, name, null, request);
+        if (indexed != null) {
+            return indexed;
+        }
         Page<ChromosomeEntity> page = repository.findChromosomeEntitiesByGenbankSequenceNameOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(name, request);
         return stripChromosomesAndScaffoldsFromAssembly(page);
     }
 
     public Page<ChromosomeEntity> getChromosomesByNameAndAssemblyTaxid(String name, long asmTaxid, Pageable request) {
+        if (nameFilter.isAbsent(Key.GENBANK_SEQUENCE_NAME, name)) {
+            return Page.empty(request);
+        }
         Page<ChromosomeEntity> page = repository.findChromosomeEntitiesByGenbankSequenceNameAndAssembly_TaxidOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(name, asmTaxid, request);
         return stripChromosomesAndScaffoldsFromAssembly(page);
     }
 
     public Page<ChromosomeEntity> getChromosomesByNameAndAssembly(
             String name, AssemblyEntity assembly, Pageable request) {
+        if (nameFilter.isAbsent(Key.GENBANK_SEQUENCE_NAME, name)) {
+            return Page.empty(request);
+        }
         Page<ChromosomeEntity> page = repository.findChromosomeEntitiesByGenbankSequenceNameAndAssemblyOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(name, assembly, request);
-        assembly.setChromosomes(null);
-        return injectAssemblyIntoChromosomes(page, assembly);
+        return stripChromosomesAndScaffoldsFromAssembly(page);
     }
 
     public Page<ChromosomeEntity> getChromosomesByAssemblyAccession(String accession, Pageable request) {
@@ -141,12 +289,22 @@ public class ChromosomeService {
     }
 
     public Page<ChromosomeEntity> getChromosomesByUcscName(String ucscName, Pageable request) {
+        if (nameFilter.isAbsent(Key.UCSC_NAME, ucscName)) {
+            return Page.empty(request);
+        }
+        Page<ChromosomeEntity> indexed = aliasIndex.find(Key.UCSC_NAME, ucscName, null, request);
+        if (indexed != null) {
+            return indexed;
+        }
         Page<ChromosomeEntity> page = repository.findChromosomeEntitiesByUcscNameOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(ucscName, request);
         return stripChromosomesAndScaffoldsFromAssembly(page);
     }
 
     public Page<ChromosomeEntity> getChromosomesByUcscNameAndAssemblyTaxid(
             String ucscName, long asmTaxid, Pageable request) {
+        if (nameFilter.isAbsent(Key.UCSC_NAME, ucscName)) {
+            return Page.empty(request);
+        }
         Page<ChromosomeEntity> page
                 = repository.findChromosomeEntitiesByUcscNameAndAssembly_TaxidOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(ucscName, asmTaxid, request);
         return stripChromosomesAndScaffoldsFromAssembly(page);
@@ -154,19 +312,31 @@ public class ChromosomeService {
 
     public Page<ChromosomeEntity> getChromosomesByUcscNameAndAssembly(String ucscName, AssemblyEntity assembly,
                                                                       Pageable request) {
+        if (nameFilter.isAbsent(Key.UCSC_NAME, ucscName)) {
+            return Page.empty(request);
+        }
         Page<ChromosomeEntity> page
                 = repository.findChromosomeEntitiesByUcscNameAndAssemblyOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(ucscName, assembly, request);
-        assembly.setChromosomes(null);
-        return injectAssemblyIntoChromosomes(page, assembly);
+        return stripChromosomesAndScaffoldsFromAssembly(page);
     }
 
     public Page<ChromosomeEntity> getChromosomesByEnaName(String enaName, Pageable request) {
+        if (nameFilter.isAbsent(Key.ENA_SEQUENCE_NAME, enaName)) {
+            return Page.empty(request);
+        }
+        Page<ChromosomeEntity> indexed = aliasIndex.find(Key.ENA_SEQUENCE_NAME, enaName, null, request);
+        if (indexed != null) {
+            return indexed;
+        }
         Page<ChromosomeEntity> page = repository.findChromosomeEntitiesByEnaSequenceNameOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(enaName, request);
         return stripChromosomesAndScaffoldsFromAssembly(page);
     }
 
     public Page<ChromosomeEntity> getChromosomesByEnaNameAndAssemblyTaxid(
             String enaName, long asmTaxid, Pageable request) {
+        if (nameFilter.isAbsent(Key.ENA_SEQUENCE_NAME, enaName)) {
+            return Page.empty(request);
+        }
         Page<ChromosomeEntity> page
                 = repository.findChromosomeEntitiesByEnaSequenceNameAndAssembly_TaxidOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(enaName, asmTaxid, request);
         return stripChromosomesAndScaffoldsFromAssembly(page);
@@ -174,13 +344,22 @@ public class ChromosomeService {
 
     public Page<ChromosomeEntity> getChromosomesByEnaNameAndAssembly(
             String enaName, AssemblyEntity assembly, Pageable request) {
+        if (nameFilter.isAbsent(Key.ENA_SEQUENCE_NAME, enaName)) {
+            return Page.empty(request);
+        }
         Page<ChromosomeEntity> page
                 = repository.findChromosomeEntitiesByEnaSequenceNameAndAssemblyOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(enaName, assembly, request);
-        assembly.setChromosomes(null);
-        return injectAssemblyIntoChromosomes(page, assembly);
+        return stripChromosomesAndScaffoldsFromAssembly(page);
     }
 
     public Page<ChromosomeEntity> getChromosomesByMD5Checksum(String md5Checksum, Pageable request) {
+        if (nameFilter.isAbsent(Key.MD5_CHECKSUM, md5Checksum)) {
+            return Page.empty(request);
+        }
+        Page<ChromosomeEntity> indexed = aliasIndex.find(Key.MD5_CHECKSUM, md5Checksum, null, request);
+        if (indexed != null) {
+            return indexed;
+        }
         Page<ChromosomeEntity> chrPage = repository.findChromosomeEntitiesByMd5checksumOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(md5Checksum, request);
         return stripChromosomesAndScaffoldsFromAssembly(chrPage);
     }
@@ -189,26 +368,334 @@ public class ChromosomeService {
                                                          String namingConvention,
                                                          String assemblyAccession,
                                                          Pageable pageable) {
-        Specification<ChromosomeEntity> spec = queryForSearchingByNameAndNamingConvention(chromosomeName, namingConvention);
-
-        if (assemblyAccession != null && !assemblyAccession.isEmpty()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.get("assembly").get("insdcAccession"), assemblyAccession));
+        if (isNameAbsent(chromosomeName, namingConvention)) {
+            return Page.empty(pageable);
+        }
+        Page<ChromosomeEntity> indexed = searchChromosomeByNameInIndex(chromosomeName, namingConvention,
+                                                                       assemblyAccession, pageable);
+        if (indexed != null) {
+            return indexed;
         }
+        Specification<ChromosomeEntity> spec = queryForSearchingByName(chromosomeName, namingConvention,
+                                                                       assemblyAccession);
         Page<ChromosomeEntity> resultPage = repository.findAll(spec, pageable);
         return stripChromosomesAndScaffoldsFromAssembly(resultPage);
     }
 
+    /**
+     * Same as {@link #searchChromosomeByName(String, String, String, Pageable)} but without counting the matches, see
+     * {@link #getChromosomesSlice(Specification, Pageable)}.
+     */
+    public Slice<ChromosomeEntity> searchChromosomeByNameSlice(String chromosomeName, String namingConvention,
+                                                               String assemblyAccession, Pageable pageable) {
+        if (isNameAbsent(chromosomeName, namingConvention)) {
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
+        }
+        return getChromosomesSlice(queryForSearchingByName(chromosomeName, namingConvention, assemblyAccession),
+                                   pageable);
+    }
+
+    /**
+     * Same as {@link #searchChromosomeByName(String, String, String, Pageable)} but with keyset pagination, see
+     * {@link #getChromosomesAfter(Specification, ChromosomeCursor, int)}.
+     */
+    public Slice<ChromosomeEntity> searchChromosomeByNameAfter(String chromosomeName, String namingConvention,
+                                                               String assemblyAccession, ChromosomeCursor cursor,
+                                                               int size) {
+        if (isNameAbsent(chromosomeName, namingConvention)) {
+            return new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, size), false);
+        }
+        return getChromosomesAfter(queryForSearchingByName(chromosomeName, namingConvention, assemblyAccession),
+                                   cursor, size);
+    }
+
+    private Specification<ChromosomeEntity> queryForSearchingByName(String chromosomeName, String namingConvention,
+                                                                    String assemblyAccession) {
+        Specification<ChromosomeEntity> spec = queryForSearchingByNameAndNamingConvention(chromosomeName, namingConvention);
+        if (assemblyAccession != null && !assemblyAccession.isEmpty()) {
+            spec = spec.and(ChromosomeSpecifications.hasAssemblyInsdcAccession(assemblyAccession));
+        }
+        return spec;
+    }
+
+    /**
+     * Keyset pagination over the chromosomes matching the specification, in the same order as the paged finders. Use
+     * {@link ChromosomeCursor#after(ChromosomeEntity)} on the last chromosome of a slice to get the next one.
+     *
+     * @param cursor Position after which the slice starts, or null for the first slice.
+     * @return Up to size chromosomes, with their assembly but not the chromosomes of the assembly.
+     */
+    public Slice<ChromosomeEntity> getChromosomesAfter(Specification<ChromosomeEntity> spec, ChromosomeCursor cursor,
+                                                       int size) {
+        List<ChromosomeEntity> chromosomes = repository.findAllAfter(
+                spec, cursor == null ? null : cursor.getInsdcAccession(),
+                cursor == null ? null : cursor.getAssemblyInsdcAccession(), size + 1);
+        boolean hasNext = chromosomes.size() > size;
+        if (hasNext) {
+            chromosomes = new ArrayList<>(chromosomes.subList(0, size));
+        }
+        chromosomes.forEach(this::stripChromosomeFromAssembly);
+        return new SliceImpl<>(chromosomes, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * Offset pagination over the chromosomes matching the specification, in the same order as the paged finders but
+     * without the count query that a {@link Page} needs, so the total number of matches is unknown.
+     *
+     * @return The requested chromosomes, with their assembly but not the chromosomes of the assembly.
+     */
+    public Slice<ChromosomeEntity> getChromosomesSlice(Specification<ChromosomeEntity> spec, Pageable pageable) {
+        Slice<ChromosomeEntity> slice = repository.findSlice(spec, pageable);
+        slice.forEach(this::stripChromosomeFromAssembly);
+        return slice;
+    }
+
+    /**
+     * Same chromosomes as {@link #getChromosomesByAssemblyInsdcAccession(String, Pageable)}, read straight into
+     * {@link SequenceDto}s without their assembly, see {@link #querySequences}.
+     */
+    public Page<SequenceDto> getSequencesByAssemblyInsdcAccession(String asmInsdcAccession, Pageable request) {
+        return getSequencesPage(WHERE_ASSEMBLY, new MapSqlParameterSource("assembly", asmInsdcAccession), false,
+                                request);
+    }
+
+    /**
+     * Same as {@link #getSequencesByAssemblyInsdcAccession(String, Pageable)} but without counting the chromosomes,
+     * see {@link #getChromosomesSlice(Specification, Pageable)}.
+     */
+    public Slice<SequenceDto> getSequencesSliceByAssemblyInsdcAccession(String asmInsdcAccession, Pageable request) {
+        return getSequencesSlice(WHERE_ASSEMBLY, new MapSqlParameterSource("assembly", asmInsdcAccession), false,
+                                 request);
+    }
+
+    /**
+     * Same chromosomes as the lookups by name such as {@link #getChromosomesByName(String, Pageable)} and
+     * {@link #getChromosomesByUcscNameAndAssemblyTaxid(String, long, Pageable)}, read straight into
+     * {@link SequenceDto}s with their assembly, see {@link #querySequences}. As with those, the
+     * {@link ChromosomeAliasIndex} is only looked up when the assembly is not restricted.
+     *
+     * @param key                    Naming convention of the name.
+     * @param assemblyInsdcAccession INSDC accession of the assembly of the chromosomes, or null for any assembly.
+     * @param assemblyTaxid          Taxonomic ID of the assembly of the chromosomes, or null for any taxonomy.
+     */
+    public Page<SequenceDto> getSequencesByName(Key key, String name, String assemblyInsdcAccession,
+                                                Long assemblyTaxid, Pageable request) {
+        if (nameFilter.isAbsent(key, name)) {
+            return Page.empty(request);
+        }
+        if (assemblyInsdcAccession == null && assemblyTaxid == null) {
+            Page<ChromosomeEntity> indexed = aliasIndex.find(key, name, null, request);
+            if (indexed != null) {
+                return indexed.map(chromosome -> SequenceDto.of(chromosome, true));
+            }
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        return getSequencesPage(whereName(key, name, assemblyInsdcAccession, assemblyTaxid, parameters), parameters,
+                                true, request);
+    }
+
+    /**
+     * Same as {@link #getSequencesByName(Key, String, String, Long, Pageable)} but without counting the chromosomes,
+     * see {@link #getChromosomesSlice(Specification, Pageable)}.
+     */
+    public Slice<SequenceDto> getSequencesSliceByName(Key key, String name, String assemblyInsdcAccession,
+                                                      Long assemblyTaxid, Pageable request) {
+        if (nameFilter.isAbsent(key, name)) {
+            return new SliceImpl<>(Collections.emptyList(), request, false);
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        return getSequencesSlice(whereName(key, name, assemblyInsdcAccession, assemblyTaxid, parameters), parameters,
+                                 true, request);
+    }
+
+    private static String whereName(Key key, String name, String assemblyInsdcAccession, Long assemblyTaxid,
+                                    MapSqlParameterSource parameters) {
+        // Column names come from the Key enum, never from the request
+        StringBuilder where = new StringBuilder("c.").append(key.getColumn()).append(" = :name");
+        parameters.addValue("name", name);
+        if (assemblyInsdcAccession != null) {
+            where.append(" AND ").append(WHERE_ASSEMBLY);
+            parameters.addValue("assembly", assemblyInsdcAccession);
+        }
+        if (assemblyTaxid != null) {
+            where.append(" AND c.assembly_insdc_accession IN " +
+                                 "(SELECT insdc_accession FROM assembly WHERE taxid = :taxid)");
+            parameters.addValue("taxid", assemblyTaxid);
+        }
+        return where.toString();
+    }
+
+    private Page<SequenceDto> getSequencesPage(String where, MapSqlParameterSource parameters, boolean withAssembly,
+                                               Pageable request) {
+        List<SequenceDto> sequences = querySequences(where, parameters, withAssembly, request,
+                                                     request.isPaged() ? request.getPageSize() : 0);
+        // The count is only queried when it can't be told from the page itself
+        return PageableExecutionUtils.getPage(sequences, request, () -> new NamedParameterJdbcTemplate(jdbcTemplate)
+                .queryForObject("SELECT COUNT(*) FROM chromosome c WHERE " + where, parameters, Long.class));
+    }
+
+    private Slice<SequenceDto> getSequencesSlice(String where, MapSqlParameterSource parameters, boolean withAssembly,
+                                                 Pageable request) {
+        if (request.isUnpaged()) {
+            return new SliceImpl<>(querySequences(where, parameters, withAssembly, request, 0), request, false);
+        }
+        // One more row than the page size tells whether there is a next page
+        List<SequenceDto> sequences = querySequences(where, parameters, withAssembly, request,
+                                                     request.getPageSize() + 1);
+        boolean hasNext = sequences.size() > request.getPageSize();
+        if (hasNext) {
+            sequences = new ArrayList<>(sequences.subList(0, request.getPageSize()));
+        }
+        return new SliceImpl<>(sequences, request, hasNext);
+    }
+
+    /**
+     * Reads chromosomes through JDBC straight into immutable {@link SequenceDto}s, in the same order as the paged
+     * finders. Unlike the finders of the repository, no entity is loaded into the persistence context, neither the
+     * chromosomes nor their assembly, whose single copy is shared by all its chromosomes of the page.
+     *
+     * @param where        Condition on the chromosomes, as "c", with named parameters.
+     * @param withAssembly Whether the assembly of each chromosome is read along with it.
+     * @param limit        Largest number of rows to read from the offset of the request, or 0 for all of them.
+     */
+    private List<SequenceDto> querySequences(String where, MapSqlParameterSource parameters, boolean withAssembly,
+                                             Pageable request, int limit) {
+        StringBuilder sql = new StringBuilder(withAssembly ? SELECT_SEQUENCES_WITH_ASSEMBLY : SELECT_SEQUENCES)
+                .append(" WHERE ").append(where)
+                .append(" ORDER BY c.insdc_accession DESC, c.assembly_insdc_accession DESC");
+        MapSqlParameterSource pageParameters = new MapSqlParameterSource(parameters.getValues());
+        if (limit > 0) {
+            sql.append(" LIMIT :limit OFFSET :offset");
+            pageParameters.addValue("limit", limit).addValue("offset", request.getOffset());
+        }
+        Map<String, AssemblyEntity> assemblies = withAssembly ? new HashMap<>() : null;
+        return new NamedParameterJdbcTemplate(jdbcTemplate).query(
+                sql.toString(), pageParameters, (resultSet, rowNum) -> readSequence(resultSet, assemblies));
+    }
+
+    /**
+     * @param assemblies Assemblies read so far by accession, or null to leave the assembly out.
+     */
+    private static SequenceDto readSequence(ResultSet resultSet, Map<String, AssemblyEntity> assemblies)
+            throws SQLException {
+        String assemblyInsdcAccession = resultSet.getString("assembly_insdc_accession");
+        AssemblyEntity assembly = null;
+        if (assemblies != null) {
+            assembly = assemblies.get(assemblyInsdcAccession);
+            if (assembly == null) {
+                assembly = new AssemblyEntity().setInsdcAccession(assemblyInsdcAccession)
+                                               .setName(resultSet.getString("assembly_name"))
+                                               .setOrganism(resultSet.getString("assembly_organism"))
+                                               .setTaxid(resultSet.getLong("assembly_taxid"))
+                                               .setRefseq(resultSet.getString("assembly_refseq"))
+                                               .setGenbankRefseqIdentical(
+                                                       resultSet.getBoolean("assembly_is_genbank_refseq_identical"))
+                                               .setMd5checksum(resultSet.getString("assembly_md5checksum"))
+                                               .setTrunc512checksum(resultSet.getString("assembly_trunc512checksum"));
+                assemblies.put(assemblyInsdcAccession, assembly);
+            }
+        }
+        String contigType = resultSet.getString("contig_type");
+        return new SequenceDto(resultSet.getString("genbank_sequence_name"), resultSet.getString("ena_sequence_name"),
+                               resultSet.getString("insdc_accession"), resultSet.getString("refseq"),
+                               resultSet.getObject("seq_length", Long.class), resultSet.getString("ucsc_name"),
+                               resultSet.getString("md5checksum"), resultSet.getString("trunc512checksum"),
+                               contigType == null ? null : SequenceEntity.ContigType.valueOf(contigType), assembly,
+                               assemblyInsdcAccession);
+    }
+
+    /**
+     * @return True only if the {@link ChromosomeNameFilter} guarantees that no sequence has the given name in the
+     * naming convention, or in any naming convention if none is given.
+     */
+    private boolean isNameAbsent(String chromosomeName, String namingConvention) {
+        if (namingConvention == null || namingConvention.isEmpty()) {
+            return nameFilter.isAbsentFromAnyName(chromosomeName);
+        }
+        Key key = getKeyForNamingConvention(namingConvention);
+        return key != null && nameFilter.isAbsent(key, chromosomeName);
+    }
+
+    private Page<ChromosomeEntity> searchChromosomeByNameInIndex(String chromosomeName, String namingConvention,
+                                                                 String assemblyAccession, Pageable pageable) {
+        if (namingConvention == null || namingConvention.isEmpty()) {
+            return aliasIndex.findByAnyName(chromosomeName, assemblyAccession, pageable);
+        }
+        Key key = getKeyForNamingConvention(namingConvention);
+        // Let the database query report an unsupported naming convention
+        return key == null ? null : aliasIndex.find(key, chromosomeName, assemblyAccession, pageable);
+    }
+
+    /**
+     * @return The key of the given naming convention (one of {@link ContigAliasController#AUTHORITY_INSDC},
+     * {@link ContigAliasController#AUTHORITY_REFSEQ}, {@link ContigAliasController#NAME_GENBANK_TYPE},
+     * {@link ContigAliasController#NAME_ENA_TYPE} or {@link ContigAliasController#NAME_UCSC_TYPE}), or null if it is
+     * not supported.
+     */
+    public static Key getKeyForNamingConvention(String namingConvention) {
+        if (namingConvention == null) {
+            return null;
+        }
+        switch (namingConvention) {
+            case AUTHORITY_INSDC:
+                return Key.INSDC_ACCESSION;
+            case NAME_GENBANK_TYPE:
+                return Key.GENBANK_SEQUENCE_NAME;
+            case NAME_ENA_TYPE:
+                return Key.ENA_SEQUENCE_NAME;
+            case AUTHORITY_REFSEQ:
+                return Key.REFSEQ;
+            case NAME_UCSC_TYPE:
+                return Key.UCSC_NAME;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Translates sequence names of an assembly from one naming convention to another, with a single query for all the
+     * names (or from the {@link ChromosomeAliasIndex} when it is enabled). Callers are expected to pass at most
+     * {@link #MAX_NAMES_PER_TRANSLATION} names at a time.
+     *
+     * @param assemblyInsdcAccession INSDC accession of the assembly the sequences belong to.
+     * @param from                   Naming convention of the given names.
+     * @param to                     Naming convention to translate to.
+     * @param names                  Names to translate.
+     * @return The translation of each name found in the assembly. A name is mapped to null if its sequence has no
+     * name in the target convention. When several sequences share a name, the one listed first by the repository
+     * queries wins.
+     */
+    public Map<String, String> translateChromosomeNames(String assemblyInsdcAccession, Key from, Key to,
+                                                        Collection<String> names) {
+        if (names.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<String, String> indexed = aliasIndex.translate(from, to, names, assemblyInsdcAccession);
+        if (indexed != null) {
+            return indexed;
+        }
+        // Column names come from the Key enum, never from the request
+        String sql = "SELECT " + from.getColumn() + ", " + to.getColumn() + " FROM chromosome " +
+                "WHERE assembly_insdc_accession = :assembly AND " + from.getColumn() + " IN (:names) " +
+                "ORDER BY insdc_accession DESC";
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("assembly", assemblyInsdcAccession)
+                .addValue("names", names instanceof Set ? names : new HashSet<>(names));
+        Map<String, String> translations = new HashMap<>();
+        new NamedParameterJdbcTemplate(jdbcTemplate).query(sql, parameters, resultSet -> {
+            String name = resultSet.getString(1);
+            if (!translations.containsKey(name)) {
+                translations.put(name, resultSet.getString(2));
+            }
+        });
+        return translations;
+    }
+
     private Specification<ChromosomeEntity> queryForSearchingByNameAndNamingConvention(String chromosomeName, String namingConvention) {
         return (root, query, cb) -> {
             if (namingConvention == null || namingConvention.isEmpty()) {
-                return cb.or(
-                        cb.equal(root.get("genbankSequenceName"), chromosomeName),
-                        cb.equal(root.get("enaSequenceName"), chromosomeName),
-                        cb.equal(root.get("insdcAccession"), chromosomeName),
-                        cb.equal(root.get("refseq"), chromosomeName),
-                        cb.equal(root.get("ucscName"), chromosomeName)
-                );
+                // One probe of the sequence_alias primary key instead of one per name column
+                return ChromosomeSpecifications.hasAlias(chromosomeName).toPredicate(root, query, cb);
             } else {
                 switch (namingConvention) {
                     case AUTHORITY_INSDC:
@@ -228,13 +715,6 @@ public class ChromosomeService {
         };
     }
 
-    private Page<ChromosomeEntity> injectAssemblyIntoChromosomes(Page<ChromosomeEntity> page, AssemblyEntity assembly) {
-        if (page != null && page.getTotalElements() > 0) {
-            page.forEach(it -> it.setAssembly(assembly));
-        }
-        return page;
-    }
-
     private Page<ChromosomeEntity> stripChromosomesAndScaffoldsFromAssembly(Page<ChromosomeEntity> page) {
         if (page != null && page.getTotalElements() > 0) {
             page.forEach(this::stripChromosomeFromAssembly);
@@ -271,16 +751,31 @@ public class ChromosomeService {
             it.setMd5checksum(md5).setTrunc512checksum(trunc512);
             repository.save(it);
         });
+        page.stream().map(it -> it.getAssembly().getInsdcAccession()).distinct()
+            .forEach(it -> AssemblyChangedEvent.publish(this, it, AssemblyChangedEvent.ChangeType.UPDATED));
     }
 
+    @Transactional
     public void insertChromosome(ChromosomeEntity entity) {
         // TODO check if entity already exists in db
         repository.save(entity);
+        sequenceAliasUpdater.insertAliases(Collections.singletonList(entity));
+        publishChromosomeChanged(entity);
     }
 
+    @Transactional
     public void deleteChromosome(ChromosomeEntity entity) {
         // TODO check if entity already exists in db
         repository.delete(entity);
+        sequenceAliasUpdater.deleteAliases(entity);
+        publishChromosomeChanged(entity);
+    }
+
+    private void publishChromosomeChanged(ChromosomeEntity entity) {
+        if (entity.getAssembly() != null) {
+            AssemblyChangedEvent.publish(this, entity.getAssembly().getInsdcAccession(),
+                                         AssemblyChangedEvent.ChangeType.UPDATED);
+        }
     }
 
     public long countChromosomeEntitiesByInsdcAccession(String insdcAccession) {
@@ -339,10 +834,55 @@ public class ChromosomeService {
         return repository.countChromosomeEntitiesByEnaSequenceName(enaName);
     }
 
+    /**
+     * Inserts all the given chromosomes using the fastest path available for the configured database: a PostgreSQL
+     * COPY through the driver's {@link CopyManager}, or a JDBC batch insert for H2 and any other database. Their
+     * aliases are inserted in the same transaction.
+     */
+    @Transactional
     public void insertAllChromosomes(List<ChromosomeEntity> chromosomeEntityList) {
-        String sql = "INSERT INTO chromosome (assembly_insdc_accession,contig_type,ena_sequence_name," +
-                "genbank_sequence_name,insdc_accession,md5checksum,refseq,seq_length,trunc512checksum,ucsc_name) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        if (copyInsertEnabled && isPostgreSQL()) {
+            copyAllChromosomes(chromosomeEntityList);
+        } else {
+            batchInsertAllChromosomes(chromosomeEntityList);
+        }
+        sequenceAliasUpdater.insertAliases(chromosomeEntityList);
+        // Each batch commits before the event published once the whole assembly is inserted
+        nameFilter.addSequences(chromosomeEntityList);
+    }
+
+    public void batchInsertAllChromosomes(List<ChromosomeEntity> chromosomeEntityList) {
+        batchUpdateChromosomes("INSERT INTO chromosome (" + CHROMOSOME_COLUMNS + ") " + CHROMOSOME_VALUES,
+                               chromosomeEntityList);
+    }
+
+    /**
+     * Inserts the given chromosomes, replacing those of the same assembly that are already in the database, so that a
+     * batch can be inserted again after a failure. PostgreSQL uses INSERT ... ON CONFLICT DO UPDATE, and H2 or any
+     * other database its MERGE ... KEY equivalent. Their aliases are replaced in the same transaction.
+     */
+    @Transactional
+    public void upsertAllChromosomes(List<ChromosomeEntity> chromosomeEntityList) {
+        String sql;
+        if (isPostgreSQL()) {
+            StringJoiner updates = new StringJoiner(", ");
+            for (String column : CHROMOSOME_COLUMNS.split(",")) {
+                if (!Arrays.asList(CHROMOSOME_PRIMARY_KEY.split(",")).contains(column)) {
+                    updates.add(column + " = EXCLUDED." + column);
+                }
+            }
+            sql = "INSERT INTO chromosome (" + CHROMOSOME_COLUMNS + ") " + CHROMOSOME_VALUES +
+                    " ON CONFLICT (" + CHROMOSOME_PRIMARY_KEY + ") DO UPDATE SET " + updates;
+        } else {
+            sql = "MERGE INTO chromosome (" + CHROMOSOME_COLUMNS + ") KEY (" + CHROMOSOME_PRIMARY_KEY + ") " +
+                    CHROMOSOME_VALUES;
+        }
+        batchUpdateChromosomes(sql, chromosomeEntityList);
+        sequenceAliasUpdater.replaceAliases(chromosomeEntityList);
+        nameFilter.addSequences(chromosomeEntityList);
+    }
+
+    private void batchUpdateChromosomes(String sql, List<ChromosomeEntity> chromosomeEntityList) {
         jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
             @Override
             public void setValues(PreparedStatement ps, int i) throws SQLException {
@@ -366,4 +906,96 @@ public class ChromosomeService {
         });
     }
 
+    /**
+     * Streams the given chromosomes into the chromosome table with a PostgreSQL text format COPY. Rows are encoded
+     * into a buffer that is flushed to the server every {@link #COPY_BUFFER_SIZE} characters, so the whole batch is
+     * never held in memory as a single COPY payload.
+     *
+     * @return Number of rows copied.
+     */
+    public long copyAllChromosomes(List<ChromosomeEntity> chromosomeEntityList) {
+        String sql = "COPY chromosome (" + CHROMOSOME_COLUMNS + ") FROM STDIN";
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            CopyIn copyIn = copyManager.copyIn(sql);
+            try {
+                StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+                for (ChromosomeEntity chromosome : chromosomeEntityList) {
+                    appendCopyRow(buffer, chromosome);
+                    if (buffer.length() >= COPY_BUFFER_SIZE) {
+                        writeToCopy(copyIn, buffer);
+                    }
+                }
+                writeToCopy(copyIn, buffer);
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private boolean isPostgreSQL() {
+        if (postgreSQL == null) {
+            postgreSQL = jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class));
+        }
+        return postgreSQL;
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    private static void appendCopyRow(StringBuilder buffer, ChromosomeEntity chromosome) {
+        appendCopyValue(buffer, chromosome.getAssembly().getInsdcAccession()).append('\t');
+        appendCopyValue(buffer, chromosome.getContigType() == null ? null : chromosome.getContigType().toString())
+                .append('\t');
+        appendCopyValue(buffer, chromosome.getEnaSequenceName()).append('\t');
+        appendCopyValue(buffer, chromosome.getGenbankSequenceName()).append('\t');
+        appendCopyValue(buffer, chromosome.getInsdcAccession()).append('\t');
+        appendCopyValue(buffer, chromosome.getMd5checksum()).append('\t');
+        appendCopyValue(buffer, chromosome.getRefseq()).append('\t');
+        appendCopyValue(buffer, chromosome.getSeqLength() == null ? null : chromosome.getSeqLength().toString())
+                .append('\t');
+        appendCopyValue(buffer, chromosome.getTrunc512checksum()).append('\t');
+        appendCopyValue(buffer, chromosome.getUcscName()).append('\n');
+    }
+
+    /**
+     * Appends a value in PostgreSQL COPY text format: null becomes \N and backslash, tab, newline and carriage
+     * return are escaped.
+     */
+    private static StringBuilder appendCopyValue(StringBuilder buffer, String value) {
+        if (value == null) {
+            return buffer.append("\\N");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                default:
+                    buffer.append(c);
+            }
+        }
+        return buffer;
+    }
+
 }
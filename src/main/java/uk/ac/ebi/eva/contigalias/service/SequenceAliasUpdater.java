@@ -0,0 +1,259 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController.AUTHORITY_INSDC;
+import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController.AUTHORITY_REFSEQ;
+import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController.NAME_ENA_TYPE;
+import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController.NAME_GENBANK_TYPE;
+import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController.NAME_UCSC_TYPE;
+
+/**
+ * Keeps the sequence_alias table (see {@link uk.ac.ebi.eva.contigalias.entities.SequenceAliasEntity}) in line with the
+ * chromosome table. Whatever inserts, deletes or renames sequences also writes their aliases, in the same transaction,
+ * so that both tables are always committed together. Changes of checksums don't touch the aliases.
+ * <p>
+ * Aliases that still went out of line, e.g. sequences written without going through {@link ChromosomeService}, are
+ * repaired by {@link #reconcileAliases()}, which runs every {@code config.sequence-alias.reconcile-interval}
+ * milliseconds.
+ */
+@Component
+public class SequenceAliasUpdater {
+
+    /**
+     * Column of the chromosome table holding the name of a sequence in each naming convention.
+     */
+    static final Map<String, String> CONVENTION_COLUMNS = new LinkedHashMap<>();
+
+    /**
+     * Name of a sequence in each naming convention.
+     */
+    private static final Map<String, Function<SequenceEntity, String>> CONVENTION_NAMES = new LinkedHashMap<>();
+
+    static {
+        CONVENTION_COLUMNS.put(AUTHORITY_INSDC, "insdc_accession");
+        CONVENTION_COLUMNS.put(AUTHORITY_REFSEQ, "refseq");
+        CONVENTION_COLUMNS.put(NAME_GENBANK_TYPE, "genbank_sequence_name");
+        CONVENTION_COLUMNS.put(NAME_ENA_TYPE, "ena_sequence_name");
+        CONVENTION_COLUMNS.put(NAME_UCSC_TYPE, "ucsc_name");
+        CONVENTION_NAMES.put(AUTHORITY_INSDC, SequenceEntity::getInsdcAccession);
+        CONVENTION_NAMES.put(AUTHORITY_REFSEQ, SequenceEntity::getRefseq);
+        CONVENTION_NAMES.put(NAME_GENBANK_TYPE, SequenceEntity::getGenbankSequenceName);
+        CONVENTION_NAMES.put(NAME_ENA_TYPE, SequenceEntity::getEnaSequenceName);
+        CONVENTION_NAMES.put(NAME_UCSC_TYPE, SequenceEntity::getUcscName);
+    }
+
+    private static final String DELETE_ALIASES = "DELETE FROM sequence_alias WHERE assembly_insdc_accession = ?";
+
+    private static final String DELETE_SEQUENCE_ALIASES = DELETE_ALIASES + " AND insdc_accession = ?";
+
+    private static final String INSERT_ALIAS = "INSERT INTO sequence_alias " +
+            "(alias, convention, assembly_insdc_accession, insdc_accession) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_ALIASES = createInsertAliases();
+
+    private static final String SELECT_OUT_OF_LINE_ASSEMBLIES = createSelectOutOfLineAssemblies();
+
+    private final Logger logger = LoggerFactory.getLogger(SequenceAliasUpdater.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public SequenceAliasUpdater(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    private static String createSelectAliases(String assemblyCondition) {
+        StringJoiner selects = new StringJoiner(" UNION ALL ");
+        CONVENTION_COLUMNS.forEach((convention, column) -> selects.add(
+                "SELECT " + column + " AS alias, '" + convention + "' AS convention, assembly_insdc_accession, " +
+                        "insdc_accession FROM chromosome WHERE " + assemblyCondition + column + " IS NOT NULL"));
+        return selects.toString();
+    }
+
+    private static String createInsertAliases() {
+        return "INSERT INTO sequence_alias (alias, convention, assembly_insdc_accession, insdc_accession) " +
+                createSelectAliases("assembly_insdc_accession = ? AND ");
+    }
+
+    /**
+     * Assemblies having an alias that is missing from the sequence_alias table or one that doesn't match any sequence.
+     */
+    private static String createSelectOutOfLineAssemblies() {
+        String columns = "SELECT alias, convention, assembly_insdc_accession, insdc_accession FROM ";
+        String expected = columns + "(" + createSelectAliases("") + ") expected";
+        String actual = columns + "sequence_alias";
+        return "SELECT DISTINCT assembly_insdc_accession FROM (" +
+                "(" + expected + " EXCEPT " + actual + ") UNION ALL (" + actual + " EXCEPT " + expected + ")" +
+                ") out_of_line";
+    }
+
+    /**
+     * Replaces the aliases of the assembly with the given INSDC or RefSeq accession by the names its sequences
+     * currently have.
+     *
+     * @return Number of aliases of the assembly.
+     */
+    public int updateAliases(String accession) {
+        flush();
+        List<String> insdcAccessions = jdbcTemplate.queryForList(
+                "SELECT insdc_accession FROM assembly WHERE insdc_accession = ? OR refseq = ?", String.class,
+                accession, accession);
+        if (insdcAccessions.isEmpty()) {
+            deleteAliases(accession);
+            return 0;
+        }
+        int aliases = 0;
+        for (String insdcAccession : insdcAccessions) {
+            deleteAliases(insdcAccession);
+            Object[] parameters = new Object[CONVENTION_COLUMNS.size()];
+            Arrays.fill(parameters, insdcAccession);
+            aliases += jdbcTemplate.update(INSERT_ALIASES, parameters);
+        }
+        return aliases;
+    }
+
+    public void deleteAliases(String asmInsdcAccession) {
+        jdbcTemplate.update(DELETE_ALIASES, asmInsdcAccession);
+    }
+
+    /**
+     * Inserts the aliases of new sequences, which have their assembly set.
+     */
+    public void insertAliases(List<ChromosomeEntity> chromosomes) {
+        insertAliases(chromosomes, null, CONVENTION_NAMES.keySet());
+    }
+
+    /**
+     * Replaces the aliases of the given sequences, which have their assembly set, in every naming convention.
+     */
+    public void replaceAliases(List<ChromosomeEntity> chromosomes) {
+        List<Object[]> deletes = new ArrayList<>(chromosomes.size());
+        for (ChromosomeEntity chromosome : chromosomes) {
+            deletes.add(new Object[]{chromosome.getAssembly().getInsdcAccession(), chromosome.getInsdcAccession()});
+        }
+        jdbcTemplate.batchUpdate(DELETE_SEQUENCE_ALIASES, deletes);
+        insertAliases(chromosomes);
+    }
+
+    /**
+     * Replaces the aliases of the given sequences of an assembly in one naming convention, after they were renamed in
+     * it.
+     */
+    public void replaceAliases(String asmInsdcAccession, List<ChromosomeEntity> chromosomes, String convention) {
+        List<Object[]> deletes = new ArrayList<>(chromosomes.size());
+        for (ChromosomeEntity chromosome : chromosomes) {
+            deletes.add(new Object[]{asmInsdcAccession, chromosome.getInsdcAccession(), convention});
+        }
+        jdbcTemplate.batchUpdate(DELETE_SEQUENCE_ALIASES + " AND convention = ?", deletes);
+        insertAliases(chromosomes, asmInsdcAccession, Collections.singleton(convention));
+    }
+
+    /**
+     * Deletes the aliases of a sequence, once it is deleted.
+     */
+    public void deleteAliases(ChromosomeEntity chromosome) {
+        flush();
+        jdbcTemplate.update(DELETE_SEQUENCE_ALIASES, chromosome.getAssembly().getInsdcAccession(),
+                            chromosome.getInsdcAccession());
+    }
+
+    /**
+     * @param asmInsdcAccession INSDC accession of the assembly of the sequences, or null to take it from each sequence.
+     */
+    private void insertAliases(List<ChromosomeEntity> chromosomes, String asmInsdcAccession,
+                               Collection<String> conventions) {
+        flush();
+        List<Object[]> aliases = new ArrayList<>(chromosomes.size() * conventions.size());
+        for (ChromosomeEntity chromosome : chromosomes) {
+            String assembly = asmInsdcAccession != null ? asmInsdcAccession :
+                    chromosome.getAssembly().getInsdcAccession();
+            for (String convention : conventions) {
+                String alias = CONVENTION_NAMES.get(convention).apply(chromosome);
+                if (alias != null) {
+                    aliases.add(new Object[]{alias, convention, assembly, chromosome.getInsdcAccession()});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ALIAS, aliases);
+    }
+
+    /**
+     * Sequences saved through JPA only reach the database at commit otherwise.
+     */
+    private void flush() {
+        if (TransactionSynchronizationManager.isActualTransactionActive() && entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+    }
+
+    /**
+     * Compares the aliases with the names of the sequences and rewrites those of the assemblies that differ, each in
+     * its own transaction. An assembly that can't be rewritten is tried again on the next run.
+     *
+     * @return Number of assemblies whose aliases were rewritten.
+     */
+    @Scheduled(initialDelayString = "${config.sequence-alias.reconcile-interval:86400000}",
+            fixedDelayString = "${config.sequence-alias.reconcile-interval:86400000}")
+    public int reconcileAliases() {
+        List<String> assemblies = jdbcTemplate.queryForList(SELECT_OUT_OF_LINE_ASSEMBLIES, String.class);
+        int reconciled = 0;
+        for (String assembly : assemblies) {
+            try {
+                transaction.executeWithoutResult(status -> updateAliases(assembly));
+                reconciled++;
+            } catch (RuntimeException e) {
+                logger.error("Could not reconcile the sequence aliases of assembly " + assembly, e);
+            }
+        }
+        if (!assemblies.isEmpty()) {
+            logger.warn("Sequence aliases of " + reconciled + " out of " + assemblies.size() +
+                                " assemblies were out of line and rewritten");
+        }
+        return reconciled;
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import uk.ac.ebi.eva.contigalias.dto.SequenceDto;
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.test.BenchmarkApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Time to turn a page of sequences into a HAL {@link PagedModel} with
+ * {@link BaseHandler#generatePagedModelFromPage(Page, PagedResourcesAssembler)} and write it with the same Jackson
+ * {@link ObjectMapper} that the application uses for HAL responses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagedModelSerializationBenchmark {
+
+    private static final int TOTAL_ELEMENTS = 100000;
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+
+    private PagedResourcesAssembler<SequenceDto> assembler;
+
+    private ObjectMapper halObjectMapper;
+
+    private Page<SequenceDto> page;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        context = BenchmarkApplicationContext.start();
+        assembler = context.getBean(PagedResourcesAssembler.class);
+        halObjectMapper = findHalObjectMapper(context.getBean(RequestMappingHandlerAdapter.class));
+
+        AssemblyEntity assembly = BenchmarkApplicationContext.readAssembly();
+        List<SequenceDto> sequences = BenchmarkApplicationContext.readChromosomes(assembly).stream()
+                                                                 .limit(pageSize)
+                                                                 .map(it -> SequenceDto.of(it, false))
+                                                                 .collect(Collectors.toList());
+        page = new PageImpl<>(sequences, PageRequest.of(1, pageSize), TOTAL_ELEMENTS);
+
+        // Links are built from the current request, as they would be when called from a controller
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/assemblies/" +
+                assembly.getInsdcAccession() + "/chromosomes");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static ObjectMapper findHalObjectMapper(RequestMappingHandlerAdapter adapter) {
+        for (HttpMessageConverter<?> converter : adapter.getMessageConverters()) {
+            if (converter instanceof MappingJackson2HttpMessageConverter &&
+                    converter.canWrite(PagedModel.class, MediaTypes.HAL_JSON)) {
+                return ((MappingJackson2HttpMessageConverter) converter).getObjectMapper();
+            }
+        }
+        throw new IllegalStateException("No HAL message converter is registered");
+    }
+
+    @Benchmark
+    public byte[] serializePagedModel() throws JsonProcessingException {
+        PagedModel<EntityModel<SequenceDto>> model = BaseHandler.generatePagedModelFromPage(page, assembler);
+        return halObjectMapper.writeValueAsBytes(model);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+}
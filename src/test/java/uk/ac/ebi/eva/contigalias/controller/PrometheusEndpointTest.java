@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+import uk.ac.ebi.eva.contigalias.service.AssemblyService;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"controller.auth.admin.username=admin", "controller.auth.admin.password=secret"})
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class PrometheusEndpointTest {
+
+    private static final String PROMETHEUS_PATH = "/prometheus";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    private final AssemblyEntity assembly = AssemblyGenerator.generate(7960);
+
+    @BeforeEach
+    void setup() {
+        ChromosomeGenerator.generate(796000, assembly);
+        assemblyService.insertAssembly(assembly);
+    }
+
+    @AfterEach
+    void tearDown() {
+        assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+    }
+
+    @Test
+    void scrapeRequiresAdmin() throws Exception {
+        mockMvc.perform(get(PROMETHEUS_PATH)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get(PROMETHEUS_PATH).with(httpBasic("admin", "wrong"))).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void scrapeHasLatencyHistogramsAndPoolStatistics() throws Exception {
+        mockMvc.perform(get("/v1/assemblies/{accession}/chromosomes", assembly.getInsdcAccession()))
+               .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get(PROMETHEUS_PATH).with(httpBasic("admin", "secret")))
+                               .andExpect(status().isOk())
+                               .andReturn().getResponse().getContentAsString();
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{") &&
+                           scrape.contains("uri=\"/v1/assemblies/{accession}/chromosomes\""));
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"));
+        assertTrue(scrape.contains("method=\"findChromosomeEntitiesByAssemblyInsdcAccessionOrAssemblyRefseq\"") ||
+                           scrape.contains("repository=\"ChromosomeRepository\""));
+        assertTrue(scrape.contains("hikaricp_connections_active{"));
+        assertTrue(scrape.contains("jvm_memory_used_bytes{"));
+        assertTrue(scrape.contains("assembly_ingestion_sequences_total{"));
+        assertTrue(scrape.contains("chromosome_updater_sequences_total{"));
+    }
+}
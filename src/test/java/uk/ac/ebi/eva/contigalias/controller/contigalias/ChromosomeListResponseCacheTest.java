@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.controller.contigalias;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.StreamUtils;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+import uk.ac.ebi.eva.contigalias.service.AssemblyService;
+import uk.ac.ebi.eva.contigalias.service.AssemblyVersionTracker;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "config.chromosome.alias-index.enabled=false")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class ChromosomeListResponseCacheTest {
+
+    private static final String PATH = "/v1/assemblies/{accession}/chromosomes";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @SpyBean
+    private ChromosomeService chromosomeService;
+
+    @SpyBean
+    private AssemblyVersionTracker assemblyVersionTracker;
+
+    @Autowired
+    private ChromosomeListResponseCache responseCache;
+
+    private final AssemblyEntity assembly = AssemblyGenerator.generate(7800);
+
+    private final List<ChromosomeEntity> chromosomes = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < 3; i++) {
+            chromosomes.add(ChromosomeGenerator.generate(780000 + i, assembly));
+        }
+        assemblyService.insertAssembly(assembly);
+    }
+
+    @AfterEach
+    void tearDown() {
+        assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+    }
+
+    @Test
+    void cachedResponseIsCompressedBody() throws Exception {
+        MvcResult plain = mockMvc.perform(get(PATH, assembly.getInsdcAccession()))
+                                 .andExpect(status().isOk())
+                                 .andReturn();
+        assertNull(plain.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+
+        for (int i = 0; i < 2; i++) {
+            MvcResult compressed = getGzip(assembly.getInsdcAccession());
+            assertEquals(plain.getResponse().getContentAsString(),
+                         gunzip(compressed.getResponse().getContentAsByteArray()));
+            assertEquals(plain.getResponse().getContentType(), compressed.getResponse().getContentType());
+            assertEquals(plain.getResponse().getHeader(HttpHeaders.ETAG),
+                         compressed.getResponse().getHeader(HttpHeaders.ETAG));
+        }
+        // Once for the plain response and once to fill the cache
+        verify(chromosomeService, times(2))
+                .getSequencesByAssemblyInsdcAccession(eq(assembly.getInsdcAccession()), any());
+    }
+
+    @Test
+    void keyedByQuery() throws Exception {
+        getGzip(assembly.getInsdcAccession());
+        mockMvc.perform(get(PATH + "?size=1", assembly.getInsdcAccession())
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+               .andExpect(status().isOk());
+        getGzip(assembly.getInsdcAccession());
+        verify(chromosomeService, times(2))
+                .getSequencesByAssemblyInsdcAccession(eq(assembly.getInsdcAccession()), any());
+    }
+
+    @Test
+    void notModified() throws Exception {
+        String eTag = getGzip(assembly.getInsdcAccession()).getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(PATH, assembly.getInsdcAccession())
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+               .andExpect(status().isNotModified());
+        verify(chromosomeService, times(1))
+                .getSequencesByAssemblyInsdcAccession(eq(assembly.getInsdcAccession()), any());
+    }
+
+    @Test
+    void notModifiedSince() throws Exception {
+        String lastModified = mockMvc.perform(get(PATH, assembly.getInsdcAccession()))
+                                     .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        assertNotNull(lastModified);
+        getGzip(assembly.getInsdcAccession());
+        // Cache hit
+        assertEquals(lastModified, getGzip(assembly.getInsdcAccession()).getResponse()
+                                                                          .getHeader(HttpHeaders.LAST_MODIFIED));
+        mockMvc.perform(get(PATH, assembly.getInsdcAccession())
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+               .andExpect(status().isNotModified());
+        // Once for the plain response and once to fill the cache
+        verify(chromosomeService, times(2))
+                .getSequencesByAssemblyInsdcAccession(eq(assembly.getInsdcAccession()), any());
+    }
+
+    @Test
+    void gzipNotAccepted() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get(PATH, assembly.getInsdcAccession())
+                                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                   .andExpect(status().isOk())
+                   .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        }
+        verify(chromosomeService, times(2))
+                .getSequencesByAssemblyInsdcAccession(eq(assembly.getInsdcAccession()), any());
+    }
+
+    @Test
+    void invalidatedByAssemblyChange() throws Exception {
+        MvcResult before = getGzip(assembly.getInsdcAccession());
+        chromosomeService.putChromosomeChecksumsByAccession(chromosomes.get(0).getInsdcAccession(), "changedMd5",
+                                                            "changedTrunc512");
+        MvcResult after = getGzip(assembly.getInsdcAccession());
+        assertNotEquals(before.getResponse().getHeader(HttpHeaders.ETAG),
+                        after.getResponse().getHeader(HttpHeaders.ETAG));
+        assertTrue(gunzip(after.getResponse().getContentAsByteArray()).contains("changedMd5"));
+        verify(chromosomeService, times(2))
+                .getSequencesByAssemblyInsdcAccession(eq(assembly.getInsdcAccession()), any());
+    }
+
+    @Test
+    void invalidatedByAssemblyChangeWhenRequestedByRefseq() throws Exception {
+        getGzip(assembly.getRefseq());
+        assertEquals(1, getCache().estimatedSize());
+        chromosomeService.putChromosomeChecksumsByAccession(chromosomes.get(0).getInsdcAccession(), "changedMd5",
+                                                            "changedTrunc512");
+        assertEquals(0, getCache().asMap().size());
+    }
+
+    @Test
+    void versionReadOncePerRequest() throws Exception {
+        getGzip(assembly.getInsdcAccession());
+        getGzip(assembly.getInsdcAccession());
+        verify(assemblyVersionTracker, times(2)).getVersion(assembly.getInsdcAccession());
+    }
+
+    @Test
+    void unknownAssemblyNotCached() throws Exception {
+        mockMvc.perform(get(PATH, "unknown").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+               .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    private MvcResult getGzip(String accession) throws Exception {
+        return mockMvc.perform(get(PATH, accession).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                      .andExpect(status().isOk())
+                      .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                      .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                      .andReturn();
+    }
+
+    private Cache<?, ?> getCache() {
+        return (Cache<?, ?>) ReflectionTestUtils.getField(responseCache, "cache");
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return StreamUtils.copyToString(input, StandardCharsets.UTF_8);
+        }
+    }
+}
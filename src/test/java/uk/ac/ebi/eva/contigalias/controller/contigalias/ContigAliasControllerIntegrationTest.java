@@ -23,26 +23,48 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import uk.ac.ebi.eva.contigalias.dto.SequenceDto;
 import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
 import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
-import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
 import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
 import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+import uk.ac.ebi.eva.contigalias.exception.InvalidCursorException;
+import uk.ac.ebi.eva.contigalias.service.AssemblyVersionTracker.AssemblyVersion;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeAliasIndex.Key;
 import uk.ac.ebi.eva.contigalias.test.TestConfiguration;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.util.Collections;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.DEFAULT_PAGE_NUMBER;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.DEFAULT_PAGE_REQUEST;
@@ -60,9 +82,15 @@ import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasContro
  * See https://github.com/json-path/JsonPath for the jsonPath syntax.
  */
 @WebMvcTest(ContigAliasController.class)
-@Import(TestConfiguration.class)
+@Import({TestConfiguration.class, RequestCoalescer.class})
 public class ContigAliasControllerIntegrationTest {
 
+    private static final String CURSOR = "Y2hyMQlhc20x";
+
+    private static final AssemblyVersion VERSION = new AssemblyVersion(1, new Timestamp(1700000000000L), null, null);
+
+    private static final String ETAG = VERSION.getETag();
+
     private final AssemblyEntity assemblyEntity = AssemblyGenerator.generate();
 
     private final ChromosomeEntity chromosomeEntity = ChromosomeGenerator.generate();
@@ -81,9 +109,10 @@ public class ContigAliasControllerIntegrationTest {
         Mockito.when(assemblyAssembler.toModel(any()))
                .thenReturn(assemblyPagedModel);
 
-        PagedResourcesAssembler<SequenceEntity> chromosomeAssembler = mock(PagedResourcesAssembler.class);
-        PagedModel<EntityModel<SequenceEntity>> chromosomePagedModel = PagedModel.of(
-                Collections.singletonList(EntityModel.of(chromosomeEntity)), (PagedModel.PageMetadata) null);
+        PagedResourcesAssembler<SequenceDto> chromosomeAssembler = mock(PagedResourcesAssembler.class);
+        PagedModel<EntityModel<SequenceDto>> chromosomePagedModel = PagedModel.of(
+                Collections.singletonList(EntityModel.of(SequenceDto.of(chromosomeEntity, true))),
+                (PagedModel.PageMetadata) null);
         Mockito.when(chromosomeAssembler.toModel(any()))
                .thenReturn(chromosomePagedModel);
 
@@ -94,41 +123,46 @@ public class ContigAliasControllerIntegrationTest {
         when(mockHandler.getAssemblyByRefseq(assemblyEntity.getRefseq()))
                 .thenReturn(assemblyPagedModel);
 
-        when(mockHandler.getSequencesByInsdcAccession(chromosomeEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST))
+        when(mockHandler.getSequencesByInsdcAccession(chromosomeEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST, true))
+                .thenReturn(chromosomePagedModel);
+        when(mockHandler.getSequencesByRefseq(chromosomeEntity.getRefseq(), DEFAULT_PAGE_REQUEST, true))
+                .thenReturn(chromosomePagedModel);
+        when(mockHandler.getSequencesByInsdcAccession(chromosomeEntity.getInsdcAccession(), CURSOR,
+                                                      DEFAULT_PAGE_SIZE))
                 .thenReturn(chromosomePagedModel);
-        when(mockHandler.getSequencesByRefseq(chromosomeEntity.getRefseq(), DEFAULT_PAGE_REQUEST))
+        when(mockHandler.getSequencesByAssemblyInsdcAccession(assemblyEntity.getInsdcAccession(), CURSOR, 10))
                 .thenReturn(chromosomePagedModel);
         when(mockHandler.getSequencesBySequenceNameAndAssemblyAccession(
-                chromosomeEntity.getGenbankSequenceName(), assemblyEntity.getInsdcAccession(), NAME_GENBANK_TYPE, DEFAULT_PAGE_REQUEST))
+                chromosomeEntity.getGenbankSequenceName(), assemblyEntity.getInsdcAccession(), NAME_GENBANK_TYPE, DEFAULT_PAGE_REQUEST, true))
                 .thenReturn(chromosomePagedModel);
         when(mockHandler.getSequencesBySequenceNameAndAssemblyTaxid(
-                chromosomeEntity.getGenbankSequenceName(), assemblyEntity.getTaxid(), NAME_GENBANK_TYPE, DEFAULT_PAGE_REQUEST))
+                chromosomeEntity.getGenbankSequenceName(), assemblyEntity.getTaxid(), NAME_GENBANK_TYPE, DEFAULT_PAGE_REQUEST, true))
                 .thenReturn(chromosomePagedModel);
         when(mockHandler.getSequencesBySequenceNameAndAssemblyAccession(
-                chromosomeEntity.getUcscName(), assemblyEntity.getInsdcAccession(), NAME_UCSC_TYPE, DEFAULT_PAGE_REQUEST))
+                chromosomeEntity.getUcscName(), assemblyEntity.getInsdcAccession(), NAME_UCSC_TYPE, DEFAULT_PAGE_REQUEST, true))
                 .thenReturn(chromosomePagedModel);
         when(mockHandler.getSequencesBySequenceNameAndAssemblyTaxid(
-                chromosomeEntity.getUcscName(), assemblyEntity.getTaxid(), NAME_UCSC_TYPE, DEFAULT_PAGE_REQUEST))
+                chromosomeEntity.getUcscName(), assemblyEntity.getTaxid(), NAME_UCSC_TYPE, DEFAULT_PAGE_REQUEST, true))
                 .thenReturn(chromosomePagedModel);
         when(mockHandler.getSequencesBySequenceNameAndAssemblyAccession(
-                chromosomeEntity.getEnaSequenceName(), assemblyEntity.getInsdcAccession(), NAME_ENA_TYPE, DEFAULT_PAGE_REQUEST))
+                chromosomeEntity.getEnaSequenceName(), assemblyEntity.getInsdcAccession(), NAME_ENA_TYPE, DEFAULT_PAGE_REQUEST, true))
                 .thenReturn(chromosomePagedModel);
         when(mockHandler.getSequencesBySequenceNameAndAssemblyTaxid(
-                chromosomeEntity.getEnaSequenceName(), assemblyEntity.getTaxid(), NAME_ENA_TYPE, DEFAULT_PAGE_REQUEST))
+                chromosomeEntity.getEnaSequenceName(), assemblyEntity.getTaxid(), NAME_ENA_TYPE, DEFAULT_PAGE_REQUEST, true))
                 .thenReturn(chromosomePagedModel);
 
-        when(mockHandler.getAssembliesBySequenceInsdcAccession(assemblyEntity.getInsdcAccession()))
+        when(mockHandler.getAssembliesBySequenceInsdcAccession(assemblyEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST))
                 .thenReturn(assemblyPagedModel);
-        when(mockHandler.getAssembliesBySequenceRefseq(assemblyEntity.getRefseq()))
+        when(mockHandler.getAssembliesBySequenceRefseq(assemblyEntity.getRefseq(), DEFAULT_PAGE_REQUEST))
                 .thenReturn(assemblyPagedModel);
 
-        when(mockHandler.getSequencesByAssemblyInsdcAccession(assemblyEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST))
+        when(mockHandler.getSequencesByAssemblyInsdcAccession(assemblyEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST, true))
                 .thenReturn(chromosomePagedModel);
-        when(mockHandler.getSequencesByAssemblyRefseq(assemblyEntity.getRefseq(), DEFAULT_PAGE_REQUEST))
+        when(mockHandler.getSequencesByAssemblyRefseq(assemblyEntity.getRefseq(), DEFAULT_PAGE_REQUEST, true))
                 .thenReturn(chromosomePagedModel);
-        when(mockHandler.getSequencesByAssemblyAccession(assemblyEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST))
+        when(mockHandler.getSequencesByAssemblyAccession(assemblyEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST, true))
                 .thenReturn(chromosomePagedModel);
-        when(mockHandler.getSequencesByAssemblyAccession(assemblyEntity.getRefseq(), DEFAULT_PAGE_REQUEST))
+        when(mockHandler.getSequencesByAssemblyAccession(assemblyEntity.getRefseq(), DEFAULT_PAGE_REQUEST, true))
                 .thenReturn(chromosomePagedModel);
 
         when(mockHandler.getAssemblyByAccession(assemblyEntity.getInsdcAccession()))
@@ -191,6 +225,61 @@ public class ContigAliasControllerIntegrationTest {
         assertChromosomePagedModelResponseValid(resultActions);
     }
 
+    @Test
+    void getChromosomeByInsdcAccessionWithCursor() throws Exception {
+        ResultActions resultActions = mockMvc.perform(
+                get("/v1/chromosomes/genbank/{genbank}", chromosomeEntity.getInsdcAccession())
+                        .param("cursor", CURSOR));
+        assertChromosomePagedModelResponseValid(resultActions);
+    }
+
+    @Test
+    void getSequencesByAssemblyInsdcAccessionWithCursor() throws Exception {
+        ResultActions resultActions = mockMvc.perform(
+                get("/v1/assemblies/{accession}/chromosomes", assemblyEntity.getInsdcAccession())
+                        .param("authority", AUTHORITY_INSDC)
+                        .param("cursor", CURSOR)
+                        .param("size", "10"));
+        assertChromosomePagedModelResponseValid(resultActions);
+    }
+
+    @Test
+    void getSequencesWithCursorAndInvalidSize() throws Exception {
+        mockMvc.perform(get("/v1/chromosomes/genbank/{genbank}", chromosomeEntity.getInsdcAccession())
+                                .param("cursor", CURSOR)
+                                .param("size", "0"))
+               .andExpect(status().isRequestedRangeNotSatisfiable());
+        mockMvc.perform(get("/v1/assemblies/{accession}/chromosomes", assemblyEntity.getInsdcAccession())
+                                .param("cursor", CURSOR)
+                                .param("size", "-1"))
+               .andExpect(status().isRequestedRangeNotSatisfiable());
+        verifyNoInteractions(mockHandler);
+    }
+
+    @Test
+    void getChromosomeByInsdcAccessionWithoutCount() throws Exception {
+        PagedModel<EntityModel<SequenceDto>> uncounted = PagedModel.of(
+                Collections.singletonList(EntityModel.of(SequenceDto.of(chromosomeEntity, true))),
+                (PagedModel.PageMetadata) null);
+        when(mockHandler.getSequencesByInsdcAccession(chromosomeEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST,
+                                                      false))
+                .thenReturn(uncounted);
+        ResultActions resultActions = mockMvc.perform(
+                get("/v1/chromosomes/genbank/{genbank}", chromosomeEntity.getInsdcAccession())
+                        .param("count", "false"));
+        assertChromosomePagedModelResponseValid(resultActions);
+        resultActions.andExpect(jsonPath("$.page").doesNotExist());
+    }
+
+    @Test
+    void getChromosomeByRefseqWithInvalidCursor() throws Exception {
+        when(mockHandler.getSequencesByRefseq(chromosomeEntity.getRefseq(), "invalid", DEFAULT_PAGE_SIZE))
+                .thenThrow(new InvalidCursorException("Invalid cursor: invalid"));
+        mockMvc.perform(get("/v1/chromosomes/refseq/{refseq}", chromosomeEntity.getRefseq())
+                                .param("cursor", "invalid"))
+               .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getSequencesByChromosomeNameAndAssemblyTaxid() throws Exception {
         ResultActions resultActions = mockMvc.perform(
@@ -261,6 +350,26 @@ public class ContigAliasControllerIntegrationTest {
         assertAssemblyPagedModelResponseValid(resultActions);
     }
 
+    @Test
+    void getAssemblyByChromosomeGenbankPaged() throws Exception {
+        mockMvc.perform(get("/v1/chromosomes/genbank/{genbank}/assemblies", assemblyEntity.getInsdcAccession())
+                                .param("page", "2")
+                                .param("size", "5"))
+               .andExpect(status().isOk());
+        verify(mockHandler).getAssembliesBySequenceInsdcAccession(assemblyEntity.getInsdcAccession(),
+                                                                  PageRequest.of(2, 5));
+    }
+
+    @Test
+    void getAssemblyByChromosomeRefseqInvalidPage() throws Exception {
+        mockMvc.perform(get("/v1/chromosomes/refseq/{refseq}/assemblies", assemblyEntity.getRefseq())
+                                .param("size", "0"))
+               .andExpect(status().isRequestedRangeNotSatisfiable());
+        mockMvc.perform(get("/v1/chromosomes/refseq/{refseq}/assemblies", assemblyEntity.getRefseq())
+                                .param("page", "-1"))
+               .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
     @Test
     void getSequencesByAssemblyAccessionNoAuthority() throws Exception {
         ResultActions resultActions = mockMvc.perform(
@@ -297,4 +406,157 @@ public class ContigAliasControllerIntegrationTest {
                         .param("authority", AUTHORITY_REFSEQ));
         assertChromosomePagedModelResponseValid(resultActions);
     }
+
+    @Test
+    void translateSequenceNames() throws Exception {
+        when(mockHandler.getAssemblyInsdcAccession(assemblyEntity.getRefseq()))
+                .thenReturn(Optional.of(assemblyEntity.getInsdcAccession()));
+        StreamingResponseBody body = output -> output.write(
+                "[{\"name\":\"1\",\"translation\":\"chr1\"}]".getBytes(StandardCharsets.UTF_8));
+        when(mockHandler.translateSequenceNames(eq(assemblyEntity.getInsdcAccession()), eq(Key.GENBANK_SEQUENCE_NAME),
+                                                eq(Key.UCSC_NAME), any(), eq(true))).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(
+                post("/v1/assemblies/{accession}/chromosomes/translate", assemblyEntity.getRefseq())
+                        .param("from", NAME_GENBANK_TYPE)
+                        .param("to", NAME_UCSC_TYPE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"1\"]"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$[0].translation").value("chr1"));
+    }
+
+    @Test
+    void translateSequenceNamesMalformedBody() throws Exception {
+        when(mockHandler.getAssemblyInsdcAccession(assemblyEntity.getInsdcAccession()))
+                .thenReturn(Optional.of(assemblyEntity.getInsdcAccession()));
+        when(mockHandler.translateSequenceNames(eq(assemblyEntity.getInsdcAccession()), eq(Key.GENBANK_SEQUENCE_NAME),
+                                                eq(Key.UCSC_NAME), any(), eq(true)))
+                .thenThrow(new IllegalArgumentException("Expected a JSON array of sequence names"));
+
+        mockMvc.perform(post("/v1/assemblies/{accession}/chromosomes/translate", assemblyEntity.getInsdcAccession())
+                                .param("from", NAME_GENBANK_TYPE)
+                                .param("to", NAME_UCSC_TYPE)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"names\": [\"1\"]}"))
+               .andExpect(request().asyncNotStarted())
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void translateSequenceNamesInvalidNamingConvention() throws Exception {
+        mockMvc.perform(post("/v1/assemblies/{accession}/chromosomes/translate", assemblyEntity.getInsdcAccession())
+                                .param("from", NAME_GENBANK_TYPE)
+                                .param("to", "unknown")
+                                .contentType(MediaType.TEXT_PLAIN)
+                                .content("1\n"))
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void translateSequenceNamesUnknownAssembly() throws Exception {
+        mockMvc.perform(post("/v1/assemblies/{accession}/chromosomes/translate", "unknown")
+                                .param("from", NAME_GENBANK_TYPE)
+                                .param("to", NAME_UCSC_TYPE)
+                                .contentType(MediaType.TEXT_PLAIN)
+                                .content("1\n"))
+               .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void exportSequencesByAssemblyAccession() throws Exception {
+        when(mockHandler.getAssemblyInsdcAccession(assemblyEntity.getInsdcAccession()))
+                .thenReturn(Optional.of(assemblyEntity.getInsdcAccession()));
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(2);
+            output.write("insdcAccession\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(mockHandler).exportSequencesByAssembly(eq(assemblyEntity.getInsdcAccession()),
+                                                       eq(ContigAliasController.EXPORT_FORMAT_TSV), any());
+
+        MvcResult result = mockMvc.perform(
+                get("/v1/assemblies/{accession}/chromosomes/export", assemblyEntity.getInsdcAccession())
+                        .param("format", "TSV"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andExpect(content().contentType(ContigAliasController.MEDIA_TYPE_TSV))
+               .andExpect(content().string("insdcAccession\n"));
+    }
+
+    @Test
+    void exportSequencesByAssemblyAccessionInvalidFormat() throws Exception {
+        mockMvc.perform(get("/v1/assemblies/{accession}/chromosomes/export", assemblyEntity.getInsdcAccession())
+                                .param("format", "xml"))
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportSequencesByAssemblyAccessionUnknownAssembly() throws Exception {
+        mockMvc.perform(get("/v1/assemblies/{accession}/chromosomes/export", "unknown"))
+               .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getSequencesByAssemblyAccessionSetsETag() throws Exception {
+        when(mockHandler.getAssemblyVersion(assemblyEntity.getInsdcAccession())).thenReturn(Optional.of(VERSION));
+        ResultActions resultActions = mockMvc.perform(
+                get("/v1/assemblies/{accession}/chromosomes", assemblyEntity.getInsdcAccession()));
+        assertChromosomePagedModelResponseValid(resultActions);
+        resultActions.andExpect(header().string("ETag", ETAG))
+                     .andExpect(header().dateValue("Last-Modified", VERSION.getLastModified()));
+    }
+
+    @Test
+    void getSequencesByAssemblyAccessionNotModifiedSince() throws Exception {
+        when(mockHandler.getAssemblyVersion(assemblyEntity.getInsdcAccession())).thenReturn(Optional.of(VERSION));
+        mockMvc.perform(get("/v1/assemblies/{accession}/chromosomes", assemblyEntity.getInsdcAccession())
+                                .header("If-Modified-Since", "Tue, 14 Nov 2023 22:13:20 GMT"))
+               .andExpect(status().isNotModified());
+        verify(mockHandler, never()).getSequencesByAssemblyAccession(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void getSequencesByAssemblyAccessionNotModified() throws Exception {
+        when(mockHandler.getAssemblyVersion(assemblyEntity.getInsdcAccession())).thenReturn(Optional.of(VERSION));
+        mockMvc.perform(get("/v1/assemblies/{accession}/chromosomes", assemblyEntity.getInsdcAccession())
+                                .header("If-None-Match", ETAG))
+               .andExpect(status().isNotModified())
+               .andExpect(header().string("ETag", ETAG))
+               .andExpect(content().string(""));
+        verify(mockHandler, never()).getSequencesByAssemblyAccession(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void getSequencesByAssemblyAccessionModified() throws Exception {
+        when(mockHandler.getAssemblyVersion(assemblyEntity.getInsdcAccession())).thenReturn(Optional.of(VERSION));
+        ResultActions resultActions = mockMvc.perform(
+                get("/v1/assemblies/{accession}/chromosomes", assemblyEntity.getInsdcAccession())
+                        .header("If-None-Match", "W/\"old\""));
+        assertChromosomePagedModelResponseValid(resultActions);
+        resultActions.andExpect(header().string("ETag", ETAG));
+    }
+
+    @Test
+    void getSequencesByAssemblyRefseqNotModified() throws Exception {
+        when(mockHandler.getAssemblyVersion(assemblyEntity.getRefseq())).thenReturn(Optional.of(VERSION));
+        mockMvc.perform(get("/v1/assemblies/refseq/{refseq}/chromosomes", assemblyEntity.getRefseq())
+                                .header("If-None-Match", ETAG))
+               .andExpect(status().isNotModified());
+        verify(mockHandler, never()).getSequencesByAssemblyRefseq(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void exportSequencesByAssemblyAccessionNotModified() throws Exception {
+        when(mockHandler.getAssemblyVersion(assemblyEntity.getInsdcAccession())).thenReturn(Optional.of(VERSION));
+        mockMvc.perform(get("/v1/assemblies/{accession}/chromosomes/export", assemblyEntity.getInsdcAccession())
+                                .header("If-None-Match", ETAG))
+               .andExpect(status().isNotModified())
+               .andExpect(request().asyncNotStarted());
+        verify(mockHandler, never()).exportSequencesByAssembly(any(), any(), any());
+    }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.controller.contigalias;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+import uk.ac.ebi.eva.contigalias.service.AssemblyService;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeAliasIndex.Key;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeService;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static uk.ac.ebi.eva.contigalias.controller.BaseController.DEFAULT_PAGE_REQUEST;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "config.chromosome.alias-index.enabled=false")
+public class ContigAliasHandlerReadOnlyTest {
+
+    @Autowired
+    private ContigAliasHandler handler;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @SpyBean
+    private ChromosomeService chromosomeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final AssemblyEntity assembly = AssemblyGenerator.generate(7700);
+
+    private final List<ChromosomeEntity> chromosomes = new ArrayList<>();
+
+    /**
+     * Whether the transaction, then each chromosome loaded by the service, was read-only.
+     */
+    private final List<Boolean> readOnly = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < 3; i++) {
+            chromosomes.add(ChromosomeGenerator.generate(770000 + i, assembly));
+        }
+        assemblyService.insertAssembly(assembly);
+        Mockito.doAnswer(invocation -> {
+            readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            @SuppressWarnings("unchecked")
+            Page<ChromosomeEntity> page = (Page<ChromosomeEntity>) invocation.callRealMethod();
+            Session session = entityManager.unwrap(Session.class);
+            page.forEach(it -> readOnly.add(session.contains(it) && session.isReadOnly(it)));
+            return page;
+        }).when(chromosomeService).getChromosomesByInsdcAccession(anyString(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+    }
+
+    @Test
+    void readsInReadOnlyTransaction() {
+        assertEquals(1, handler.getSequencesByInsdcAccession(chromosomes.get(0).getInsdcAccession(),
+                                                             DEFAULT_PAGE_REQUEST).getContent().size());
+        assertEquals(2, readOnly.size());
+        assertFalse(readOnly.contains(false));
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+    }
+
+    @Test
+    void readsSequencesInReadOnlyTransaction() {
+        List<Boolean> inReadOnlyTransaction = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            inReadOnlyTransaction.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return invocation.callRealMethod();
+        }).when(chromosomeService).getSequencesByAssemblyInsdcAccession(anyString(), any());
+        assertEquals(3, handler.getSequencesByAssemblyInsdcAccession(assembly.getInsdcAccession(),
+                                                                     DEFAULT_PAGE_REQUEST).getContent().size());
+        assertEquals(Collections.singletonList(true), inReadOnlyTransaction);
+    }
+
+    @Test
+    void translatesEachBatchOnItsOwn() throws IOException {
+        List<Boolean> inTransaction = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(chromosomeService).translateChromosomeNames(anyString(), any(), any(), any());
+        InputStream input = new ByteArrayInputStream("1\n2\n".getBytes(StandardCharsets.UTF_8));
+        handler.translateSequenceNames(assembly.getInsdcAccession(), Key.GENBANK_SEQUENCE_NAME, Key.UCSC_NAME, input,
+                                       false).writeTo(new ByteArrayOutputStream());
+        assertEquals(Collections.singletonList(false), inTransaction);
+    }
+
+    @Test
+    void exportsInItsOwnTransaction() throws IOException {
+        List<Boolean> inReadOnlyTransaction = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            // The transaction of the export query, instead of the read-only one of the handler
+            inReadOnlyTransaction.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return invocation.callRealMethod();
+        }).when(chromosomeService).exportChromosomesByAssemblyInsdcAccession(anyString(), any());
+        handler.exportSequencesByAssembly(assembly.getInsdcAccession(), ContigAliasController.EXPORT_FORMAT_TSV,
+                                          new ByteArrayOutputStream());
+        assertEquals(Collections.singletonList(false), inReadOnlyTransaction);
+    }
+
+}
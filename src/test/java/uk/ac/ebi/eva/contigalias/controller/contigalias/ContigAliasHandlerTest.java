@@ -23,31 +23,49 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import uk.ac.ebi.eva.contigalias.dto.SequenceDto;
 import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
 import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
 import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
 import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
 import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
 import uk.ac.ebi.eva.contigalias.service.AssemblyService;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeAliasIndex.Key;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeCursor;
 import uk.ac.ebi.eva.contigalias.service.ChromosomeService;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.DEFAULT_PAGE_REQUEST;
 import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController.NAME_GENBANK_TYPE;
@@ -57,6 +75,218 @@ public class ContigAliasHandlerTest {
 
     private ContigAliasHandler handler;
 
+    @Nested
+    class ExportSequencesByAssemblyTest {
+
+        private static final String ASSEMBLY = "GCA_000001405.10";
+
+        private final ChromosomeEntity chromosome = ChromosomeGenerator.generate(AssemblyGenerator.generate());
+
+        @BeforeEach
+        void setUp() throws IOException {
+            chromosome.setContigType(SequenceEntity.ContigType.CHROMOSOME);
+            ChromosomeEntity scaffold = new ChromosomeEntity();
+            scaffold.setInsdcAccession("AAAA01000001.1").setGenbankSequenceName("Un1");
+
+            ChromosomeService mockChromosomeService = mock(ChromosomeService.class);
+            Mockito.doAnswer(invocation -> {
+                ChromosomeService.ChromosomeCallback callback = invocation.getArgument(1);
+                callback.accept(chromosome);
+                callback.accept(scaffold);
+                return null;
+            }).when(mockChromosomeService).exportChromosomesByAssemblyInsdcAccession(eq(ASSEMBLY), any());
+            handler = new ContigAliasHandler(null, mockChromosomeService, null, null, null);
+        }
+
+        private String export(String format) throws IOException {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            handler.exportSequencesByAssembly(ASSEMBLY, format, output);
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        @Test
+        void exportNdjson() throws IOException {
+            String[] lines = export(ContigAliasController.EXPORT_FORMAT_NDJSON).split("\n", -1);
+            assertEquals(3, lines.length);
+            assertTrue(lines[0].startsWith("{\"insdcAccession\":\"" + chromosome.getInsdcAccession() + "\","));
+            assertTrue(lines[0].contains("\"seqLength\":"));
+            assertTrue(lines[0].endsWith("\"contigType\":\"CHROMOSOME\"}"));
+            assertEquals("{\"insdcAccession\":\"AAAA01000001.1\",\"refseq\":null,\"genbankSequenceName\":\"Un1\"," +
+                                 "\"enaSequenceName\":null,\"ucscName\":null,\"md5checksum\":null," +
+                                 "\"trunc512checksum\":null,\"seqLength\":null,\"contigType\":null}", lines[1]);
+            assertEquals("", lines[2]);
+        }
+
+        @Test
+        void exportTsv() throws IOException {
+            String[] lines = export(ContigAliasController.EXPORT_FORMAT_TSV).split("\n", -1);
+            assertEquals(4, lines.length);
+            assertEquals("insdcAccession\trefseq\tgenbankSequenceName\tenaSequenceName\tucscName\tmd5checksum\t" +
+                                 "trunc512checksum\tseqLength\tcontigType", lines[0]);
+            assertEquals(9, lines[1].split("\t", -1).length);
+            assertEquals("AAAA01000001.1\t\tUn1\t\t\t\t\t\t", lines[2]);
+            assertEquals("", lines[3]);
+        }
+
+        @Test
+        void exportTsvEscapesValues() throws IOException {
+            chromosome.setGenbankSequenceName("Un\\1");
+            chromosome.setUcscName("chrUn\t1\r\n");
+            String[] lines = export(ContigAliasController.EXPORT_FORMAT_TSV).split("\n", -1);
+            assertEquals(4, lines.length);
+            String[] values = lines[1].split("\t", -1);
+            assertEquals(9, values.length);
+            assertEquals("Un\\\\1", values[2]);
+            assertEquals("chrUn\\t1\\r\\n", values[4]);
+        }
+    }
+
+    @Nested
+    class TranslateSequenceNamesTest {
+
+        private static final String ASSEMBLY = "GCA_000001405.10";
+
+        private ChromosomeService mockChromosomeService;
+
+        @BeforeEach
+        void setUp() {
+            mockChromosomeService = mock(ChromosomeService.class);
+            Mockito.when(mockChromosomeService.translateChromosomeNames(eq(ASSEMBLY), eq(Key.GENBANK_SEQUENCE_NAME),
+                                                                        eq(Key.UCSC_NAME), any()))
+                   .thenAnswer(invocation -> {
+                       Map<String, String> translations = new HashMap<>();
+                       for (String name : invocation.<Collection<String>>getArgument(3)) {
+                           if (!name.startsWith("unknown")) {
+                               translations.put(name, name.startsWith("unnamed") ? null : "chr" + name);
+                           }
+                       }
+                       return translations;
+                   });
+            handler = new ContigAliasHandler(null, mockChromosomeService, null, null, null);
+        }
+
+        private String translate(String body, boolean json) throws IOException {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            handler.translateSequenceNames(ASSEMBLY, Key.GENBANK_SEQUENCE_NAME, Key.UCSC_NAME,
+                                           new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), json)
+                   .writeTo(output);
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        @Test
+        void translateJson() throws IOException {
+            assertEquals("[{\"name\":\"1\",\"translation\":\"chr1\"}," +
+                                 "{\"name\":\"unknown\",\"translation\":null}," +
+                                 "{\"name\":\"unnamed\",\"translation\":null}," +
+                                 "{\"name\":\"2\",\"translation\":\"chr2\"}]",
+                         translate("[\"1\", \"unknown\", \"unnamed\", \"2\"]", true));
+        }
+
+        @Test
+        void translateEmptyJson() throws IOException {
+            assertEquals("[]", translate("[]", true));
+            Mockito.verifyNoInteractions(mockChromosomeService);
+        }
+
+        @Test
+        void translateText() throws IOException {
+            assertEquals("1\tchr1\nunknown\t\n2\tchr2\n", translate("1\n\nunknown\r\n2", false));
+        }
+
+        @Test
+        void translateTextEscapesValues() throws IOException {
+            assertEquals("1\\t2\tchr1\\t2\n", translate("1\t2\n", false));
+        }
+
+        @Test
+        void translateInBatchesInRequestOrder() throws IOException {
+            int numberOfNames = ChromosomeService.MAX_NAMES_PER_TRANSLATION * 2 + 1;
+            StringBuilder body = new StringBuilder();
+            StringBuilder expected = new StringBuilder();
+            for (int i = numberOfNames; i > 0; i--) {
+                body.append(i).append('\n');
+                expected.append(i).append("\tchr").append(i).append('\n');
+            }
+            assertEquals(expected.toString(), translate(body.toString(), false));
+            Mockito.verify(mockChromosomeService, Mockito.times(3))
+                   .translateChromosomeNames(eq(ASSEMBLY), eq(Key.GENBANK_SEQUENCE_NAME), eq(Key.UCSC_NAME), any());
+        }
+
+        @Test
+        void translateInvalidJson() {
+            assertThrows(IllegalArgumentException.class, () -> translate("{\"names\": []}", true));
+            assertThrows(IllegalArgumentException.class, () -> translate("names", true));
+            assertThrows(IllegalArgumentException.class, () -> translate("[\"1\", 2]", true));
+        }
+    }
+
+    @Nested
+    class SequencesWithoutCountTest {
+
+        private final AssemblyEntity assembly = AssemblyGenerator.generate();
+
+        private final List<ChromosomeEntity> chromosomes = new ArrayList<>();
+
+        private ChromosomeService mockChromosomeService;
+
+        @BeforeEach
+        void setUp() {
+            for (int i = 0; i < 2; i++) {
+                chromosomes.add(ChromosomeGenerator.generate(i, assembly));
+            }
+            AssemblyService mockAssemblyService = mock(AssemblyService.class);
+            Mockito.when(mockAssemblyService.getAssemblyByInsdcAccession(assembly.getInsdcAccession()))
+                   .thenReturn(Optional.of(assembly));
+            mockChromosomeService = mock(ChromosomeService.class);
+            handler = new ContigAliasHandler(mockAssemblyService, mockChromosomeService, null, null, null);
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(
+                    "GET", "/v1/assemblies/" + assembly.getInsdcAccession() + "/chromosomes")));
+        }
+
+        @AfterEach
+        void tearDown() {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        @Test
+        void sliceAfterCursor() {
+            Mockito.when(mockChromosomeService.getChromosomesAfter(any(), eq(null), eq(2)))
+                   .thenReturn(new SliceImpl<>(new ArrayList<>(chromosomes), PageRequest.of(0, 2), true));
+            String nextCursor = ChromosomeCursor.after(chromosomes.get(1)).encode();
+            PagedModel<EntityModel<SequenceDto>> pagedModel = handler.getSequencesByAssemblyInsdcAccession(
+                    assembly.getInsdcAccession(), "", 2);
+            assertNull(pagedModel.getMetadata());
+            assertEquals(2, pagedModel.getContent().size());
+            assertTrue(pagedModel.getRequiredLink(IanaLinkRelations.NEXT).getHref().endsWith("cursor=" + nextCursor));
+            // Left out of the sequences, as they all belong to the same assembly, but not removed from the entities
+            pagedModel.getContent().forEach(it -> assertNull(it.getContent().getAssembly()));
+            assertEquals(assembly, chromosomes.get(1).getAssembly());
+        }
+
+        @Test
+        void pageWithoutCount() {
+            List<SequenceDto> sequences = chromosomes.stream().map(it -> SequenceDto.of(it, false))
+                                                     .collect(Collectors.toList());
+            Mockito.when(mockChromosomeService.getSequencesSliceByAssemblyInsdcAccession(
+                           assembly.getInsdcAccession(), PageRequest.of(1, 2)))
+                   .thenReturn(new SliceImpl<>(sequences, PageRequest.of(1, 2), true));
+            PagedModel<EntityModel<SequenceDto>> pagedModel = handler.getSequencesByAssemblyInsdcAccession(
+                    assembly.getInsdcAccession(), PageRequest.of(1, 2), false);
+            assertNull(pagedModel.getMetadata());
+            assertEquals(2, pagedModel.getContent().size());
+            assertTrue(pagedModel.getRequiredLink(IanaLinkRelations.PREV).getHref().endsWith("page=0"));
+            assertTrue(pagedModel.getRequiredLink(IanaLinkRelations.NEXT).getHref().endsWith("page=2"));
+        }
+
+        @Test
+        void unknownAssemblyNotQueried() {
+            assertTrue(handler.getSequencesByAssemblyInsdcAccession("unknown", "", 2).getContent().isEmpty());
+            assertTrue(handler.getSequencesByAssemblyInsdcAccession("unknown", PageRequest.of(1, 2), false)
+                              .getContent().isEmpty());
+            Mockito.verifyNoInteractions(mockChromosomeService);
+        }
+    }
+
     @Nested
     class AssemblyServiceTests {
 
@@ -82,7 +312,7 @@ public class ContigAliasHandlerTest {
                     Collections.singletonList(EntityModel.of(entity)), (PagedModel.PageMetadata) null);
             Mockito.when(assembler.toModel(any()))
                    .thenReturn(pagedModel);
-            handler = new ContigAliasHandler(mockAssemblyService, null, assembler, null);
+            handler = new ContigAliasHandler(mockAssemblyService, null, null, assembler, null);
         }
 
         @Test
@@ -148,7 +378,7 @@ public class ContigAliasHandlerTest {
             PagedModel<EntityModel<AssemblyEntity>> pagedModel = PagedModel.wrap(entities, null);
             Mockito.when(assembler.toModel(any()))
                    .thenReturn(pagedModel);
-            handler = new ContigAliasHandler(mockAssemblyService, null, assembler, null);
+            handler = new ContigAliasHandler(mockAssemblyService, null, null, assembler, null);
         }
 
         @Test
@@ -190,13 +420,14 @@ public class ContigAliasHandlerTest {
             Mockito.when(mockChromosomeService.getChromosomesByRefseq(entity.getRefseq(), DEFAULT_PAGE_REQUEST))
                    .thenReturn(pageOfEntity);
 
-            PagedResourcesAssembler<SequenceEntity> mockSequencesAssembler = mock(PagedResourcesAssembler.class);
-            PagedModel<EntityModel<SequenceEntity>> sequencePagedModel = PagedModel.of(
-                    Collections.singletonList(EntityModel.of(entity)), (PagedModel.PageMetadata) null);
+            PagedResourcesAssembler<SequenceDto> mockSequencesAssembler = mock(PagedResourcesAssembler.class);
+            PagedModel<EntityModel<SequenceDto>> sequencePagedModel = PagedModel.of(
+                    Collections.singletonList(EntityModel.of(SequenceDto.of(entity, true))),
+                    (PagedModel.PageMetadata) null);
             Mockito.when(mockSequencesAssembler.toModel(any()))
                    .thenReturn(sequencePagedModel);
 
-            handler = new ContigAliasHandler(null, mockChromosomeService, null, mockSequencesAssembler);
+            handler = new ContigAliasHandler(null, mockChromosomeService, null, null, mockSequencesAssembler);
         }
 
         @Test
@@ -209,14 +440,14 @@ public class ContigAliasHandlerTest {
             testChromosomeEntityResponse(handler.getSequencesByRefseq(entity.getRefseq(), DEFAULT_PAGE_REQUEST));
         }
 
-        void testChromosomeEntityResponse(PagedModel<EntityModel<SequenceEntity>> body) {
+        void testChromosomeEntityResponse(PagedModel<EntityModel<SequenceDto>> body) {
             assertNotNull(body);
-            Collection<EntityModel<SequenceEntity>> content = body.getContent();
+            Collection<EntityModel<SequenceDto>> content = body.getContent();
             assertTrue(content.size() > 0);
-            content.forEach(it -> assertChromosomeIdenticalToEntity((ChromosomeEntity) it.getContent()));
+            content.forEach(it -> assertChromosomeIdenticalToEntity(it.getContent()));
         }
 
-        void assertChromosomeIdenticalToEntity(ChromosomeEntity chromosome) {
+        void assertChromosomeIdenticalToEntity(SequenceDto chromosome) {
             assertNotNull(chromosome);
             assertEquals(entity.getGenbankSequenceName(), chromosome.getGenbankSequenceName());
             assertEquals(entity.getInsdcAccession(), chromosome.getInsdcAccession());
@@ -233,6 +464,8 @@ public class ContigAliasHandlerTest {
 
         private final List<ChromosomeEntity> chromosomeEntities = new LinkedList<>();
 
+        private final List<SequenceDto> sequences = new LinkedList<>();
+
         private final int CHROMOSOME_LIST_SIZE = 5;
 
         @BeforeEach
@@ -241,22 +474,28 @@ public class ContigAliasHandlerTest {
             for (int i = 0; i < CHROMOSOME_LIST_SIZE; i++) {
                 ChromosomeEntity generate = ChromosomeGenerator.generate(i, assemblyEntity);
                 chromosomeEntities.add(generate);
-                List<AssemblyEntity> listOfEntity = Collections.singletonList(this.assemblyEntity);
-                Mockito.when(mockChromosomeService.getAssembliesByChromosomeInsdcAccession(generate.getInsdcAccession()))
-                       .thenReturn(listOfEntity);
-                Mockito.when(mockChromosomeService.getAssembliesByChromosomeRefseq(generate.getRefseq()))
-                       .thenReturn(listOfEntity);
+                PageImpl<AssemblyEntity> pageOfEntity = new PageImpl<>(Collections.singletonList(this.assemblyEntity));
+                Mockito.when(mockChromosomeService.getAssembliesByChromosomeInsdcAccession(generate.getInsdcAccession(),
+                                                                                           DEFAULT_PAGE_REQUEST))
+                       .thenReturn(pageOfEntity);
+                Mockito.when(mockChromosomeService.getAssembliesByChromosomeRefseq(generate.getRefseq(),
+                                                                                   DEFAULT_PAGE_REQUEST))
+                       .thenReturn(pageOfEntity);
             }
-            PageImpl<ChromosomeEntity> pageOfChromosomeEntities = new PageImpl<>(chromosomeEntities);
-            Mockito.when(mockChromosomeService
-                                 .getChromosomesByAssemblyInsdcAccession(assemblyEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST))
-                   .thenReturn(pageOfChromosomeEntities);
+            for (ChromosomeEntity chromosomeEntity : chromosomeEntities) {
+                sequences.add(SequenceDto.of(chromosomeEntity, true));
+            }
+            PageImpl<SequenceDto> pageOfSequences = new PageImpl<>(sequences);
             Mockito.when(mockChromosomeService
-                                 .getChromosomesByAssemblyRefseq(assemblyEntity.getRefseq(), DEFAULT_PAGE_REQUEST))
-                   .thenReturn(pageOfChromosomeEntities);
+                                 .getSequencesByAssemblyInsdcAccession(assemblyEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST))
+                   .thenReturn(pageOfSequences);
 
             AssemblyService mockAssemblyService = mock(AssemblyService.class);
             Optional<AssemblyEntity> optionalOfAssemblyEntity = Optional.of(this.assemblyEntity);
+            Mockito.when(mockAssemblyService.getAssemblyByInsdcAccession(this.assemblyEntity.getInsdcAccession()))
+                   .thenReturn(optionalOfAssemblyEntity);
+            Mockito.when(mockAssemblyService.getAssemblyByRefseq(this.assemblyEntity.getRefseq()))
+                   .thenReturn(optionalOfAssemblyEntity);
             Mockito.when(mockAssemblyService.getAssemblyByAccession(this.assemblyEntity.getInsdcAccession()))
                    .thenReturn(optionalOfAssemblyEntity);
             Mockito.when(mockAssemblyService.getAssemblyByAccession(this.assemblyEntity.getRefseq()))
@@ -264,41 +503,36 @@ public class ContigAliasHandlerTest {
             String chrName = chromosomeEntities.get(0)
                                                .getGenbankSequenceName();
             Long asmTaxid = assemblyEntity.getTaxid();
-            Mockito.when(
-                    mockChromosomeService.getChromosomesByNameAndAssemblyTaxid(chrName, asmTaxid, DEFAULT_PAGE_REQUEST))
+            Mockito.when(mockChromosomeService.getSequencesByName(Key.GENBANK_SEQUENCE_NAME, chrName, null, asmTaxid,
+                                                                  DEFAULT_PAGE_REQUEST))
                    .thenReturn(new PageImpl<>(
-                           chromosomeEntities
+                           sequences
                                    .stream()
                                    .filter(it -> it.getGenbankSequenceName().equals(chrName) &&
                                            it.getAssembly().getTaxid().equals(asmTaxid))
                                    .collect(Collectors.toList())));
 
-            List<ChromosomeEntity> chromosomesByNameAndAssembly = chromosomeEntities
+            List<SequenceDto> sequencesByNameAndAssembly = sequences
                     .stream()
                     .filter(it -> it.getGenbankSequenceName().equals(chrName) &&
                             it.getAssembly().equals(assemblyEntity))
                     .collect(Collectors.toList());
 
-            Mockito.when(mockChromosomeService
-                                 .getChromosomesByNameAndAssembly(chrName, assemblyEntity, DEFAULT_PAGE_REQUEST))
-                   .thenReturn(new PageImpl<>(chromosomesByNameAndAssembly));
-
-            Mockito.when(mockChromosomeService
-                                 .getChromosomesByAssemblyAccession(assemblyEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST))
-                   .thenReturn(pageOfChromosomeEntities);
-
-
-            Mockito.when(mockChromosomeService
-                                 .getChromosomesByAssemblyAccession(assemblyEntity.getRefseq(), DEFAULT_PAGE_REQUEST))
-                   .thenReturn(pageOfChromosomeEntities);
+            Mockito.when(mockChromosomeService.getSequencesByName(Key.GENBANK_SEQUENCE_NAME, chrName,
+                                                                  assemblyEntity.getInsdcAccession(), null,
+                                                                  DEFAULT_PAGE_REQUEST))
+                   .thenReturn(new PageImpl<>(sequencesByNameAndAssembly));
 
-            Mockito.when(mockChromosomeService.getChromosomesByUcscNameAndAssembly(
-                    chromosomeEntities.get(0).getUcscName(), assemblyEntity, DEFAULT_PAGE_REQUEST))
-                   .thenReturn(pageOfChromosomeEntities);
+            String ucscName = chromosomeEntities.get(0).getUcscName();
+            Mockito.when(mockChromosomeService.getSequencesByName(Key.UCSC_NAME, ucscName,
+                                                                  assemblyEntity.getInsdcAccession(), null,
+                                                                  DEFAULT_PAGE_REQUEST))
+                   .thenReturn(pageOfSequences);
 
-            Mockito.when(mockChromosomeService.getChromosomesByUcscNameAndAssemblyTaxid(
-                    chromosomeEntities.get(0).getUcscName(), assemblyEntity.getTaxid(), DEFAULT_PAGE_REQUEST))
-                   .thenReturn(pageOfChromosomeEntities);
+            Mockito.when(mockChromosomeService.getSequencesByName(Key.UCSC_NAME, ucscName,
+                                                                  null, assemblyEntity.getTaxid(),
+                                                                  DEFAULT_PAGE_REQUEST))
+                   .thenReturn(pageOfSequences);
 
             Mockito.when(mockAssemblyService.getAssemblyByAccession(assemblyEntity.getInsdcAccession()))
                    .thenReturn(Optional.of(assemblyEntity));
@@ -310,34 +544,35 @@ public class ContigAliasHandlerTest {
             Mockito.when(mockAssemblyAssembler.toModel(any()))
                    .thenReturn(assemblyPagedModel);
 
-            PagedResourcesAssembler<SequenceEntity> mockSequenceAssembler = mock(PagedResourcesAssembler.class);
+            PagedResourcesAssembler<SequenceDto> mockSequenceAssembler = mock(PagedResourcesAssembler.class);
 
-            PagedModel<EntityModel<SequenceEntity>> sequencePagedModel = PagedModel.wrap(
-                    chromosomeEntities.stream().map(SequenceEntity.class::cast).collect(
-                            Collectors.toList()), null);
+            PagedModel<EntityModel<SequenceDto>> sequencePagedModel = PagedModel.wrap(sequences, null);
             Mockito.when(mockSequenceAssembler.toModel(any()))
                    .thenReturn(sequencePagedModel);
 
-            handler = new ContigAliasHandler(mockAssemblyService, mockChromosomeService, mockAssemblyAssembler,
+            handler = new ContigAliasHandler(mockAssemblyService, mockChromosomeService, null, mockAssemblyAssembler,
                     mockSequenceAssembler);
         }
 
         @AfterEach
         void tearDown() {
             chromosomeEntities.clear();
+            sequences.clear();
         }
 
         @Test
         void getAssemblyByChromosomeGenbank() {
             for (ChromosomeEntity chromosomeEntity : chromosomeEntities) {
-                testAssemblyEntityResponse(handler.getAssembliesBySequenceInsdcAccession(chromosomeEntity.getInsdcAccession()));
+                testAssemblyEntityResponse(handler.getAssembliesBySequenceInsdcAccession(
+                        chromosomeEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST));
             }
         }
 
         @Test
         void getAssemblyByChromosomeRefseq() {
             for (ChromosomeEntity chromosomeEntity : chromosomeEntities) {
-                testAssemblyEntityResponse(handler.getAssembliesBySequenceRefseq(chromosomeEntity.getRefseq()));
+                testAssemblyEntityResponse(handler.getAssembliesBySequenceRefseq(chromosomeEntity.getRefseq(),
+                                                                                 DEFAULT_PAGE_REQUEST));
             }
         }
 
@@ -382,7 +617,7 @@ public class ContigAliasHandlerTest {
         void getChromosomesByChromosomeNameAndAssemblyTaxid() {
             String chrName = chromosomeEntities.get(0).getGenbankSequenceName();
             Long asmTaxid = assemblyEntity.getTaxid();
-            PagedModel<EntityModel<SequenceEntity>> pagedModel = handler
+            PagedModel<EntityModel<SequenceDto>> pagedModel = handler
                     .getSequencesBySequenceNameAndAssemblyTaxid(
                             chrName, asmTaxid, NAME_GENBANK_TYPE, DEFAULT_PAGE_REQUEST);
             assertPagedModelIdenticalToChromosomeEntities(pagedModel);
@@ -391,7 +626,7 @@ public class ContigAliasHandlerTest {
         @Test
         void getChromosomesByChromosomeNameAndAssemblyAccession() {
             String chrName = chromosomeEntities.get(0).getGenbankSequenceName();
-            PagedModel<EntityModel<SequenceEntity>> pagedModel = handler
+            PagedModel<EntityModel<SequenceDto>> pagedModel = handler
                     .getSequencesBySequenceNameAndAssemblyAccession(
                             chrName, assemblyEntity.getInsdcAccession(), NAME_GENBANK_TYPE, DEFAULT_PAGE_REQUEST);
             assertPagedModelIdenticalToChromosomeEntities(pagedModel);
@@ -401,7 +636,7 @@ public class ContigAliasHandlerTest {
         void getChromosomesByChromosomeUcscNameAndAssemblyTaxid() {
             String chrName = chromosomeEntities.get(0).getUcscName();
             Long asmTaxid = assemblyEntity.getTaxid();
-            PagedModel<EntityModel<SequenceEntity>> pagedModel = handler
+            PagedModel<EntityModel<SequenceDto>> pagedModel = handler
                     .getSequencesBySequenceNameAndAssemblyTaxid(
                             chrName, asmTaxid, NAME_UCSC_TYPE, DEFAULT_PAGE_REQUEST);
             assertPagedModelIdenticalToChromosomeEntities(pagedModel);
@@ -410,30 +645,30 @@ public class ContigAliasHandlerTest {
         @Test
         void getChromosomesByChromosomeUcscNameAndAssemblyAccession() {
             String chrName = chromosomeEntities.get(0).getUcscName();
-            PagedModel<EntityModel<SequenceEntity>> pagedModel = handler
+            PagedModel<EntityModel<SequenceDto>> pagedModel = handler
                     .getSequencesBySequenceNameAndAssemblyAccession(
                             chrName, assemblyEntity.getInsdcAccession(), NAME_UCSC_TYPE, DEFAULT_PAGE_REQUEST);
             assertPagedModelIdenticalToChromosomeEntities(pagedModel);
         }
 
         private void assertPagedModelIdenticalToChromosomeEntities(
-                PagedModel<EntityModel<SequenceEntity>> pagedModel) {
-            List<SequenceEntity> entities = assertPagedModelValidAndReturnContentList(pagedModel);
-            assertPagedModelIdenticalToChromosomeEntities(entities);
+                PagedModel<EntityModel<SequenceDto>> pagedModel) {
+            List<SequenceDto> contentList = assertPagedModelValidAndReturnContentList(pagedModel);
+            assertPagedModelIdenticalToChromosomeEntities(contentList);
         }
 
-        private List<SequenceEntity> assertPagedModelValidAndReturnContentList(
-                PagedModel<EntityModel<SequenceEntity>> pagedModel) {
+        private List<SequenceDto> assertPagedModelValidAndReturnContentList(
+                PagedModel<EntityModel<SequenceDto>> pagedModel) {
             assertNotNull(pagedModel);
-            Collection<EntityModel<SequenceEntity>> content = pagedModel.getContent();
+            Collection<EntityModel<SequenceDto>> content = pagedModel.getContent();
             assertNotNull(content);
             assertFalse(content.isEmpty());
             return content.stream().map(EntityModel::getContent).collect(Collectors.toList());
         }
 
-        private void assertPagedModelIdenticalToChromosomeEntities(List<SequenceEntity> collect) {
+        private void assertPagedModelIdenticalToChromosomeEntities(List<SequenceDto> collect) {
             assertNotNull(collect);
-            assertTrue(collect.containsAll(chromosomeEntities));
+            assertTrue(collect.containsAll(sequences));
         }
 
         void testAssemblyEntityResponse(AssemblyEntity assembly) {
@@ -446,14 +681,14 @@ public class ContigAliasHandlerTest {
             assertEquals(this.assemblyEntity.isGenbankRefseqIdentical(), assembly.isGenbankRefseqIdentical());
         }
 
-        void testChromosomeEntityResponses(PagedModel<EntityModel<SequenceEntity>> entityModel) {
+        void testChromosomeEntityResponses(PagedModel<EntityModel<SequenceDto>> entityModel) {
             assertNotNull(entityModel);
-            Collection<EntityModel<SequenceEntity>> content = entityModel.getContent();
+            Collection<EntityModel<SequenceDto>> content = entityModel.getContent();
             assertNotNull(content);
-            List<EntityModel<SequenceEntity>> list = new ArrayList<>(content);
-            assertEquals(chromosomeEntities.size(), list.size());
-            List<SequenceEntity> chxList = list.stream().map(EntityModel::getContent).collect(Collectors.toList());
-            assertTrue(chromosomeEntities.containsAll(chxList));
+            List<EntityModel<SequenceDto>> list = new ArrayList<>(content);
+            assertEquals(sequences.size(), list.size());
+            List<SequenceDto> chxList = list.stream().map(EntityModel::getContent).collect(Collectors.toList());
+            assertTrue(sequences.containsAll(chxList));
         }
 
     }
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.controller.contigalias;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestCoalescerTest {
+
+    private static final int REQUESTS = 8;
+
+    private static final String KEY = "GET /v1/assemblies/GCA_000001405.10/chromosomes";
+
+    private MeterRegistry meterRegistry;
+
+    private RequestCoalescer coalescer;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = createCoalescer(true);
+        executor = Executors.newFixedThreadPool(REQUESTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private RequestCoalescer createCoalescer(boolean enabled) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+                Collections.singletonMap("meterRegistry", meterRegistry));
+        return new RequestCoalescer(enabled, beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void concurrentIdenticalLookupsShareResult() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        Object result = new Object();
+        List<Future<Object>> futures = startConcurrentLookups(() -> {
+            lookups.incrementAndGet();
+            return result;
+        });
+        for (Future<Object> future : futures) {
+            assertSame(result, future.get());
+        }
+        assertEquals(1, lookups.get());
+        assertEquals(1, getCount("executed"));
+        assertEquals(REQUESTS - 1, getCount("joined"));
+    }
+
+    @Test
+    void failureThrownToAllWaiters() throws Exception {
+        IllegalStateException failure = new IllegalStateException("Database unavailable");
+        List<Future<Object>> futures = startConcurrentLookups(() -> {
+            throw failure;
+        });
+        for (Future<Object> future : futures) {
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertSame(failure, exception.getCause());
+        }
+
+        // The failed lookup is not kept
+        Object result = new Object();
+        assertSame(result, coalescer.execute(KEY, () -> result));
+    }
+
+    @Test
+    void sequentialLookupsNotCoalesced() {
+        assertEquals(1, (int) coalescer.execute(KEY, () -> 1));
+        assertEquals(2, (int) coalescer.execute(KEY, () -> 2));
+        assertEquals(2, getCount("executed"));
+        assertEquals(0, getCount("joined"));
+    }
+
+    @Test
+    void differentLookupsNotCoalesced() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> first = executor.submit(() -> coalescer.execute(KEY, () -> {
+            started.countDown();
+            await(release);
+            return 1;
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertEquals(2, (int) coalescer.execute(KEY + "?page=1", () -> 2));
+        release.countDown();
+        assertEquals(1, (int) first.get());
+        assertEquals(0, getCount("joined"));
+    }
+
+    @Test
+    void disabledLookupsNotCoalesced() throws Exception {
+        coalescer = createCoalescer(false);
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch allStarted = new CountDownLatch(REQUESTS);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> coalescer.execute(
+                    new ServletWebRequest(new MockHttpServletRequest("GET", "/v1/assemblies")),
+                    () -> {
+                        lookups.incrementAndGet();
+                        allStarted.countDown();
+                        await(allStarted);
+                        return new Object();
+                    })));
+        }
+        for (Future<Object> future : futures) {
+            future.get();
+        }
+        assertEquals(REQUESTS, lookups.get());
+    }
+
+    /**
+     * Starts {@link #REQUESTS} identical lookups and only lets the first one run once all the others are waiting for
+     * it.
+     */
+    private List<Future<Object>> startConcurrentLookups(Supplier<Object> lookup) {
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> coalescer.execute(KEY, () -> {
+                awaitJoined(REQUESTS - 1);
+                return lookup.get();
+            })));
+        }
+        return futures;
+    }
+
+    private void awaitJoined(int joined) {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (getCount("joined") < joined) {
+                Thread.sleep(1);
+            }
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double getCount(String result) {
+        return meterRegistry.get(RequestCoalescer.METRIC_NAME).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.controller.contigalias;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+import uk.ac.ebi.eva.contigalias.service.AssemblyService;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeAliasIndex.Key;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sends many identical requests at the same time, as the workers of a batch job do when it starts, and counts the SQL
+ * statements they cost. The first lookup is held until all the other requests are waiting for it, so that the test
+ * doesn't depend on the timing of the threads.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "config.chromosome.alias-index.enabled=false"})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class RequestCoalescingLoadTest {
+
+    private static final int REQUESTS = 32;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @SpyBean
+    private ChromosomeService chromosomeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final AssemblyEntity assembly = AssemblyGenerator.generate(7950);
+
+    private final List<ChromosomeEntity> chromosomes = new ArrayList<>();
+
+    private Statistics statistics;
+
+    private ExecutorService executor;
+
+    private volatile double expectedJoinedCount;
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < 3; i++) {
+            chromosomes.add(ChromosomeGenerator.generate(795000 + i, assembly));
+        }
+        assemblyService.insertAssembly(assembly);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        executor = Executors.newFixedThreadPool(REQUESTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+    }
+
+    @Test
+    void chromosomeListQueriedOnce() throws Exception {
+        String url = "/v1/assemblies/" + assembly.getInsdcAccession() + "/chromosomes";
+        long statementsPerRequest = countStatementsOfOneRequest(url);
+
+        doAnswer(invocation -> {
+            awaitJoinedRequests();
+            return invocation.callRealMethod();
+        }).when(chromosomeService).getSequencesByAssemblyInsdcAccession(eq(assembly.getInsdcAccession()), any());
+        assertEquals(statementsPerRequest, countStatementsOfConcurrentRequests(url));
+        // Read through JDBC, so not counted by the statistics of Hibernate: twice before, then once for all the others
+        verify(chromosomeService, times(3)).getSequencesByAssemblyInsdcAccession(eq(assembly.getInsdcAccession()),
+                                                                                 any());
+    }
+
+    @Test
+    void nameLookupQueriedOnce() throws Exception {
+        String name = chromosomes.get(0).getGenbankSequenceName();
+        String url = "/v1/chromosomes/name/" + name;
+        long statementsPerRequest = countStatementsOfOneRequest(url);
+
+        doAnswer(invocation -> {
+            awaitJoinedRequests();
+            return invocation.callRealMethod();
+        }).when(chromosomeService).getSequencesByName(eq(Key.GENBANK_SEQUENCE_NAME), eq(name), isNull(), isNull(),
+                                                      any());
+        assertEquals(statementsPerRequest, countStatementsOfConcurrentRequests(url));
+        // Read through JDBC, so not counted by the statistics of Hibernate: twice before, then once for all the others
+        verify(chromosomeService, times(3)).getSequencesByName(eq(Key.GENBANK_SEQUENCE_NAME), eq(name), isNull(),
+                                                               isNull(), any());
+    }
+
+    private long countStatementsOfOneRequest(String url) throws Exception {
+        // The first request also loads the assembly into the caches that the following requests use
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long countStatementsOfConcurrentRequests(String url) throws Exception {
+        expectedJoinedCount = getJoinedCount() + REQUESTS - 1;
+        statistics.clear();
+        List<Future<MvcResult>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn()));
+        }
+        String body = futures.get(0).get().getResponse().getContentAsString();
+        for (Future<MvcResult> future : futures) {
+            assertEquals(body, future.get().getResponse().getContentAsString());
+        }
+        assertEquals(expectedJoinedCount, getJoinedCount());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void awaitJoinedRequests() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (getJoinedCount() < expectedJoinedCount) {
+                Thread.sleep(1);
+            }
+        });
+    }
+
+    private double getJoinedCount() {
+        return meterRegistry.get(RequestCoalescer.METRIC_NAME).tag("result", "joined").counter().count();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.net.ftp.FTPFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AssemblyReportCacheTest {
+
+    private static final long MODIFICATION_TIME = 1600000000000L;
+
+    @TempDir
+    Path downloadDirectory;
+
+    private Path cacheDirectory;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        cacheDirectory = downloadDirectory.resolve("report-cache");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void restoreStoredReport() throws IOException {
+        AssemblyReportCache cache = buildCache(1024);
+        FTPFile ftpFile = ftpFile("GCA_000003055.3_assembly_report.txt", "# Assembly name:  Bos_taurus_UMD_3.1\n");
+        Path downloadFilePath = download(ftpFile, "# Assembly name:  Bos_taurus_UMD_3.1\n");
+        cache.store(ftpFile, downloadFilePath);
+
+        // The caller deletes the report once it has been read
+        Files.delete(downloadFilePath);
+        assertTrue(cache.restore(ftpFile, downloadFilePath));
+        assertEquals("# Assembly name:  Bos_taurus_UMD_3.1\n",
+                     new String(Files.readAllBytes(downloadFilePath), StandardCharsets.UTF_8));
+        Files.delete(downloadFilePath);
+        assertTrue(cache.restore(ftpFile, downloadFilePath));
+
+        assertEquals(2, meterRegistry.counter(AssemblyReportCache.METRIC_NAME, "result", "hit").count());
+    }
+
+    @Test
+    void changedRemoteFileNotRestored() throws IOException {
+        AssemblyReportCache cache = buildCache(1024);
+        FTPFile ftpFile = ftpFile("GCA_000003055.3_assembly_report.txt", "version 1\n");
+        cache.store(ftpFile, download(ftpFile, "version 1\n"));
+
+        FTPFile updatedFtpFile = ftpFile("GCA_000003055.3_assembly_report.txt", "version 2\n");
+        updatedFtpFile.getTimestamp().setTimeInMillis(MODIFICATION_TIME + 1000);
+        Path downloadFilePath = downloadDirectory.resolve(updatedFtpFile.getName());
+        assertFalse(cache.restore(updatedFtpFile, downloadFilePath));
+        assertEquals(1, meterRegistry.counter(AssemblyReportCache.METRIC_NAME, "result", "miss").count());
+
+        // The older version is replaced
+        cache.store(updatedFtpFile, download(updatedFtpFile, "version 2\n"));
+        assertFalse(cache.restore(ftpFile, downloadFilePath));
+        assertEquals(Collections.singletonList(cache.getCachedFilePath(updatedFtpFile)), list(cacheDirectory));
+        assertEquals(10, cache.getSize());
+    }
+
+    @Test
+    void leastRecentlyUsedReportsEvicted() throws IOException {
+        AssemblyReportCache cache = buildCache(25);
+        FTPFile first = ftpFile("GCA_000000001.1_assembly_report.txt", "first....\n");
+        FTPFile second = ftpFile("GCA_000000002.1_assembly_report.txt", "second...\n");
+        FTPFile third = ftpFile("GCA_000000003.1_assembly_report.txt", "third....\n");
+        cache.store(first, download(first, "first....\n"));
+        cache.store(second, download(second, "second...\n"));
+        assertTrue(cache.restore(first, downloadDirectory.resolve("restored-first")));
+
+        cache.store(third, download(third, "third....\n"));
+        assertEquals(20, cache.getSize());
+        assertFalse(cache.restore(second, downloadDirectory.resolve("restored-second")));
+        assertTrue(cache.restore(first, downloadDirectory.resolve("restored-first-again")));
+        assertTrue(cache.restore(third, downloadDirectory.resolve("restored-third")));
+    }
+
+    @Test
+    void reportCopiedWithoutLock() throws Exception {
+        AssemblyReportCache cache = buildCache(1024);
+        FTPFile ftpFile = ftpFile("GCA_000003055.3_assembly_report.txt", "report\n");
+        // Looked up before it is downloaded, which loads the cache
+        assertFalse(cache.restore(ftpFile, downloadDirectory.resolve(ftpFile.getName())));
+        Path downloadFilePath = download(ftpFile, "report\n");
+        Thread store;
+        synchronized (cache) {
+            // Another worker restoring or storing a report holds the lock meanwhile
+            store = new Thread(() -> cache.store(ftpFile, downloadFilePath));
+            store.start();
+            long deadline = System.currentTimeMillis() + 10000;
+            while (!isCopied(ftpFile)) {
+                assertTrue(System.currentTimeMillis() < deadline, "Report not copied while the cache is locked");
+                Thread.sleep(10);
+            }
+            assertFalse(Files.exists(cache.getCachedFilePath(ftpFile)));
+        }
+        store.join();
+        assertEquals(Collections.singletonList(cache.getCachedFilePath(ftpFile)), list(cacheDirectory));
+        assertEquals(7, cache.getSize());
+    }
+
+    @Test
+    void cacheReloadedFromDirectory() throws IOException {
+        FTPFile ftpFile = ftpFile("GCA_000003055.3_assembly_report.txt", "report\n");
+        buildCache(1024).store(ftpFile, download(ftpFile, "report\n"));
+        // Left behind by an interrupted copy
+        Path temporaryFilePath = cacheDirectory.resolve("GCA_000000001.1_assembly_report.txt.8.0.tmp");
+        Files.write(temporaryFilePath, "partial\n".getBytes(StandardCharsets.UTF_8));
+
+        AssemblyReportCache cache = buildCache(1024);
+        assertTrue(cache.restore(ftpFile, downloadDirectory.resolve("restored")));
+        assertEquals(7, cache.getSize());
+        assertFalse(Files.exists(temporaryFilePath));
+    }
+
+    @Test
+    void disabledCacheNotUsed() throws IOException {
+        AssemblyReportCache cache = new AssemblyReportCache(false, cacheDirectory.toString(), 1024, meterRegistry);
+        FTPFile ftpFile = ftpFile("GCA_000003055.3_assembly_report.txt", "report\n");
+        Path downloadFilePath = download(ftpFile, "report\n");
+        cache.store(ftpFile, downloadFilePath);
+        assertFalse(cache.restore(ftpFile, downloadFilePath));
+        assertFalse(Files.exists(cacheDirectory));
+    }
+
+    private AssemblyReportCache buildCache(long maxSize) {
+        return new AssemblyReportCache(true, cacheDirectory.toString(), maxSize, meterRegistry);
+    }
+
+    private FTPFile ftpFile(String name, String contents) {
+        FTPFile ftpFile = new FTPFile();
+        ftpFile.setName(name);
+        ftpFile.setSize(contents.getBytes(StandardCharsets.UTF_8).length);
+        Calendar timestamp = Calendar.getInstance();
+        timestamp.setTimeInMillis(MODIFICATION_TIME);
+        ftpFile.setTimestamp(timestamp);
+        return ftpFile;
+    }
+
+    private Path download(FTPFile ftpFile, String contents) throws IOException {
+        Path downloadFilePath = downloadDirectory.resolve(ftpFile.getName());
+        Files.write(downloadFilePath, contents.getBytes(StandardCharsets.UTF_8));
+        return downloadFilePath;
+    }
+
+    private boolean isCopied(FTPFile ftpFile) throws IOException {
+        if (!Files.exists(cacheDirectory)) {
+            return false;
+        }
+        for (Path path : list(cacheDirectory)) {
+            if (path.getFileName().toString().endsWith(".tmp") && Files.size(path) == ftpFile.getSize()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.ac.ebi.eva.contigalias.test.BenchmarkApplicationContext.ASSEMBLY_REPORT_PATH;
+import static uk.ac.ebi.eva.contigalias.test.BenchmarkApplicationContext.SEQUENCE_REPORT_PATH;
+import static uk.ac.ebi.eva.contigalias.test.BenchmarkApplicationContext.readLines;
+
+/**
+ * Time to parse whole NCBI assembly reports and ENA sequence reports. The bundled GCA_000003055.3 reports (3316
+ * sequences) are repeated {@link #scale} times with rewritten names and accessions to simulate large assemblies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssemblyReportParsingBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    private List<String> ncbiLines;
+
+    private List<String> enaLines;
+
+    @Setup
+    public void setup() throws IOException {
+        ncbiLines = scaleReport(ASSEMBLY_REPORT_PATH, 0, 4);
+        enaLines = scaleReport(SEQUENCE_REPORT_PATH, 1, 0);
+    }
+
+    private List<String> scaleReport(Path report, int nameColumn, int accessionColumn) throws IOException {
+        List<String> lines = readLines(report, false);
+        List<String> scaled = new ArrayList<>(lines.size() * scale);
+        for (int copy = 0; copy < scale; copy++) {
+            for (String line : lines) {
+                if (copy > 0 && line.startsWith("accession")) {
+                    // The ENA column header appears only once
+                    continue;
+                }
+                String[] columns = line.split("\t", -1);
+                if (copy > 0 && columns.length > Math.max(nameColumn, accessionColumn)) {
+                    columns[nameColumn] = columns[nameColumn] + "_" + copy;
+                    columns[accessionColumn] = "S" + copy + columns[accessionColumn];
+                }
+                scaled.add(String.join("\t", columns));
+            }
+        }
+        return scaled;
+    }
+
+    @Benchmark
+    public List<ChromosomeEntity> ncbiAssemblyReport() {
+        return NCBIAssemblyReportReader.getChromosomeEntity(ncbiLines);
+    }
+
+    @Benchmark
+    public List<ChromosomeEntity> enaSequenceReport() {
+        return ENAAssemblyReportReader.getChromosomeEntity(enaLines);
+    }
+
+}
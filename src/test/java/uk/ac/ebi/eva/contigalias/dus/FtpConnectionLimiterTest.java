@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FtpConnectionLimiterTest {
+
+    private final FtpConnectionLimiter limiter = new FtpConnectionLimiter(1, 2);
+
+    @Test
+    void connectionsCappedPerHost() throws Exception {
+        FtpConnectionLimiter.Permit ncbiPermit = limiter.acquire(NCBIBrowser.NCBI_FTP_SERVER);
+        CompletableFuture<FtpConnectionLimiter.Permit> waiting = CompletableFuture.supplyAsync(
+                () -> acquire(NCBIBrowser.NCBI_FTP_SERVER));
+        assertThrows(TimeoutException.class, () -> waiting.get(100, TimeUnit.MILLISECONDS));
+
+        // The other server has its own cap
+        try (FtpConnectionLimiter.Permit first = limiter.acquire(ENABrowser.EBI_FTP_SERVER);
+             FtpConnectionLimiter.Permit second = limiter.acquire(ENABrowser.EBI_FTP_SERVER)) {
+            assertFalse(waiting.isDone());
+        }
+
+        ncbiPermit.close();
+        waiting.get(10, TimeUnit.SECONDS).close();
+    }
+
+    @Test
+    void otherHostsNotCapped() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire("ftp.example.org");
+        }
+    }
+
+    @Test
+    void interruptedWhileWaiting() throws Exception {
+        try (FtpConnectionLimiter.Permit permit = limiter.acquire(NCBIBrowser.NCBI_FTP_SERVER)) {
+            Thread.currentThread().interrupt();
+            assertThrows(InterruptedIOException.class, () -> limiter.acquire(NCBIBrowser.NCBI_FTP_SERVER));
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    private FtpConnectionLimiter.Permit acquire(String host) {
+        try {
+            return limiter.acquire(host);
+        } catch (InterruptedIOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.command.ListCommandHandler;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class FtpListingCacheTest {
+
+    private static final String PARENT_DIRECTORY = "/genomes/all/GCA/000/003/055/";
+
+    private static final String[] ASSEMBLY_DIRECTORIES = {"GCA_000003055.3_Bos_taurus_UMD_3.1",
+            "GCA_000003055.5_Bos_taurus_UMD_3.1.1"};
+
+    private final AtomicInteger listings = new AtomicInteger();
+
+    private FakeFtpServer ftpServer;
+
+    private NCBIBrowser ncbiBrowser;
+
+    @BeforeEach
+    void setUp() {
+        UnixFakeFileSystem fileSystem = new UnixFakeFileSystem();
+        for (String name : ASSEMBLY_DIRECTORIES) {
+            fileSystem.add(new DirectoryEntry(PARENT_DIRECTORY + name));
+            fileSystem.add(new FileEntry(PARENT_DIRECTORY + name + "/" + name + "_assembly_report.txt", "report\n"));
+        }
+        fileSystem.add(new DirectoryEntry("/genomes/all/GCA/000/001/405"));
+
+        ftpServer = new FakeFtpServer();
+        ftpServer.setServerControlPort(0);
+        ftpServer.addUserAccount(new UserAccount("anonymous", "anonymous", "/"));
+        ftpServer.setFileSystem(fileSystem);
+        ftpServer.setCommandHandler(CommandNames.LIST, new ListCommandHandler() {
+            @Override
+            protected void handle(Command command, Session session) {
+                listings.incrementAndGet();
+                super.handle(command, session);
+            }
+        });
+        ftpServer.start();
+        while (!ftpServer.isStarted()) {
+            Thread.yield();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (ncbiBrowser != null) {
+            ncbiBrowser.disconnect();
+        }
+        ftpServer.stop();
+    }
+
+    @Test
+    void siblingAccessionsShareListings() throws IOException {
+        connect(600000);
+        resolveReports();
+        // One listing of the parent directory and one of each assembly directory
+        assertEquals(3, listings.get());
+
+        resolveReports();
+        assertEquals(3, listings.get());
+    }
+
+    @Test
+    void cacheDisabled() throws IOException {
+        connect(0);
+        resolveReports();
+        assertEquals(4, listings.get());
+    }
+
+    @Test
+    void emptyListingsNotCached() throws IOException {
+        connect(600000);
+        assertFalse(ncbiBrowser.getGenomeReportDirectory("GCA_000001405.29").isPresent());
+        assertFalse(ncbiBrowser.getGenomeReportDirectory("GCA_000001405.29").isPresent());
+        assertEquals(2, listings.get());
+    }
+
+    @Test
+    void evictedListingListedAgain() throws IOException {
+        connect(600000);
+        String directory = ncbiBrowser.getGenomeReportDirectory("GCA_000003055.3").get();
+        ncbiBrowser.getNCBIAssemblyReportFile(directory);
+        ncbiBrowser.evictListing(directory);
+        ncbiBrowser.getNCBIAssemblyReportFile(directory);
+        assertEquals(3, listings.get());
+    }
+
+    private void resolveReports() throws IOException {
+        for (String accession : new String[]{"GCA_000003055.3", "GCA_000003055.5"}) {
+            Optional<String> directory = ncbiBrowser.getGenomeReportDirectory(accession);
+            assertTrue(ncbiBrowser.getNCBIAssemblyReportFile(directory.get()).getName().startsWith(accession + "_"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void connect(long ttl) throws IOException {
+        FtpListingCache listingCache = new FtpListingCache(ttl, 10000, mock(ObjectProvider.class));
+        ncbiBrowser = new NCBIBrowser(null, null, listingCache);
+        ncbiBrowser.connect("localhost", ftpServer.getServerControlPort());
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.command.NoopCommandHandler;
+import org.mockftpserver.fake.command.UserCommandHandler;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.ac.ebi.eva.contigalias.datasource.NCBIAssemblyDataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FtpSessionPoolTest {
+
+    private static final String REPORT_DIRECTORY = "/genomes/all/GCA/000/003/055/";
+
+    private final AtomicInteger logins = new AtomicInteger();
+
+    private final AtomicInteger noops = new AtomicInteger();
+
+    private final AtomicBoolean dropOnNoop = new AtomicBoolean();
+
+    private FakeFtpServer ftpServer;
+
+    private FtpSessionPool<NCBIBrowser> pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        UnixFakeFileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/tmp"));
+        String report = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/GCA_000003055.3_Bos_taurus_UMD_3.1_assembly_report.txt")),
+                                   StandardCharsets.UTF_8);
+        for (String name : new String[]{"GCA_000003055.3_Bos_taurus_UMD_3.1", "GCA_000003055.5_Bos_taurus_UMD_3.1.1"}) {
+            fileSystem.add(new DirectoryEntry(REPORT_DIRECTORY + name));
+            fileSystem.add(new FileEntry(REPORT_DIRECTORY + name + "/" + name + "_assembly_report.txt", report));
+        }
+
+        ftpServer = new FakeFtpServer();
+        ftpServer.setServerControlPort(0);
+        ftpServer.addUserAccount(new UserAccount("anonymous", "anonymous", "/"));
+        ftpServer.setFileSystem(fileSystem);
+        ftpServer.setCommandHandler(CommandNames.USER, new UserCommandHandler() {
+            @Override
+            protected void handle(Command command, Session session) {
+                logins.incrementAndGet();
+                super.handle(command, session);
+            }
+        });
+        ftpServer.setCommandHandler(CommandNames.NOOP, new NoopCommandHandler() {
+            @Override
+            protected void handle(Command command, Session session) {
+                noops.incrementAndGet();
+                if (dropOnNoop.get()) {
+                    session.close();
+                } else {
+                    super.handle(command, session);
+                }
+            }
+        });
+        ftpServer.start();
+        while (!ftpServer.isStarted()) {
+            Thread.yield();
+        }
+
+        pool = buildPool(new FtpConnectionLimiter(2, 2), Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+        ftpServer.stop();
+    }
+
+    @Test
+    void sessionReused() throws IOException {
+        NCBIBrowser client;
+        try (FtpSessionPool.Session<NCBIBrowser> session = pool.borrow()) {
+            client = session.getClient();
+        }
+        assertEquals(1, pool.getIdleCount());
+        try (FtpSessionPool.Session<NCBIBrowser> session = pool.borrow()) {
+            assertSame(client, session.getClient());
+            assertTrue(session.getClient().isConnected());
+        }
+        assertEquals(1, logins.get());
+        assertEquals(1, noops.get());
+    }
+
+    @Test
+    void droppedSessionReplacedOnBorrow() throws IOException {
+        NCBIBrowser client;
+        try (FtpSessionPool.Session<NCBIBrowser> session = pool.borrow()) {
+            client = session.getClient();
+        }
+        dropOnNoop.set(true);
+        try (FtpSessionPool.Session<NCBIBrowser> session = pool.borrow()) {
+            assertNotSame(client, session.getClient());
+        }
+        assertFalse(client.isConnected());
+        assertEquals(2, logins.get());
+    }
+
+    @Test
+    void invalidatedSessionClosed() throws IOException {
+        NCBIBrowser client;
+        try (FtpSessionPool.Session<NCBIBrowser> session = pool.borrow()) {
+            client = session.getClient();
+            session.invalidate();
+        }
+        assertFalse(client.isConnected());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    void keepAliveSendsNoop() throws IOException {
+        pool.borrow().close();
+        pool.keepAlive();
+        assertEquals(1, noops.get());
+        assertEquals(1, pool.getIdleCount());
+
+        // Sessions dropped by the server are evicted
+        dropOnNoop.set(true);
+        pool.keepAlive();
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    void staleSessionsEvicted() throws IOException {
+        FtpSessionPool<NCBIBrowser> shortLivedPool = buildPool(new FtpConnectionLimiter(2, 2), Duration.ZERO);
+        try {
+            FtpSessionPool.Session<NCBIBrowser> session = shortLivedPool.borrow();
+            NCBIBrowser client = session.getClient();
+            session.close();
+            assertEquals(1, shortLivedPool.getIdleCount());
+
+            shortLivedPool.keepAlive();
+            assertEquals(0, shortLivedPool.getIdleCount());
+            assertFalse(client.isConnected());
+            assertEquals(0, noops.get());
+        } finally {
+            shortLivedPool.close();
+        }
+    }
+
+    @Test
+    void borrowedSessionsCapped() throws Exception {
+        FtpSessionPool<NCBIBrowser> cappedPool = buildPool(new FtpConnectionLimiter(1, 1), Duration.ofMinutes(5));
+        try {
+            FtpSessionPool.Session<NCBIBrowser> session = cappedPool.borrow();
+            CompletableFuture<FtpSessionPool.Session<NCBIBrowser>> waiting = CompletableFuture.supplyAsync(
+                    () -> borrow(cappedPool));
+            assertThrows(TimeoutException.class, () -> waiting.get(100, TimeUnit.MILLISECONDS));
+
+            session.close();
+            try (FtpSessionPool.Session<NCBIBrowser> next = waiting.get(10, TimeUnit.SECONDS)) {
+                assertSame(session.getClient(), next.getClient());
+            }
+            assertEquals(1, logins.get());
+        } finally {
+            cappedPool.close();
+        }
+    }
+
+    @Test
+    void downloadAssemblyReportsOverOneSession() throws IOException {
+        NCBIAssemblyDataSource dataSource = new NCBIAssemblyDataSource(
+                pool, new AssemblyReportCache(false, "/tmp", 0, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(dataSource, "asmFileDownloadDir", "/tmp");
+
+        Optional<Path> first = dataSource.downloadAssemblyReport("GCA_000003055.3");
+        Optional<Path> second = dataSource.downloadAssemblyReport("GCA_000003055.5");
+        assertTrue(first.isPresent());
+        assertTrue(second.isPresent());
+        assertEquals(Files.size(first.get()), Files.size(second.get()));
+        Files.delete(first.get());
+        Files.delete(second.get());
+
+        assertEquals(1, logins.get());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    private FtpSessionPool<NCBIBrowser> buildPool(FtpConnectionLimiter connectionLimiter, Duration maxIdle) {
+        return new FtpSessionPool<>(NCBIBrowser.NCBI_FTP_SERVER, () -> {
+            NCBIBrowser ncbiBrowser = new NCBIBrowser(null, null);
+            ncbiBrowser.connect("localhost", ftpServer.getServerControlPort());
+            return ncbiBrowser;
+        }, connectionLimiter, maxIdle);
+    }
+
+    private FtpSessionPool.Session<NCBIBrowser> borrow(FtpSessionPool<NCBIBrowser> sessionPool) {
+        try {
+            return sessionPool.borrow();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
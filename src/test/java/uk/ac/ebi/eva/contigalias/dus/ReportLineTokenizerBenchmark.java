@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the per-line cost of parsing report rows through {@link ReportLineTokenizer} with the former
+ * {@code String.split} based parsing. Every operation is one line, so with {@code -prof gc} the
+ * {@code gc.alloc.rate.norm} metric is the number of bytes allocated per line.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportLineTokenizerBenchmark {
+
+    /**
+     * Number of sequence lines in each bundled report, used to normalize every operation to a single line.
+     */
+    private static final int LINES_PER_REPORT = 3316;
+
+    private List<String> ncbiLines;
+
+    private List<String> enaLines;
+
+    @Setup
+    public void setup() throws IOException {
+        ncbiLines = Files.lines(Paths.get("src/test/resources/GCA_000003055.3_Bos_taurus_UMD_3.1_assembly_report.txt"))
+                         .filter(line -> !line.startsWith("#"))
+                         .collect(Collectors.toList());
+        enaLines = Files.lines(Paths.get("src/test/resources/GCA_000003055.3_sequence_report.txt"))
+                        .filter(line -> !line.startsWith("accession"))
+                        .collect(Collectors.toList());
+        if (ncbiLines.size() != LINES_PER_REPORT || enaLines.size() != LINES_PER_REPORT) {
+            throw new IllegalStateException("Unexpected number of lines in the bundled reports");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES_PER_REPORT)
+    public void ncbiTokenizer(Blackhole blackhole) {
+        for (String line : ncbiLines) {
+            blackhole.consume(NCBIAssemblyReportReader.getChromosomeEntity(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES_PER_REPORT)
+    public void ncbiSplit(Blackhole blackhole) {
+        for (String line : ncbiLines) {
+            blackhole.consume(getNcbiChromosomeEntityWithSplit(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES_PER_REPORT)
+    public void enaTokenizer(Blackhole blackhole) {
+        for (String line : enaLines) {
+            blackhole.consume(ENAAssemblyReportReader.getChromosomeEntity(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES_PER_REPORT)
+    public void enaSplit(Blackhole blackhole) {
+        for (String line : enaLines) {
+            String[] columns = line.split("\t", -1);
+            ChromosomeEntity entity = new ChromosomeEntity();
+            entity.setInsdcAccession(columns[0]);
+            entity.setEnaSequenceName(columns[1]);
+            blackhole.consume(columns[5].equals("Chromosome") && columns[3].equals("assembled-molecule"));
+            blackhole.consume(entity);
+        }
+    }
+
+    /**
+     * The parsing previously done by {@link NCBIAssemblyReportReader}, kept as the baseline.
+     */
+    private static ChromosomeEntity getNcbiChromosomeEntityWithSplit(String line) {
+        String[] columns = line.split("\t", -1);
+        if (columns.length >= 6 && (columns[5].equals("=") || columns[5].equals("<>")) &&
+                (columns[4] != null && !columns[4].isEmpty() && !columns[4].equals("na"))) {
+            ChromosomeEntity entity = new ChromosomeEntity();
+            entity.setGenbankSequenceName(columns[0]);
+            entity.setInsdcAccession(columns[4]);
+            if (!columns[6].isEmpty() && !columns[6].equals("na")) {
+                entity.setRefseq(columns[6]);
+            }
+            if (columns.length > 8) {
+                try {
+                    entity.setSeqLength(Long.parseLong(columns[8]));
+                } catch (NumberFormatException nfe) {
+
+                }
+            }
+            if (columns.length > 9 && !columns[9].equals("na")) {
+                entity.setUcscName(columns[9]);
+            }
+            return entity;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.dus;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportLineTokenizerTest {
+
+    private static final String[] REPORTS = {
+            "src/test/resources/GCA_000003055.3_Bos_taurus_UMD_3.1_assembly_report.txt",
+            "src/test/resources/GCA_000003055.3_sequence_report.txt"
+    };
+
+    private final ReportLineTokenizer tokenizer = new ReportLineTokenizer();
+
+    @Test
+    void fieldsMatchSplit() throws IOException {
+        for (String report : REPORTS) {
+            List<String> lines = Files.lines(Paths.get(report)).collect(Collectors.toList());
+            for (String line : lines) {
+                String[] columns = line.split("\t", -1);
+                tokenizer.reset(line);
+                assertEquals(columns.length, tokenizer.getFieldCount(), line);
+                for (int i = 0; i < columns.length; i++) {
+                    assertEquals(columns[i], tokenizer.getField(i), line);
+                    assertTrue(tokenizer.fieldEquals(i, columns[i]), line);
+                    assertEquals(columns[i].isEmpty(), tokenizer.isFieldEmpty(i), line);
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyAndTrailingFields() {
+        tokenizer.reset("a\t\tb\t");
+        assertEquals(4, tokenizer.getFieldCount());
+        assertEquals("a", tokenizer.getField(0));
+        assertTrue(tokenizer.isFieldEmpty(1));
+        assertEquals("b", tokenizer.getField(2));
+        assertEquals("", tokenizer.getField(3));
+        assertNull(tokenizer.getField(4));
+        assertTrue(tokenizer.isFieldEmpty(4));
+        assertFalse(tokenizer.fieldEquals(4, ""));
+
+        tokenizer.reset("");
+        assertEquals(1, tokenizer.getFieldCount());
+        assertTrue(tokenizer.isFieldEmpty(0));
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        String line = String.join("\t", Collections.nCopies(40, "x"));
+        tokenizer.reset(line);
+        assertEquals(40, tokenizer.getFieldCount());
+        assertEquals("x", tokenizer.getField(39));
+    }
+
+    @Test
+    void repeatedTokensAreShared() {
+        tokenizer.reset(new String("na\t=\t<>\tassembled-molecule\tnb"));
+        assertSame(ReportLineTokenizer.NOT_AVAILABLE, tokenizer.getField(0));
+        assertSame(ReportLineTokenizer.IDENTICAL, tokenizer.getField(1));
+        assertSame(ReportLineTokenizer.NOT_IDENTICAL, tokenizer.getField(2));
+        assertSame(ReportLineTokenizer.ASSEMBLED_MOLECULE, tokenizer.getField(3));
+        assertTrue(tokenizer.isFieldNotAvailable(0));
+        assertFalse(tokenizer.isFieldNotAvailable(4));
+    }
+
+    @Test
+    void parsesLongsLikeParseLong() {
+        String[] values = {"158337067", "0", "-12", "+12", "na", "", "-", "1a", "9223372036854775807",
+                "9223372036854775808", "-9223372036854775808", "-9223372036854775809"};
+        for (String value : values) {
+            Long expected;
+            try {
+                expected = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                expected = null;
+            }
+            assertEquals(expected, tokenizer.reset("x\t" + value).getFieldAsLong(1), value);
+        }
+        assertNull(tokenizer.reset("x").getFieldAsLong(1));
+    }
+
+}
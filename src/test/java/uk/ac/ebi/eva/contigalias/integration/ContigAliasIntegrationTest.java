@@ -57,7 +57,6 @@ public class ContigAliasIntegrationTest {
         registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
         registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
         registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
-        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
         registry.add("ftp.proxy.host", () -> "test_ftp_host");
         registry.add("ftp.proxy.port", () -> 20);
     }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.repo;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the hot sequence finders, then asks H2 for the plan of every query they sent and fails if any of them scans a
+ * whole table instead of using an index. Finders whose condition is an OR of two columns are left out, as H2 can only
+ * scan for those (PostgreSQL combines the indexes of both columns).
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "uk.ac.ebi.eva.contigalias.repo.ChromosomeRepositoryQueryPlanTest$RecordingStatementInspector")
+public class ChromosomeRepositoryQueryPlanTest {
+
+    private static final String TABLE_SCAN = "tableScan";
+
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+
+    @Autowired
+    private ChromosomeRepository chromosomeRepository;
+
+    @Autowired
+    private AssemblyRepository assemblyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AssemblyEntity assembly = AssemblyGenerator.generate(8100);
+
+    private ChromosomeEntity chromosome;
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+    }
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < 3; i++) {
+            chromosome = ChromosomeGenerator.generate(810000 + i, assembly);
+        }
+        assemblyRepository.save(assembly);
+    }
+
+    @AfterEach
+    void tearDown() {
+        chromosomeRepository.deleteChromosomeEntitiesByAssembly_InsdcAccession(assembly.getInsdcAccession());
+        assemblyRepository.deleteAssemblyEntityByInsdcAccession(assembly.getInsdcAccession());
+    }
+
+    @Test
+    void findByAccessionUsesIndexes() {
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByInsdcAccessionOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        chromosome.getInsdcAccession(), PAGE));
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByRefseqOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        chromosome.getRefseq(), PAGE));
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByMd5checksumOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        "md5", PAGE));
+    }
+
+    @Test
+    void findByAssemblyUsesIndexes() {
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByAssembly_InsdcAccessionOrderByInsdcAccessionDesc(
+                        assembly.getInsdcAccession(), PAGE));
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByAssembly_RefseqOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        assembly.getRefseq(), PAGE));
+        assertIndexed(() -> assemblyRepository.findAssemblyEntityByRefseq(assembly.getRefseq()));
+        assertIndexed(() -> assemblyRepository.findAssemblyEntitiesByTaxid(assembly.getTaxid(), PAGE));
+        assertIndexed(() -> assemblyRepository.findCompleteAssemblyEntityByRefseq(assembly.getRefseq()));
+        assertIndexed(() -> assemblyRepository.findCompleteAssemblyEntitiesByTaxid(assembly.getTaxid(), PAGE));
+    }
+
+    @Test
+    void findAssembliesBySequenceUsesIndexes() {
+        // A full page, so that the assemblies are counted as well
+        Pageable fullPage = PageRequest.of(0, 1);
+        assertIndexed(() -> chromosomeRepository.findAssemblyEntitiesByChromosomeInsdcAccession(
+                chromosome.getInsdcAccession(), fullPage));
+        assertIndexed(() -> chromosomeRepository.findAssemblyEntitiesByChromosomeRefseq(
+                chromosome.getRefseq(), fullPage));
+    }
+
+    @Test
+    void findByNameUsesIndexes() {
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByGenbankSequenceNameOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        chromosome.getGenbankSequenceName(), PAGE));
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByEnaSequenceNameOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        chromosome.getEnaSequenceName(), PAGE));
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByUcscNameOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        chromosome.getUcscName(), PAGE));
+    }
+
+    @Test
+    void findByNameAndAssemblyUsesIndexes() {
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByGenbankSequenceNameAndAssemblyOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        chromosome.getGenbankSequenceName(), assembly, PAGE));
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByEnaSequenceNameAndAssemblyOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        chromosome.getEnaSequenceName(), assembly, PAGE));
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByUcscNameAndAssemblyOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        chromosome.getUcscName(), assembly, PAGE));
+    }
+
+    @Test
+    void findByNameAndTaxidUsesIndexes() {
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByGenbankSequenceNameAndAssembly_TaxidOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        chromosome.getGenbankSequenceName(), assembly.getTaxid(), PAGE));
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByEnaSequenceNameAndAssembly_TaxidOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        chromosome.getEnaSequenceName(), assembly.getTaxid(), PAGE));
+        assertIndexed(() -> chromosomeRepository
+                .findChromosomeEntitiesByUcscNameAndAssembly_TaxidOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                        chromosome.getUcscName(), assembly.getTaxid(), PAGE));
+    }
+
+    @Test
+    void findByAnyNameUsesIndexes() {
+        assertIndexed(() -> chromosomeRepository.findAll(
+                ChromosomeSpecifications.hasAlias(chromosome.getUcscName()), PAGE));
+        assertIndexed(() -> chromosomeRepository.findAll(
+                ChromosomeSpecifications.hasAlias(chromosome.getUcscName())
+                                        .and(ChromosomeSpecifications.hasAssemblyInsdcAccession(
+                                                assembly.getInsdcAccession())), PAGE));
+    }
+
+    private void assertIndexed(Runnable finder) {
+        RecordingStatementInspector.statements.clear();
+        finder.run();
+        List<String> queries = new ArrayList<>(RecordingStatementInspector.statements);
+        assertFalse(queries.isEmpty());
+        for (String query : queries) {
+            String plan = explain(query);
+            assertFalse(plan.contains(TABLE_SCAN), "Query scans a whole table: " + plan);
+        }
+    }
+
+    private String explain(String query) {
+        // The plan only depends on which columns are compared, any value does for the parameters
+        int parameters = query.length() - query.replace("?", "").length();
+        return jdbcTemplate.queryForObject("EXPLAIN " + query, String.class,
+                                           Collections.nCopies(parameters, "1").toArray());
+    }
+
+}
@@ -3,6 +3,8 @@ package uk.ac.ebi.eva.contigalias.scheduler;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -16,6 +18,7 @@ import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
 import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
 import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
 import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+import uk.ac.ebi.eva.contigalias.scheduler.job.JobType;
 import uk.ac.ebi.eva.contigalias.service.ChromosomeService;
 
 import java.util.ArrayList;
@@ -35,11 +38,13 @@ class MD5ChecksumUpdaterTest {
     @Autowired
     private ChromosomeService chromosomeService;
     private MD5ChecksumUpdater md5ChecksumUpdater;
+    private MeterRegistry meterRegistry;
 
     @BeforeEach
     void setup() throws JsonProcessingException {
         RestTemplate restTemplate = mock(RestTemplate.class);
-        md5ChecksumUpdater = new MD5ChecksumUpdater(chromosomeService, restTemplate);
+        meterRegistry = new SimpleMeterRegistry();
+        md5ChecksumUpdater = new MD5ChecksumUpdater(chromosomeService, restTemplate, meterRegistry);
         for (int i = 0; i < 5; i++) {
             ChromosomeEntity chromosomeEntity = ChromosomeGenerator.generate(assemblyEntity);
             chromosomeEntityList.add(chromosomeEntity);
@@ -63,5 +68,7 @@ class MD5ChecksumUpdaterTest {
         chromosomeService.getChromosomesByAssemblyInsdcAccession(assemblyEntity.getInsdcAccession(),
                         PageRequest.of(0, 10))
                 .forEach(c -> assertEquals(c.getInsdcAccession() + "-MD5", c.getMd5checksum()));
+        assertEquals(5, meterRegistry.get(ChromosomeUpdater.SEQUENCES_METRIC)
+                                     .tag("job", JobType.MD5_CHECKSUM_UPDATE.toString()).counter().count());
     }
 }
@@ -84,7 +84,7 @@ public class AssemblyAndChromosomeServiceIntegrationTest {
         void getAssemblyByChromosomeInsdcAccession() {
             for (ChromosomeEntity chromosomeEntity : chromosomeEntities) {
                 List<AssemblyEntity> entity = service.getAssembliesByChromosomeInsdcAccession(
-                        chromosomeEntity.getInsdcAccession());
+                        chromosomeEntity.getInsdcAccession(), DEFAULT_PAGE_REQUEST).getContent();
                 testAssemblyIdenticalToEntity(entity);
             }
         }
@@ -93,7 +93,7 @@ public class AssemblyAndChromosomeServiceIntegrationTest {
         void getAssemblyByChromosomeRefseq() {
             for (ChromosomeEntity chromosomeEntity : chromosomeEntities) {
                 List<AssemblyEntity> entity = service.getAssembliesByChromosomeRefseq(
-                        chromosomeEntity.getRefseq());
+                        chromosomeEntity.getRefseq(), DEFAULT_PAGE_REQUEST).getContent();
                 testAssemblyIdenticalToEntity(entity);
             }
         }
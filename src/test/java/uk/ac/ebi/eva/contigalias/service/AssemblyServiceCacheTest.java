@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.ac.ebi.eva.contigalias.service.AssemblyService.ASSEMBLIES_BY_ACCESSION_CACHE;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+@SpringBootTest
+public class AssemblyServiceCacheTest {
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AssemblyEntity assembly = AssemblyGenerator.generate(7800);
+
+    @BeforeEach
+    void setup() {
+        assemblyService.insertAssembly(assembly);
+    }
+
+    @AfterEach
+    void tearDown() {
+        assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+    }
+
+    @Test
+    void lookupsAreCachedAndCounted() {
+        double hits = countGets("hit");
+        double misses = countGets("miss");
+        Optional<AssemblyEntity> first = assemblyService.getAssemblyByAccession(assembly.getRefseq());
+        Optional<AssemblyEntity> second = assemblyService.getAssemblyByAccession(assembly.getRefseq());
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertNull(first.get().getChromosomes());
+        assertEquals(misses + 1, countGets("miss"));
+        assertEquals(hits + 1, countGets("hit"));
+
+        assertSame(assemblyService.getAssembliesByTaxid(assembly.getTaxid(), PageRequest.of(0, 10)),
+                   assemblyService.getAssembliesByTaxid(assembly.getTaxid(), PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void checksumUpdateEmptiesCache() {
+        assemblyService.getAssemblyByInsdcAccession(assembly.getInsdcAccession());
+        assemblyService.putAssemblyChecksumsByAccession(assembly.getInsdcAccession(), "cachedMd5", "cachedTrunc512");
+        assertEquals("cachedMd5",
+                     assemblyService.getAssemblyByInsdcAccession(assembly.getInsdcAccession()).get().getMd5checksum());
+    }
+
+    @Test
+    void deletionAndInsertionEmptyCache() {
+        assertTrue(assemblyService.getAssemblyByRefseq(assembly.getRefseq()).isPresent());
+        assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+        assertFalse(assemblyService.getAssemblyByRefseq(assembly.getRefseq()).isPresent());
+
+        assemblyService.insertAssembly(AssemblyGenerator.generate(7800));
+        assertTrue(assemblyService.getAssemblyByRefseq(assembly.getRefseq()).isPresent());
+    }
+
+    private double countGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", ASSEMBLIES_BY_ACCESSION_CACHE).tag("result", result)
+                            .functionCounter().count();
+    }
+
+}
@@ -16,31 +16,56 @@
 
 package uk.ac.ebi.eva.contigalias.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 import uk.ac.ebi.eva.contigalias.datasource.ENAAssemblyDataSource;
 import uk.ac.ebi.eva.contigalias.datasource.NCBIAssemblyDataSource;
 import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.AssemblyIngestionCheckpointEntity;
 import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.repo.AssemblyIngestionCheckpointRepository;
 import uk.ac.ebi.eva.contigalias.repo.AssemblyRepository;
 import uk.ac.ebi.eva.contigalias.repo.ChromosomeRepository;
 import uk.ac.ebi.eva.contigalias.scheduler.ChromosomeUpdater;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.DEFAULT_PAGE_REQUEST;
 
 @ActiveProfiles("test")
@@ -49,6 +74,10 @@ import static uk.ac.ebi.eva.contigalias.controller.BaseController.DEFAULT_PAGE_R
 public class AssemblyServiceIntegrationTest {
     private static final int TEST_ENTITIES_NUMBERS = 11;
 
+    private static final int REPORT_HEADER_LINES = 31;
+
+    private static final int REPORT_SEQUENCES = 5;
+
     private final AssemblyEntity[] entities = new AssemblyEntity[TEST_ENTITIES_NUMBERS];
 
     @Autowired
@@ -60,6 +89,12 @@ public class AssemblyServiceIntegrationTest {
     @Autowired
     ChromosomeService chromosomeService;
 
+    @Autowired
+    AssemblyIngestionCheckpointRepository checkpointRepository;
+
+    @Autowired
+    SequenceAliasUpdater sequenceAliasUpdater;
+
     @Autowired
     private AssemblyService service;
 
@@ -72,8 +107,9 @@ public class AssemblyServiceIntegrationTest {
             AssemblyEntity generate = AssemblyGenerator.generate(i);
             entities[i] = generate;
         }
-        service = new AssemblyService(chromosomeService, repository, chromosomeRepository, mockNcbiDataSource,
-                mockEnaDataSource, chromosomeUpdater);
+        service = new AssemblyService(chromosomeService, repository, chromosomeRepository, checkpointRepository,
+                sequenceAliasUpdater, mockNcbiDataSource, mockEnaDataSource, chromosomeUpdater,
+                new SimpleMeterRegistry());
     }
 
     @AfterEach
@@ -83,6 +119,242 @@ public class AssemblyServiceIntegrationTest {
         }
     }
 
+    @Test
+    void parseReportAndInsertAssembly() throws IOException {
+        String accession = "GCA_000003055.3";
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AssemblyService reportService = new AssemblyService(chromosomeService, repository, chromosomeRepository,
+                checkpointRepository, sequenceAliasUpdater, new NCBIAssemblyDataSource(null, null),
+                mock(ENAAssemblyDataSource.class), mock(ChromosomeUpdater.class), meterRegistry);
+        try (BufferedReader reader = Files.newBufferedReader(
+                Paths.get("src/test/resources/GCA_000003055.3_Bos_taurus_UMD_3.1_assembly_report.txt"))) {
+            long inserted = reportService.parseReportAndInsertAssembly(reader);
+            assertEquals(3316, inserted);
+            Optional<AssemblyEntity> assembly = service.getAssemblyByInsdcAccession(accession);
+            assertOptionalValid(assembly);
+            assertEquals("Bos_taurus_UMD_3.1", assembly.get().getName());
+            assertEquals(inserted, chromosomeService.countChromosomeEntitiesByAssemblyInsdcAccession(accession));
+            for (String phase : new String[]{"parse", "insert"}) {
+                assertEquals(inserted, meterRegistry.get(AssemblyService.INGESTION_SEQUENCES_METRIC).tag("phase", phase)
+                                                    .counter().count());
+                assertEquals(1, meterRegistry.get(AssemblyService.INGESTION_BATCH_METRIC).tag("phase", phase)
+                                             .timer().count());
+            }
+        } finally {
+            service.deleteEntriesForAssembly(accession);
+        }
+    }
+
+    @Test
+    void fetchAndInsertAssembliesInParallel() throws IOException {
+        List<String> accessions = Arrays.asList("GCA_000003055.7", "GCA_000003055.8", "GCA_000003055.9");
+        String missingAccession = "GCA_000003055.6";
+        // Every download waits for the others, so the assemblies can only be inserted if they are ingested in parallel
+        CyclicBarrier downloads = new CyclicBarrier(accessions.size());
+        NCBIAssemblyDataSource ncbiDataSource = spy(new NCBIAssemblyDataSource(null, null));
+        doReturn(Optional.empty()).when(ncbiDataSource).downloadAssemblyReport(missingAccession);
+        for (String accession : accessions) {
+            doAnswer(invocation -> {
+                downloads.await(10, TimeUnit.SECONDS);
+                return Optional.of(writeReport(accession));
+            }).when(ncbiDataSource).downloadAssemblyReport(accession);
+        }
+        AssemblyService parallelService = new AssemblyService(chromosomeService, repository, chromosomeRepository,
+                checkpointRepository, sequenceAliasUpdater, ncbiDataSource, mock(ENAAssemblyDataSource.class),
+                mock(ChromosomeUpdater.class), new SimpleMeterRegistry());
+
+        List<String> requested = Arrays.asList(accessions.get(0), missingAccession, accessions.get(1),
+                                               accessions.get(2));
+        try {
+            Map<String, List<String>> result = parallelService.fetchAndInsertAssembly(requested);
+            assertEquals(accessions, result.get("SUCCESS"));
+            assertEquals(Collections.singletonList(missingAccession), result.get("FAILURE"));
+            for (String accession : accessions) {
+                assertEquals(REPORT_SEQUENCES, chromosomeService.countChromosomeEntitiesByAssemblyInsdcAccession(
+                        accession));
+            }
+            assertFalse(service.getAssemblyByInsdcAccession(missingAccession).isPresent());
+        } finally {
+            requested.forEach(service::deleteEntriesForAssembly);
+        }
+    }
+
+    @Test
+    void fetchAndInsertSameAssemblyTwice() throws IOException {
+        String accession = "GCA_000003055.7";
+        String refseq = "GCF_000003055.7";
+        NCBIAssemblyDataSource ncbiDataSource = spy(new NCBIAssemblyDataSource(null, null));
+        doAnswer(invocation -> Optional.of(writeReport(accession))).when(ncbiDataSource)
+                                                                    .downloadAssemblyReport(anyString());
+        AssemblyService parallelService = new AssemblyService(chromosomeService, repository, chromosomeRepository,
+                checkpointRepository, sequenceAliasUpdater, ncbiDataSource, mock(ENAAssemblyDataSource.class),
+                mock(ChromosomeUpdater.class), new SimpleMeterRegistry());
+
+        try {
+            Map<String, List<String>> result = parallelService.fetchAndInsertAssembly(
+                    Arrays.asList(accession, accession, refseq));
+            // Whichever ingestion came first, the others found it and left its assembly alone
+            assertEquals(1, result.get("SUCCESS").size());
+            assertEquals(2, result.get("FAILURE").size());
+            assertEquals(REPORT_SEQUENCES, chromosomeService.countChromosomeEntitiesByAssemblyInsdcAccession(accession));
+        } finally {
+            service.deleteEntriesForAssembly(accession);
+        }
+    }
+
+    @Test
+    void fetchAndInsertSameAssemblyByBothAccessions() throws IOException {
+        String accession = "GCA_000003055.7";
+        String refseq = "GCF_000003055.7";
+        // Both workers have claimed the accession they were given before either of them reads the report
+        CyclicBarrier downloads = new CyclicBarrier(2);
+        NCBIAssemblyDataSource ncbiDataSource = spy(new NCBIAssemblyDataSource(null, null));
+        doAnswer(invocation -> {
+            downloads.await(10, TimeUnit.SECONDS);
+            return Optional.of(writeReport(accession));
+        }).when(ncbiDataSource).downloadAssemblyReport(anyString());
+        AssemblyService parallelService = new AssemblyService(chromosomeService, repository, chromosomeRepository,
+                checkpointRepository, sequenceAliasUpdater, ncbiDataSource, mock(ENAAssemblyDataSource.class),
+                mock(ChromosomeUpdater.class), new SimpleMeterRegistry());
+
+        try {
+            Map<String, List<String>> result = parallelService.fetchAndInsertAssembly(Arrays.asList(accession, refseq));
+            // The worker given the INSDC accession owns the assembly from the start
+            assertEquals(Collections.singletonList(accession), result.get("SUCCESS"));
+            assertEquals(Collections.singletonList(refseq), result.get("FAILURE"));
+            assertEquals(REPORT_SEQUENCES, chromosomeService.countChromosomeEntitiesByAssemblyInsdcAccession(accession));
+            assertTrue(service.getAssemblyByAccession(refseq).isPresent());
+        } finally {
+            service.deleteEntriesForAssembly(accession);
+        }
+    }
+
+    @Test
+    void resumeSameAssemblyByBothAccessions() throws IOException {
+        String accession = "GCA_000003055.8";
+        String refseq = "GCF_000003055.8";
+        CyclicBarrier downloads = new CyclicBarrier(2);
+        List<Path> reports = new CopyOnWriteArrayList<>();
+        NCBIAssemblyDataSource ncbiDataSource = spy(new NCBIAssemblyDataSource(null, null));
+        doAnswer(invocation -> {
+            downloads.await(10, TimeUnit.SECONDS);
+            Path report = writeReport(accession);
+            reports.add(report);
+            return Optional.of(report);
+        }).when(ncbiDataSource).downloadAssemblyReport(anyString());
+        AssemblyService parallelService = new AssemblyService(chromosomeService, repository, chromosomeRepository,
+                checkpointRepository, sequenceAliasUpdater, ncbiDataSource, mock(ENAAssemblyDataSource.class),
+                mock(ChromosomeUpdater.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(parallelService, "resumableIngestion", true);
+
+        try {
+            Map<String, List<String>> result = parallelService.fetchAndInsertAssembly(Arrays.asList(accession, refseq));
+            assertEquals(Collections.singletonList(accession), result.get("SUCCESS"));
+            assertEquals(Collections.singletonList(refseq), result.get("FAILURE"));
+            // The worker given the RefSeq accession neither deleted the entries nor left a checkpoint behind
+            assertEquals(REPORT_SEQUENCES, chromosomeService.countChromosomeEntitiesByAssemblyInsdcAccession(accession));
+            assertFalse(checkpointRepository.findFirstByAccessionIn(Arrays.asList(accession, refseq)).isPresent());
+            assertTrue(service.getAssemblyByAccession(refseq).isPresent());
+            assertEquals(2, reports.size());
+            for (Path report : reports) {
+                assertFalse(Files.exists(report));
+            }
+        } finally {
+            service.deleteEntriesForAssembly(accession);
+        }
+    }
+
+    @Test
+    void resumeIngestionAfterFailure() throws IOException {
+        String accession = "GCA_000003055.8";
+        String refseq = "GCF_000003055.8";
+        Path report = writeReport(accession);
+        AtomicBoolean failed = new AtomicBoolean();
+        // Fails once the sequences are inserted, before the checkpoint records them
+        AssemblyIngestionCheckpointRepository failingCheckpointRepository = mock(
+                AssemblyIngestionCheckpointRepository.class, AdditionalAnswers.delegatesTo(checkpointRepository));
+        doAnswer(invocation -> {
+            AssemblyIngestionCheckpointEntity checkpoint = invocation.getArgument(0);
+            if (checkpoint.getLastCommittedLine() > 0 && !failed.getAndSet(true)) {
+                throw new IllegalStateException("Connection lost");
+            }
+            return checkpointRepository.save(checkpoint);
+        }).when(failingCheckpointRepository).save(any(AssemblyIngestionCheckpointEntity.class));
+        AssemblyService resumableService = buildResumableService(report, failingCheckpointRepository);
+
+        try {
+            assertEquals(Collections.singletonList(accession),
+                         resumableService.fetchAndInsertAssembly(Collections.singletonList(accession)).get("FAILURE"));
+            // The inserted entries are kept for the next ingestion, but the partial assembly is not visible
+            assertTrue(repository.findAssemblyEntityByInsdcAccession(accession).isPresent());
+            assertFalse(service.getAssemblyByInsdcAccession(accession).isPresent());
+            assertFalse(service.getAssemblyByAccession(refseq).isPresent());
+            assertEquals(REPORT_SEQUENCES, chromosomeService.countChromosomeEntitiesByAssemblyInsdcAccession(accession));
+            assertEquals(0, checkpointRepository.findById(accession).get().getLastCommittedLine());
+
+            // The sequences are inserted again over the existing ones, even when requested with the other accession
+            assertEquals(Collections.singletonList(refseq),
+                         resumableService.fetchAndInsertAssembly(Collections.singletonList(refseq)).get("SUCCESS"));
+            assertEquals(REPORT_SEQUENCES, chromosomeService.countChromosomeEntitiesByAssemblyInsdcAccession(accession));
+            assertFalse(checkpointRepository.findById(accession).isPresent());
+            assertTrue(service.getAssemblyByInsdcAccession(accession).isPresent());
+            assertTrue(service.getAssemblyByAccession(refseq).isPresent());
+        } finally {
+            service.deleteEntriesForAssembly(accession);
+            Files.deleteIfExists(report);
+        }
+    }
+
+    @Test
+    void resumeIngestionFromCheckpoint() throws IOException {
+        String accession = "GCA_000003055.9";
+        Path report = writeReport(accession);
+        int committedSequences = 3;
+        checkpointRepository.save(new AssemblyIngestionCheckpointEntity(
+                accession, report.getFileName().toString(), Files.size(report))
+                                          .setLastCommittedLine(REPORT_HEADER_LINES + committedSequences));
+        AssemblyService resumableService = buildResumableService(report, checkpointRepository);
+
+        try {
+            resumableService.fetchAndInsertAssembly(accession);
+            // Only the sequences after the checkpoint were inserted
+            assertEquals(REPORT_SEQUENCES - committedSequences,
+                         chromosomeService.countChromosomeEntitiesByAssemblyInsdcAccession(accession));
+            assertFalse(checkpointRepository.findById(accession).isPresent());
+        } finally {
+            service.deleteEntriesForAssembly(accession);
+        }
+    }
+
+    private AssemblyService buildResumableService(Path report, AssemblyIngestionCheckpointRepository checkpoints)
+            throws IOException {
+        // Each download writes the report again, as it is deleted once ingested
+        Path downloaded = Files.copy(report, report.resolveSibling(report.getFileName() + ".downloaded"));
+        downloaded.toFile().deleteOnExit();
+        NCBIAssemblyDataSource ncbiDataSource = spy(new NCBIAssemblyDataSource(null, null));
+        doAnswer(invocation -> Optional.of(Files.copy(downloaded, report, StandardCopyOption.REPLACE_EXISTING)))
+                .when(ncbiDataSource).downloadAssemblyReport(anyString());
+        AssemblyService resumableService = new AssemblyService(chromosomeService, repository, chromosomeRepository,
+                checkpoints, sequenceAliasUpdater, ncbiDataSource, mock(ENAAssemblyDataSource.class),
+                mock(ChromosomeUpdater.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(resumableService, "resumableIngestion", true);
+        return resumableService;
+    }
+
+    /**
+     * Writes a copy of the first sequences of the bundled assembly report, for the assembly with the given accession.
+     */
+    private Path writeReport(String accession) throws IOException {
+        String version = accession.substring(accession.indexOf('_') + 1);
+        List<String> lines = Files.lines(Paths.get(
+                                          "src/test/resources/GCA_000003055.3_Bos_taurus_UMD_3.1_assembly_report.txt"))
+                                  .limit(REPORT_HEADER_LINES + REPORT_SEQUENCES)
+                                  .map(line -> line.replace("000003055.3", version))
+                                  .collect(Collectors.toList());
+        Path report = Files.createTempFile("assembly_report", ".txt");
+        return Files.write(report, lines);
+    }
+
     void assertOptionalValid(Optional<AssemblyEntity> optional) {
         assertNotNull(optional);
         assertTrue(optional.isPresent());
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.AssemblyIngestionCheckpointEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.repo.AssemblyIngestionCheckpointRepository;
+import uk.ac.ebi.eva.contigalias.service.AssemblyVersionTracker.AssemblyVersion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class AssemblyVersionTrackerTest {
+
+    private final AssemblyEntity assembly = AssemblyGenerator.generate(7700);
+
+    private final AssemblyEntity otherAssembly = AssemblyGenerator.generate(7701);
+
+    @Autowired
+    private AssemblyVersionTracker tracker;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AssemblyIngestionCheckpointRepository checkpointRepository;
+
+    @BeforeEach
+    void setup() {
+        assemblyService.insertAssembly(assembly);
+        assemblyService.insertAssembly(otherAssembly);
+    }
+
+    @AfterEach
+    void tearDown() {
+        assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+        assemblyService.deleteEntriesForAssembly(otherAssembly.getInsdcAccession());
+    }
+
+    @Test
+    void insertedAssembly() {
+        AssemblyVersion version = tracker.getVersion(assembly.getInsdcAccession()).get();
+        assertEquals(1, version.getVersion());
+        assertTrue(version.getLastModified() > 0);
+        assertTrue(version.getETag().startsWith("W/\"" + AssemblyVersion.REPRESENTATION_VERSION + "-"));
+        assertEquals(version.getETag(), tracker.getVersion(assembly.getRefseq()).get().getETag());
+    }
+
+    @Test
+    void unknownAssembly() {
+        assertFalse(tracker.getVersion("unknown").isPresent());
+    }
+
+    @Test
+    void changeOfInsdcAccession() {
+        String eTag = getETag(assembly);
+        String otherETag = getETag(otherAssembly);
+        AssemblyChangedEvent.publish(this, assembly.getInsdcAccession(), AssemblyChangedEvent.ChangeType.UPDATED);
+        assertNotEquals(eTag, getETag(assembly));
+        assertEquals(otherETag, getETag(otherAssembly));
+    }
+
+    @Test
+    void changeOfRefseq() {
+        long version = tracker.getVersion(assembly.getInsdcAccession()).get().getVersion();
+        AssemblyChangedEvent.publish(this, assembly.getRefseq(), AssemblyChangedEvent.ChangeType.UPDATED);
+        assertEquals(version + 1, tracker.getVersion(assembly.getInsdcAccession()).get().getVersion());
+    }
+
+    @Test
+    void deletedAssembly() {
+        assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+        assertFalse(tracker.getVersion(assembly.getInsdcAccession()).isPresent());
+    }
+
+    @Test
+    void interruptedIngestion() {
+        checkpointRepository.save(new AssemblyIngestionCheckpointEntity(assembly.getRefseq(), "report.txt", 1));
+        try {
+            assertFalse(tracker.getVersion(assembly.getInsdcAccession()).isPresent());
+            assertFalse(tracker.getVersion(assembly.getRefseq()).isPresent());
+        } finally {
+            checkpointRepository.deleteCheckpointByAccession(assembly.getRefseq());
+        }
+        assertTrue(tracker.getVersion(assembly.getInsdcAccession()).isPresent());
+    }
+
+    @Test
+    void sameVersionForAllInstances() {
+        // Another instance of the web service sharing the database, which has not seen the event
+        AssemblyVersionTracker otherInstance = new AssemblyVersionTracker(jdbcTemplate);
+        AssemblyChangedEvent.publish(this, assembly.getInsdcAccession(), AssemblyChangedEvent.ChangeType.UPDATED);
+        assertEquals(getETag(assembly), otherInstance.getVersion(assembly.getInsdcAccession()).get().getETag());
+    }
+
+    private String getETag(AssemblyEntity assembly) {
+        return tracker.getVersion(assembly.getInsdcAccession()).get().getETag();
+    }
+}
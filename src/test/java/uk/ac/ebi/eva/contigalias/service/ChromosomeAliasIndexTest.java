@@ -0,0 +1,254 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.AssemblyIngestionCheckpointEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+import uk.ac.ebi.eva.contigalias.repo.AssemblyIngestionCheckpointRepository;
+import uk.ac.ebi.eva.contigalias.repo.ChromosomeRepository;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeAliasIndex.Key;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "config.chromosome.alias-index.enabled=true")
+public class ChromosomeAliasIndexTest {
+
+    private static final String SHARED_NAME = "chrShared";
+
+    private static final int CHROMOSOMES_PER_ASSEMBLY = 5;
+
+    @Autowired
+    private ChromosomeAliasIndex aliasIndex;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private ChromosomeService chromosomeService;
+
+    @Autowired
+    private ChromosomeRepository chromosomeRepository;
+
+    @Autowired
+    private AssemblyIngestionCheckpointRepository checkpointRepository;
+
+    private final List<AssemblyEntity> assemblies = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < 3; i++) {
+            assemblies.add(generateAssembly(i));
+        }
+        assemblyService.insertAssembly(assemblies.get(0));
+        assemblyService.insertAssembly(assemblies.get(1));
+        aliasIndex.rebuild();
+        assertTrue(aliasIndex.isReady());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (AssemblyEntity assembly : assemblies) {
+            assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+        }
+        assemblies.clear();
+    }
+
+    private AssemblyEntity generateAssembly(int index) {
+        long id = 7300 + index;
+        AssemblyEntity assembly = AssemblyGenerator.generate(id);
+        for (int i = 0; i < CHROMOSOMES_PER_ASSEMBLY; i++) {
+            ChromosomeEntity chromosome = ChromosomeGenerator.generate(id * 100 + i, assembly);
+            chromosome.setContigType(SequenceEntity.ContigType.CHROMOSOME);
+        }
+        assembly.getChromosomes().get(0).setGenbankSequenceName(SHARED_NAME).setUcscName(SHARED_NAME);
+        assembly.getChromosomes().get(1).setSeqLength(null);
+        return assembly;
+    }
+
+    @Test
+    void answersLikeTheDatabase() {
+        ChromosomeEntity chromosome = assemblies.get(1).getChromosomes().get(1);
+        assertSameAsDatabase(aliasIndex.find(Key.INSDC_ACCESSION, chromosome.getInsdcAccession(), null,
+                                             Pageable.unpaged()),
+                             chromosomeRepository.findChromosomeEntitiesByInsdcAccessionOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                                     chromosome.getInsdcAccession(), Pageable.unpaged()));
+        assertSameAsDatabase(aliasIndex.find(Key.REFSEQ, chromosome.getRefseq(), null, Pageable.unpaged()),
+                             chromosomeRepository.findChromosomeEntitiesByRefseqOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                                     chromosome.getRefseq(), Pageable.unpaged()));
+        assertSameAsDatabase(aliasIndex.find(Key.ENA_SEQUENCE_NAME, chromosome.getEnaSequenceName(), null,
+                                             Pageable.unpaged()),
+                             chromosomeRepository.findChromosomeEntitiesByEnaSequenceNameOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                                     chromosome.getEnaSequenceName(), Pageable.unpaged()));
+    }
+
+    @Test
+    void pagesSharedNamesInDatabaseOrder() {
+        for (int page = 0; page < 3; page++) {
+            PageRequest request = PageRequest.of(page, 1);
+            Page<ChromosomeEntity> indexed = aliasIndex.find(Key.GENBANK_SEQUENCE_NAME, SHARED_NAME, null, request);
+            assertNotNull(indexed);
+            assertEquals(2, indexed.getTotalElements());
+            assertSameAsDatabase(indexed,
+                                 chromosomeRepository.findChromosomeEntitiesByGenbankSequenceNameOrderByInsdcAccessionDescAssembly_InsdcAccessionDesc(
+                                         SHARED_NAME, request));
+        }
+    }
+
+    @Test
+    void searchesAllNamingConventionsWithinAnAssembly() {
+        String assemblyAccession = assemblies.get(0).getInsdcAccession();
+        Page<ChromosomeEntity> page = aliasIndex.findByAnyName(SHARED_NAME, assemblyAccession, Pageable.unpaged());
+        assertNotNull(page);
+        assertEquals(1, page.getTotalElements());
+        assertEquals(assemblyAccession, page.getContent().get(0).getAssembly().getInsdcAccession());
+        assertNull(page.getContent().get(0).getAssembly().getChromosomes());
+
+        Page<ChromosomeEntity> searched = chromosomeService.searchChromosomeByName(SHARED_NAME, null, null,
+                                                                                   Pageable.unpaged());
+        assertEquals(2, searched.getTotalElements());
+    }
+
+    @Test
+    void translatesLikeTheDatabase() {
+        AssemblyEntity assembly = assemblies.get(1);
+        List<String> names = assembly.getChromosomes().stream()
+                                     .map(ChromosomeEntity::getGenbankSequenceName)
+                                     .collect(Collectors.toList());
+        names.add("unknown");
+        Map<String, String> indexed = aliasIndex.translate(Key.GENBANK_SEQUENCE_NAME, Key.INSDC_ACCESSION, names,
+                                                           assembly.getInsdcAccession());
+        assertNotNull(indexed);
+        assertEquals(CHROMOSOMES_PER_ASSEMBLY, indexed.size());
+        assertEquals(assembly.getChromosomes().get(0).getInsdcAccession(), indexed.get(SHARED_NAME));
+
+        ReflectionTestUtils.setField(aliasIndex, "enabled", false);
+        try {
+            assertEquals(chromosomeService.translateChromosomeNames(assembly.getInsdcAccession(),
+                                                                    Key.GENBANK_SEQUENCE_NAME, Key.INSDC_ACCESSION,
+                                                                    names),
+                         indexed);
+        } finally {
+            ReflectionTestUtils.setField(aliasIndex, "enabled", true);
+        }
+    }
+
+    @Test
+    void refreshesOnInsertUpdateAndDelete() {
+        AssemblyEntity inserted = assemblies.get(2);
+        ChromosomeEntity chromosome = inserted.getChromosomes().get(2);
+        assertNull(aliasIndex.find(Key.INSDC_ACCESSION, chromosome.getInsdcAccession(), null, Pageable.unpaged()));
+
+        assemblyService.insertAssembly(inserted);
+        Page<ChromosomeEntity> page = aliasIndex.find(Key.INSDC_ACCESSION, chromosome.getInsdcAccession(), null,
+                                                      Pageable.unpaged());
+        assertNotNull(page);
+        assertEquals(1, page.getTotalElements());
+        assertEquals(3, aliasIndex.find(Key.UCSC_NAME, SHARED_NAME, null, Pageable.unpaged()).getTotalElements());
+
+        chromosomeService.putChromosomeChecksumsByAccession(chromosome.getInsdcAccession(), "indexMd5", "trunc");
+        page = aliasIndex.find(Key.MD5_CHECKSUM, "indexMd5", null, Pageable.unpaged());
+        assertNotNull(page);
+        assertEquals(chromosome.getInsdcAccession(), page.getContent().get(0).getInsdcAccession());
+        assertEquals("trunc", page.getContent().get(0).getTrunc512checksum());
+
+        assemblyService.deleteEntriesForAssembly(inserted.getInsdcAccession());
+        assertNull(aliasIndex.find(Key.INSDC_ACCESSION, chromosome.getInsdcAccession(), null, Pageable.unpaged()));
+        assertEquals(2, aliasIndex.find(Key.UCSC_NAME, SHARED_NAME, null, Pageable.unpaged()).getTotalElements());
+        assertEquals(0, chromosomeService.getChromosomesByInsdcAccession(chromosome.getInsdcAccession(),
+                                                                         Pageable.unpaged()).getTotalElements());
+    }
+
+    @Test
+    void reloadingAnAssemblyReusesItsRows() {
+        Object maxSequences = ReflectionTestUtils.getField(aliasIndex, "maxSequences");
+        ReflectionTestUtils.setField(aliasIndex, "maxSequences", 2 * CHROMOSOMES_PER_ASSEMBLY);
+        try {
+            aliasIndex.rebuild();
+            String accession = assemblies.get(0).getInsdcAccession();
+            for (int i = 0; i < 100; i++) {
+                aliasIndex.reloadAssembly(accession);
+            }
+            assertTrue(aliasIndex.isReady());
+            assertEquals(2 * CHROMOSOMES_PER_ASSEMBLY, aliasIndex.size());
+            Object store = ReflectionTestUtils.getField(aliasIndex, "store");
+            assertEquals(2 * CHROMOSOMES_PER_ASSEMBLY, ReflectionTestUtils.getField(store, "size"));
+            assertEquals(2, aliasIndex.find(Key.UCSC_NAME, SHARED_NAME, null, Pageable.unpaged())
+                                      .getTotalElements());
+        } finally {
+            ReflectionTestUtils.setField(aliasIndex, "maxSequences", maxSequences);
+        }
+    }
+
+    @Test
+    void leavesOutAssembliesOfInterruptedIngestions() {
+        AssemblyEntity interrupted = assemblies.get(1);
+        checkpointRepository.save(new AssemblyIngestionCheckpointEntity(interrupted.getRefseq(), "report.txt", 1));
+        try {
+            aliasIndex.rebuild();
+            assertTrue(aliasIndex.isReady());
+            assertEquals(CHROMOSOMES_PER_ASSEMBLY, aliasIndex.size());
+            assertNull(aliasIndex.find(Key.INSDC_ACCESSION, interrupted.getChromosomes().get(1).getInsdcAccession(),
+                                       null, Pageable.unpaged()));
+            assertEquals(1, aliasIndex.find(Key.UCSC_NAME, SHARED_NAME, null, Pageable.unpaged())
+                                      .getTotalElements());
+        } finally {
+            checkpointRepository.deleteCheckpointByAccession(interrupted.getRefseq());
+        }
+    }
+
+    private void assertSameAsDatabase(Page<ChromosomeEntity> indexed, Page<ChromosomeEntity> database) {
+        assertNotNull(indexed);
+        assertEquals(database.getTotalElements(), indexed.getTotalElements());
+        assertEquals(describe(database.getContent()), describe(indexed.getContent()));
+    }
+
+    private List<String> describe(List<ChromosomeEntity> chromosomes) {
+        return chromosomes.stream()
+                          .map(c -> String.join("|", c.getInsdcAccession(), c.getRefseq(),
+                                                c.getGenbankSequenceName(), c.getEnaSequenceName(), c.getUcscName(),
+                                                String.valueOf(c.getMd5checksum()), c.getTrunc512checksum(),
+                                                String.valueOf(c.getSeqLength()), String.valueOf(c.getContigType()),
+                                                c.getAssembly().getInsdcAccession(), c.getAssembly().getName(),
+                                                String.valueOf(c.getAssembly().getTaxid())))
+                          .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.repo.AssemblyRepository;
+import uk.ac.ebi.eva.contigalias.repo.ChromosomeRepository;
+import uk.ac.ebi.eva.contigalias.test.BenchmarkApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for {@link ChromosomeService#insertAllChromosomes(List)} to store one batch of sequences in the in-memory H2
+ * database of the "test" profile. Every batch gets fresh accessions, derived from the sequences of the bundled
+ * GCA_000003055.3 report. The rows are deleted after every iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ChromosomeInsertBenchmark {
+
+    @Param({"1000", "10000"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private ChromosomeService chromosomeService;
+
+    private ChromosomeRepository chromosomeRepository;
+
+    private AssemblyEntity assembly;
+
+    private List<ChromosomeEntity> templates;
+
+    private List<ChromosomeEntity> batch;
+
+    private long batchCount = 0;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws IOException {
+        context = BenchmarkApplicationContext.start();
+        chromosomeService = context.getBean(ChromosomeService.class);
+        chromosomeRepository = context.getBean(ChromosomeRepository.class);
+        assembly = context.getBean(AssemblyRepository.class).save(BenchmarkApplicationContext.readAssembly());
+        templates = BenchmarkApplicationContext.readChromosomes(assembly);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareBatch() {
+        batchCount++;
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            ChromosomeEntity template = templates.get(i % templates.size());
+            ChromosomeEntity chromosome = new ChromosomeEntity();
+            chromosome.setGenbankSequenceName(template.getGenbankSequenceName())
+                      .setInsdcAccession("B" + batchCount + "_" + i + "_" + template.getInsdcAccession())
+                      .setRefseq(template.getRefseq())
+                      .setSeqLength(template.getSeqLength())
+                      .setUcscName(template.getUcscName())
+                      .setAssembly(assembly);
+            chromosome.setContigType(template.getContigType());
+            batch.add(chromosome);
+        }
+    }
+
+    @Benchmark
+    public void insertAllChromosomes() {
+        chromosomeService.insertAllChromosomes(batch);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteChromosomes() {
+        chromosomeRepository.deleteChromosomeEntitiesByAssembly_InsdcAccession(assembly.getInsdcAccession());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+}
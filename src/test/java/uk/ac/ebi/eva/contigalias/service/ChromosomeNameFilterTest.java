@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeAliasIndex.Key;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.ac.ebi.eva.contigalias.controller.BaseController.DEFAULT_PAGE_REQUEST;
+import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController.NAME_ENA_TYPE;
+import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController.NAME_UCSC_TYPE;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "config.chromosome.name-filter.enabled=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class ChromosomeNameFilterTest {
+
+    private static final String UNKNOWN_NAME = "chrUn_unknown";
+
+    @Autowired
+    private ChromosomeNameFilter nameFilter;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private ChromosomeService chromosomeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<AssemblyEntity> assemblies = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < 2; i++) {
+            AssemblyEntity assembly = AssemblyGenerator.generate(7600 + i);
+            for (int j = 0; j < 3; j++) {
+                ChromosomeGenerator.generate((7600 + i) * 100 + j, assembly).setMd5checksum("md5" + i + j);
+            }
+            assemblies.add(assembly);
+        }
+        assemblyService.insertAssembly(assemblies.get(0));
+        nameFilter.rebuild();
+        assertTrue(nameFilter.isReady());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (AssemblyEntity assembly : assemblies) {
+            assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+        }
+        assemblies.clear();
+    }
+
+    @Test
+    void namesOfSequencesNotAbsent() {
+        assertNamesNotAbsent(assemblies.get(0));
+    }
+
+    @Test
+    void unknownNameAbsent() {
+        for (Key key : Key.values()) {
+            assertTrue(nameFilter.isAbsent(key, UNKNOWN_NAME));
+        }
+        assertTrue(nameFilter.isAbsentFromAnyName(UNKNOWN_NAME));
+        // Name of a sequence, but in another naming convention
+        ChromosomeEntity chromosome = assemblies.get(0).getChromosomes().get(0);
+        assertTrue(nameFilter.isAbsent(Key.UCSC_NAME, chromosome.getGenbankSequenceName()));
+        assertFalse(nameFilter.isAbsentFromAnyName(chromosome.getGenbankSequenceName()));
+    }
+
+    @Test
+    void unknownNameNotQueried() {
+        double avoided = getCount("avoided");
+        double queried = getCount("queried");
+        assertTrue(chromosomeService.getChromosomesByName(UNKNOWN_NAME, DEFAULT_PAGE_REQUEST).isEmpty());
+        assertTrue(chromosomeService.searchChromosomeByName(UNKNOWN_NAME, null, null, DEFAULT_PAGE_REQUEST)
+                                    .isEmpty());
+        assertTrue(chromosomeService.searchChromosomeByNameSlice(UNKNOWN_NAME, NAME_UCSC_TYPE, null,
+                                                                 DEFAULT_PAGE_REQUEST).isEmpty());
+        assertEquals(avoided + 3, getCount("avoided"));
+        assertEquals(queried, getCount("queried"));
+
+        ChromosomeEntity chromosome = assemblies.get(0).getChromosomes().get(0);
+        assertEquals(1, chromosomeService.getChromosomesByName(chromosome.getGenbankSequenceName(),
+                                                               DEFAULT_PAGE_REQUEST).getTotalElements());
+        assertEquals(queried + 1, getCount("queried"));
+    }
+
+    @Test
+    void mostUnknownNamesAbsent() {
+        int absent = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (nameFilter.isAbsent(Key.GENBANK_SEQUENCE_NAME, UNKNOWN_NAME + i)) {
+                absent++;
+            }
+        }
+        assertTrue(absent > 950, absent + " unknown names absent");
+    }
+
+    @Test
+    void insertedAssemblyAdded() {
+        assemblyService.insertAssembly(assemblies.get(1));
+        assertNamesNotAbsent(assemblies.get(1));
+    }
+
+    @Test
+    void insertedChromosomeAdded() {
+        ChromosomeEntity chromosome = ChromosomeGenerator.generate(7690, assemblies.get(0));
+        chromosomeService.insertChromosome(chromosome);
+        assertFalse(nameFilter.isAbsent(Key.GENBANK_SEQUENCE_NAME, chromosome.getGenbankSequenceName()));
+        assertEquals(1, chromosomeService.getChromosomesByName(chromosome.getGenbankSequenceName(),
+                                                               DEFAULT_PAGE_REQUEST).getTotalElements());
+    }
+
+    @Test
+    void batchOfIngestionAdded() {
+        // Batches of an ingestion are known without waiting for the event published once the assembly is inserted
+        List<ChromosomeEntity> batch = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ChromosomeEntity chromosome = ChromosomeGenerator.generate(7680 + i, assemblies.get(0));
+            chromosome.setMd5checksum("batchMd5" + i);
+            chromosome.setSeqLength(1000L);
+            chromosome.setContigType(SequenceEntity.ContigType.CHROMOSOME);
+            batch.add(chromosome);
+        }
+        chromosomeService.insertAllChromosomes(batch);
+        assertNamesNotAbsent(assemblies.get(0));
+
+        ChromosomeEntity chromosome = batch.get(0);
+        chromosome.setUcscName("upsertedUcsc");
+        assertTrue(nameFilter.isAbsent(Key.UCSC_NAME, "upsertedUcsc"));
+        chromosomeService.upsertAllChromosomes(Collections.singletonList(chromosome));
+        assertFalse(nameFilter.isAbsent(Key.UCSC_NAME, "upsertedUcsc"));
+    }
+
+    @Test
+    void renamedSequenceAdded() {
+        AssemblyEntity assembly = assemblies.get(0);
+        ChromosomeEntity chromosome = assembly.getChromosomes().get(0);
+        chromosome.setEnaSequenceName("renamed");
+        assertTrue(nameFilter.isAbsent(Key.ENA_SEQUENCE_NAME, "renamed"));
+        // Batches of the updaters are known without waiting for the event published once they are all done
+        chromosomeService.updateENASequenceNameForAllChromosomeInAssembly(assembly.getInsdcAccession(),
+                                                                          Collections.singletonList(chromosome));
+        assertFalse(nameFilter.isAbsent(Key.ENA_SEQUENCE_NAME, "renamed"));
+        assertEquals(1, chromosomeService.searchChromosomeByName("renamed", NAME_ENA_TYPE, null,
+                                                                 DEFAULT_PAGE_REQUEST).getTotalElements());
+
+        chromosome.setMd5checksum("updatedMd5");
+        chromosomeService.updateMd5ChecksumForAllChromosomeInAssembly(assembly.getInsdcAccession(),
+                                                                      Collections.singletonList(chromosome));
+        assertFalse(nameFilter.isAbsent(Key.MD5_CHECKSUM, "updatedMd5"));
+    }
+
+    private void assertNamesNotAbsent(AssemblyEntity assembly) {
+        for (ChromosomeEntity chromosome : assembly.getChromosomes()) {
+            assertFalse(nameFilter.isAbsent(Key.INSDC_ACCESSION, chromosome.getInsdcAccession()));
+            assertFalse(nameFilter.isAbsent(Key.REFSEQ, chromosome.getRefseq()));
+            assertFalse(nameFilter.isAbsent(Key.GENBANK_SEQUENCE_NAME, chromosome.getGenbankSequenceName()));
+            assertFalse(nameFilter.isAbsent(Key.ENA_SEQUENCE_NAME, chromosome.getEnaSequenceName()));
+            assertFalse(nameFilter.isAbsent(Key.UCSC_NAME, chromosome.getUcscName()));
+            assertFalse(nameFilter.isAbsent(Key.MD5_CHECKSUM, chromosome.getMd5checksum()));
+        }
+    }
+
+    private double getCount(String result) {
+        return meterRegistry.get(ChromosomeNameFilter.METRIC_NAME).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import uk.ac.ebi.eva.contigalias.dto.SequenceDto;
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.repo.AssemblyRepository;
+import uk.ac.ebi.eva.contigalias.repo.ChromosomeRepository;
+import uk.ac.ebi.eva.contigalias.repo.ChromosomeSpecifications;
+import uk.ac.ebi.eva.contigalias.test.BenchmarkApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and, with the GC profiler, allocation to read a page of 1000 sequences of the bundled GCA_000003055.3 assembly,
+ * in a read-only transaction as the request handlers do and in a read-write one. The page is read either as entities
+ * through {@link ChromosomeService#getChromosomesSlice} or straight into DTOs through
+ * {@link ChromosomeService#getSequencesSliceByAssemblyInsdcAccession}, as the listing of the sequences of an assembly
+ * does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChromosomeReadBenchmark {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 1000);
+
+    @Param({"true", "false"})
+    public boolean readOnly;
+
+    private ConfigurableApplicationContext context;
+
+    private ChromosomeService chromosomeService;
+
+    private TransactionTemplate transaction;
+
+    private AssemblyEntity assembly;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        context = BenchmarkApplicationContext.start();
+        chromosomeService = context.getBean(ChromosomeService.class);
+        assembly = context.getBean(AssemblyRepository.class).save(BenchmarkApplicationContext.readAssembly());
+        chromosomeService.insertAllChromosomes(BenchmarkApplicationContext.readChromosomes(assembly));
+
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(readOnly);
+    }
+
+    @Benchmark
+    public Slice<ChromosomeEntity> readPage() {
+        return transaction.execute(status -> chromosomeService.getChromosomesSlice(
+                ChromosomeSpecifications.hasAssemblyInsdcAccession(assembly.getInsdcAccession()), PAGE));
+    }
+
+    @Benchmark
+    public Slice<SequenceDto> readSequencePage() {
+        return transaction.execute(status -> chromosomeService.getSequencesSliceByAssemblyInsdcAccession(
+                assembly.getInsdcAccession(), PAGE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(ChromosomeRepository.class)
+               .deleteChromosomeEntitiesByAssembly_InsdcAccession(assembly.getInsdcAccession());
+        context.close();
+    }
+
+}
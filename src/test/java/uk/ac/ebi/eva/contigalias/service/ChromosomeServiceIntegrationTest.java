@@ -16,6 +16,8 @@
 
 package uk.ac.ebi.eva.contigalias.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,20 +26,34 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
+import uk.ac.ebi.eva.contigalias.dto.SequenceDto;
 import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.AssemblyIngestionCheckpointEntity;
 import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
 import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
 import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+import uk.ac.ebi.eva.contigalias.exception.InvalidCursorException;
+import uk.ac.ebi.eva.contigalias.repo.AssemblyIngestionCheckpointRepository;
 import uk.ac.ebi.eva.contigalias.repo.ChromosomeRepository;
+import uk.ac.ebi.eva.contigalias.repo.ChromosomeSpecifications;
+import uk.ac.ebi.eva.contigalias.service.ChromosomeAliasIndex.Key;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static uk.ac.ebi.eva.contigalias.controller.BaseController.DEFAULT_PAGE_REQUEST;
 
@@ -53,6 +69,12 @@ public class ChromosomeServiceIntegrationTest {
     @Autowired
     private ChromosomeRepository chromosomeRepository;
 
+    @Autowired
+    private AssemblyIngestionCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @BeforeEach
     void setup() {
         chromosomeRepository.deleteAll();
@@ -78,6 +100,53 @@ public class ChromosomeServiceIntegrationTest {
         assertChromosomePageIdenticalToEntity(page);
     }
 
+    @Test
+    void getAssembliesByChromosomePaged() {
+        List<String> asmInsdcAccessions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            AssemblyEntity assembly = AssemblyGenerator.generate(8200 + i);
+            asmInsdcAccessions.add(assembly.getInsdcAccession());
+            service.insertChromosome((ChromosomeEntity) ChromosomeGenerator.generate(8200, assembly));
+            // A second sequence with the same RefSeq accession must not list its assembly twice
+            service.insertChromosome((ChromosomeEntity) ChromosomeGenerator.generate(8300 + i, assembly)
+                                                                            .setRefseq("refseq8200"));
+        }
+        asmInsdcAccessions.sort(Comparator.reverseOrder());
+
+        for (boolean byRefseq : new boolean[]{false, true}) {
+            List<String> found = new ArrayList<>();
+            for (int pageNumber = 0; pageNumber < 3; pageNumber++) {
+                PageRequest pageRequest = PageRequest.of(pageNumber, 2);
+                Page<AssemblyEntity> page = byRefseq ?
+                        service.getAssembliesByChromosomeRefseq("refseq8200", pageRequest) :
+                        service.getAssembliesByChromosomeInsdcAccession("insdc8200", pageRequest);
+                assertEquals(5, page.getTotalElements());
+                assertEquals(pageNumber < 2 ? 2 : 1, page.getNumberOfElements());
+                page.forEach(it -> found.add(it.getInsdcAccession()));
+            }
+            assertEquals(asmInsdcAccessions, found);
+        }
+    }
+
+    @Test
+    void getAssembliesByChromosomeLeavesOutInterruptedIngestions() {
+        AssemblyEntity complete = AssemblyGenerator.generate(8400);
+        AssemblyEntity interrupted = AssemblyGenerator.generate(8401);
+        service.insertChromosome(ChromosomeGenerator.generate(8400, complete));
+        service.insertChromosome(ChromosomeGenerator.generate(8400, interrupted));
+        checkpointRepository.save(new AssemblyIngestionCheckpointEntity(interrupted.getRefseq(), "report", 1));
+        try {
+            for (Page<AssemblyEntity> page : Arrays.asList(
+                    service.getAssembliesByChromosomeInsdcAccession("insdc8400", DEFAULT_PAGE_REQUEST),
+                    service.getAssembliesByChromosomeRefseq("refseq8400", DEFAULT_PAGE_REQUEST))) {
+                assertEquals(1, page.getTotalElements());
+                assertEquals(complete.getInsdcAccession(), page.getContent().get(0).getInsdcAccession());
+            }
+        } finally {
+            checkpointRepository.deleteCheckpointByAccession(interrupted.getRefseq());
+        }
+    }
+
     @Test
     void putChromosomeChecksumsByAccession() {
         String md5 = "MyCustomMd5ChecksumForTesting";
@@ -179,6 +248,189 @@ public class ChromosomeServiceIntegrationTest {
         assertEquals("assembly1", chromosomeList.get(2).getAssembly().getInsdcAccession());
     }
 
+    @Test
+    void getChromosomesAfterWalksInPagedOrder() {
+        String testMD5Checksum = "test-MD5-keyset";
+        String[][] accessions = {{"assembly1", "chromosome1"}, {"assembly2", "chromosome2"},
+                {"assembly3", "chromosome1"}, {"assembly4", "chromosome0"}};
+        for (String[] accession : accessions) {
+            AssemblyEntity assemblyEntity = AssemblyGenerator.generate();
+            assemblyEntity.setInsdcAccession(accession[0]);
+            ChromosomeEntity chromosome = ChromosomeGenerator.generate(assemblyEntity);
+            chromosome.setInsdcAccession(accession[1]);
+            chromosome.setMd5checksum(testMD5Checksum);
+            chromosomeRepository.save(chromosome);
+        }
+
+        List<String> walked = new ArrayList<>();
+        ChromosomeCursor cursor = null;
+        Slice<ChromosomeEntity> slice;
+        do {
+            slice = service.getChromosomesAfter(ChromosomeSpecifications.hasMd5checksum(testMD5Checksum), cursor, 3);
+            for (ChromosomeEntity chromosome : slice) {
+                walked.add(chromosome.getInsdcAccession() + "/" + chromosome.getAssembly().getInsdcAccession());
+                assertNull(chromosome.getAssembly().getChromosomes());
+            }
+            // Round trip through the token handed out to clients
+            cursor = ChromosomeCursor.decode(ChromosomeCursor.after(slice.getContent().get(
+                    slice.getNumberOfElements() - 1)).encode());
+        } while (slice.hasNext());
+
+        List<String> paged = service.getChromosomesByMD5Checksum(testMD5Checksum, Pageable.unpaged()).stream()
+                                    .map(c -> c.getInsdcAccession() + "/" + c.getAssembly().getInsdcAccession())
+                                    .collect(Collectors.toList());
+        assertEquals(Arrays.asList("chromosome2/assembly2", "chromosome1/assembly3", "chromosome1/assembly1",
+                                   "chromosome0/assembly4"), walked);
+        assertEquals(paged, walked);
+    }
+
+    @Test
+    void getChromosomesSliceWithoutCount() {
+        String testMD5Checksum = "test-MD5-slice";
+        for (int i = 0; i < 5; i++) {
+            ChromosomeEntity chromosome = ChromosomeGenerator.generate(100 + i, entity.getAssembly());
+            chromosome.setMd5checksum(testMD5Checksum);
+            chromosomeRepository.save(chromosome);
+        }
+
+        for (int page = 0; page < 2; page++) {
+            PageRequest request = PageRequest.of(page, 3);
+            Slice<ChromosomeEntity> slice = service.getChromosomesSlice(
+                    ChromosomeSpecifications.hasMd5checksum(testMD5Checksum), request);
+            Page<ChromosomeEntity> counted = service.getChromosomesByMD5Checksum(testMD5Checksum, request);
+            assertEquals(counted.getContent().stream().map(ChromosomeEntity::getInsdcAccession)
+                                .collect(Collectors.toList()),
+                         slice.getContent().stream().map(ChromosomeEntity::getInsdcAccession)
+                              .collect(Collectors.toList()));
+            assertEquals(counted.hasNext(), slice.hasNext());
+        }
+        assertEquals(5, service.getChromosomesSlice(ChromosomeSpecifications.hasMd5checksum(testMD5Checksum),
+                                                    Pageable.unpaged()).getNumberOfElements());
+    }
+
+    @Test
+    void getSequencesByAssemblySameAsEntities() throws JsonProcessingException {
+        AssemblyEntity assembly = entity.getAssembly();
+        for (int i = 0; i < 4; i++) {
+            ChromosomeEntity chromosome = ChromosomeGenerator.generate(8500 + i, assembly);
+            chromosome.setSeqLength(i == 0 ? null : 1000L + i);
+            chromosome.setContigType(i == 1 ? null : ChromosomeEntity.ContigType.SCAFFOLD);
+            chromosomeRepository.save(chromosome);
+        }
+
+        for (Pageable request : Arrays.asList(PageRequest.of(0, 2), PageRequest.of(2, 2), PageRequest.of(1, 10),
+                                              DEFAULT_PAGE_REQUEST, Pageable.unpaged())) {
+            Page<ChromosomeEntity> entities = service.getChromosomesByAssemblyInsdcAccession(
+                    assembly.getInsdcAccession(), request);
+            Page<SequenceDto> sequences = service.getSequencesByAssemblyInsdcAccession(assembly.getInsdcAccession(),
+                                                                                       request);
+            Slice<SequenceDto> slice = service.getSequencesSliceByAssemblyInsdcAccession(assembly.getInsdcAccession(),
+                                                                                         request);
+            assertEquals(entities.getTotalElements(), sequences.getTotalElements());
+            assertEquals(entities.hasNext(), slice.hasNext());
+            assertEquals(objectMapper.writeValueAsString(entities.getContent()),
+                         objectMapper.writeValueAsString(sequences.getContent()));
+            assertEquals(objectMapper.writeValueAsString(entities.getContent()),
+                         objectMapper.writeValueAsString(slice.getContent()));
+            sequences.forEach(it -> assertEquals(assembly.getInsdcAccession(), it.getAssemblyInsdcAccession()));
+        }
+    }
+
+    @Test
+    void getSequencesByNameSameAsEntities() throws JsonProcessingException {
+        String name = entity.getGenbankSequenceName();
+        List<AssemblyEntity> assemblies = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            AssemblyEntity assembly = AssemblyGenerator.generate(8600 + i % 2);
+            assembly.setInsdcAccession("insdc860" + i);
+            assemblies.add(assembly);
+            ChromosomeEntity chromosome = ChromosomeGenerator.generate(8600 + i, assembly);
+            chromosome.setGenbankSequenceName(name);
+            chromosomeRepository.save(chromosome);
+        }
+
+        for (Pageable request : Arrays.asList(PageRequest.of(0, 1), PageRequest.of(1, 1), DEFAULT_PAGE_REQUEST)) {
+            assertSequencesSameAsEntities(
+                    service.getChromosomesByName(name, request),
+                    service.getSequencesByName(Key.GENBANK_SEQUENCE_NAME, name, null, null, request),
+                    service.getSequencesSliceByName(Key.GENBANK_SEQUENCE_NAME, name, null, null, request));
+            assertSequencesSameAsEntities(
+                    service.getChromosomesByNameAndAssemblyTaxid(name, 8600, request),
+                    service.getSequencesByName(Key.GENBANK_SEQUENCE_NAME, name, null, 8600L, request),
+                    service.getSequencesSliceByName(Key.GENBANK_SEQUENCE_NAME, name, null, 8600L, request));
+            assertSequencesSameAsEntities(
+                    service.getChromosomesByUcscNameAndAssembly("ucsc8601", assemblies.get(1), request),
+                    service.getSequencesByName(Key.UCSC_NAME, "ucsc8601", "insdc8601", null, request),
+                    service.getSequencesSliceByName(Key.UCSC_NAME, "ucsc8601", "insdc8601", null, request));
+        }
+        assertEquals(4, service.getSequencesByName(Key.GENBANK_SEQUENCE_NAME, name, null, null, DEFAULT_PAGE_REQUEST)
+                               .getTotalElements());
+        assertEquals(2, service.getSequencesByName(Key.GENBANK_SEQUENCE_NAME, name, null, 8600L, DEFAULT_PAGE_REQUEST)
+                               .getTotalElements());
+        assertEquals(1, service.getSequencesByName(Key.UCSC_NAME, "ucsc8601", "insdc8601", null, DEFAULT_PAGE_REQUEST)
+                               .getTotalElements());
+        assertEquals(0, service.getSequencesByName(Key.UCSC_NAME, "ucsc8601", "insdc8600", null, DEFAULT_PAGE_REQUEST)
+                               .getTotalElements());
+    }
+
+    private void assertSequencesSameAsEntities(Page<ChromosomeEntity> entities, Page<SequenceDto> sequences,
+                                               Slice<SequenceDto> slice) throws JsonProcessingException {
+        assertEquals(entities.getTotalElements(), sequences.getTotalElements());
+        assertEquals(entities.hasNext(), slice.hasNext());
+        assertEquals(objectMapper.writeValueAsString(entities.getContent()),
+                     objectMapper.writeValueAsString(sequences.getContent()));
+        assertEquals(objectMapper.writeValueAsString(entities.getContent()),
+                     objectMapper.writeValueAsString(slice.getContent()));
+    }
+
+    @Test
+    void decodeInvalidCursor() {
+        assertNull(ChromosomeCursor.decode(null));
+        assertNull(ChromosomeCursor.decode(""));
+        assertThrows(InvalidCursorException.class, () -> ChromosomeCursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> ChromosomeCursor.decode(
+                Base64.getUrlEncoder().withoutPadding().encodeToString("noSeparator".getBytes())));
+    }
+
+    @Test
+    void translateChromosomeNames() {
+        ChromosomeEntity withoutUcscName = ChromosomeGenerator.generate(1, entity.getAssembly());
+        withoutUcscName.setUcscName(null);
+        chromosomeRepository.save(withoutUcscName);
+
+        Map<String, String> translations = service.translateChromosomeNames(
+                entity.getAssembly().getInsdcAccession(), Key.GENBANK_SEQUENCE_NAME, Key.UCSC_NAME,
+                Arrays.asList(entity.getGenbankSequenceName(), withoutUcscName.getGenbankSequenceName(), "unknown"));
+
+        assertEquals(2, translations.size());
+        assertEquals(entity.getUcscName(), translations.get(entity.getGenbankSequenceName()));
+        assertTrue(translations.containsKey(withoutUcscName.getGenbankSequenceName()));
+        assertNull(translations.get(withoutUcscName.getGenbankSequenceName()));
+        assertTrue(service.translateChromosomeNames("otherAssembly", Key.GENBANK_SEQUENCE_NAME, Key.UCSC_NAME,
+                                                    Collections.singletonList(entity.getGenbankSequenceName()))
+                          .isEmpty());
+    }
+
+    @Test
+    void exportChromosomesByAssemblyInsdcAccession() throws IOException {
+        ChromosomeEntity other = ChromosomeGenerator.generate(1, entity.getAssembly());
+        other.setSeqLength(null);
+        chromosomeRepository.save(other);
+
+        List<ChromosomeEntity> exported = new ArrayList<>();
+        service.exportChromosomesByAssemblyInsdcAccession(entity.getAssembly().getInsdcAccession(), exported::add);
+
+        Page<ChromosomeEntity> page = service.getChromosomesByAssemblyInsdcAccession(
+                entity.getAssembly().getInsdcAccession(), Pageable.unpaged());
+        assertEquals(2, exported.size());
+        for (int i = 0; i < exported.size(); i++) {
+            assertChromosomesIdentical(page.getContent().get(i), exported.get(i));
+            assertEquals(page.getContent().get(i).getSeqLength(), exported.get(i).getSeqLength());
+            assertEquals(page.getContent().get(i).getContigType(), exported.get(i).getContigType());
+            assertNull(exported.get(i).getAssembly());
+        }
+    }
+
     void assertChromosomePageIdenticalToEntity(Page<ChromosomeEntity> page) {
         assertNotNull(page);
         assertTrue(page.getTotalElements() > 0);
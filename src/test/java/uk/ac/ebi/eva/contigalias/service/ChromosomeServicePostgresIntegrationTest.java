@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.repo.AssemblyRepository;
+import uk.ac.ebi.eva.contigalias.repo.ChromosomeRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public class ChromosomeServicePostgresIntegrationTest {
+
+    private static final int BATCH_SIZE = 100000;
+
+    private final Logger logger = LoggerFactory.getLogger(ChromosomeServicePostgresIntegrationTest.class);
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:9.6");
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("ftp.proxy.host", () -> "test_ftp_host");
+        registry.add("ftp.proxy.port", () -> 20);
+    }
+
+    @Autowired
+    private ChromosomeService service;
+
+    @Autowired
+    private AssemblyRepository assemblyRepository;
+
+    @Autowired
+    private ChromosomeRepository chromosomeRepository;
+
+    private AssemblyEntity assembly;
+
+    @BeforeEach
+    void setup() {
+        assembly = AssemblyGenerator.generate();
+        assemblyRepository.save(assembly);
+    }
+
+    @AfterEach
+    void tearDown() {
+        chromosomeRepository.deleteChromosomeEntitiesByAssembly_InsdcAccession(assembly.getInsdcAccession());
+        assemblyRepository.deleteAssemblyEntityByInsdcAccession(assembly.getInsdcAccession());
+    }
+
+    @Test
+    void copyAllChromosomesEscapesValuesAndNulls() {
+        ChromosomeEntity chromosome = generateScaffold(0);
+        chromosome.setGenbankSequenceName("name\twith\\special\ncharacters");
+        chromosome.setUcscName(null);
+        chromosome.setSeqLength(null);
+
+        assertEquals(1, service.copyAllChromosomes(Collections.singletonList(chromosome)));
+
+        Page<ChromosomeEntity> page = service.getChromosomesByInsdcAccession(chromosome.getInsdcAccession(),
+                PageRequest.of(0, 10));
+        assertEquals(1, page.getTotalElements());
+        ChromosomeEntity inserted = page.getContent().get(0);
+        assertEquals(chromosome.getGenbankSequenceName(), inserted.getGenbankSequenceName());
+        assertEquals(chromosome.getRefseq(), inserted.getRefseq());
+        assertEquals(SequenceEntity.ContigType.SCAFFOLD, inserted.getContigType());
+        assertNull(inserted.getUcscName());
+        assertNull(inserted.getSeqLength());
+        assertEquals(assembly.getInsdcAccession(), inserted.getAssembly().getInsdcAccession());
+    }
+
+    @Test
+    void insertAllChromosomesUsesCopyOnPostgres() {
+        List<ChromosomeEntity> chromosomes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            chromosomes.add(generateScaffold(i));
+        }
+        service.insertAllChromosomes(chromosomes);
+        assertEquals(chromosomes.size(),
+                service.countChromosomeEntitiesByAssemblyInsdcAccession(assembly.getInsdcAccession()));
+    }
+
+    /**
+     * Compares rows per second of the COPY and the batch insert paths on a synthetic report of 5M scaffolds (or
+     * -Dbenchmark.rows). Run with: mvn test -Dtest=ChromosomeServicePostgresIntegrationTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compareCopyAndBatchInsertThroughput() {
+        int rows = Integer.getInteger("benchmark.rows", 5000000);
+        double copyRate = measureInsertRate(rows, service::copyAllChromosomes);
+        tearDown();
+        setup();
+        double batchRate = measureInsertRate(rows, service::batchInsertAllChromosomes);
+        logger.info("Inserted {} scaffolds: COPY {} rows/s, batch INSERT {} rows/s", rows, Math.round(copyRate),
+                Math.round(batchRate));
+    }
+
+    private double measureInsertRate(int rows, Consumer<List<ChromosomeEntity>> insert) {
+        long elapsed = 0;
+        for (int offset = 0; offset < rows; offset += BATCH_SIZE) {
+            List<ChromosomeEntity> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = offset; i < Math.min(rows, offset + BATCH_SIZE); i++) {
+                batch.add(generateScaffold(i));
+            }
+            long start = System.nanoTime();
+            insert.accept(batch);
+            elapsed += System.nanoTime() - start;
+        }
+        return rows / (elapsed / 1e9);
+    }
+
+    private ChromosomeEntity generateScaffold(int i) {
+        ChromosomeEntity chromosome = new ChromosomeEntity();
+        chromosome.setGenbankSequenceName("scaffold_" + i)
+                  .setInsdcAccession(String.format("ABCD%08d.1", i))
+                  .setRefseq(String.format("NW_%09d.1", i))
+                  .setSeqLength(1000L + i)
+                  .setUcscName("chrUn_scaffold_" + i)
+                  .setAssembly(assembly);
+        chromosome.setContigType(SequenceEntity.ContigType.SCAFFOLD);
+        return chromosome;
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.ac.ebi.eva.contigalias.controller.contigalias.ContigAliasController.NAME_GENBANK_TYPE;
+
+/**
+ * Counts the SQL statements sent by Hibernate to read a page of 1000 sequences spread over many assemblies. The
+ * assemblies are fetched with the sequences, so a page costs the query itself plus, for a {@link
+ * org.springframework.data.domain.Page}, its count query.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "config.chromosome.alias-index.enabled=false"})
+public class ChromosomeServiceStatementCountTest {
+
+    private static final int ASSEMBLIES = 40;
+
+    private static final int CHROMOSOMES_PER_ASSEMBLY = 25;
+
+    private static final int PAGE_SIZE = ASSEMBLIES * CHROMOSOMES_PER_ASSEMBLY;
+
+    private static final String SHARED_NAME = "chrStatements";
+
+    private static final String SHARED_MD5 = "md5Statements";
+
+    private static final String SHARED_ACCESSION = "seqStatements";
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private ChromosomeService chromosomeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<AssemblyEntity> assemblies = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < ASSEMBLIES; i++) {
+            long id = 7600 + i;
+            AssemblyEntity assembly = AssemblyGenerator.generate(id);
+            for (int j = 0; j < CHROMOSOMES_PER_ASSEMBLY; j++) {
+                ChromosomeGenerator.generate(id * 100 + j, assembly).setMd5checksum(SHARED_MD5);
+            }
+            assembly.getChromosomes().get(0).setGenbankSequenceName(SHARED_NAME)
+                    .setInsdcAccession(SHARED_ACCESSION);
+            assemblyService.insertAssembly(assembly);
+            assemblies.add(assembly);
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (AssemblyEntity assembly : assemblies) {
+            assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+        }
+        assemblies.clear();
+    }
+
+    @Test
+    void pageByChecksum() {
+        assertEquals(PAGE_SIZE, countStatements(() -> chromosomeService.getChromosomesByMD5Checksum(
+                SHARED_MD5, PageRequest.of(0, PAGE_SIZE)).getNumberOfElements(), 2));
+    }
+
+    @Test
+    void pageByAccession() {
+        assertEquals(ASSEMBLIES, countStatements(() -> chromosomeService.getChromosomesByInsdcAccession(
+                SHARED_ACCESSION, PageRequest.of(0, PAGE_SIZE)).getNumberOfElements(), 2));
+    }
+
+    @Test
+    void pageByName() {
+        assertEquals(ASSEMBLIES, countStatements(() -> chromosomeService.getChromosomesByName(
+                SHARED_NAME, PageRequest.of(0, PAGE_SIZE)).getNumberOfElements(), 2));
+        assertEquals(ASSEMBLIES, countStatements(() -> chromosomeService.searchChromosomeByName(
+                SHARED_NAME, NAME_GENBANK_TYPE, null, PageRequest.of(0, PAGE_SIZE)).getNumberOfElements(), 2));
+        assertEquals(ASSEMBLIES, countStatements(() -> chromosomeService.searchChromosomeByName(
+                SHARED_NAME, null, null, PageRequest.of(0, PAGE_SIZE)).getNumberOfElements(), 2));
+    }
+
+    @Test
+    void sliceByName() {
+        assertEquals(ASSEMBLIES, countStatements(() -> chromosomeService.searchChromosomeByNameSlice(
+                SHARED_NAME, null, null, PageRequest.of(0, PAGE_SIZE)).getNumberOfElements(), 1));
+        assertEquals(ASSEMBLIES, countStatements(() -> chromosomeService.searchChromosomeByNameAfter(
+                SHARED_NAME, NAME_GENBANK_TYPE, null, null, PAGE_SIZE).getNumberOfElements(), 1));
+    }
+
+    @Test
+    void pageByAssembly() {
+        String accession = assemblies.get(0).getInsdcAccession();
+        assertEquals(CHROMOSOMES_PER_ASSEMBLY, countStatements(
+                () -> chromosomeService.getChromosomesByAssemblyInsdcAccession(accession, Pageable.unpaged())
+                                       .getNumberOfElements(), 1));
+    }
+
+    /**
+     * @return The value returned by the lookup, after checking that it sent at most the given number of statements.
+     */
+    private <T> T countStatements(Supplier<T> lookup, int maxStatements) {
+        statistics.clear();
+        T result = lookup.get();
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= maxStatements, "Expected at most " + maxStatements + " statements, got " +
+                statements);
+        return result;
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+import uk.ac.ebi.eva.contigalias.entities.SequenceEntity;
+import uk.ac.ebi.eva.contigalias.entitygenerator.AssemblyGenerator;
+import uk.ac.ebi.eva.contigalias.entitygenerator.ChromosomeGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("test")
+@SpringBootTest
+public class SequenceAliasUpdaterTest {
+
+    private static final int CHROMOSOMES = 3;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private ChromosomeService chromosomeService;
+
+    @Autowired
+    private SequenceAliasUpdater sequenceAliasUpdater;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AssemblyEntity assembly = AssemblyGenerator.generate(7400);
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < CHROMOSOMES; i++) {
+            ChromosomeGenerator.generate(740000 + i, assembly);
+        }
+        assemblyService.insertAssembly(assembly);
+    }
+
+    @AfterEach
+    void tearDown() {
+        assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+    }
+
+    @Test
+    void aliasesFollowInsertion() {
+        assertEquals(CHROMOSOMES * SequenceAliasUpdater.CONVENTION_COLUMNS.size(), countAliases());
+        ChromosomeEntity chromosome = assembly.getChromosomes().get(1);
+        assertFoundByAnyName(chromosome.getInsdcAccession(), chromosome);
+        assertFoundByAnyName(chromosome.getRefseq(), chromosome);
+        assertFoundByAnyName(chromosome.getGenbankSequenceName(), chromosome);
+        assertFoundByAnyName(chromosome.getEnaSequenceName(), chromosome);
+        assertFoundByAnyName(chromosome.getUcscName(), chromosome);
+    }
+
+    @Test
+    void aliasesFollowSequenceNameUpdates() {
+        ChromosomeEntity chromosome = assembly.getChromosomes().get(2);
+        String oldName = chromosome.getEnaSequenceName();
+        ChromosomeEntity renamed = new ChromosomeEntity();
+        renamed.setInsdcAccession(chromosome.getInsdcAccession()).setEnaSequenceName("renamedEna");
+        // Written along with the new name, without waiting for the event published once all batches are done
+        chromosomeService.updateENASequenceNameForAllChromosomeInAssembly(assembly.getInsdcAccession(),
+                                                                          Collections.singletonList(renamed));
+
+        assertFoundByAnyName("renamedEna", chromosome);
+        assertEquals(0, chromosomeService.searchChromosomeByName(oldName, null, null, Pageable.unpaged())
+                                         .getTotalElements());
+    }
+
+    @Test
+    void aliasesFollowBatchInsertion() {
+        List<ChromosomeEntity> batch = new ArrayList<>();
+        for (int i = CHROMOSOMES; i < 2 * CHROMOSOMES; i++) {
+            ChromosomeEntity chromosome = ChromosomeGenerator.generate(740000 + i, assembly);
+            chromosome.setSeqLength(1000L);
+            chromosome.setContigType(SequenceEntity.ContigType.CHROMOSOME);
+            batch.add(chromosome);
+        }
+        chromosomeService.insertAllChromosomes(batch);
+        assertEquals(2 * CHROMOSOMES * SequenceAliasUpdater.CONVENTION_COLUMNS.size(), countAliases());
+        assertFoundByAnyName(batch.get(0).getUcscName(), batch.get(0));
+
+        batch.get(0).setUcscName("upsertedUcsc");
+        chromosomeService.upsertAllChromosomes(batch);
+        assertEquals(2 * CHROMOSOMES * SequenceAliasUpdater.CONVENTION_COLUMNS.size(), countAliases());
+        assertFoundByAnyName("upsertedUcsc", batch.get(0));
+    }
+
+    @Test
+    void checksumUpdateKeepsAliases() {
+        ChromosomeEntity chromosome = assembly.getChromosomes().get(0);
+        jdbcTemplate.update("DELETE FROM sequence_alias WHERE alias = ?", chromosome.getUcscName());
+        chromosomeService.putChromosomeChecksumsByAccession(chromosome.getInsdcAccession(), "md5", "trunc512");
+        // Not rewritten, so the alias deleted above is still missing
+        assertEquals(CHROMOSOMES * SequenceAliasUpdater.CONVENTION_COLUMNS.size() - 1, countAliases());
+    }
+
+    @Test
+    void reconcileOutOfLineAliases() {
+        // Leaves out what other tests wrote without going through the services
+        sequenceAliasUpdater.reconcileAliases();
+        ChromosomeEntity chromosome = assembly.getChromosomes().get(0);
+        jdbcTemplate.update("DELETE FROM sequence_alias WHERE alias = ?", chromosome.getUcscName());
+        jdbcTemplate.update("INSERT INTO sequence_alias (alias, convention, assembly_insdc_accession, insdc_accession) " +
+                                    "VALUES ('stale', 'ucsc', ?, ?)", assembly.getInsdcAccession(),
+                            chromosome.getInsdcAccession());
+
+        assertEquals(1, sequenceAliasUpdater.reconcileAliases());
+        assertEquals(CHROMOSOMES * SequenceAliasUpdater.CONVENTION_COLUMNS.size(), countAliases());
+        assertFoundByAnyName(chromosome.getUcscName(), chromosome);
+        assertEquals(0, chromosomeService.searchChromosomeByName("stale", null, null, Pageable.unpaged())
+                                         .getTotalElements());
+        assertEquals(0, sequenceAliasUpdater.reconcileAliases());
+    }
+
+    @Test
+    void aliasesFollowDeletion() {
+        assemblyService.deleteEntriesForAssembly(assembly.getInsdcAccession());
+        assertEquals(0, countAliases());
+    }
+
+    @Test
+    void updateAliasesByRefseq() {
+        sequenceAliasUpdater.deleteAliases(assembly.getInsdcAccession());
+        assertEquals(CHROMOSOMES * SequenceAliasUpdater.CONVENTION_COLUMNS.size(),
+                     sequenceAliasUpdater.updateAliases(assembly.getRefseq()));
+    }
+
+    private void assertFoundByAnyName(String name, ChromosomeEntity chromosome) {
+        Page<ChromosomeEntity> page = chromosomeService.searchChromosomeByName(name, null,
+                                                                               assembly.getInsdcAccession(),
+                                                                               Pageable.unpaged());
+        assertEquals(1, page.getTotalElements());
+        assertEquals(chromosome.getInsdcAccession(), page.getContent().get(0).getInsdcAccession());
+    }
+
+    private int countAliases() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sequence_alias WHERE assembly_insdc_accession = ?",
+                                           Integer.class, assembly.getInsdcAccession());
+    }
+
+}
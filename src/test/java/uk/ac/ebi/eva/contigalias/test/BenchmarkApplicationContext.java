@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.contigalias.test;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import uk.ac.ebi.eva.contigalias.ContigAliasApplication;
+import uk.ac.ebi.eva.contigalias.dus.NCBIAssemblyReportReader;
+import uk.ac.ebi.eva.contigalias.entities.AssemblyEntity;
+import uk.ac.ebi.eva.contigalias.entities.ChromosomeEntity;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers shared by the JMH benchmarks, which run outside of the Spring test framework.
+ */
+public class BenchmarkApplicationContext {
+
+    public static final Path ASSEMBLY_REPORT_PATH = Paths.get(
+            "src/test/resources/GCA_000003055.3_Bos_taurus_UMD_3.1_assembly_report.txt");
+
+    public static final Path SEQUENCE_REPORT_PATH = Paths.get("src/test/resources/GCA_000003055.3_sequence_report.txt");
+
+    /**
+     * Starts the application with the "test" profile (in-memory H2) on a random port.
+     */
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ContigAliasApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+    }
+
+    public static AssemblyEntity readAssembly() throws IOException {
+        return NCBIAssemblyReportReader.getAssemblyEntity(readLines(ASSEMBLY_REPORT_PATH, true));
+    }
+
+    /**
+     * @return All sequences of the bundled NCBI assembly report, attached to the given assembly.
+     */
+    public static List<ChromosomeEntity> readChromosomes(AssemblyEntity assembly) throws IOException {
+        List<ChromosomeEntity> chromosomes = NCBIAssemblyReportReader.getChromosomeEntity(
+                readLines(ASSEMBLY_REPORT_PATH, false));
+        chromosomes.forEach(chromosome -> chromosome.setAssembly(assembly));
+        return chromosomes;
+    }
+
+    public static List<String> readLines(Path report, boolean header) throws IOException {
+        return Files.lines(report)
+                    .filter(line -> line.startsWith("#") == header)
+                    .collect(Collectors.toList());
+    }
+
+}